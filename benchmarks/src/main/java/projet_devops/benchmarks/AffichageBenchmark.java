@@ -0,0 +1,76 @@
+package projet_devops.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import projet_devops.Affichage;
+import projet_devops.DataFrame;
+
+/**
+ * Benchmark du rendu d'un DataFrame complet sous forme de tableau, vers une sortie qui ignore les caractères
+ * (seul le coût de formatage est mesuré)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AffichageBenchmark {
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"INTEGER", "DOUBLE"})
+    public SyntheticData.ColumnType type;
+
+    private DataFrame df;
+    private Affichage affichage;
+    private CountingWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        df = SyntheticData.frame(rows, type, 0.1);
+        affichage = new Affichage();
+        writer = new CountingWriter();
+    }
+
+    @Benchmark
+    public long afficher() throws IOException {
+        affichage.afficher(df, writer);
+        return writer.count;
+    }
+
+    /**
+     * Sortie comptant les caractères reçus sans les conserver
+     */
+    private static final class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public Writer append(CharSequence sequence) {
+            count += sequence.length();
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package projet_devops.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import projet_devops.CsvBatchIterator;
+import projet_devops.DataFrame;
+import projet_devops.LazyFrame;
+
+/**
+ * Benchmarks de la lecture de fichiers CSV
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvLoadBenchmark {
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"INTEGER", "DOUBLE", "STRING"})
+    public SyntheticData.ColumnType type;
+
+    @Param({"0.0", "0.1"})
+    public double nullRatio;
+
+    /**
+     * Fichier CSV généré pour la combinaison de paramètres
+     */
+    private Path file;
+    /**
+     * Même contenu enregistré au format binaire en colonnes
+     */
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = SyntheticData.csv(rows, type, nullRatio);
+        binaryFile = Files.createTempFile("benchmark", ".bin");
+        DataFrame.fromCSV(file.toString()).save(binaryFile.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(binaryFile);
+    }
+
+    @Benchmark
+    public DataFrame fromCSV() throws IOException {
+        return DataFrame.fromCSV(file.toString());
+    }
+
+    @Benchmark
+    public DataFrame fromCSVParallel() throws IOException {
+        return DataFrame.fromCSV(file.toString(), Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public DataFrame loadBinary() throws IOException {
+        return DataFrame.load(binaryFile.toString());
+    }
+
+    @Benchmark
+    public long scanBatches() throws IOException {
+        // Lots de 10 000 lignes : seul le lot courant est en mémoire
+        long count = 0;
+        try (CsvBatchIterator batches = DataFrame.scanCSV(file.toString(), 10_000)) {
+            while (batches.hasNext()) {
+                count += batches.next().getRowCount();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public DataFrame lazyScanFilterSelect() throws IOException {
+        // Une seule colonne lue, une ligne sur 50 retenue
+        return LazyFrame.scanCSV(file.toString())
+                .filter("label", "==", "label7")
+                .select("label")
+                .collect();
+    }
+}
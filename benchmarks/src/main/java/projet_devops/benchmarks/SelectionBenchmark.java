@@ -0,0 +1,153 @@
+package projet_devops.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import projet_devops.DataColumn;
+import projet_devops.DataFrame;
+import projet_devops.JoinType;
+import projet_devops.RowMask;
+import projet_devops.Selection;
+
+/**
+ * Benchmarks des opérations de sélection, d'évaluation et de filtrage
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SelectionBenchmark {
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"INTEGER", "DOUBLE"})
+    public SyntheticData.ColumnType type;
+
+    @Param({"0.0", "0.1"})
+    public double nullRatio;
+
+    private DataFrame df;
+    private Selection selection;
+    private Object threshold;
+    private RowMask mask;
+    private DataFrame indexed;
+    private Object key;
+    private Object upperKey;
+    private DataFrame labels;
+    /**
+     * Copie de df dont les colonnes numériques sont compressées
+     */
+    private DataFrame compressed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        df = SyntheticData.frame(rows, type, nullRatio);
+        selection = new Selection();
+        // Seuil proche de la médiane : environ la moitié des lignes est retenue
+        threshold = type == SyntheticData.ColumnType.INTEGER ? (Object) 500_000 : (Object) 500.0;
+        mask = selection.createBooleanMask(df, "a", ">", threshold);
+        compressed = df.compress();
+
+        indexed = SyntheticData.frame(rows, type, nullRatio);
+        indexed.getColumn("a").createHashIndex();
+        indexed.getColumn("a").createSortedIndex();
+        DataColumn<?> a = df.getColumn("a");
+        int row = 0;
+        while (a.isNull(row)) {
+            row++;
+        }
+        // Recherche ponctuelle d'une valeur existante, et intervalle couvrant environ 0,1 % des valeurs
+        key = a.get(row);
+        upperKey = type == SyntheticData.ColumnType.INTEGER ? (Object) ((Integer) key + 1000) : (Object) ((Double) key + 1.0);
+
+        // Petite table de dimension : une ligne par label
+        labels = new DataFrame();
+        DataColumn<String> label = new DataColumn<>("label", String.class);
+        DataColumn<Integer> rank = new DataColumn<>("rang", Integer.class);
+        for (int i = 0; i < 50; i++) {
+            label.add("label" + i);
+            rank.add(i);
+        }
+        labels.addColumn(label);
+        labels.addColumn(rank);
+    }
+
+    @Benchmark
+    public DataColumn<?> evalConstant() {
+        return selection.eval(df, "a * 2");
+    }
+
+    @Benchmark
+    public DataColumn<?> evalColumns() {
+        return selection.eval(df, "a + b");
+    }
+
+    @Benchmark
+    public DataColumn<?> evalExpression() {
+        return selection.eval(df, "(a * 2 + b) / 3 - abs(a - b) + max(a, b) * 0.5");
+    }
+
+    @Benchmark
+    public RowMask createBooleanMask() {
+        return selection.createBooleanMask(df, "a", ">", threshold);
+    }
+
+    @Benchmark
+    public RowMask createBooleanMaskCompressed() {
+        return selection.createBooleanMask(compressed, "a", ">", threshold);
+    }
+
+    @Benchmark
+    public RowMask indexedEquality() {
+        return selection.createBooleanMask(indexed, "a", "==", key);
+    }
+
+    @Benchmark
+    public RowMask scanEquality() {
+        return selection.createBooleanMask(df, "a", "==", key);
+    }
+
+    @Benchmark
+    public RowMask indexedRange() {
+        return selection.createRangeMask(indexed, "a", key, upperKey);
+    }
+
+    @Benchmark
+    public int combineMasks() {
+        return mask.and(selection.createBooleanMask(df, "b", "<", threshold)).cardinality();
+    }
+
+    @Benchmark
+    public DataFrame filterByMask() {
+        return selection.filterByMask(df, mask);
+    }
+
+    @Benchmark
+    public DataFrame joinLabels() {
+        return df.join(labels, JoinType.INNER, "label");
+    }
+
+    @Benchmark
+    public DataFrame sortBy() {
+        return df.sortBy("a", true);
+    }
+
+    @Benchmark
+    public int[] argsortLabelThenA() {
+        return df.argsort(Arrays.asList("label", "a"), new boolean[] {true, false}, false);
+    }
+
+    @Benchmark
+    public DataFrame selectLines() {
+        return selection.selectLines(df, rows / 4, rows / 2);
+    }
+}
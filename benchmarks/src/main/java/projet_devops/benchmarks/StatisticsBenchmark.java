@@ -0,0 +1,114 @@
+package projet_devops.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import projet_devops.Aggregation;
+import projet_devops.DataColumn;
+import projet_devops.DataFrame;
+import projet_devops.DataFrameStatistics;
+
+/**
+ * Benchmarks des statistiques sur une colonne numérique
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatisticsBenchmark {
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"INTEGER", "DOUBLE"})
+    public SyntheticData.ColumnType type;
+
+    @Param({"0.0", "0.1"})
+    public double nullRatio;
+
+    private DataFrame df;
+    /**
+     * Copie de df stockée hors du tas Java
+     */
+    private DataFrame offHeap;
+    /**
+     * Copie de df dont les colonnes numériques sont compressées
+     */
+    private DataFrame compressed;
+    private DataColumn<?> column;
+    private DataFrameStatistics stats;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        df = SyntheticData.frame(rows, type, nullRatio);
+        column = df.getColumn("a");
+        stats = new DataFrameStatistics();
+        offHeap = df.toOffHeap();
+        compressed = df.compress();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offHeap.close();
+    }
+
+    @Benchmark
+    public Double mean() {
+        return stats.mean(column);
+    }
+
+    @Benchmark
+    public Double meanUncached() {
+        // Une tranche n'hérite pas des statistiques en cache : la colonne est parcourue (en parallèle au-delà du seuil)
+        return stats.mean(column.slice(0, column.size()));
+    }
+
+    @Benchmark
+    public Double meanUncachedCompressed() {
+        DataColumn<?> a = compressed.getColumn("a");
+        return stats.mean(a.slice(0, a.size()));
+    }
+
+    @Benchmark
+    public Double median() {
+        return stats.median(column);
+    }
+
+    @Benchmark
+    public double[] quartiles() {
+        return stats.quantiles(column, new double[] {0.25, 0.5, 0.75});
+    }
+
+    @Benchmark
+    public Double min() {
+        return stats.min(column);
+    }
+
+    @Benchmark
+    public Double max() {
+        return stats.max(column);
+    }
+
+    @Benchmark
+    public Double standardDeviation() {
+        return stats.standardDeviation(column);
+    }
+
+    @Benchmark
+    public DataFrame groupByLabel() {
+        return df.groupBy("label").agg("a", Aggregation.SUM, Aggregation.MEAN, Aggregation.STD);
+    }
+
+    @Benchmark
+    public DataFrame groupByLabelOffHeap() {
+        return offHeap.groupBy("label").agg("a", Aggregation.SUM, Aggregation.MEAN, Aggregation.STD);
+    }
+}
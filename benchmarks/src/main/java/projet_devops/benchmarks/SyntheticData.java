@@ -0,0 +1,103 @@
+package projet_devops.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import projet_devops.DataColumn;
+import projet_devops.DataFrame;
+
+/**
+ * Génération de données synthétiques pour les benchmarks
+ * Les données sont déterministes (graine fixe) pour que les résultats soient comparables entre versions
+ */
+public final class SyntheticData {
+    /** Graine utilisée pour toutes les générations */
+    private static final long SEED = 42L;
+    /** Nombre de valeurs distinctes des colonnes texte */
+    private static final int DISTINCT_LABELS = 50;
+
+    /**
+     * Type des colonnes "a" et "b" générées
+     */
+    public enum ColumnType {
+        INTEGER, DOUBLE, STRING
+    }
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Crée un DataFrame de colonnes "a" et "b" du type demandé et d'une colonne texte "label"
+     * 
+     * @param rows Le nombre de lignes
+     * @param type Le type des colonnes "a" et "b"
+     * @param nullRatio La proportion de valeurs nulles dans "a" et "b"
+     * @return Le DataFrame généré
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static DataFrame frame(int rows, ColumnType type, double nullRatio) {
+        Random random = new Random(SEED);
+        Class<?> dataType = type == ColumnType.INTEGER ? Integer.class : type == ColumnType.DOUBLE ? Double.class : String.class;
+        DataColumn a = new DataColumn<>("a", dataType);
+        DataColumn b = new DataColumn<>("b", dataType);
+        DataColumn<String> label = new DataColumn<>("label", String.class);
+        for (int i = 0; i < rows; i++) {
+            a.add(random.nextDouble() < nullRatio ? null : value(random, type));
+            b.add(random.nextDouble() < nullRatio ? null : value(random, type));
+            label.add("label" + random.nextInt(DISTINCT_LABELS));
+        }
+        DataFrame df = new DataFrame();
+        df.addColumn(a);
+        df.addColumn(b);
+        df.addColumn(label);
+        return df;
+    }
+
+    /**
+     * Écrit dans un fichier CSV temporaire les mêmes données que {@link #frame(int, ColumnType, double)}
+     * 
+     * @param rows Le nombre de lignes
+     * @param type Le type des colonnes "a" et "b"
+     * @param nullRatio La proportion de valeurs vides dans "a" et "b"
+     * @return Le chemin du fichier créé, à supprimer par l'appelant
+     * @throws IOException Si le fichier ne peut pas être écrit
+     */
+    public static Path csv(int rows, ColumnType type, double nullRatio) throws IOException {
+        Random random = new Random(SEED);
+        Path file = Files.createTempFile("benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("a,b,label\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(random.nextDouble() < nullRatio ? "" : String.valueOf(value(random, type)));
+                writer.write(',');
+                writer.write(random.nextDouble() < nullRatio ? "" : String.valueOf(value(random, type)));
+                writer.write(",label");
+                writer.write(Integer.toString(random.nextInt(DISTINCT_LABELS)));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Tire une valeur aléatoire du type demandé
+     * 
+     * @param random Le générateur
+     * @param type Le type de la valeur
+     * @return La valeur générée
+     */
+    private static Object value(Random random, ColumnType type) {
+        switch (type) {
+            case INTEGER:
+                return random.nextInt(1_000_000);
+            case DOUBLE:
+                return random.nextDouble() * 1_000;
+            default:
+                return "text" + random.nextInt(1_000_000);
+        }
+    }
+}
@@ -1,80 +1,225 @@
 package projet_devops;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
 public class Affichage {
 
-    /** Largeur fixe des colonnes pour l'affichage */
-    private static final int COLUMN_WIDTH = 12;
+    /** Nombre de lignes affichées par défaut par afficherFirst et afficherLast */
+    private static final int DEFAULT_ROWS = 5;
+    /** Nombre de lignes examinées pour calculer la largeur des colonnes d'un grand DataFrame */
+    static final int WIDTH_SAMPLE_ROWS = 1000;
+    /** Taille du tampon de caractères écrit d'un seul bloc dans la sortie */
+    private static final int BUFFER_SIZE = 1 << 16;
 
      /**
-     * Affiche l'intégralité du DataFrame sous forme de tableau
-     * 
+     * Affiche l'intégralité du DataFrame sous forme de tableau sur la sortie standard
+     *
      * @param df Le DataFrame à afficher
      */
     public void afficherTout(DataFrame df) {
-        for (String columnName : df.getColumnNames()) {
-            System.out.printf("%-" + COLUMN_WIDTH + "s", columnName);
-            System.out.print(" ");
+        try {
+            afficher(df, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        System.out.println();
+    }
+
+    /**
+     * Écrit le DataFrame sous forme de tableau dans un flux d'octets (encodage par défaut de la plateforme)
+     * Le flux est vidé mais pas fermé
+     *
+     * @param df Le DataFrame à afficher
+     * @param out Le flux de sortie
+     * @throws IOException Si une erreur d'écriture se produit
+     */
+    public void afficher(DataFrame df, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, Charset.defaultCharset());
+        afficher(df, writer);
+        writer.flush();
+    }
 
-        for (int i = 0; i < df.getRowCount(); i++) {
-            for (String columnName : df.getColumnNames()) {
-                System.out.printf("%-" + COLUMN_WIDTH + "s", df.getColumn(columnName).get(i));
-                System.out.print(" ");
+    /**
+     * Écrit le DataFrame sous forme de tableau : une ligne d'en-tête puis une ligne par ligne du DataFrame
+     * Chaque colonne a la largeur de sa plus longue valeur (calculée sur un échantillon de lignes pour un grand DataFrame)
+     * Les lignes sont formatées dans un tampon écrit par blocs, sans conversion des valeurs numériques en objets
+     * Le Writer n'est ni vidé ni fermé
+     *
+     * @param df Le DataFrame à afficher
+     * @param out La sortie
+     * @throws IOException Si une erreur d'écriture se produit
+     */
+    public void afficher(DataFrame df, Writer out) throws IOException {
+        int columnCount = df.getColumnCount();
+        CellWriter[] cells = new CellWriter[columnCount];
+        String[] names = new String[columnCount];
+        int[] widths = new int[columnCount];
+        int maxWidth = 0;
+        for (int col = 0; col < columnCount; col++) {
+            DataColumn<?> column = df.getColumn(col);
+            names[col] = column.getColumnName();
+            cells[col] = CellWriter.of(column);
+            widths[col] = columnWidth(names[col], cells[col], df.getRowCount());
+            maxWidth = Math.max(maxWidth, widths[col]);
+        }
+        char[] padding = new char[maxWidth + 1];
+        Arrays.fill(padding, ' ');
+        String lineSeparator = System.lineSeparator();
+
+        StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+        for (int col = 0; col < columnCount; col++) {
+            buffer.append(names[col]);
+            pad(buffer, padding, widths[col] - names[col].length());
+        }
+        buffer.append(lineSeparator);
+        for (int row = 0; row < df.getRowCount(); row++) {
+            for (int col = 0; col < columnCount; col++) {
+                int start = buffer.length();
+                cells[col].append(buffer, row);
+                pad(buffer, padding, widths[col] - (buffer.length() - start));
             }
-            System.out.println();
+            buffer.append(lineSeparator);
+            if (buffer.length() >= BUFFER_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        out.append(buffer);
+    }
+
+    /**
+     * Ajoute les espaces complétant une cellule, puis l'espace séparant les colonnes
+     */
+    private static void pad(StringBuilder buffer, char[] padding, int missing) {
+        buffer.append(padding, 0, Math.max(0, missing) + 1);
+    }
+
+    /**
+     * Calcule la largeur d'une colonne : la plus longue de son nom et de ses valeurs
+     * Au-delà de WIDTH_SAMPLE_ROWS lignes, seules les premières lignes et des lignes régulièrement espacées sont examinées
+     *
+     * @param name Le nom de la colonne
+     * @param cells Le formatage des valeurs de la colonne
+     * @param rows Le nombre de lignes
+     * @return La largeur en caractères
+     */
+    private static int columnWidth(String name, CellWriter cells, int rows) {
+        StringBuilder cell = new StringBuilder();
+        int width = name.length();
+        int step = rows <= WIDTH_SAMPLE_ROWS ? 1 : rows / WIDTH_SAMPLE_ROWS;
+        for (int row = 0; row < rows; row += row < WIDTH_SAMPLE_ROWS / 2 ? 1 : step) {
+            cell.setLength(0);
+            cells.append(cell, row);
+            width = Math.max(width, cell.length());
         }
+        return width;
     }
 
      /**
      * Affiche les 5 premières lignes du DataFrame
      * Si le DataFrame contient moins de 5 lignes, affiche toutes les lignes disponibles
-     * 
+     *
      * @param df Le DataFrame dont on veut afficher le début
      */
     public void afficherFirst(DataFrame df) {
-        for (String columnName : df.getColumnNames()) {
-            System.out.printf("%-" + COLUMN_WIDTH + "s", columnName);
-            System.out.print(" ");
-        }
-        System.out.println();
-      
-        int max=5;
-        if (df.getRowCount() < 5) {
-            max = df.getRowCount();
-        }
-        for (int i = 0; i < max; i++) {
-            for (String columnName : df.getColumnNames()) {
-                System.out.printf("%-" + COLUMN_WIDTH + "s", df.getColumn(columnName).get(i));
-                System.out.print(" ");
-            }
-            System.out.println();
-        }
+        head(df, DEFAULT_ROWS);
     }
 
      /**
      * Affiche les 5 dernières lignes du DataFrame
      * Si le DataFrame contient moins de 5 lignes, affiche toutes les lignes disponibles
-     * 
+     *
      * @param df Le DataFrame dont on veut afficher la fin
      */
     public void afficherLast(DataFrame df) {
-        for (String columnName : df.getColumnNames()) {
-            System.out.printf("%-" + COLUMN_WIDTH + "s", columnName);
-            System.out.print(" ");
+        tail(df, DEFAULT_ROWS);
+    }
+
+    /**
+     * Affiche les n premières lignes du DataFrame (toutes s'il en contient moins)
+     *
+     * @param df Le DataFrame dont on veut afficher le début
+     * @param n Le nombre de lignes à afficher
+     * @throws IllegalArgumentException Si n est négatif
+     */
+    public void head(DataFrame df, int n) {
+        afficherTout(df.slice(0, rowsToShow(df, n)));
+    }
+
+    /**
+     * Affiche les n dernières lignes du DataFrame (toutes s'il en contient moins)
+     *
+     * @param df Le DataFrame dont on veut afficher la fin
+     * @param n Le nombre de lignes à afficher
+     * @throws IllegalArgumentException Si n est négatif
+     */
+    public void tail(DataFrame df, int n) {
+        afficherTout(df.slice(df.getRowCount() - rowsToShow(df, n), df.getRowCount()));
+    }
+
+    private static int rowsToShow(DataFrame df, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Le nombre de lignes à afficher doit être positif");
+        }
+        return Math.min(n, df.getRowCount());
+    }
+
+    /**
+     * Écriture du texte d'une cellule, sans passer par un objet pour les colonnes numériques
+     * Le texte est celui de String.valueOf (null pour une valeur nulle)
+     */
+    private abstract static class CellWriter {
+        final ColumnStorage storage;
+
+        CellWriter(ColumnStorage storage) {
+            this.storage = storage;
         }
-        System.out.println();
 
-        int max=5;
-        if (df.getRowCount() < 5) {
-            max = df.getRowCount();
+        static CellWriter of(DataColumn<?> column) {
+            ColumnStorage storage = column.getStorage();
+            if (column.getDataType() == Integer.class) {
+                return new CellWriter(storage) {
+                    @Override
+                    void appendValue(StringBuilder buffer, int row) {
+                        buffer.append(storage.getInt(row));
+                    }
+                };
+            } else if (column.getDataType() == Long.class) {
+                return new CellWriter(storage) {
+                    @Override
+                    void appendValue(StringBuilder buffer, int row) {
+                        buffer.append(storage.getLong(row));
+                    }
+                };
+            } else if (column.getDataType() == Double.class) {
+                return new CellWriter(storage) {
+                    @Override
+                    void appendValue(StringBuilder buffer, int row) {
+                        buffer.append(storage.getDouble(row));
+                    }
+                };
+            }
+            return new CellWriter(storage) {
+                @Override
+                void appendValue(StringBuilder buffer, int row) {
+                    buffer.append(storage.get(row));
+                }
+            };
         }
-        for (int i = df.getRowCount() - max; i < df.getRowCount(); i++) {
-            for (String columnName : df.getColumnNames()) {
-                System.out.printf("%-" + COLUMN_WIDTH + "s", df.getColumn(columnName).get(i));
-                System.out.print(" ");
+
+        void append(StringBuilder buffer, int row) {
+            if (storage.isNull(row)) {
+                buffer.append("null");
+            } else {
+                appendValue(buffer, row);
             }
-            System.out.println();
         }
+
+        abstract void appendValue(StringBuilder buffer, int row);
     }
 }
@@ -0,0 +1,50 @@
+package projet_devops;
+
+/**
+ * Fonctions d'agrégation d'une colonne numérique par groupe ({@link GroupBy})
+ * Les valeurs nulles sont ignorées ; la colonne résultat est nommée "colonne_fonction" (ex: salaire_mean)
+ */
+public enum Aggregation {
+    /**
+     * Nombre de valeurs non nulles (colonne Long)
+     */
+    COUNT("count"),
+    /**
+     * Somme des valeurs (0 si le groupe n'a aucune valeur)
+     */
+    SUM("sum"),
+    /**
+     * Moyenne des valeurs
+     */
+    MEAN("mean"),
+    /**
+     * Plus petite valeur
+     */
+    MIN("min"),
+    /**
+     * Plus grande valeur
+     */
+    MAX("max"),
+    /**
+     * Écart-type de population (comme {@link DataFrameStatistics#standardDeviation})
+     */
+    STD("std");
+
+    /**
+     * Nom de la fonction, utilisé comme suffixe de la colonne résultat
+     */
+    private final String name;
+
+    Aggregation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retourne le nom de la fonction
+     *
+     * @return Le nom en minuscules (count, sum, mean, min, max, std)
+     */
+    public String getName() {
+        return name;
+    }
+}
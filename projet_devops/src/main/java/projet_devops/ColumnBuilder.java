@@ -0,0 +1,389 @@
+package projet_devops;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Construit une colonne au fil de la lecture d'un fichier CSV
+ * Le type est déduit des valeurs rencontrées et élargi sur place (Integer -> Long -> Double -> String)
+ * lorsqu'une valeur ne correspond plus au type courant
+ * Lors d'un passage en String, les entiers déjà lus sont réécrits tels quels s'ils étaient écrits sous forme canonique ;
+ * sinon (ex: "007", "10.50") leur texte est perdu et la colonne doit être relue par {@link #rereadText}
+ * Les colonnes String sont encodées par dictionnaire tant que leur cardinalité reste faible
+ * (voir {@link DictionaryColumnStorage#exceedsLimit()}), puis stockées comme une simple liste de chaînes
+ */
+class ColumnBuilder {
+    /**
+     * Nom de la colonne construite
+     */
+    private final String columnName;
+    /**
+     * Type courant de la colonne
+     */
+    private Class<?> dataType;
+    /**
+     * Stockage en cours de remplissage
+     */
+    private ColumnStorage storage;
+    /**
+     * Indique si tous les nombres lus étaient des entiers écrits sous forme canonique,
+     * c'est-à-dire si leur réécriture en String redonne exactement le texte du fichier
+     */
+    private boolean canonicalText = true;
+    /**
+     * Indique si la colonne est passée en String alors que le texte des nombres déjà lus ne peut pas être reconstitué
+     */
+    private boolean textLost;
+    /**
+     * Indique si le type est imposé : une valeur qui ne lui correspond pas est alors refusée au lieu d'élargir le type
+     */
+    private final boolean fixedType;
+
+    /**
+     * Constructeur de la classe ColumnBuilder
+     * 
+     * @param columnName Le nom de la colonne
+     */
+    ColumnBuilder(String columnName) {
+        this(columnName, Integer.class);
+    }
+
+    /**
+     * Constructeur de la classe ColumnBuilder partant d'un type déjà connu
+     * 
+     * @param columnName Le nom de la colonne
+     * @param initialType Le type de départ (Integer, Long, Double ou String)
+     */
+    ColumnBuilder(String columnName, Class<?> initialType) {
+        this(columnName, initialType, false);
+    }
+
+    /**
+     * Constructeur de la classe ColumnBuilder partant d'un type déjà connu, éventuellement imposé
+     * 
+     * @param columnName Le nom de la colonne
+     * @param initialType Le type de départ (Integer, Long, Double ou String)
+     * @param fixedType true pour refuser les valeurs qui ne correspondent pas au type au lieu de l'élargir
+     */
+    ColumnBuilder(String columnName, Class<?> initialType, boolean fixedType) {
+        this.columnName = columnName;
+        this.dataType = initialType;
+        this.storage = newStorage(initialType);
+        this.fixedType = fixedType;
+    }
+
+    /**
+     * Ajoute la valeur d'un champ de l'enregistrement courant, en élargissant le type si nécessaire
+     * Un champ vide ou absent est ajouté comme null, et seules les valeurs texte sont converties en String
+     * 
+     * @param reader Le lecteur positionné sur l'enregistrement
+     * @param field L'index du champ
+     */
+    void append(CsvReader reader, int field) {
+        if (reader.isEmpty(field)) {
+            storage.addNull();
+            return;
+        }
+        if (dataType == Integer.class) {
+            if (reader.parseLong(field)) {
+                long value = reader.longValue();
+                canonicalText &= reader.isCanonicalLong();
+                if (value == (int) value) {
+                    ((IntColumnStorage) storage).addInt((int) value);
+                    return;
+                }
+                promote(Long.class);
+            } else {
+                promote(reader.parseDouble(field) ? Double.class : String.class);
+            }
+        }
+        if (dataType == Long.class) {
+            if (reader.parseLong(field)) {
+                canonicalText &= reader.isCanonicalLong();
+                ((LongColumnStorage) storage).addLong(reader.longValue());
+                return;
+            }
+            promote(reader.parseDouble(field) ? Double.class : String.class);
+        }
+        if (dataType == Double.class) {
+            if (reader.parseDouble(field)) {
+                canonicalText = false;
+                storage.addDouble(reader.doubleValue());
+                return;
+            }
+            promote(String.class);
+        }
+        storage.add(reader.getString(field));
+        storage = checkCardinality(storage);
+    }
+
+    /**
+     * Élargit un type de colonne pour qu'il accepte la valeur d'un champ, sans rien stocker
+     * La règle est celle de {@link #append} : Integer -> Long -> Double -> String, les champs vides ne changeant rien
+     * 
+     * @param type Le type courant
+     * @param reader Le lecteur positionné sur l'enregistrement
+     * @param field L'index du champ
+     * @return Le type le plus étroit acceptant à la fois les valeurs précédentes et ce champ
+     */
+    static Class<?> widen(Class<?> type, CsvReader reader, int field) {
+        if (type == String.class || reader.isEmpty(field)) {
+            return type;
+        }
+        if (type != Double.class && reader.parseLong(field)) {
+            long value = reader.longValue();
+            return type == Integer.class && value != (int) value ? Long.class : type;
+        }
+        return reader.parseDouble(field) ? Double.class : String.class;
+    }
+
+    /**
+     * Réserve la place d'un nombre de valeurs connu à l'avance, pour éviter les agrandissements successifs
+     * 
+     * @param capacity Le nombre de valeurs attendu
+     */
+    void reserve(int capacity) {
+        if (storage instanceof PrimitiveColumnStorage) {
+            ((PrimitiveColumnStorage) storage).ensureCapacity(capacity);
+        } else if (storage instanceof DictionaryColumnStorage) {
+            ((DictionaryColumnStorage) storage).ensureCapacity(capacity);
+        }
+    }
+
+    /**
+     * Ajoute une valeur nulle
+     */
+    void appendNull() {
+        storage.addNull();
+    }
+
+    /**
+     * Retourne le nombre de valeurs déjà ajoutées
+     * 
+     * @return Le nombre de valeurs
+     */
+    int size() {
+        return storage.size();
+    }
+
+    /**
+     * Retourne le type courant de la colonne
+     * 
+     * @return Le type déduit des valeurs lues jusqu'ici
+     */
+    Class<?> getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Retourne le stockage en cours de remplissage
+     * 
+     * @return Le stockage des valeurs déjà ajoutées
+     */
+    ColumnStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Indique si les nombres lus, réécrits en String, redonnent exactement le texte du fichier
+     * 
+     * @return true si tous les nombres lus étaient des entiers écrits sous forme canonique
+     */
+    boolean hasCanonicalText() {
+        return canonicalText;
+    }
+
+    /**
+     * Indique si les valeurs lues avant le passage en String doivent être relues dans le fichier
+     * 
+     * @return true si la colonne est passée en String après des nombres dont l'écriture n'était pas canonique
+     */
+    boolean isTextLost() {
+        return textLost;
+    }
+
+    /**
+     * Relit les colonnes dont le texte a été perdu lors du passage en String ({@link #isTextLost()})
+     * Chaque colonne concernée est reconstruite en String dès le départ, à partir des mêmes enregistrements
+     * 
+     * @param path Le chemin du fichier CSV
+     * @param dataStart La position du premier enregistrement lu par les colonnes
+     * @param builders Les colonnes construites par la première lecture, remplacées si nécessaire
+     * @param fields L'index du champ lu par chaque colonne
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    static void rereadText(Path path, long dataStart, ColumnBuilder[] builders, int[] fields) throws IOException {
+        ColumnBuilder[] rereads = new ColumnBuilder[builders.length];
+        boolean any = false;
+        for (int i = 0; i < builders.length; i++) {
+            if (builders[i].textLost) {
+                rereads[i] = new ColumnBuilder(builders[i].columnName, String.class);
+                rereads[i].reserve(builders[i].size());
+                any = true;
+            }
+        }
+        if (!any) {
+            return;
+        }
+        int rows = builders[0].size();
+        try (CsvReader reader = new CsvReader(path, dataStart, Long.MAX_VALUE)) {
+            for (int row = 0; row < rows && reader.nextRecord(); row++) {
+                for (int i = 0; i < rereads.length; i++) {
+                    if (rereads[i] != null) {
+                        rereads[i].append(reader, fields[i]);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < builders.length; i++) {
+            if (rereads[i] != null) {
+                builders[i] = rereads[i];
+            }
+        }
+    }
+
+    /**
+     * Ordonne les types d'une colonne du plus étroit au plus large
+     * 
+     * @param type Le type de la colonne
+     * @return Le rang du type (0 pour Integer, 3 pour String)
+     */
+    static int typeRank(Class<?> type) {
+        if (type == Integer.class) {
+            return 0;
+        } else if (type == Long.class) {
+            return 1;
+        } else if (type == Double.class) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Termine la construction et retourne la colonne
+     * Les tableaux primitifs sont ramenés à la taille exacte des données
+     * 
+     * @return La colonne construite
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    DataColumn<?> build() {
+        if (storage instanceof PrimitiveColumnStorage) {
+            ((PrimitiveColumnStorage) storage).trimToSize();
+        } else if (storage instanceof DictionaryColumnStorage) {
+            ((DictionaryColumnStorage) storage).trimToSize();
+        }
+        return new DataColumn(columnName, dataType, storage);
+    }
+
+    /**
+     * Élargit le type de la colonne en convertissant les valeurs déjà stockées
+     * 
+     * @param newType Le nouveau type (plus large que le type courant)
+     * @throws IllegalArgumentException Si le type de la colonne est imposé
+     */
+    void promote(Class<?> newType) {
+        if (fixedType) {
+            throw new IllegalArgumentException("Valeur incompatible avec le type " + dataType.getSimpleName()
+                    + " de la colonne " + columnName);
+        }
+        if (newType == String.class) {
+            textLost = !canonicalText;
+        }
+        storage = convert(storage, dataType, newType);
+        dataType = newType;
+    }
+
+    /**
+     * Convertit un stockage vers un type plus large
+     * 
+     * @param source Le stockage à convertir
+     * @param sourceType Le type du stockage source
+     * @param targetType Le type cible
+     * @return Un nouveau stockage contenant les mêmes valeurs (ou source si les types sont égaux)
+     */
+    static ColumnStorage convert(ColumnStorage source, Class<?> sourceType, Class<?> targetType) {
+        if (sourceType == targetType) {
+            return source;
+        }
+        int size = source.size();
+        if (targetType == Long.class) {
+            LongColumnStorage target = new LongColumnStorage();
+            target.ensureCapacity(size);
+            for (int i = 0; i < size; i++) {
+                target.data[i] = source.getLong(i);
+            }
+            return withNulls(target, (PrimitiveColumnStorage) source);
+        }
+        if (targetType == Double.class) {
+            DoubleColumnStorage target = new DoubleColumnStorage();
+            target.ensureCapacity(size);
+            for (int i = 0; i < size; i++) {
+                target.data[i] = source.getDouble(i);
+            }
+            return withNulls(target, (PrimitiveColumnStorage) source);
+        }
+        DictionaryColumnStorage target = new DictionaryColumnStorage();
+        target.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            target.add(source.isNull(i) ? null : formatNumber(source, sourceType, i));
+        }
+        return checkCardinality(target);
+    }
+
+    /**
+     * Crée un stockage vide pour un type de colonne lue dans un fichier
+     * 
+     * @param type Le type de la colonne
+     * @return Un stockage encodé par dictionnaire pour String, le stockage habituel sinon
+     */
+    static ColumnStorage newStorage(Class<?> type) {
+        return type == String.class ? new DictionaryColumnStorage() : ColumnStorage.create(type);
+    }
+
+    /**
+     * Abandonne l'encodage par dictionnaire d'un stockage qui a trop de valeurs distinctes
+     * 
+     * @param storage Le stockage à vérifier
+     * @return Le stockage lui-même, ou sa conversion en liste de chaînes si son dictionnaire est trop grand
+     */
+    static ColumnStorage checkCardinality(ColumnStorage storage) {
+        if (storage instanceof DictionaryColumnStorage && ((DictionaryColumnStorage) storage).exceedsLimit()) {
+            return ((DictionaryColumnStorage) storage).toObjectStorage();
+        }
+        return storage;
+    }
+
+    /**
+     * Reporte la taille et le bitmap des nulls d'un stockage primitif sur un autre
+     * 
+     * @param target Le stockage cible, dont les valeurs sont déjà copiées
+     * @param source Le stockage d'origine
+     * @return Le stockage cible
+     */
+    private static ColumnStorage withNulls(PrimitiveColumnStorage target, PrimitiveColumnStorage source) {
+        target.size = source.size;
+        target.nulls = source.nulls;
+        return target;
+    }
+
+    /**
+     * Retourne la forme canonique d'un nombre stocké, utilisée lors d'un passage en String
+     * Elle redonne le texte du fichier pour un entier écrit sous forme canonique ; dans les autres cas,
+     * la valeur ne sert qu'en attendant la relecture de la colonne ({@link #rereadText})
+     * 
+     * @param storage Le stockage numérique
+     * @param type Le type du stockage
+     * @param index L'index de la valeur (non nulle)
+     * @return La valeur écrite sous forme de chaîne
+     */
+    static String formatNumber(ColumnStorage storage, Class<?> type, int index) {
+        if (type != Double.class) {
+            return Long.toString(storage.getLong(index));
+        }
+        double value = storage.getDouble(index);
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
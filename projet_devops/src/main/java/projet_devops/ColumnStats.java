@@ -0,0 +1,294 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Statistiques d'une colonne numérique calculées en une seule passe
+ * (effectif, nombre de nulls, somme, minimum, maximum et somme des carrés des écarts selon Welford)
+ * Deux blocs calculés sur des parties différentes d'une colonne peuvent être fusionnés
+ * Au-delà de {@link #PARALLEL_THRESHOLD} valeurs, la colonne est découpée en portions dont les statistiques
+ * sont calculées en parallèle (ForkJoinPool commun) puis fusionnées
+ */
+final class ColumnStats {
+    /**
+     * Nombre de valeurs à partir duquel les statistiques sont calculées en parallèle
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+    /**
+     * Taille maximale d'une portion parcourue par une seule tâche
+     */
+    static final int CHUNK_SIZE = 1 << 15;
+
+    /**
+     * Nombre de valeurs non nulles
+     */
+    private long count;
+    /**
+     * Nombre de valeurs nulles
+     */
+    private long nullCount;
+    /**
+     * Somme des valeurs
+     */
+    private double sum;
+    /**
+     * Plus petite valeur
+     */
+    private double min = Double.POSITIVE_INFINITY;
+    /**
+     * Plus grande valeur
+     */
+    private double max = Double.NEGATIVE_INFINITY;
+    /**
+     * Moyenne courante (algorithme de Welford)
+     */
+    private double runningMean;
+    /**
+     * Somme des carrés des écarts à la moyenne (algorithme de Welford)
+     */
+    private double m2;
+
+    /**
+     * Calcule les statistiques d'une partie d'un stockage numérique
+     * En dessous de PARALLEL_THRESHOLD valeurs (ou sans parallélisme disponible), la partie est parcourue séquentiellement
+     * 
+     * @param storage Le stockage à parcourir
+     * @param from L'index de la première valeur
+     * @param to L'index suivant la dernière valeur
+     * @return Les statistiques des valeurs comprises entre from et to
+     */
+    static ColumnStats of(ColumnStorage storage, int from, int to) {
+        if (to - from < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            return scan(storage, from, to);
+        }
+        return ForkJoinPool.commonPool().invoke(new StatsTask(storage, from, to));
+    }
+
+    /**
+     * Calcule séquentiellement les statistiques d'une partie d'un stockage numérique
+     * Les valeurs sont copiées par blocs dans un tableau double[] avant d'être accumulées ;
+     * un stockage compressé (ou une tranche d'un tel stockage) calcule lui-même les statistiques sur ses blocs encodés
+     * 
+     * @param storage Le stockage à parcourir
+     * @param from L'index de la première valeur
+     * @param to L'index suivant la dernière valeur
+     * @return Les statistiques des valeurs comprises entre from et to
+     */
+    static ColumnStats scan(ColumnStorage storage, int from, int to) {
+        if (storage instanceof EncodedColumnStorage) {
+            return ((EncodedColumnStorage) storage).stats(from, to);
+        }
+        if (storage instanceof SliceColumnStorage && ((SliceColumnStorage) storage).parent() instanceof EncodedColumnStorage) {
+            SliceColumnStorage slice = (SliceColumnStorage) storage;
+            return ((EncodedColumnStorage) slice.parent()).stats(slice.offset() + from, slice.offset() + to);
+        }
+        ColumnStats stats = new ColumnStats();
+        int batch = Math.max(0, Math.min(Expression.BATCH_SIZE, to - from));
+        double[] values = new double[batch];
+        boolean[] nulls = new boolean[batch];
+        for (int start = from; start < to; start += batch) {
+            int length = Math.min(batch, to - start);
+            storage.getDoubles(start, values, length);
+            Arrays.fill(nulls, 0, length, false);
+            storage.markNulls(start, nulls, length);
+            for (int i = 0; i < length; i++) {
+                if (nulls[i]) {
+                    stats.nullCount++;
+                } else {
+                    stats.accept(values[i]);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Ajoute une valeur non nulle
+     * 
+     * @param value La valeur à ajouter
+     */
+    void accept(double value) {
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        double delta = value - runningMean;
+        runningMean += delta / count;
+        m2 += delta * (value - runningMean);
+    }
+
+    /**
+     * Ajoute plusieurs fois la même valeur non nulle, en une seule opération (plage d'une colonne compressée)
+     * 
+     * @param value La valeur à ajouter
+     * @param times Le nombre de fois où elle apparaît
+     */
+    void acceptRun(double value, long times) {
+        if (count == 0) {
+            count = times;
+            sum = value * times;
+            min = value;
+            max = value;
+            runningMean = value;
+            return;
+        }
+        long total = count + times;
+        double delta = value - runningMean;
+        m2 += delta * delta * ((double) count * times / total);
+        runningMean += delta * times / total;
+        count = total;
+        sum += value * times;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Ajoute une valeur nulle
+     */
+    void acceptNull() {
+        nullCount++;
+    }
+
+    /**
+     * Fusionne les statistiques d'une autre partie de la colonne (formule de Chan)
+     * 
+     * @param other Les statistiques à intégrer
+     */
+    void merge(ColumnStats other) {
+        nullCount += other.nullCount;
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            min = other.min;
+            max = other.max;
+            runningMean = other.runningMean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.runningMean - runningMean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        runningMean += delta * other.count / total;
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Retourne le nombre de valeurs non nulles
+     * 
+     * @return L'effectif
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Retourne le nombre de valeurs nulles
+     * 
+     * @return Le nombre de nulls
+     */
+    long getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * Retourne la somme des valeurs
+     * 
+     * @return La somme
+     */
+    double getSum() {
+        return sum;
+    }
+
+    /**
+     * Retourne la moyenne
+     * 
+     * @return La moyenne ou null si aucune valeur n'est présente
+     */
+    Double getMean() {
+        return count > 0 ? sum / count : null;
+    }
+
+    /**
+     * Retourne la variance (de population, divisée par l'effectif)
+     * 
+     * @return La variance ou null si aucune valeur n'est présente
+     */
+    Double getVariance() {
+        return count > 0 ? m2 / count : null;
+    }
+
+    /**
+     * Retourne l'écart-type (de population)
+     * 
+     * @return L'écart-type ou null si aucune valeur n'est présente
+     */
+    Double getStandardDeviation() {
+        return count > 0 ? Math.sqrt(m2 / count) : null;
+    }
+
+    /**
+     * Retourne la plus petite valeur
+     * 
+     * @return Le minimum ou null si aucune valeur n'est présente
+     */
+    Double getMin() {
+        return count > 0 ? min : null;
+    }
+
+    /**
+     * Retourne la plus grande valeur
+     * 
+     * @return Le maximum ou null si aucune valeur n'est présente
+     */
+    Double getMax() {
+        return count > 0 ? max : null;
+    }
+
+    /**
+     * Calcul des statistiques d'une partie de colonne, coupée en deux tant qu'elle dépasse CHUNK_SIZE valeurs
+     * Les deux moitiés sont toujours fusionnées dans le même ordre : le résultat ne dépend pas de l'ordonnancement
+     */
+    private static final class StatsTask extends RecursiveTask<ColumnStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnStorage storage;
+        private final int from;
+        private final int to;
+
+        StatsTask(ColumnStorage storage, int from, int to) {
+            this.storage = storage;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ColumnStats compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return scan(storage, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            StatsTask left = new StatsTask(storage, from, middle);
+            left.fork();
+            ColumnStats right = new StatsTask(storage, middle, to).compute();
+            ColumnStats result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
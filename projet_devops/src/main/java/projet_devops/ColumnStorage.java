@@ -0,0 +1,237 @@
+package projet_devops;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Stockage interne des valeurs d'une colonne
+ * Chaque type de données possède son implémentation (tableau primitif ou liste d'objets)
+ */
+abstract class ColumnStorage {
+
+    /**
+     * Crée le stockage adapté au type de données de la colonne
+     * 
+     * @param dataType Le type de données de la colonne
+     * @return Un stockage vide pour ce type
+     */
+    static ColumnStorage create(Class<?> dataType) {
+        if (dataType == Integer.class) {
+            return new IntColumnStorage();
+        } else if (dataType == Long.class) {
+            return new LongColumnStorage();
+        } else if (dataType == Double.class) {
+            return new DoubleColumnStorage();
+        }
+        return new ObjectColumnStorage();
+    }
+
+    /**
+     * Retourne le nombre de valeurs stockées
+     * 
+     * @return Le nombre de valeurs
+     */
+    abstract int size();
+
+    /**
+     * Retourne la valeur (éventuellement null) à l'index spécifié
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur, ou null si la case est vide
+     */
+    abstract Object get(int index);
+
+    /**
+     * Indique si la valeur à l'index spécifié est nulle
+     * 
+     * @param index L'index de la valeur
+     * @return true si la valeur est nulle
+     */
+    abstract boolean isNull(int index);
+
+    /**
+     * Ajoute une valeur (éventuellement null) à la fin du stockage
+     * 
+     * @param value La valeur à ajouter
+     */
+    abstract void add(Object value);
+
+    /**
+     * Ajoute une valeur nulle à la fin du stockage
+     */
+    void addNull() {
+        add(null);
+    }
+
+    /**
+     * Copie les valeurs des lignes données, dans l'ordre, vers un nouveau stockage du même type
+     * Un index négatif produit une valeur nulle
+     * 
+     * @param rows Les index des lignes à copier
+     * @param count Le nombre d'index à utiliser dans rows
+     * @return Le nouveau stockage, de taille count
+     */
+    abstract ColumnStorage gather(int[] rows, int count);
+
+    /**
+     * Copie une plage de valeurs vers un nouveau stockage modifiable du même type
+     * 
+     * @param from L'index de la première valeur (inclus)
+     * @param to L'index suivant la dernière valeur
+     * @return Le nouveau stockage, de taille to - from
+     */
+    abstract ColumnStorage copyRange(int from, int to);
+
+    /**
+     * Crée une vue sur une plage de valeurs, sans copie
+     * 
+     * @param from L'index de la première valeur (inclus)
+     * @param to L'index suivant la dernière valeur
+     * @return Un stockage en lecture seule partageant les valeurs de celui-ci
+     */
+    ColumnStorage slice(int from, int to) {
+        return new SliceColumnStorage(this, from, to - from);
+    }
+
+    /**
+     * Indique si le stockage partage ses valeurs avec un autre et ne peut donc pas être modifié
+     * Une colonne copie un tel stockage avant de le modifier
+     * 
+     * @return true si le stockage est en lecture seule
+     */
+    boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Abandonne la mémoire hors tas du stockage, s'il en utilise (voir {@link SegmentedBuffer#release()})
+     * Le stockage n'est plus utilisable ensuite
+     */
+    void release() {
+    }
+
+    /**
+     * Ajoute à la fin du stockage toutes les valeurs d'un autre stockage
+     * 
+     * @param other Le stockage dont les valeurs sont copiées
+     */
+    void appendAll(ColumnStorage other) {
+        for (int i = 0; i < other.size(); i++) {
+            add(other.get(i));
+        }
+    }
+
+    /**
+     * Ajoute à la fin du stockage la valeur non nulle d'une ligne d'un autre stockage du même type de données
+     * Les stockages primitifs la copient sans la convertir en objet
+     *
+     * @param source Le stockage source
+     * @param index L'index de la ligne dans la source
+     */
+    void appendFrom(ColumnStorage source, int index) {
+        add(source.get(index));
+    }
+
+    /**
+     * Retourne la valeur entière à l'index spécifié (0 si la valeur est nulle)
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur entière
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type entier
+     */
+    int getInt(int index) {
+        throw new UnsupportedOperationException("La colonne n'est pas de type Integer");
+    }
+
+    /**
+     * Retourne la valeur entière longue à l'index spécifié (0 si la valeur est nulle)
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur entière longue
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type entier
+     */
+    long getLong(int index) {
+        throw new UnsupportedOperationException("La colonne n'est pas de type entier");
+    }
+
+    /**
+     * Retourne la valeur numérique à l'index spécifié (0 si la valeur est nulle)
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur convertie en double
+     * @throws UnsupportedOperationException Si le stockage n'est pas numérique
+     */
+    double getDouble(int index) {
+        throw new UnsupportedOperationException("La colonne n'est pas numérique");
+    }
+
+    /**
+     * Copie une plage de valeurs numériques dans un tableau (0 pour les valeurs nulles)
+     * 
+     * @param from L'index de la première valeur
+     * @param dest Le tableau de destination, rempli à partir de l'index 0
+     * @param length Le nombre de valeurs à copier
+     * @throws UnsupportedOperationException Si le stockage n'est pas numérique
+     */
+    void getDoubles(int from, double[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[i] = getDouble(from + i);
+        }
+    }
+
+    /**
+     * Marque à true les positions nulles d'une plage de valeurs, sans toucher aux autres
+     * 
+     * @param from L'index de la première valeur
+     * @param dest Le tableau de destination, indexé à partir de 0
+     * @param length Le nombre de valeurs à examiner
+     */
+    void markNulls(int from, boolean[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            if (isNull(from + i)) {
+                dest[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Ajoute une valeur numérique à la fin du stockage
+     * 
+     * @param value La valeur à ajouter
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type Double
+     */
+    void addDouble(double value) {
+        throw new UnsupportedOperationException("La colonne n'est pas de type Double");
+    }
+
+    /**
+     * Expose le tableau int[] sous-jacent en lecture seule, sans copie
+     * 
+     * @return Une vue en lecture seule des valeurs
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type Integer
+     */
+    IntBuffer asIntBuffer() {
+        throw new UnsupportedOperationException("La colonne n'est pas de type Integer");
+    }
+
+    /**
+     * Expose le tableau long[] sous-jacent en lecture seule, sans copie
+     * 
+     * @return Une vue en lecture seule des valeurs
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type Long
+     */
+    LongBuffer asLongBuffer() {
+        throw new UnsupportedOperationException("La colonne n'est pas de type Long");
+    }
+
+    /**
+     * Expose le tableau double[] sous-jacent en lecture seule, sans copie
+     * 
+     * @return Une vue en lecture seule des valeurs
+     * @throws UnsupportedOperationException Si le stockage n'est pas de type Double
+     */
+    DoubleBuffer asDoubleBuffer() {
+        throw new UnsupportedOperationException("La colonne n'est pas de type Double");
+    }
+}
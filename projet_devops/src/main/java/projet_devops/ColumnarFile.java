@@ -0,0 +1,455 @@
+package projet_devops;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Format binaire en colonnes d'un DataFrame ({@link DataFrame#save} et {@link DataFrame#load})
+ *
+ * Disposition du fichier (entiers en petit-boutiste) :
+ * <ul>
+ * <li>en-tête : "PDDF", version, nombre de lignes, nombre de colonnes, taille de la description des colonnes</li>
+ * <li>description de chaque colonne : nom (longueur sur 2 octets puis UTF-8), type, présence de valeurs nulles,
+ * position et taille de son bloc dans le fichier</li>
+ * <li>un bloc par colonne, aligné sur 8 octets : le bitmap des valeurs nulles (s'il y en a), puis les valeurs
+ * (int, long ou double bruts ; pour le texte, les positions des chaînes puis leurs octets UTF-8 ; pour le texte
+ * encodé par dictionnaire, le dictionnaire puis le code de chaque ligne)</li>
+ * </ul>
+ * Au chargement, chaque bloc est projeté en mémoire et lu sans analyse ni copie ; seuls le dictionnaire et les codes
+ * des colonnes encodées sont recopiés dans le tas. Un bloc ne peut pas dépasser 2 Go
+ */
+final class ColumnarFile {
+    /** Octets identifiant le format, au début du fichier */
+    private static final byte[] MAGIC = {'P', 'D', 'D', 'F'};
+    /** Version du format */
+    static final int VERSION = 1;
+    /** Taille de l'en-tête fixe, en octets */
+    private static final int PREAMBLE_SIZE = 20;
+    /** Taille de la description d'une colonne, sans son nom */
+    private static final int ENTRY_SIZE = 2 + 1 + 1 + 8 + 8;
+    /** Ordre des octets des valeurs */
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    /** Taille du tampon d'écriture */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    private static final byte DICTIONARY = 5;
+
+    private ColumnarFile() {
+    }
+
+    /**
+     * Écrit un DataFrame dans un fichier, remplacé s'il existe
+     *
+     * @param df Le DataFrame à écrire
+     * @param path Le chemin du fichier
+     * @throws IOException Si une erreur d'écriture se produit
+     * @throws IllegalArgumentException Si une colonne n'est pas de type Integer, Long, Double ou String,
+     *         si un nom de colonne est trop long ou si une colonne dépasse 2 Go
+     */
+    static void write(DataFrame df, Path path) throws IOException {
+        int columnCount = df.getColumnCount();
+        byte[][] names = new byte[columnCount][];
+        byte[] kinds = new byte[columnCount];
+        long[][] nulls = new long[columnCount][];
+        int headerLength = 0;
+        for (int col = 0; col < columnCount; col++) {
+            DataColumn<?> column = df.getColumn(col);
+            names[col] = column.getColumnName().getBytes(StandardCharsets.UTF_8);
+            if (names[col].length > 0xFFFF) {
+                throw new IllegalArgumentException("Nom de colonne trop long : " + column.getColumnName());
+            }
+            kinds[col] = kindOf(column);
+            nulls[col] = kinds[col] == DICTIONARY ? null : nullBitmap(column.getStorage());
+            headerLength += ENTRY_SIZE + names[col].length;
+        }
+
+        long[] offsets = new long[columnCount];
+        long[] lengths = new long[columnCount];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BlockWriter out = new BlockWriter(channel);
+            out.seek(align(PREAMBLE_SIZE + headerLength));
+            for (int col = 0; col < columnCount; col++) {
+                offsets[col] = out.position();
+                writeBlock(out, df.getColumn(col).getStorage(), kinds[col], nulls[col]);
+                out.align();
+                lengths[col] = out.position() - offsets[col];
+                if (lengths[col] > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Colonne trop volumineuse pour le format binaire : "
+                            + df.getColumn(col).getColumnName());
+                }
+            }
+
+            //========= En-tête, écrit une fois la position des blocs connue =========
+            out.seek(0);
+            out.put(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(df.getRowCount());
+            out.putInt(columnCount);
+            out.putInt(headerLength);
+            for (int col = 0; col < columnCount; col++) {
+                out.putShort((short) names[col].length);
+                out.put(names[col]);
+                out.putByte(kinds[col]);
+                out.putByte((byte) (nulls[col] != null ? 1 : 0));
+                out.putLong(offsets[col]);
+                out.putLong(lengths[col]);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Lit un fichier écrit par {@link #write} ; les colonnes restent adossées à la projection du fichier en mémoire
+     *
+     * @param path Le chemin du fichier
+     * @return Le DataFrame, en lecture seule tant qu'une colonne n'est pas modifiée (elle est alors copiée)
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas un DataFrame binaire valide
+     */
+    static DataFrame read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer preamble = readFully(channel, 0, PREAMBLE_SIZE, path);
+            for (byte b : MAGIC) {
+                if (preamble.get() != b) {
+                    throw new IOException("Le fichier n'est pas un DataFrame binaire : " + path);
+                }
+            }
+            int version = preamble.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version de fichier non supportée : " + version);
+            }
+            int rows = preamble.getInt();
+            int columnCount = preamble.getInt();
+            int headerLength = preamble.getInt();
+            if (rows < 0 || columnCount < 0 || headerLength < 0 || PREAMBLE_SIZE + (long) headerLength > fileSize) {
+                throw new IOException("En-tête invalide : " + path);
+            }
+            ByteBuffer header = readFully(channel, PREAMBLE_SIZE, headerLength, path);
+
+            DataFrame df = new DataFrame();
+            try {
+                for (int col = 0; col < columnCount; col++) {
+                    byte[] name = new byte[header.getShort() & 0xFFFF];
+                    header.get(name);
+                    byte kind = header.get();
+                    boolean hasNulls = header.get() != 0;
+                    long offset = header.getLong();
+                    long length = header.getLong();
+                    if (offset < 0 || length < 0 || length > Integer.MAX_VALUE || offset + length > fileSize) {
+                        throw new IOException("Bloc de colonne invalide : " + path);
+                    }
+                    ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ORDER);
+                    df.addColumn(readColumn(new String(name, StandardCharsets.UTF_8), kind, hasNulls, rows, block));
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                    | ArithmeticException e) {
+                throw new IOException("Fichier binaire invalide : " + path, e);
+            }
+            return df;
+        }
+    }
+
+    /**
+     * Retourne le code du format de stockage d'une colonne
+     */
+    private static byte kindOf(DataColumn<?> column) {
+        Class<?> type = column.getDataType();
+        if (type == Integer.class) {
+            return INT;
+        } else if (type == Long.class) {
+            return LONG;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return column.getStorage() instanceof DictionaryColumnStorage ? DICTIONARY : STRING;
+        }
+        throw new IllegalArgumentException("Type non supporté par le format binaire : " + type.getSimpleName());
+    }
+
+    /**
+     * Construit le bitmap des valeurs nulles d'un stockage
+     *
+     * @return Le bitmap (un bit par ligne), ou null si aucune valeur n'est nulle
+     */
+    private static long[] nullBitmap(ColumnStorage storage) {
+        int size = storage.size();
+        long[] bitmap = null;
+        for (int i = 0; i < size; i++) {
+            if (storage.isNull(i)) {
+                if (bitmap == null) {
+                    bitmap = new long[(size + 63) >>> 6];
+                }
+                bitmap[i >>> 6] |= 1L << i;
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Écrit le bloc d'une colonne à la position courante
+     */
+    private static void writeBlock(BlockWriter out, ColumnStorage storage, byte kind, long[] nulls) throws IOException {
+        int size = storage.size();
+        if (nulls != null) {
+            for (long word : nulls) {
+                out.putLong(word);
+            }
+        }
+        switch (kind) {
+            case INT:
+                for (int i = 0; i < size; i++) {
+                    out.putInt(storage.getInt(i));
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < size; i++) {
+                    out.putLong(storage.getLong(i));
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < size; i++) {
+                    out.putDouble(storage.getDouble(i));
+                }
+                break;
+            case STRING:
+                writeStrings(out, storage);
+                break;
+            default:
+                writeDictionary(out, (DictionaryColumnStorage) storage);
+        }
+    }
+
+    /**
+     * Écrit les positions puis les octets des chaînes d'une colonne
+     * Les octets sont écrits en premier, derrière la place réservée aux positions, pour n'encoder chaque chaîne qu'une fois
+     */
+    private static void writeStrings(BlockWriter out, ColumnStorage storage) throws IOException {
+        int size = storage.size();
+        long offsetsStart = out.position();
+        int[] offsets = new int[size + 1];
+        out.seek(align(offsetsStart + 4L * (size + 1)));
+        long written = 0;
+        for (int i = 0; i < size; i++) {
+            Object value = storage.get(i);
+            if (value != null) {
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                out.put(bytes);
+                written += bytes.length;
+                if (written > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Colonne trop volumineuse pour le format binaire");
+                }
+            }
+            offsets[i + 1] = (int) written;
+        }
+        long end = out.position();
+        out.seek(offsetsStart);
+        for (int offset : offsets) {
+            out.putInt(offset);
+        }
+        out.seek(end);
+    }
+
+    /**
+     * Écrit le dictionnaire (taille, positions et octets des valeurs) puis le code de chaque ligne
+     */
+    private static void writeDictionary(BlockWriter out, DictionaryColumnStorage storage) throws IOException {
+        int distinct = storage.dictionarySize();
+        byte[][] values = new byte[distinct][];
+        out.putInt(distinct);
+        out.putInt(0);
+        int offset = 0;
+        out.putInt(offset);
+        for (int code = 0; code < distinct; code++) {
+            values[code] = storage.dictionaryValue(code).getBytes(StandardCharsets.UTF_8);
+            offset += values[code].length;
+            out.putInt(offset);
+        }
+        out.align();
+        for (byte[] value : values) {
+            out.put(value);
+        }
+        out.align();
+        for (int i = 0; i < storage.size(); i++) {
+            out.putInt(storage.getCode(i));
+        }
+    }
+
+    /**
+     * Construit une colonne à partir de son bloc projeté en mémoire
+     */
+    private static DataColumn<?> readColumn(String name, byte kind, boolean hasNulls, int rows, ByteBuffer block)
+            throws IOException {
+        long position = 0;
+        LongBuffer nulls = null;
+        if (hasNulls) {
+            position = 8L * ((rows + 63L) >>> 6);
+            nulls = region(block, 0, position).asLongBuffer();
+        }
+        switch (kind) {
+            case INT:
+                return new DataColumn<>(name, Integer.class,
+                        new MappedIntColumnStorage(region(block, position, 4L * rows).asIntBuffer(), nulls));
+            case LONG:
+                return new DataColumn<>(name, Long.class,
+                        new MappedLongColumnStorage(region(block, position, 8L * rows).asLongBuffer(), nulls));
+            case DOUBLE:
+                return new DataColumn<>(name, Double.class,
+                        new MappedDoubleColumnStorage(region(block, position, 8L * rows).asDoubleBuffer(), nulls));
+            case STRING: {
+                IntBuffer offsets = region(block, position, 4L * (rows + 1)).asIntBuffer();
+                ByteBuffer bytes = region(block, align(position + 4L * (rows + 1)), offsets.get(rows));
+                return new DataColumn<>(name, String.class, new MappedStringColumnStorage(offsets, bytes, nulls));
+            }
+            case DICTIONARY: {
+                int distinct = block.getInt(Math.toIntExact(position));
+                IntBuffer offsets = region(block, position + 8, 4L * (distinct + 1)).asIntBuffer();
+                long bytesStart = align(position + 8 + 4L * (distinct + 1));
+                ByteBuffer bytes = region(block, bytesStart, offsets.get(distinct));
+                List<String> values = new ArrayList<>(distinct);
+                for (int code = 0; code < distinct; code++) {
+                    byte[] value = new byte[offsets.get(code + 1) - offsets.get(code)];
+                    bytes.get(value);
+                    values.add(new String(value, StandardCharsets.UTF_8));
+                }
+                int[] codes = new int[rows];
+                region(block, align(bytesStart + offsets.get(distinct)), 4L * rows).asIntBuffer().get(codes);
+                for (int code : codes) {
+                    if (code < -1 || code >= distinct) {
+                        throw new IOException("Code de dictionnaire invalide dans la colonne " + name);
+                    }
+                }
+                return new DataColumn<>(name, String.class, new DictionaryColumnStorage(values, codes));
+            }
+            default:
+                throw new IOException("Type de colonne inconnu : " + kind);
+        }
+    }
+
+    /**
+     * Retourne une vue indépendante sur une partie d'un bloc
+     *
+     * @throws IllegalArgumentException Si la partie dépasse du bloc
+     */
+    private static ByteBuffer region(ByteBuffer block, long from, long length) {
+        ByteBuffer view = block.duplicate();
+        view.position(Math.toIntExact(from));
+        view.limit(Math.toIntExact(from + length));
+        return view.slice().order(ORDER);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Fichier binaire tronqué : " + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Écriture tamponnée dans un fichier, à une position qui peut être déplacée
+     */
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ORDER);
+        /**
+         * Position dans le fichier du premier octet du tampon
+         */
+        private long bufferOffset;
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return bufferOffset + buffer.position();
+        }
+
+        void seek(long position) throws IOException {
+            flush();
+            bufferOffset = position;
+        }
+
+        void putByte(byte value) throws IOException {
+            reserve(1);
+            buffer.put(value);
+        }
+
+        void putShort(short value) throws IOException {
+            reserve(2);
+            buffer.putShort(value);
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            reserve(8);
+            buffer.putDouble(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            if (bytes.length <= buffer.capacity()) {
+                reserve(bytes.length);
+                buffer.put(bytes);
+                return;
+            }
+            flush();
+            ByteBuffer source = ByteBuffer.wrap(bytes);
+            while (source.hasRemaining()) {
+                bufferOffset += channel.write(source, bufferOffset);
+            }
+        }
+
+        /**
+         * Complète par des zéros jusqu'à la prochaine position multiple de 8
+         */
+        void align() throws IOException {
+            while ((position() & 7) != 0) {
+                putByte((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bufferOffset += channel.write(buffer, bufferOffset);
+            }
+            buffer.clear();
+        }
+
+        private void reserve(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package projet_devops;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecture d'un fichier CSV par lots de lignes ({@link DataFrame#scanCSV})
+ * Chaque appel à next() lit les batchRows lignes suivantes dans un nouveau DataFrame ; seul le lot courant est en mémoire,
+ * si bien qu'un fichier plus grand que le tas peut être filtré ou agrégé lot par lot
+ * Tous les lots ont le même schéma : les types déclarés, et pour les autres colonnes les types déduits de tout le fichier
+ * par une première lecture qui ne conserve aucune valeur
+ * Le tampon de lecture est réutilisé d'un lot à l'autre et les colonnes de chaque lot sont allouées directement
+ * à la taille d'un lot, sans agrandissement
+ * Le fichier est fermé à la fin de la lecture, ou par {@link #close()}
+ */
+public final class CsvBatchIterator implements Iterator<DataFrame>, Closeable {
+    /**
+     * Lecteur du fichier, partagé par tous les lots
+     */
+    private final CsvReader reader;
+    /**
+     * Nombre de lignes d'un lot
+     */
+    private final int batchRows;
+    /**
+     * Noms des colonnes, dans l'ordre du fichier
+     */
+    private final String[] names;
+    /**
+     * Type de chaque colonne
+     */
+    private final Class<?>[] types;
+    /**
+     * Indique si le lecteur est positionné sur un enregistrement pas encore lu
+     */
+    private boolean hasRecord;
+
+    /**
+     * Ouvre le fichier et détermine le schéma des lots
+     *
+     * @param path Le chemin du fichier CSV
+     * @param batchRows Le nombre de lignes d'un lot
+     * @param declaredTypes Les types imposés de certaines colonnes (Integer, Long, Double ou String)
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
+     * @throws IllegalArgumentException Si batchRows est inférieur à 1, si une colonne déclarée n'existe pas
+     *         ou si son type n'est pas pris en charge
+     */
+    CsvBatchIterator(Path path, int batchRows, Map<String, Class<?>> declaredTypes) throws IOException {
+        if (batchRows < 1) {
+            throw new IllegalArgumentException("La taille d'un lot doit être supérieure ou égale à 1");
+        }
+        for (Class<?> type : declaredTypes.values()) {
+            if (type != Integer.class && type != Long.class && type != Double.class && type != String.class) {
+                throw new IllegalArgumentException("Type non supporté pour une colonne CSV : " + type.getSimpleName());
+            }
+        }
+        this.batchRows = batchRows;
+        this.reader = new CsvReader(path);
+        try {
+            if (!reader.nextRecord()) {
+                throw new IOException("Le fichier CSV est vide : " + path);
+            }
+            names = new String[reader.fieldCount()];
+            types = new Class<?>[names.length];
+            boolean inferred = false;
+            for (int col = 0; col < names.length; col++) {
+                names[col] = reader.getString(col);
+                types[col] = declaredTypes.get(names[col]);
+                inferred |= types[col] == null;
+            }
+            for (String name : declaredTypes.keySet()) {
+                if (!Arrays.asList(names).contains(name)) {
+                    throw new IllegalArgumentException("Colonne non trouvée: " + name);
+                }
+            }
+            if (inferred) {
+                inferTypes(path);
+            }
+            hasRecord = advance();
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Déduit le type des colonnes non déclarées en parcourant tout le fichier, sans conserver les valeurs
+     */
+    private void inferTypes(Path path) throws IOException {
+        boolean[] declared = new boolean[types.length];
+        for (int col = 0; col < types.length; col++) {
+            declared[col] = types[col] != null;
+            if (!declared[col]) {
+                types[col] = Integer.class;
+            }
+        }
+        try (CsvReader scan = new CsvReader(path)) {
+            scan.nextRecord();
+            while (scan.nextRecord() && !scan.isBlankRecord()) {
+                for (int col = 0; col < types.length; col++) {
+                    if (!declared[col]) {
+                        types[col] = ColumnBuilder.widen(types[col], scan, col);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Passe à l'enregistrement suivant, en fermant le fichier à la fin des données
+     *
+     * @return true si un enregistrement a été lu
+     */
+    private boolean advance() throws IOException {
+        if (reader.nextRecord() && !reader.isBlankRecord()) {
+            return true;
+        }
+        reader.close();
+        return false;
+    }
+
+    /**
+     * Retourne le schéma commun à tous les lots
+     *
+     * @return Le type de chaque colonne, dans l'ordre du fichier
+     */
+    public Map<String, Class<?>> getSchema() {
+        Map<String, Class<?>> schema = new LinkedHashMap<>();
+        for (int col = 0; col < names.length; col++) {
+            schema.put(names[col], types[col]);
+        }
+        return Collections.unmodifiableMap(schema);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasRecord;
+    }
+
+    /**
+     * Lit le lot suivant
+     *
+     * @return Un DataFrame de batchRows lignes (moins pour le dernier lot)
+     * @throws NoSuchElementException Si toutes les lignes ont été lues
+     * @throws UncheckedIOException Si une erreur d'entrée/sortie se produit
+     * @throws IllegalArgumentException Si une valeur ne correspond pas au type déclaré de sa colonne
+     */
+    @Override
+    public DataFrame next() {
+        if (!hasRecord) {
+            throw new NoSuchElementException();
+        }
+        OperationTimer timer = Metrics.start("CsvBatchIterator.next");
+        long startOffset = reader.nextRecordOffset();
+        ColumnBuilder[] builders = new ColumnBuilder[names.length];
+        for (int col = 0; col < builders.length; col++) {
+            builders[col] = new ColumnBuilder(names[col], types[col], true);
+            builders[col].reserve(batchRows);
+        }
+        int rows = 0;
+        try {
+            do {
+                for (int col = 0; col < builders.length; col++) {
+                    builders[col].append(reader, col);
+                }
+                rows++;
+                hasRecord = advance();
+            } while (hasRecord && rows < batchRows);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        DataFrame batch = new DataFrame();
+        for (ColumnBuilder builder : builders) {
+            batch.addColumn(builder.build());
+        }
+        timer.stop(rows, rows, reader.nextRecordOffset() - startOffset, (long) rows * names.length);
+        return batch;
+    }
+
+    /**
+     * Retourne les lots restants sous forme de flux séquentiel ; fermer le flux ferme le fichier
+     *
+     * @return Le flux des lots
+     */
+    public Stream<DataFrame> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false).onClose(this::close);
+    }
+
+    /**
+     * Ferme le fichier ; les lots restants ne sont pas lus
+     */
+    @Override
+    public void close() {
+        hasRecord = false;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
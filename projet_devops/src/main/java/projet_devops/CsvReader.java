@@ -0,0 +1,586 @@
+package projet_devops;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecteur CSV travaillant directement sur les octets du fichier (RFC 4180)
+ * Les champs sont repérés par leurs positions dans le tampon : les nombres sont convertis
+ * sans créer de chaîne ni d'exception, et seules les valeurs texte sont converties en String
+ */
+class CsvReader implements Closeable {
+    /** Taille par défaut du tampon de lecture */
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    /** Nombre maximal de chiffres significatifs pour la conversion rapide et exacte d'un double */
+    private static final int MAX_FAST_DIGITS = 15;
+    /** Puissances de 10 représentables exactement par un double */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Canal de lecture du fichier
+     */
+    private final FileChannel channel;
+    /**
+     * Position dans le fichier du prochain octet à lire
+     */
+    private long filePosition;
+    /**
+     * Position dans le fichier à laquelle la lecture s'arrête
+     */
+    private final long endPosition;
+    /**
+     * Position dans le fichier du premier octet du tampon
+     */
+    private long bufferOffset;
+    /**
+     * Tampon contenant les octets lus
+     */
+    private byte[] buffer;
+    /**
+     * Nombre d'octets valides dans le tampon
+     */
+    private int limit;
+    /**
+     * Position du début du prochain enregistrement dans le tampon
+     */
+    private int position;
+    /**
+     * Indique si la fin du fichier a été atteinte
+     */
+    private boolean endOfInput;
+
+    /**
+     * Nombre de champs de l'enregistrement courant
+     */
+    private int fieldCount;
+    /**
+     * Début de chaque champ (espaces et guillemets exclus)
+     */
+    private int[] fieldStarts = new int[16];
+    /**
+     * Fin (exclue) de chaque champ
+     */
+    private int[] fieldEnds = new int[16];
+    /**
+     * Indique pour chaque champ s'il contient des guillemets doublés à remplacer
+     */
+    private boolean[] fieldEscaped = new boolean[16];
+
+    /**
+     * Dernier entier lu par {@link #parseLong(int)}
+     */
+    private long longValue;
+    /**
+     * Indique si le texte du dernier entier lu est exactement son écriture canonique (sans '+' ni zéro en tête)
+     */
+    private boolean canonicalLong;
+    /**
+     * Dernier double lu par {@link #parseDouble(int)}
+     */
+    private double doubleValue;
+
+    /**
+     * Ouvre un fichier CSV en lecture
+     * 
+     * @param path Le chemin du fichier
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    CsvReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Ouvre une portion d'un fichier CSV en lecture
+     * La portion doit commencer au début d'un enregistrement et se terminer après une fin de ligne
+     * 
+     * @param path Le chemin du fichier
+     * @param start La position du premier octet à lire
+     * @param end La position à laquelle la lecture s'arrête (exclue)
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    CsvReader(Path path, long start, long end) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), start, end, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructeur de la classe CsvReader à partir d'un canal déjà ouvert
+     * 
+     * @param channel Le canal à lire, fermé avec le lecteur
+     * @param bufferSize La taille initiale du tampon (agrandi si un enregistrement ne tient pas dedans)
+     */
+    CsvReader(FileChannel channel, int bufferSize) {
+        this(channel, 0, Long.MAX_VALUE, bufferSize);
+    }
+
+    /**
+     * Constructeur de la classe CsvReader sur une portion d'un canal déjà ouvert
+     * 
+     * @param channel Le canal à lire, fermé avec le lecteur
+     * @param start La position du premier octet à lire
+     * @param end La position à laquelle la lecture s'arrête (exclue)
+     * @param bufferSize La taille initiale du tampon (agrandi si un enregistrement ne tient pas dedans)
+     */
+    CsvReader(FileChannel channel, long start, long end, int bufferSize) {
+        this.channel = channel;
+        this.filePosition = start;
+        this.bufferOffset = start;
+        this.endPosition = end;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Constructeur de la classe CsvReader sur des enregistrements déjà en mémoire
+     * 
+     * @param data Les octets à lire
+     * @param length Le nombre d'octets valides au début du tableau
+     */
+    CsvReader(byte[] data, int length) {
+        this.channel = null;
+        this.endPosition = length;
+        this.filePosition = length;
+        this.buffer = data;
+        this.limit = length;
+        this.endOfInput = true;
+    }
+
+    /**
+     * Lit l'enregistrement suivant
+     * 
+     * @return true si un enregistrement a été lu, false à la fin du fichier
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    boolean nextRecord() throws IOException {
+        while (true) {
+            if (position >= limit && endOfInput) {
+                return false;
+            }
+            int next = scanRecord(position);
+            if (next >= 0) {
+                position = next;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Retourne la position dans le fichier du début de l'enregistrement suivant
+     * 
+     * @return La position en octets
+     */
+    long nextRecordOffset() {
+        return bufferOffset + position;
+    }
+
+    /**
+     * Retourne le nombre de champs de l'enregistrement courant
+     * 
+     * @return Le nombre de champs
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Indique si l'enregistrement courant ne contient que des espaces
+     * 
+     * @return true si la ligne est vide
+     */
+    boolean isBlankRecord() {
+        return fieldCount == 1 && fieldStarts[0] == fieldEnds[0];
+    }
+
+    /**
+     * Indique si un champ est vide (ou absent de l'enregistrement courant)
+     * 
+     * @param field L'index du champ
+     * @return true si le champ est vide
+     */
+    boolean isEmpty(int field) {
+        return field >= fieldCount || fieldStarts[field] == fieldEnds[field];
+    }
+
+    /**
+     * Retourne la valeur d'un champ sous forme de chaîne
+     * 
+     * @param field L'index du champ
+     * @return La valeur du champ (chaîne vide si le champ est absent)
+     */
+    String getString(int field) {
+        if (field >= fieldCount) {
+            return "";
+        }
+        String value = new String(buffer, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+        return fieldEscaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * Convertit un champ en entier long, lisible ensuite avec {@link #longValue()}
+     * 
+     * @param field L'index du champ
+     * @return true si le champ est un entier valide tenant dans un long
+     */
+    boolean parseLong(int field) {
+        if (isEmpty(field) || fieldEscaped[field]) {
+            return false;
+        }
+        int i = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = buffer[i] == '-';
+        if (negative || buffer[i] == '+') {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        int firstDigit = i;
+        // Accumulation en négatif pour pouvoir représenter Long.MIN_VALUE
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative && result == Long.MIN_VALUE) {
+            return false;
+        }
+        longValue = negative ? result : -result;
+        canonicalLong = buffer[fieldStarts[field]] != '+' && (buffer[firstDigit] != '0' || end - firstDigit == 1)
+            && !(negative && longValue == 0);
+        return true;
+    }
+
+    /**
+     * Indique si le texte du dernier entier lu par {@link #parseLong(int)} est identique à Long.toString de sa valeur
+     * 
+     * @return true si l'écriture est canonique
+     */
+    boolean isCanonicalLong() {
+        return canonicalLong;
+    }
+
+    /**
+     * Retourne le dernier entier lu par {@link #parseLong(int)}
+     * 
+     * @return La valeur entière
+     */
+    long longValue() {
+        return longValue;
+    }
+
+    /**
+     * Convertit un champ en double, lisible ensuite avec {@link #doubleValue()}
+     * Formats acceptés : [signe] chiffres [. chiffres] [e|E [signe] chiffres], NaN et Infinity
+     * 
+     * @param field L'index du champ
+     * @return true si le champ est un nombre valide
+     */
+    boolean parseDouble(int field) {
+        if (isEmpty(field) || fieldEscaped[field]) {
+            return false;
+        }
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        int i = start;
+        boolean negative = buffer[i] == '-';
+        if (negative || buffer[i] == '+') {
+            i++;
+        }
+        if (matches(i, end, "NaN")) {
+            doubleValue = Double.NaN;
+            return true;
+        }
+        if (matches(i, end, "Infinity")) {
+            doubleValue = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            return true;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        for (; i < end && isDigit(buffer[i]); i++) {
+            digits++;
+            if (significantDigits > 0 || buffer[i] != '0') {
+                if (significantDigits < 19) {
+                    mantissa = mantissa * 10 + (buffer[i] - '0');
+                } else {
+                    exponent++;
+                }
+                significantDigits++;
+            }
+        }
+        if (i < end && buffer[i] == '.') {
+            i++;
+            for (; i < end && isDigit(buffer[i]); i++) {
+                digits++;
+                if (significantDigits > 0 || buffer[i] != '0') {
+                    if (significantDigits < 19) {
+                        mantissa = mantissa * 10 + (buffer[i] - '0');
+                        exponent--;
+                    }
+                    significantDigits++;
+                } else {
+                    exponent--;
+                }
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExponent = i < end && buffer[i] == '-';
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                if (!isDigit(buffer[i])) {
+                    return false;
+                }
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (buffer[i] - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != end) {
+            return false;
+        }
+
+        if (significantDigits <= MAX_FAST_DIGITS && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            // Mantisse et puissance de 10 exactes : un seul arrondi, résultat identique à Double.parseDouble
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            doubleValue = negative ? -value : value;
+        } else {
+            // Cas rare (trop de chiffres ou grand exposant) : la syntaxe est déjà validée
+            doubleValue = Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+        return true;
+    }
+
+    /**
+     * Retourne le dernier double lu par {@link #parseDouble(int)}
+     * 
+     * @return La valeur numérique
+     */
+    double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * Écrit un champ de l'enregistrement courant entre guillemets, de sorte que sa relecture donne le même texte
+     * et les mêmes conversions (un champ absent est écrit vide)
+     * 
+     * @param field L'index du champ
+     * @param out La destination
+     */
+    void writeQuotedField(int field, ByteArrayOutputStream out) {
+        out.write('"');
+        if (field < fieldCount) {
+            int start = fieldStarts[field];
+            int end = fieldEnds[field];
+            // Les guillemets d'un champ entre guillemets sont déjà doublés, ceux d'un champ sans guillemets sont à doubler
+            int from = start;
+            for (int i = start; i < end && !fieldEscaped[field]; i++) {
+                if (buffer[i] == '"') {
+                    out.write(buffer, from, i + 1 - from);
+                    from = i;
+                }
+            }
+            out.write(buffer, from, end - from);
+        }
+        out.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Analyse l'enregistrement commençant à la position donnée
+     * 
+     * @param start La position du début de l'enregistrement
+     * @return La position suivant l'enregistrement, ou -1 si le tampon ne contient pas l'enregistrement complet
+     */
+    private int scanRecord(int start) {
+        fieldCount = 0;
+        int i = start;
+        while (true) {
+            // Espaces en début de champ
+            while (i < limit && isBlank(buffer[i])) {
+                i++;
+            }
+            if (fieldCount == fieldStarts.length) {
+                growFields();
+            }
+            int fieldStart = i;
+            int fieldEnd;
+            boolean escaped = false;
+            if (i < limit && buffer[i] == '"') {
+                fieldStart = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        return endOfInput ? unterminatedQuote(fieldStart, escaped) : -1;
+                    }
+                    if (buffer[i] == '"') {
+                        if (i + 1 >= limit && !endOfInput) {
+                            return -1;
+                        }
+                        if (i + 1 < limit && buffer[i + 1] == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                fieldEnd = i++;
+                // Caractères ignorés entre le guillemet fermant et le séparateur
+                while (i < limit && buffer[i] != ',' && buffer[i] != '\n' && buffer[i] != '\r') {
+                    i++;
+                }
+            } else {
+                while (i < limit && buffer[i] != ',' && buffer[i] != '\n' && buffer[i] != '\r') {
+                    i++;
+                }
+                fieldEnd = i;
+                while (fieldEnd > fieldStart && isBlank(buffer[fieldEnd - 1])) {
+                    fieldEnd--;
+                }
+            }
+            fieldStarts[fieldCount] = fieldStart;
+            fieldEnds[fieldCount] = fieldEnd;
+            fieldEscaped[fieldCount] = escaped;
+            fieldCount++;
+
+            if (i >= limit) {
+                return endOfInput ? i : -1;
+            }
+            if (buffer[i] == ',') {
+                i++;
+                continue;
+            }
+            // Fin de ligne : \n, \r\n ou \r seul
+            if (buffer[i] == '\r') {
+                if (i + 1 >= limit && !endOfInput) {
+                    return -1;
+                }
+                if (i + 1 < limit && buffer[i + 1] == '\n') {
+                    i++;
+                }
+            }
+            return i + 1;
+        }
+    }
+
+    /**
+     * Termine un champ entre guillemets jamais refermé en fin de fichier
+     * 
+     * @param fieldStart Le début du champ
+     * @param escaped Indique si le champ contient des guillemets doublés
+     * @return La position de fin de fichier
+     */
+    private int unterminatedQuote(int fieldStart, boolean escaped) {
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = limit;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+        return limit;
+    }
+
+    /**
+     * Complète le tampon : les octets non consommés sont déplacés au début,
+     * et le tampon est agrandi si un enregistrement le remplit entièrement
+     * 
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            bufferOffset += position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int length = (int) Math.min(buffer.length - limit, endPosition - filePosition);
+        int read = length > 0 ? channel.read(ByteBuffer.wrap(buffer, limit, length), filePosition) : -1;
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+            filePosition += read;
+        }
+    }
+
+    /**
+     * Agrandit les tableaux de positions des champs
+     */
+    private void growFields() {
+        int newLength = fieldStarts.length * 2;
+        fieldStarts = Arrays.copyOf(fieldStarts, newLength);
+        fieldEnds = Arrays.copyOf(fieldEnds, newLength);
+        fieldEscaped = Arrays.copyOf(fieldEscaped, newLength);
+    }
+
+    /**
+     * Vérifie si les octets entre start et end correspondent exactement au texte donné
+     * 
+     * @param start La position de début
+     * @param end La position de fin (exclue)
+     * @param text Le texte ASCII attendu
+     * @return true si les octets correspondent
+     */
+    private boolean matches(int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indique si un octet est un chiffre décimal
+     * 
+     * @param b L'octet à tester
+     * @return true si l'octet est entre '0' et '9'
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Indique si un octet est un espace à ignorer autour d'un champ (même règle que String.trim, hors fins de ligne)
+     * 
+     * @param b L'octet à tester
+     * @return true si l'octet est un espace
+     */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ' && b != '\n' && b != '\r';
+    }
+}
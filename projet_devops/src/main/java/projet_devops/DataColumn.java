@@ -1,10 +1,17 @@
 package projet_devops;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Classe représentant une colonne dans un DataFrame
+ * Les colonnes Integer, Long et Double sont stockées dans des tableaux primitifs
  * 
  * @param <T> Le type de données de la colonne
  */
@@ -14,13 +21,25 @@ public class DataColumn<T> {
      */
     private String columnName;
     /**
-     * Liste des valeurs de la colonne
+     * Stockage des valeurs de la colonne
      */
-    private List<T> values;
+    private ColumnStorage storage;
     /**
      * Type de données de la colonne
      */
     private Class<T> dataType;
+    /**
+     * Statistiques des valeurs, calculées au premier besoin puis tenues à jour par les ajouts
+     */
+    private volatile ColumnStats stats;
+    /**
+     * Index par hachage des valeurs (null tant qu'il n'est pas demandé)
+     */
+    private volatile HashIndex hashIndex;
+    /**
+     * Index trié des valeurs (null tant qu'il n'est pas demandé)
+     */
+    private volatile SortedIndex sortedIndex;
     
     /**
      * Constructeur de la classe DataColumn
@@ -31,7 +50,7 @@ public class DataColumn<T> {
     public DataColumn(String columnName, Class<T> dataType) {
         this.columnName = columnName;
         this.dataType = dataType;
-        this.values = new ArrayList<>();
+        this.storage = ColumnStorage.create(dataType);
     }
 
     /**
@@ -44,7 +63,21 @@ public class DataColumn<T> {
     public DataColumn(String columnName, Class<T> dataType, List<T> values) {
         this.columnName = columnName;
         this.dataType = dataType;
-        this.values = new ArrayList<>(values);
+        this.storage = ColumnStorage.create(dataType);
+        addAll(values);
+    }
+
+    /**
+     * Constructeur de la classe DataColumn à partir d'un stockage déjà rempli
+     * 
+     * @param columnName Le nom de la colonne
+     * @param dataType   Le type de données de la colonne
+     * @param storage    Le stockage des valeurs
+     */
+    DataColumn(String columnName, Class<T> dataType, ColumnStorage storage) {
+        this.columnName = columnName;
+        this.dataType = dataType;
+        this.storage = storage;
     }
 
     /**
@@ -53,7 +86,9 @@ public class DataColumn<T> {
      * @param value La valeur à ajouter
      */
     public void add(T value) {
-        values.add(value);
+        ensureWritable();
+        storage.add(value);
+        updateStats(value);
     }
 
     /**
@@ -62,7 +97,51 @@ public class DataColumn<T> {
      * @param newValues La liste de valeurs à ajouter
      */
     public void addAll(List<T> newValues) {
-        values.addAll(newValues);
+        ensureWritable();
+        for (T value : newValues) {
+            storage.add(value);
+            updateStats(value);
+        }
+    }
+
+    /**
+     * Ajoute une valeur numérique sans passer par un objet Double
+     * 
+     * @param value La valeur à ajouter
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Double
+     */
+    void addDouble(double value) {
+        ensureWritable();
+        storage.addDouble(value);
+        ColumnStats current = stats;
+        if (current != null) {
+            current.accept(value);
+        }
+    }
+
+    /**
+     * Copie les valeurs partagées avec une autre colonne avant la première modification (copie sur écriture)
+     */
+    private void ensureWritable() {
+        if (storage.isShared()) {
+            storage = storage.copyRange(0, storage.size());
+        }
+    }
+
+    /**
+     * Répercute un ajout sur les statistiques déjà calculées
+     * 
+     * @param value La valeur ajoutée
+     */
+    private void updateStats(T value) {
+        ColumnStats current = stats;
+        if (current != null) {
+            if (value == null) {
+                current.acceptNull();
+            } else {
+                current.accept(((Number) value).doubleValue());
+            }
+        }
     }
 
     /**
@@ -72,8 +151,64 @@ public class DataColumn<T> {
      * @return La valeur à l'index spécifié
      * @throws IndexOutOfBoundsException Si l'index est en dehors des limites de la liste
      */
+    @SuppressWarnings("unchecked")
     public T get(int index) {
-        return values.get(index);
+        Objects.checkIndex(index, storage.size());
+        return (T) storage.get(index);
+    }
+
+    /**
+     * Indique si la valeur à l'index spécifié est nulle
+     * 
+     * @param index L'index de la valeur
+     * @return true si la valeur est nulle
+     * @throws IndexOutOfBoundsException Si l'index est en dehors des limites de la colonne
+     */
+    public boolean isNull(int index) {
+        Objects.checkIndex(index, storage.size());
+        return storage.isNull(index);
+    }
+
+    /**
+     * Retourne la valeur entière à l'index spécifié, sans conversion en objet
+     * Une valeur nulle est retournée comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur entière
+     * @throws IndexOutOfBoundsException Si l'index est en dehors des limites de la colonne
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Integer
+     */
+    public int getInt(int index) {
+        Objects.checkIndex(index, storage.size());
+        return storage.getInt(index);
+    }
+
+    /**
+     * Retourne la valeur entière longue à l'index spécifié, sans conversion en objet
+     * Une valeur nulle est retournée comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur entière longue
+     * @throws IndexOutOfBoundsException Si l'index est en dehors des limites de la colonne
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Integer ou Long
+     */
+    public long getLong(int index) {
+        Objects.checkIndex(index, storage.size());
+        return storage.getLong(index);
+    }
+
+    /**
+     * Retourne la valeur numérique à l'index spécifié, sans conversion en objet
+     * Une valeur nulle est retournée comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur convertie en double
+     * @throws IndexOutOfBoundsException Si l'index est en dehors des limites de la colonne
+     * @throws UnsupportedOperationException Si la colonne n'est pas numérique
+     */
+    public double getDouble(int index) {
+        Objects.checkIndex(index, storage.size());
+        return storage.getDouble(index);
     }
 
     /**
@@ -81,8 +216,164 @@ public class DataColumn<T> {
      * 
      * @return La liste des valeurs de la colonne
      */
+    @SuppressWarnings("unchecked")
     public List<T> getValues() {
-        return new ArrayList<>(values);
+        List<T> copy = new ArrayList<>(storage.size());
+        for (int i = 0; i < storage.size(); i++) {
+            copy.add((T) storage.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Retourne une vue en lecture seule des valeurs, sans copie
+     * La vue suit les ajouts faits ensuite dans la colonne
+     * 
+     * @return La liste non modifiable des valeurs de la colonne
+     */
+    public List<T> valuesView() {
+        return new ValuesView();
+    }
+
+    /**
+     * Expose les valeurs d'une colonne Integer en lecture seule, sans copie
+     * Les valeurs nulles apparaissent comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @return Un tampon en lecture seule sur les valeurs présentes au moment de l'appel
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Integer
+     */
+    public IntBuffer asIntBuffer() {
+        return storage.asIntBuffer();
+    }
+
+    /**
+     * Expose les valeurs d'une colonne Long en lecture seule, sans copie
+     * Les valeurs nulles apparaissent comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @return Un tampon en lecture seule sur les valeurs présentes au moment de l'appel
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Long
+     */
+    public LongBuffer asLongBuffer() {
+        return storage.asLongBuffer();
+    }
+
+    /**
+     * Expose les valeurs d'une colonne Double en lecture seule, sans copie
+     * Les valeurs nulles apparaissent comme 0, à tester avec {@link #isNull(int)}
+     * 
+     * @return Un tampon en lecture seule sur les valeurs présentes au moment de l'appel
+     * @throws UnsupportedOperationException Si la colonne n'est pas de type Double
+     */
+    public DoubleBuffer asDoubleBuffer() {
+        return storage.asDoubleBuffer();
+    }
+
+    /**
+     * Crée une vue sur une plage de lignes de la colonne, sans copier les valeurs
+     * La vue partage le stockage de cette colonne ; elle n'en fait une copie que si on lui ajoute des valeurs
+     * 
+     * @param from L'index de la première ligne (inclus)
+     * @param to L'index suivant la dernière ligne
+     * @return Une colonne de même nom et de même type contenant les lignes from à to - 1
+     * @throws IndexOutOfBoundsException Si la plage est en dehors des limites de la colonne
+     */
+    public DataColumn<T> slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, storage.size());
+        return new DataColumn<>(columnName, dataType, storage.slice(from, to));
+    }
+
+    /**
+     * Crée une colonne vide dont les valeurs seront stockées hors du tas Java, dans des segments de taille fixe
+     * Le tas ne contient que les références aux segments : le ramasse-miettes ne parcourt pas les valeurs
+     * 
+     * @param columnName Le nom de la colonne
+     * @param dataType   Le type de données de la colonne (Integer, Long, Double ou String)
+     * @return La colonne vide
+     * @throws IllegalArgumentException Si le type n'est pas Integer, Long, Double ou String
+     */
+    public static <T> DataColumn<T> offHeap(String columnName, Class<T> dataType) {
+        return new DataColumn<>(columnName, dataType, OffHeapColumnStorage.create(dataType));
+    }
+
+    /**
+     * Copie la colonne hors du tas Java (voir {@link #offHeap(String, Class)})
+     * Les colonnes obtenues à partir de la copie (tranches, filtres, tris, jointures) restent hors tas
+     * 
+     * @return Une colonne de même nom, de même type et de mêmes valeurs, stockée hors tas
+     * @throws IllegalArgumentException Si la colonne n'est pas de type Integer, Long, Double ou String
+     */
+    public DataColumn<T> toOffHeap() {
+        OffHeapColumnStorage target = OffHeapColumnStorage.create(dataType);
+        target.appendAll(storage);
+        return new DataColumn<>(columnName, dataType, target);
+    }
+
+    /**
+     * Indique si les valeurs de la colonne sont stockées hors du tas Java
+     * 
+     * @return true pour une colonne créée par {@link #offHeap(String, Class)} ou {@link #toOffHeap()}
+     */
+    public boolean isOffHeap() {
+        return storage instanceof OffHeapColumnStorage;
+    }
+
+    /**
+     * Copie la colonne dans un stockage compressé en lecture seule, par blocs de 1024 lignes encodés chacun
+     * de la façon la plus compacte (écart au minimum, écart à une progression linéaire ou plages de valeurs identiques)
+     * Une colonne triée (identifiants, horodatages) ou de faible amplitude occupe ainsi plusieurs fois moins de mémoire ;
+     * la lecture d'une ligne reste directe, et les statistiques et filtres travaillent sur les blocs encodés
+     * La colonne est décompressée à sa première modification ; les résultats de filtres et de tris ne sont pas compressés
+     * ({@link #asIntBuffer()}, {@link #asLongBuffer()} et {@link #asDoubleBuffer()} ne sont pas disponibles)
+     * 
+     * @return Une colonne de même nom, de même type et de mêmes valeurs, compressée
+     * @throws IllegalArgumentException Si la colonne n'est pas de type Integer, Long ou Double
+     */
+    public DataColumn<T> compress() {
+        return new DataColumn<>(columnName, dataType, EncodedColumnStorage.encode(storage, dataType));
+    }
+
+    /**
+     * Indique si les valeurs de la colonne sont compressées
+     * 
+     * @return true pour une colonne obtenue par {@link #compress()} et pas encore modifiée
+     */
+    public boolean isCompressed() {
+        return storage instanceof EncodedColumnStorage;
+    }
+
+    /**
+     * Enregistre un DataFrame comme propriétaire de la mémoire hors tas de la colonne, si elle n'en a pas encore
+     * Seul ce DataFrame l'abandonne à sa fermeture ; les autres DataFrames qui reçoivent la colonne la partagent
+     * 
+     * @param frame Le DataFrame auquel la colonne est ajoutée
+     */
+    void claim(DataFrame frame) {
+        if (isOffHeap()) {
+            ((OffHeapColumnStorage) storage).claim(frame);
+        }
+    }
+
+    /**
+     * Indique si la mémoire hors tas de la colonne appartient à un DataFrame
+     * 
+     * @param frame Le DataFrame
+     * @return true si la colonne est hors tas et que frame est son propriétaire
+     */
+    boolean isOwnedBy(DataFrame frame) {
+        return isOffHeap() && ((OffHeapColumnStorage) storage).isOwnedBy(frame);
+    }
+
+    /**
+     * Abandonne la mémoire hors tas de la colonne : ses segments ne sont plus référencés
+     * et sont rendus au système au prochain passage du ramasse-miettes
+     * La colonne, et les tranches qui partagent ses valeurs, ne sont plus utilisables ensuite
+     */
+    void release() {
+        if (isOffHeap()) {
+            storage.release();
+            stats = null;
+            dropIndexes();
+        }
     }
 
     /**
@@ -91,7 +382,7 @@ public class DataColumn<T> {
      * @return Le nombre de valeurs dans la colonne
      */
     public int size() {
-        return values.size();
+        return storage.size();
     }
 
     /**
@@ -103,6 +394,15 @@ public class DataColumn<T> {
         return dataType;
     }
 
+    /**
+     * Indique si la colonne est numérique (Integer, Long ou Double)
+     * 
+     * @return true si la colonne est numérique
+     */
+    public boolean isNumeric() {
+        return dataType == Integer.class || dataType == Long.class || dataType == Double.class;
+    }
+
     /**
      * Retourne le nom de la colonne
      * 
@@ -111,4 +411,130 @@ public class DataColumn<T> {
     public String getColumnName() {
         return columnName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retourne les statistiques des valeurs de la colonne numérique
+     * Elles sont calculées au premier appel puis mises à jour par chaque ajout,
+     * si bien que les appels suivants sur une colonne inchangée ne parcourent pas les données
+     * Le premier calcul est réparti entre plusieurs threads pour une grande colonne ({@link ColumnStats#PARALLEL_THRESHOLD})
+     * 
+     * @return Les statistiques de la colonne
+     * @throws UnsupportedOperationException Si la colonne n'est pas numérique
+     */
+    ColumnStats stats() {
+        ColumnStats current = stats;
+        if (current == null) {
+            if (!isNumeric()) {
+                throw new UnsupportedOperationException("La colonne " + columnName + " n'est pas numérique");
+            }
+            current = ColumnStats.of(storage, 0, storage.size());
+            stats = current;
+        }
+        return current;
+    }
+
+    /**
+     * Construit un index par hachage sur les valeurs de la colonne
+     * Les masques d'égalité ("==", "!=") de {@link Selection#createBooleanMask} l'utilisent ensuite
+     * au lieu de parcourir la colonne ; les valeurs ajoutées par la suite sont indexées au fil des requêtes
+     */
+    public void createHashIndex() {
+        hashIndex = new HashIndex(storage);
+    }
+
+    /**
+     * Construit un index trié sur les valeurs de la colonne
+     * Les masques de comparaison et d'intervalle de {@link Selection} l'utilisent ensuite
+     * au lieu de parcourir la colonne ; les valeurs ajoutées par la suite restent prises en compte
+     */
+    public void createSortedIndex() {
+        sortedIndex = new SortedIndex(storage, dataType);
+    }
+
+    /**
+     * Supprime les index de la colonne
+     */
+    public void dropIndexes() {
+        hashIndex = null;
+        sortedIndex = null;
+    }
+
+    /**
+     * Indique si la colonne possède un index par hachage
+     * 
+     * @return true si {@link #createHashIndex()} a été appelé
+     */
+    public boolean hasHashIndex() {
+        return hashIndex != null;
+    }
+
+    /**
+     * Indique si la colonne possède un index trié
+     * 
+     * @return true si {@link #createSortedIndex()} a été appelé
+     */
+    public boolean hasSortedIndex() {
+        return sortedIndex != null;
+    }
+
+    /**
+     * Construit le masque d'une condition à l'aide d'un index, si la colonne en possède un adapté
+     * L'index par hachage est préféré pour les égalités
+     * 
+     * @param operator L'opérateur de comparaison
+     * @param value La valeur de comparaison
+     * @return Le masque des lignes vérifiant la condition, ou null si aucun index ne s'applique
+     *         (pas d'index, ou valeur d'un autre type que la colonne)
+     */
+    RowMask indexedMask(String operator, Object value) {
+        if (value == null || value.getClass() != dataType) {
+            return null;
+        }
+        HashIndex hash = hashIndex;
+        RowMask mask = hash != null ? hash.mask(storage, operator, value) : null;
+        SortedIndex sorted = sortedIndex;
+        if (mask == null && sorted != null) {
+            mask = sorted.mask(storage, operator, value);
+        }
+        return mask;
+    }
+
+    /**
+     * Construit le masque d'un intervalle à l'aide de l'index trié, si la colonne en possède un
+     * 
+     * @param min La borne inférieure (incluse)
+     * @param max La borne supérieure (incluse)
+     * @return Le masque des lignes comprises entre min et max, ou null si l'index ne s'applique pas
+     */
+    RowMask indexedRange(Object min, Object max) {
+        SortedIndex sorted = sortedIndex;
+        if (sorted == null || min == null || max == null || min.getClass() != dataType || max.getClass() != dataType) {
+            return null;
+        }
+        return sorted.range(storage, min, max);
+    }
+
+    /**
+     * Retourne le stockage interne de la colonne
+     * 
+     * @return Le stockage des valeurs
+     */
+    ColumnStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Vue en lecture seule sur les valeurs de la colonne
+     */
+    private class ValuesView extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            return DataColumn.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return storage.size();
+        }
+    }
+}
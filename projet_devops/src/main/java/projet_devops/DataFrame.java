@@ -1,17 +1,22 @@
 package projet_devops;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Classe représantant un DataFrame
+ * Un DataFrame abandonne à sa fermeture la mémoire des colonnes hors du tas Java qui lui appartiennent ({@link #close()})
  */
-public class DataFrame {
+public class DataFrame implements AutoCloseable {
 	/**
 	 * Map contenant les colonnes du DataFrame
 	 */
@@ -41,6 +46,7 @@ public class DataFrame {
         } else if (column.size() != rowCount) {
             throw new IllegalArgumentException("La nouvelle colonne doit avoir le même nombre de lignes");
         }
+        column.claim(this);
         columns.put(column.getColumnName(), column);
     }
 
@@ -97,142 +103,314 @@ public class DataFrame {
         return columns.size();
     }
 
+	/**
+	 * Crée un DataFrame vue sur une plage de lignes, sans copier les valeurs
+	 * Le coût ne dépend que du nombre de colonnes ; les colonnes de la vue ne sont copiées que si on les modifie
+	 * 
+	 * @param from L'index de la première ligne (inclus)
+	 * @param to L'index suivant la dernière ligne
+	 * @return Un DataFrame contenant les lignes from à to - 1
+	 * @throws IndexOutOfBoundsException Si la plage est en dehors des limites
+	 */
+	public DataFrame slice(int from, int to) {
+		Objects.checkFromToIndex(from, to, rowCount);
+		DataFrame result = new DataFrame();
+		for (DataColumn<?> column : columns.values()) {
+			result.addColumn(column.slice(from, to));
+		}
+		result.rowCount = to - from;
+		return result;
+	}
+
+	/**
+	 * Découpe le DataFrame en vues successives d'au plus chunkSize lignes, pour un traitement par morceaux
+	 * 
+	 * @param chunkSize Le nombre maximal de lignes par morceau
+	 * @return La liste des morceaux, dans l'ordre des lignes
+	 * @throws IllegalArgumentException Si chunkSize est inférieur à 1
+	 */
+	public List<DataFrame> split(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("La taille des morceaux doit être au moins 1");
+		}
+		List<DataFrame> chunks = new ArrayList<>();
+		for (int from = 0; from < rowCount; from += chunkSize) {
+			chunks.add(slice(from, Math.min(rowCount, from + chunkSize)));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Regroupe les lignes selon la valeur d'une ou plusieurs colonnes, pour les agréger par groupe
+	 * (ex: {@code df.groupBy("ville").agg("salaire", Aggregation.SUM, Aggregation.MEAN)})
+	 * 
+	 * @param columnNames Les noms des colonnes clés
+	 * @return Le regroupement, dont {@link GroupBy#agg} calcule les agrégats en une passe
+	 * @throws IllegalArgumentException Si aucune colonne n'est donnée ou si une colonne n'existe pas
+	 */
+	public GroupBy groupBy(String... columnNames) {
+		return new GroupBy(this, columnNames);
+	}
+
+	/**
+	 * Trie les lignes selon une colonne, les valeurs nulles en dernier
+	 * 
+	 * @param column Le nom de la colonne de tri
+	 * @param ascending true pour un tri croissant, false pour un tri décroissant
+	 * @return Un nouveau DataFrame contenant les lignes triées
+	 * @throws IllegalArgumentException Si la colonne n'existe pas
+	 */
+	public DataFrame sortBy(String column, boolean ascending) {
+		return sortBy(Collections.singletonList(column), new boolean[] {ascending}, false);
+	}
+
+	/**
+	 * Trie les lignes selon plusieurs colonnes : la première colonne départage d'abord, puis la deuxième, etc.
+	 * La permutation est calculée une fois ({@link #argsort}), puis chaque colonne est copiée une seule fois
+	 * 
+	 * @param columnNames Les noms des colonnes de tri, par ordre de priorité
+	 * @param ascending Le sens du tri de chaque colonne (true pour croissant)
+	 * @param nullsFirst true pour placer les valeurs nulles en premier, false pour les placer en dernier
+	 * @return Un nouveau DataFrame contenant les lignes triées (les lignes égales gardent leur ordre d'origine)
+	 * @throws IllegalArgumentException Si une colonne n'existe pas ou si les tailles de columnNames et ascending diffèrent
+	 */
+	public DataFrame sortBy(List<String> columnNames, boolean[] ascending, boolean nullsFirst) {
+		int[] order = argsort(columnNames, ascending, nullsFirst);
+		DataFrame sorted = new DataFrame();
+		for (DataColumn<?> column : columns.values()) {
+			sorted.addColumn(Selection.gather(column, order, rowCount));
+		}
+		return sorted;
+	}
+
+	/**
+	 * Calcule la permutation qui trie les lignes, sans copier les colonnes
+	 * Les colonnes Integer, Long, Double et les colonnes texte lues d'un CSV sont triées par base (radix sort),
+	 * les autres par un tri fusion parallèle
+	 * 
+	 * @param columnNames Les noms des colonnes de tri, par ordre de priorité
+	 * @param ascending Le sens du tri de chaque colonne (true pour croissant)
+	 * @param nullsFirst true pour placer les valeurs nulles en premier, false pour les placer en dernier
+	 * @return Les index des lignes dans l'ordre trié
+	 * @throws IllegalArgumentException Si une colonne n'existe pas ou si les tailles de columnNames et ascending diffèrent
+	 */
+	public int[] argsort(List<String> columnNames, boolean[] ascending, boolean nullsFirst) {
+		if (columnNames.size() != ascending.length) {
+			throw new IllegalArgumentException("Un sens de tri est nécessaire pour chaque colonne");
+		}
+		ColumnStorage[] storages = new ColumnStorage[columnNames.size()];
+		Class<?>[] types = new Class<?>[storages.length];
+		for (int k = 0; k < storages.length; k++) {
+			DataColumn<?> column = columns.get(columnNames.get(k));
+			if (column == null) {
+				throw new IllegalArgumentException("Colonne non trouvée: " + columnNames.get(k));
+			}
+			storages[k] = column.getStorage();
+			types[k] = column.getDataType();
+		}
+		return RowSort.argsort(storages, types, ascending, nullsFirst, rowCount);
+	}
+
+	/**
+	 * Joint ce DataFrame (à gauche) avec un autre (à droite) sur des colonnes clés de même nom, par hachage
+	 * Le résultat contient les colonnes clés, puis les autres colonnes de gauche, puis celles de droite
+	 * (suffixées par "_droite" si le nom existe déjà, puis numérotées si ce nom est lui aussi pris) ;
+	 * les valeurs absentes d'un côté sans correspondance sont nulles
+	 * Les lignes suivent l'ordre du plus grand des deux DataFrames, les lignes sans correspondance de l'autre côté en dernier
+	 * 
+	 * @param other Le DataFrame de droite
+	 * @param type Le type de jointure (INNER, LEFT, RIGHT, OUTER)
+	 * @param keyColumns Les noms des colonnes clés
+	 * @return Le DataFrame joint
+	 * @throws IllegalArgumentException Si aucune clé n'est donnée, si une clé manque d'un côté
+	 *         ou si ses deux colonnes n'ont pas des types compatibles (entiers, Double ou texte)
+	 */
+	public DataFrame join(DataFrame other, JoinType type, String... keyColumns) {
+		return new HashJoin(this, other, type, keyColumns).execute();
+	}
+
+	/**
+	 * Lit un fichier CSV par lots de batchRows lignes, sans jamais charger tout le fichier
+	 * Tous les lots ont le même schéma, déduit de tout le fichier par une première lecture qui ne conserve aucune valeur
+	 * 
+	 * @param filename Le nom du fichier CSV
+	 * @param batchRows Le nombre de lignes d'un lot
+	 * @return L'itérateur des lots, à fermer si la lecture est interrompue avant la fin
+	 * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
+	 * @throws IllegalArgumentException Si batchRows est inférieur à 1
+	 */
+	public static CsvBatchIterator scanCSV(String filename, int batchRows) throws IOException {
+		return scanCSV(filename, batchRows, Collections.emptyMap());
+	}
+
+	/**
+	 * Lit un fichier CSV par lots de batchRows lignes, en imposant le type de certaines colonnes
+	 * Seules les colonnes absentes du schéma déclaré sont déduites par une première lecture du fichier ;
+	 * si toutes sont déclarées, le fichier n'est lu qu'une fois
+	 * 
+	 * @param filename Le nom du fichier CSV
+	 * @param batchRows Le nombre de lignes d'un lot
+	 * @param schema Le type (Integer, Long, Double ou String) de chaque colonne déclarée
+	 * @return L'itérateur des lots, à fermer si la lecture est interrompue avant la fin
+	 * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
+	 * @throws IllegalArgumentException Si batchRows est inférieur à 1, si une colonne déclarée n'existe pas
+	 *         ou si son type n'est pas pris en charge
+	 */
+	public static CsvBatchIterator scanCSV(String filename, int batchRows, Map<String, Class<?>> schema) throws IOException {
+		return new CsvBatchIterator(Paths.get(filename), batchRows, schema);
+	}
+
+	/**
+	 * Copie le DataFrame hors du tas Java : les valeurs des colonnes Integer, Long, Double et String sont stockées
+	 * dans des segments de mémoire de taille fixe, que le ramasse-miettes ne parcourt pas (les colonnes d'autres types
+	 * restent dans le tas). Les résultats de filtres, tris et jointures sur la copie restent hors tas
+	 * La mémoire est rendue au ramasse-miettes par {@link #close()}, ou quand le DataFrame devient inaccessible
+	 * 
+	 * @return Un nouveau DataFrame de mêmes colonnes et de mêmes valeurs
+	 */
+	public DataFrame toOffHeap() {
+		DataFrame result = new DataFrame();
+		for (DataColumn<?> column : columns.values()) {
+			Class<?> type = column.getDataType();
+			boolean supported = column.isNumeric() || type == String.class;
+			result.addColumn(supported ? column.toOffHeap() : column.slice(0, rowCount));
+		}
+		return result;
+	}
+
+	/**
+	 * Copie le DataFrame en compressant ses colonnes Integer, Long et Double ({@link DataColumn#compress()}) ;
+	 * les colonnes des autres types sont partagées sans copie
+	 * 
+	 * @return Un nouveau DataFrame de mêmes colonnes et de mêmes valeurs
+	 */
+	public DataFrame compress() {
+		DataFrame result = new DataFrame();
+		for (DataColumn<?> column : columns.values()) {
+			result.addColumn(column.isNumeric() ? column.compress() : column.slice(0, rowCount));
+		}
+		return result;
+	}
+
+	/**
+	 * Abandonne la mémoire hors tas des colonnes qui appartiennent au DataFrame, c'est-à-dire qu'il a reçues en premier :
+	 * copies de {@link #toOffHeap()}, résultats de filtres, tris et jointures, colonnes {@link DataColumn#offHeap}
+	 * ajoutées par {@link #addColumn}. Leurs segments ne sont plus référencés et sont rendus au système au prochain
+	 * passage du ramasse-miettes, même si le DataFrame reste accessible ; ces colonnes ne sont plus utilisables ensuite,
+	 * y compris dans les tranches et projections qui les partagent
+	 * Les colonnes partagées avec le DataFrame d'où elles viennent (projections par {@link Selection#selectColumns},
+	 * {@link LazyFrame} sans filtre) restent utilisables, tout comme les colonnes stockées dans le tas
+	 */
+	@Override
+	public void close() {
+		for (DataColumn<?> column : columns.values()) {
+			if (column.isOwnedBy(this)) {
+				column.release();
+			}
+		}
+	}
+
 	/**
 	 * Lis un fichier CSV et crée un DataFrame à partir de celui-ci
+	 * Chaque ligne est lue une seule fois et ses valeurs sont ajoutées directement aux colonnes,
+	 * dont le type est élargi au fil de la lecture (Integer -> Long -> Double -> String)
+	 * Une colonne passée en String garde le texte du fichier : si des nombres déjà lus n'étaient pas écrits
+	 * sous forme canonique (ex: "007", "10.50"), cette colonne seule est relue
+	 * Les champs entre guillemets peuvent contenir des virgules, des retours à la ligne et des guillemets doublés
 	 *
 	 * @param filename Le nom du fichier CSV
 	 * @return Un DataFrame contenant les données du fichier CSV
-	 * @throws IOException Si une erreur d'entrée/sortie se produit
+	 * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
 	 */
 	public static DataFrame fromCSV(String filename) throws IOException {
+		OperationTimer timer = Metrics.start("DataFrame.fromCSV");
 		DataFrame df = new DataFrame();
-		try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+		long bytesRead;
+		Path path = Paths.get(filename);
+		ColumnBuilder[] builders;
+		long dataStart;
+		try (CsvReader reader = new CsvReader(path)) {
 			// Première ligne: en-têtes
-			String[] headers = br.readLine().split(",");
-			Map<String, DataColumn<?>> tempColumns = new LinkedHashMap<>();
-			
-			//========= Détection du type de chaque colonne =========
-			List<String[]> allData = new ArrayList<>();
-			String line;
-			while ((line = br.readLine()) != null && !line.trim().isEmpty()) {
-				allData.add(line.split(","));
+			if (!reader.nextRecord()) {
+				throw new IOException("Le fichier CSV est vide : " + filename);
 			}
-		
-			for (int col = 0; col < headers.length; col++) {
-				String header = headers[col].trim();
-				boolean allInteger = true;
-				boolean allDouble = true;
-				
-				// On prend le type le plus global
-				// ex: 10 et 10.5 -> Double, trente et 20 -> String, 20.0, trente, 20 -> String
-				for (String[] row : allData) {
-					if (col >= row.length || row[col].trim().isEmpty()) {
-						continue;
-					}
-					String value = row[col].trim();
-					
-					if (allInteger && !isInteger(value)) {
-						allInteger = false;
-					}
-					if (allDouble && !isDouble(value)) {
-						allDouble = false;
-					}
-					
-					if (!allInteger && !allDouble) {
-						break; // si pas un nombre alors String
-					}
-				}
-				
-				// Création de la colonne avec le bon type
-				DataColumn<?> column;
-				if (allInteger) {
-					column = new DataColumn<>(header, Integer.class);
-				} else if (allDouble) {
-					column = new DataColumn<>(header, Double.class);
-				} else {
-					column = new DataColumn<>(header, String.class);
-				}
-				tempColumns.put(header, column);
+			builders = new ColumnBuilder[reader.fieldCount()];
+			for (int col = 0; col < builders.length; col++) {
+				builders[col] = new ColumnBuilder(reader.getString(col));
 			}
+			dataStart = reader.nextRecordOffset();
 			
-			//========== Remplissage des colonnes =========
-			for (String[] values : allData) {
-				for (int i = 0; i < headers.length; i++) {
-					String header = headers[i].trim();
-					String value = i < values.length ? values[i].trim() : "";
-					addValueToColumn(tempColumns.get(header), value);
+			//========= Lecture et remplissage des colonnes en une passe =========
+			while (reader.nextRecord() && !reader.isBlankRecord()) {
+				for (int col = 0; col < builders.length; col++) {
+					builders[col].append(reader, col);
 				}
 			}
-			
-			//========= Ajout des colonnes au DataFrame =========
-			for (String header : headers) {
-				df.addColumn(tempColumns.get(header.trim()));
-			}
+			bytesRead = reader.nextRecordOffset();
+		}
+
+		//========= Relecture des colonnes passées en String après des nombres non canoniques =========
+		int[] fields = new int[builders.length];
+		Arrays.setAll(fields, col -> col);
+		ColumnBuilder.rereadText(path, dataStart, builders, fields);
+		
+		//========= Ajout des colonnes au DataFrame =========
+		for (ColumnBuilder builder : builders) {
+			df.addColumn(builder.build());
 		}
+		timer.stop(df.rowCount, df.rowCount, bytesRead, (long) df.rowCount * df.columns.size());
 		return df;
 	}
-		
+
 	/**
-	 * Vérifie si une chaîne de caractères peut être convertie en entier
-	 * 
-	 * @param value La chaîne à vérifier
-	 * @return true si la chaîne peut être convertie en entier, false sinon
+	 * Lis un fichier CSV en parallèle et crée un DataFrame à partir de celui-ci
+	 * Le fichier est découpé en portions lues simultanément, le résultat est identique à {@link #fromCSV(String)}
+	 *
+	 * @param filename Le nom du fichier CSV
+	 * @param parallelism Le nombre de threads de lecture (1 pour une lecture séquentielle)
+	 * @return Un DataFrame contenant les données du fichier CSV
+	 * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
+	 * @throws IllegalArgumentException Si le nombre de threads est inférieur à 1
 	 */
-	private static boolean isInteger(String value) {
-		try {
-			Integer.parseInt(value);
-			return true;
-		} catch (NumberFormatException e) {
-			return false;
+	public static DataFrame fromCSV(String filename, int parallelism) throws IOException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Le nombre de threads doit être supérieur ou égal à 1");
 		}
+		if (parallelism == 1) {
+			return fromCSV(filename);
+		}
+		OperationTimer timer = Metrics.start("DataFrame.fromCSVParallel");
+		Path path = Paths.get(filename);
+		DataFrame df = new ParallelCsvLoader(path, parallelism, ParallelCsvLoader.DEFAULT_MIN_CHUNK_SIZE).load();
+		if (timer.isEnabled()) {
+			timer.stop(df.rowCount, df.rowCount, Files.size(path), (long) df.rowCount * df.columns.size());
+		}
+		return df;
 	}
-		
+
 	/**
-	 * Vérifie si une chaîne de caractères peut être convertie en double
-	 * 
-	 * @param value La chaîne à vérifier
-	 * @return true si la chaîne peut être convertie en double, false sinon
+	 * Enregistre le DataFrame dans un fichier binaire en colonnes, relu sans analyse par {@link #load(String)}
+	 * Le fichier contient le schéma, puis pour chaque colonne le bitmap de ses valeurs nulles et ses valeurs brutes
+	 * (les chaînes sous forme de positions et d'octets UTF-8)
+	 *
+	 * @param filename Le nom du fichier, remplacé s'il existe
+	 * @throws IOException Si une erreur d'entrée/sortie se produit
+	 * @throws IllegalArgumentException Si une colonne n'est pas de type Integer, Long, Double ou String
 	 */
-	private static boolean isDouble(String value) {
-		try {
-			Double.parseDouble(value);
-			return true;
-		} catch (NumberFormatException e) {
-			return false;
-		}
+	public void save(String filename) throws IOException {
+		ColumnarFile.write(this, Paths.get(filename));
 	}
 
 	/**
-	 * Ajoute une valeur à la colonne spécifiée, en cas d'erreur la valeur null est ajoutée
+	 * Charge un DataFrame enregistré par {@link #save(String)}
+	 * Le fichier est projeté en mémoire : les valeurs ne sont lues qu'à leur utilisation et une colonne n'est copiée
+	 * dans le tas qu'à sa première modification
 	 *
-	 * @param column La colonne à laquelle ajouter la valeur
-	 * @param value  La valeur à ajouter
-	 */
-	@SuppressWarnings("unchecked")
-	private static void addValueToColumn(DataColumn<?> column, String value) {
-		if (value.isEmpty()) {
-			((DataColumn<Object>)column).add(null);
-			return;
-		}
-		
-		try {
-			if (column.getDataType() == Integer.class) {
-				try {
-					((DataColumn<Integer>)column).add(Integer.parseInt(value));
-				} catch (NumberFormatException e) {
-					((DataColumn<Integer>)column).add(null);
-				}
-			} else if (column.getDataType() == Double.class) {
-				try {
-					((DataColumn<Double>)column).add(Double.parseDouble(value));
-				} catch (NumberFormatException e) {
-					((DataColumn<Double>)column).add(null);
-				}
-			} else {
-				((DataColumn<String>)column).add(value);
-			}
-		} catch (Exception e) {
-			((DataColumn<Object>)column).add(null);
-		}
+	 * @param filename Le nom du fichier
+	 * @return Le DataFrame contenu dans le fichier
+	 * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier n'est pas un DataFrame binaire valide
+	 */
+	public static DataFrame load(String filename) throws IOException {
+		return ColumnarFile.read(Paths.get(filename));
 	}
-}
\ No newline at end of file
+}
@@ -1,14 +1,20 @@
 package projet_devops;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
+import java.util.stream.IntStream;
 
 
 public class DataFrameStatistics {
+
+    /** Nombre de colonnes numériques à partir duquel describe traite les colonnes en parallèle */
+    private static final int PARALLEL_DESCRIBE_COLUMNS = 8;
+    /** Noms des lignes du résultat de describe */
+    private static final List<String> DESCRIBE_ROWS = List.of("count", "nulls", "mean", "variance", "std", "min", "max");
     
     /**
      * Calcule la moyenne d'une colonne numérique
@@ -19,18 +25,10 @@ public class DataFrameStatistics {
         if (!isNumericColumn(column)) {
             return null;
         }
-
-        double sum = 0;
-        int count = 0;
-
-        for (Object value : column.getValues()) {
-            if (value != null) {
-                sum += ((Number) value).doubleValue();
-                count++;
-            }
-        }
-
-        return count > 0 ? sum / count : null;
+        OperationTimer timer = Metrics.start("DataFrameStatistics.mean");
+        Double result = column.stats().getMean();
+        timer.stop(column.size(), 1);
+        return result;
     }
 
     /**
@@ -43,24 +41,78 @@ public class DataFrameStatistics {
             return null;
         }
 
-        List<Double> values = new ArrayList<>();
-        for (Object value : column.getValues()) {
-            if (value != null) {
-                values.add(((Number) value).doubleValue());
+        OperationTimer timer = Metrics.start("DataFrameStatistics.median");
+        double[] values = QuickSelect.copyNonNull(column.getStorage());
+        int size = values.length;
+        Double median;
+        if (size == 0) {
+            median = null;
+        } else if (size % 2 == 0) {
+            QuickSelect.select(values, new int[] {size / 2 - 1, size / 2});
+            median = (values[size / 2 - 1] + values[size / 2]) / 2;
+        } else {
+            QuickSelect.select(values, new int[] {size / 2});
+            median = values[size / 2];
+        }
+        timer.stop(column.size(), median == null ? 0 : 1);
+        return median;
+    }
+
+    /**
+     * Calcule un quantile exact d'une colonne numérique, par interpolation linéaire
+     * entre les deux valeurs qui encadrent la position q * (n - 1)
+     * @param column La colonne à analyser
+     * @param q L'ordre du quantile, entre 0 et 1
+     * @return Le quantile ou null si la colonne n'est pas numérique ou ne contient que des nulls
+     * @throws IllegalArgumentException si q n'est pas entre 0 et 1
+     */
+    public Double quantile(DataColumn<?> column, double q) {
+        double[] result = quantiles(column, new double[] {q});
+        return result == null ? null : result[0];
+    }
+
+    /**
+     * Calcule plusieurs quantiles exacts d'une colonne numérique en une seule sélection
+     * @param column La colonne à analyser
+     * @param qs Les ordres des quantiles, entre 0 et 1, dans n'importe quel ordre
+     * @return Les quantiles dans l'ordre de qs, ou null si la colonne n'est pas numérique ou ne contient que des nulls
+     * @throws IllegalArgumentException si un ordre n'est pas entre 0 et 1
+     */
+    public double[] quantiles(DataColumn<?> column, double[] qs) {
+        for (double q : qs) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("L'ordre d'un quantile doit être entre 0 et 1 : " + q);
             }
         }
+        if (!isNumericColumn(column)) {
+            return null;
+        }
 
-        if (values.isEmpty()) {
+        OperationTimer timer = Metrics.start("DataFrameStatistics.quantiles");
+        double[] values = QuickSelect.copyNonNull(column.getStorage());
+        int size = values.length;
+        if (size == 0) {
+            timer.stop(column.size(), 0);
             return null;
         }
 
-        Collections.sort(values);
-        int size = values.size();
-        if (size % 2 == 0) {
-            return (values.get(size / 2 - 1) + values.get(size / 2)) / 2;
-        } else {
-            return values.get(size / 2);
+        int[] ranks = new int[2 * qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            double position = qs[i] * (size - 1);
+            ranks[2 * i] = (int) Math.floor(position);
+            ranks[2 * i + 1] = (int) Math.ceil(position);
+        }
+        QuickSelect.select(values, Arrays.stream(ranks).sorted().distinct().toArray());
+
+        double[] result = new double[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            double lower = values[ranks[2 * i]];
+            double upper = values[ranks[2 * i + 1]];
+            double fraction = qs[i] * (size - 1) - ranks[2 * i];
+            result[i] = fraction == 0 ? lower : lower + (upper - lower) * fraction;
         }
+        timer.stop(column.size(), qs.length);
+        return result;
     }
 
     /**
@@ -72,17 +124,10 @@ public class DataFrameStatistics {
         if (!isNumericColumn(column)) {
             return null;
         }
-
-        Double min = null;
-        for (Object value : column.getValues()) {
-            if (value != null) {
-                double current = ((Number) value).doubleValue();
-                if (min == null || current < min) {
-                    min = current;
-                }
-            }
-        }
-        return min;
+        OperationTimer timer = Metrics.start("DataFrameStatistics.min");
+        Double result = column.stats().getMin();
+        timer.stop(column.size(), 1);
+        return result;
     }
 
     /**
@@ -94,17 +139,10 @@ public class DataFrameStatistics {
         if (!isNumericColumn(column)) {
             return null;
         }
-
-        Double max = null;
-        for (Object value : column.getValues()) {
-            if (value != null) {
-                double current = ((Number) value).doubleValue();
-                if (max == null || current > max) {
-                    max = current;
-                }
-            }
-        }
-        return max;
+        OperationTimer timer = Metrics.start("DataFrameStatistics.max");
+        Double result = column.stats().getMax();
+        timer.stop(column.size(), 1);
+        return result;
     }
 
     /**
@@ -113,23 +151,13 @@ public class DataFrameStatistics {
      * @return L'écart-type ou null si la colonne n'est pas numérique
      */
     public Double standardDeviation(DataColumn<?> column) {
-        Double mean = mean(column);
-        if (mean == null) {
+        if (!isNumericColumn(column)) {
             return null;
         }
-
-        double sumSquaredDiff = 0;
-        int count = 0;
-
-        for (Object value : column.getValues()) {
-            if (value != null) {
-                double val = ((Number) value).doubleValue();
-                sumSquaredDiff += Math.pow(val - mean, 2);
-                count++;
-            }
-        }
-
-        return count > 0 ? Math.sqrt(sumSquaredDiff / count) : null;
+        OperationTimer timer = Metrics.start("DataFrameStatistics.standardDeviation");
+        Double result = column.stats().getStandardDeviation();
+        timer.stop(column.size(), 1);
+        return result;
     }
 
     /**
@@ -138,8 +166,50 @@ public class DataFrameStatistics {
      * @return true si la colonne est numérique
      */
     private boolean isNumericColumn(DataColumn<?> column) {
-        return column.getDataType() == Integer.class || 
-               column.getDataType() == Double.class;
+        return column.isNumeric();
+    }
+
+    /**
+     * Calcule en une seule passe par colonne les statistiques de toutes les colonnes numériques
+     * Les colonnes sont traitées en parallèle lorsque le DataFrame est large
+     * 
+     * @param df Le DataFrame à analyser
+     * @return Un DataFrame avec une colonne "statistique" (count, nulls, mean, variance, std, min, max)
+     *         puis une colonne Double par colonne numérique
+     */
+    public DataFrame describe(DataFrame df) {
+        OperationTimer timer = Metrics.start("DataFrameStatistics.describe");
+        List<DataColumn<?>> numericColumns = new ArrayList<>();
+        for (String columnName : df.getColumnNames()) {
+            DataColumn<?> column = df.getColumn(columnName);
+            if (isNumericColumn(column)) {
+                numericColumns.add(column);
+            }
+        }
+
+        ColumnStats[] results = new ColumnStats[numericColumns.size()];
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length >= PARALLEL_DESCRIBE_COLUMNS) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = numericColumns.get(i).stats());
+
+        DataFrame summary = new DataFrame();
+        summary.addColumn(new DataColumn<>("statistique", String.class, DESCRIBE_ROWS));
+        for (int i = 0; i < results.length; i++) {
+            ColumnStats stats = results[i];
+            DataColumn<Double> column = new DataColumn<>(numericColumns.get(i).getColumnName(), Double.class);
+            column.addDouble(stats.getCount());
+            column.addDouble(stats.getNullCount());
+            column.add(stats.getMean());
+            column.add(stats.getVariance());
+            column.add(stats.getStandardDeviation());
+            column.add(stats.getMin());
+            column.add(stats.getMax());
+            summary.addColumn(column);
+        }
+        timer.stop(df.getRowCount(), summary.getRowCount());
+        return summary;
     }
 
     /**
@@ -149,11 +219,12 @@ public class DataFrameStatistics {
     public void summarize(DataColumn<?> column) {
         System.out.println("Statistiques pour la colonne : " + column.getColumnName());
         if (isNumericColumn(column)) {
-            System.out.println("Moyenne: " + formatValue(mean(column)));
+            ColumnStats stats = column.stats();
+            System.out.println("Moyenne: " + formatValue(stats.getMean()));
             System.out.println("Médiane: " + formatValue(median(column)));
-            System.out.println("Minimum: " + formatValue(min(column)));
-            System.out.println("Maximum: " + formatValue(max(column)));
-            System.out.println("Écart-type: " + formatValue(standardDeviation(column)));
+            System.out.println("Minimum: " + formatValue(stats.getMin()));
+            System.out.println("Maximum: " + formatValue(stats.getMax()));
+            System.out.println("Écart-type: " + formatValue(stats.getStandardDeviation()));
         } else {
             System.out.println("Type: " + column.getDataType().getSimpleName());
             System.out.println("Nombre de valeurs: " + column.size());
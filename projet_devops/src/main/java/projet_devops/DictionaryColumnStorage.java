@@ -0,0 +1,263 @@
+package projet_devops;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Stockage d'une colonne String à encodage par dictionnaire
+ * Chaque valeur distincte n'est stockée qu'une fois ; chaque ligne ne contient que le code (int) de sa valeur, -1 pour null
+ * Adapté aux colonnes de faible cardinalité (pays, statut, code produit) ; la lecture CSV repasse à un stockage
+ * {@link ObjectColumnStorage} dès que la colonne compte trop de valeurs distinctes (voir {@link #exceedsLimit()})
+ */
+final class DictionaryColumnStorage extends ColumnStorage {
+    /**
+     * Nombre maximal de valeurs distinctes
+     */
+    static final int MAX_DISTINCT = 1 << 16;
+    /**
+     * Nombre de lignes à partir duquel une colonne dont plus de la moitié des valeurs sont distinctes n'est plus encodée
+     */
+    static final int MIN_ROWS_FOR_RATIO = 1024;
+
+    /**
+     * Code de chaque ligne (-1 pour une valeur nulle)
+     */
+    int[] codes = new int[0];
+    /**
+     * Nombre de lignes stockées
+     */
+    int size;
+    /**
+     * Valeurs distinctes, indexées par leur code
+     */
+    private List<String> dictionary;
+    /**
+     * Code de chaque valeur distincte
+     */
+    private Map<String, Integer> index;
+    /**
+     * Indique si le dictionnaire est partagé avec d'autres stockages (copies de lignes, filtres, tris) :
+     * il est alors copié avant l'ajout d'une nouvelle valeur
+     */
+    private boolean sharedDictionary;
+
+    /**
+     * Crée un stockage vide
+     */
+    DictionaryColumnStorage() {
+        this.dictionary = new ArrayList<>();
+        this.index = new HashMap<>();
+    }
+
+    /**
+     * Crée un stockage à partir d'un dictionnaire et des codes de chaque ligne déjà calculés
+     *
+     * @param values Les valeurs distinctes, indexées par leur code
+     * @param codes Le code de chaque ligne (-1 pour une valeur nulle)
+     */
+    DictionaryColumnStorage(List<String> values, int[] codes) {
+        this.dictionary = new ArrayList<>(values);
+        this.index = new HashMap<>();
+        for (int code = 0; code < values.size(); code++) {
+            index.put(values.get(code), code);
+        }
+        this.codes = codes;
+        this.size = codes.length;
+    }
+
+    /**
+     * Crée un stockage vide partageant le dictionnaire d'un autre, sans le copier
+     * Le premier des deux stockages qui doit y ajouter une valeur en fait d'abord sa propre copie
+     *
+     * @param other Le stockage dont le dictionnaire est repris
+     */
+    private DictionaryColumnStorage(DictionaryColumnStorage other) {
+        this.dictionary = other.dictionary;
+        this.index = other.index;
+        this.sharedDictionary = true;
+        other.sharedDictionary = true;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Object get(int index) {
+        int code = codes[index];
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return codes[index] < 0;
+    }
+
+    @Override
+    void add(Object value) {
+        ensureCapacity(size + 1);
+        codes[size++] = value == null ? -1 : codeFor((String) value);
+    }
+
+    @Override
+    void appendAll(ColumnStorage other) {
+        if (!(other instanceof DictionaryColumnStorage)) {
+            super.appendAll(other);
+            return;
+        }
+        DictionaryColumnStorage source = (DictionaryColumnStorage) other;
+        int[] remap = new int[source.dictionary.size()];
+        for (int code = 0; code < remap.length; code++) {
+            remap[code] = codeFor(source.dictionary.get(code));
+        }
+        ensureCapacity(size + source.size);
+        for (int i = 0; i < source.size; i++) {
+            int code = source.codes[i];
+            codes[size + i] = code < 0 ? -1 : remap[code];
+        }
+        size += source.size;
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        DictionaryColumnStorage target = new DictionaryColumnStorage(this);
+        target.codes = Arrays.copyOfRange(codes, from, to);
+        target.size = to - from;
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        DictionaryColumnStorage target = new DictionaryColumnStorage(this);
+        target.codes = new int[count];
+        for (int i = 0; i < count; i++) {
+            target.codes[i] = rows[i] < 0 ? -1 : codes[rows[i]];
+        }
+        target.size = count;
+        return target;
+    }
+
+    /**
+     * Retourne le code d'une valeur, en l'ajoutant au dictionnaire si elle est nouvelle
+     *
+     * @param value La valeur (non nulle)
+     * @return Son code
+     */
+    private int codeFor(String value) {
+        Integer code = index.get(value);
+        if (code == null) {
+            if (sharedDictionary) {
+                dictionary = new ArrayList<>(dictionary);
+                index = new HashMap<>(index);
+                sharedDictionary = false;
+            }
+            code = dictionary.size();
+            dictionary.add(value);
+            index.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Retourne le code d'une valeur sans modifier le dictionnaire
+     *
+     * @param value La valeur
+     * @return Son code, ou -1 si elle n'est pas dans le dictionnaire
+     */
+    int codeOf(String value) {
+        Integer code = index.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Retourne le code de la ligne spécifiée
+     *
+     * @param index L'index de la ligne
+     * @return Le code, -1 si la valeur est nulle
+     */
+    int getCode(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Retourne le nombre de valeurs distinctes
+     *
+     * @return La taille du dictionnaire
+     */
+    int dictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * Retourne la valeur associée à un code
+     *
+     * @param code Le code
+     * @return La valeur
+     */
+    String dictionaryValue(int code) {
+        return dictionary.get(code);
+    }
+
+    /**
+     * Indique si la colonne a trop de valeurs distinctes pour que l'encodage soit rentable
+     *
+     * @return true si le dictionnaire dépasse MAX_DISTINCT valeurs, ou la moitié des lignes au-delà de MIN_ROWS_FOR_RATIO lignes
+     */
+    boolean exceedsLimit() {
+        int distinct = dictionary.size();
+        return distinct > MAX_DISTINCT || (size >= MIN_ROWS_FOR_RATIO && distinct > size / 2);
+    }
+
+    /**
+     * Convertit le stockage en liste de chaînes
+     *
+     * @return Un stockage non encodé contenant les mêmes valeurs
+     */
+    ObjectColumnStorage toObjectStorage() {
+        ObjectColumnStorage target = new ObjectColumnStorage();
+        for (int i = 0; i < size; i++) {
+            target.add(get(i));
+        }
+        return target;
+    }
+
+    /**
+     * Construit le masque des lignes dont la valeur vérifie un test
+     * Le test n'est évalué qu'une fois par valeur distincte, les lignes ne comparent ensuite que des codes
+     *
+     * @param test Le test sur une valeur non nulle
+     * @return Le masque des lignes retenues (les valeurs nulles ne le sont jamais)
+     */
+    RowMask mask(Predicate<String> test) {
+        boolean[] accepted = new boolean[dictionary.size()];
+        for (int code = 0; code < accepted.length; code++) {
+            accepted[code] = test.test(dictionary.get(code));
+        }
+        return RowMask.build(size, i -> codes[i] >= 0 && accepted[codes[i]]);
+    }
+
+    /**
+     * Agrandit le tableau des codes si nécessaire
+     *
+     * @param minCapacity La capacité minimale requise
+     */
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > codes.length) {
+            codes = Arrays.copyOf(codes, PrimitiveColumnStorage.grownCapacity(codes.length, minCapacity));
+        }
+    }
+
+    /**
+     * Ramène le tableau des codes à la taille exacte des données
+     */
+    void trimToSize() {
+        if (codes.length > size) {
+            codes = Arrays.copyOf(codes, size);
+        }
+    }
+}
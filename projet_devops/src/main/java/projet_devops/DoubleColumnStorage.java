@@ -0,0 +1,118 @@
+package projet_devops;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * Stockage d'une colonne Double dans un tableau double[]
+ */
+class DoubleColumnStorage extends PrimitiveColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    double[] data = new double[0];
+
+    @Override
+    int capacity() {
+        return data.length;
+    }
+
+    @Override
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            resize(grownCapacity(data.length, minCapacity));
+        }
+    }
+
+    @Override
+    void resize(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    @Override
+    void copyValues(PrimitiveColumnStorage source, int offset) {
+        DoubleColumnStorage other = (DoubleColumnStorage) source;
+        System.arraycopy(other.data, 0, data, offset, other.size);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = Arrays.copyOfRange(data, from, to);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = new double[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = data[row];
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addDouble(source.getDouble(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return data[index];
+    }
+
+    @Override
+    void append(Object value) {
+        addDouble((Double) value);
+    }
+
+    @Override
+    void addDouble(double value) {
+        ensureCapacity(size + 1);
+        data[size++] = value;
+    }
+
+    @Override
+    double getDouble(int index) {
+        return data[index];
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        System.arraycopy(data, from, dest, 0, length);
+    }
+
+    /**
+     * Ajoute à la fin du stockage un bloc de valeurs, dont certaines peuvent être nulles
+     * 
+     * @param values Les valeurs à ajouter, à partir de l'index 0
+     * @param valueNulls Les positions nulles du bloc, ou null si aucune valeur n'est nulle
+     * @param length Le nombre de valeurs à ajouter
+     */
+    void addDoubles(double[] values, boolean[] valueNulls, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(values, 0, data, size, length);
+        if (valueNulls != null) {
+            for (int i = 0; i < length; i++) {
+                if (valueNulls[i]) {
+                    data[size + i] = 0;
+                    markNull(size + i);
+                }
+            }
+        }
+        size += length;
+    }
+
+    @Override
+    DoubleBuffer asDoubleBuffer() {
+        return DoubleBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,641 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Base des stockages compressés en lecture seule des colonnes Integer, Long et Double ({@link DataColumn#compress()})
+ * Les valeurs sont converties en clés entières (long) puis découpées en blocs de {@link #BLOCK_SIZE} lignes ;
+ * chaque bloc est compacté sur le nombre de bits strictement nécessaire avec l'encodage qui lui coûte le moins de bits :
+ * <ul>
+ * <li>FOR (frame of reference) : écart de chaque clé au minimum du bloc</li>
+ * <li>DELTA : écart de chaque clé à la droite partant de la première clé avec le pas moyen du bloc
+ * (colonnes triées : identifiants, horodatages)</li>
+ * <li>RLE : suite de plages de clés identiques, chacune stockée par sa clé et la position de sa dernière ligne</li>
+ * </ul>
+ * La lecture d'une ligne reste directe (une recherche dichotomique parmi les plages pour RLE)
+ * Le minimum et le maximum de chaque bloc permettent aux filtres d'accepter ou d'écarter un bloc entier sans le décoder,
+ * et les statistiques traitent une plage RLE en une seule opération
+ * Une colonne copie le stockage dans un stockage modifiable (non compressé) avant la première modification
+ */
+abstract class EncodedColumnStorage extends ColumnStorage {
+    /** Logarithme en base 2 du nombre de lignes d'un bloc */
+    static final int BLOCK_SHIFT = 10;
+    /** Nombre de lignes d'un bloc */
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    /** Encodage par écart au minimum du bloc */
+    static final byte FOR = 0;
+    /** Encodage par écart à une progression linéaire */
+    static final byte DELTA = 1;
+    /** Encodage par plages de valeurs identiques */
+    static final byte RLE = 2;
+
+    /**
+     * Nombre de valeurs stockées
+     */
+    final int size;
+    /**
+     * Bitmap des valeurs nulles (un bit par ligne), null si la colonne n'a aucune valeur nulle
+     */
+    private long[] nulls;
+    /**
+     * Encodage de chaque bloc (FOR, DELTA ou RLE)
+     */
+    private final byte[] encodings;
+    /**
+     * Nombre de bits de chaque valeur compactée d'un bloc
+     */
+    private final byte[] widths;
+    /**
+     * Paramètre de conversion des clés en valeurs de chaque bloc (nombre de décimales d'une colonne Double)
+     */
+    final byte[] scales;
+    /**
+     * Clé de référence de chaque bloc, ajoutée aux valeurs compactées
+     */
+    private final long[] bases;
+    /**
+     * Pas de la progression linéaire (DELTA) ou nombre de plages (RLE) de chaque bloc
+     */
+    private final long[] steps;
+    /**
+     * Plus petite et plus grande clé non nulle de chaque bloc (min > max si le bloc ne contient que des nulls)
+     */
+    private final long[] mins;
+    private final long[] maxs;
+    /**
+     * Position (en mots de 64 bits) des valeurs compactées de chaque bloc dans packed
+     */
+    private final int[] offsets;
+    /**
+     * Valeurs compactées de tous les blocs, chaque bloc commençant sur un nouveau mot
+     */
+    private long[] packed;
+
+    /**
+     * Constructeur d'un stockage dont les blocs sont ensuite remplis par {@link #encode(ColumnStorage, Class)}
+     *
+     * @param size Le nombre de valeurs
+     */
+    EncodedColumnStorage(int size) {
+        this.size = size;
+        int blocks = (size + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        this.encodings = new byte[blocks];
+        this.widths = new byte[blocks];
+        this.scales = new byte[blocks];
+        this.bases = new long[blocks];
+        this.steps = new long[blocks];
+        this.mins = new long[blocks];
+        this.maxs = new long[blocks];
+        this.offsets = new int[blocks];
+    }
+
+    /**
+     * Compresse les valeurs d'un stockage numérique
+     *
+     * @param source Le stockage à compresser
+     * @param dataType Le type de données de la colonne
+     * @return Le stockage compressé, de mêmes valeurs
+     * @throws IllegalArgumentException Si le type n'est pas Integer, Long ou Double
+     */
+    static EncodedColumnStorage encode(ColumnStorage source, Class<?> dataType) {
+        EncodedColumnStorage target;
+        if (dataType == Integer.class) {
+            target = new EncodedIntColumnStorage(source.size());
+        } else if (dataType == Long.class) {
+            target = new EncodedLongColumnStorage(source.size());
+        } else if (dataType == Double.class) {
+            target = new EncodedDoubleColumnStorage(source.size());
+        } else {
+            throw new IllegalArgumentException("Type non supporté pour une colonne compressée : " + dataType.getSimpleName());
+        }
+        target.encodeBlocks(source);
+        return target;
+    }
+
+    /**
+     * Convertit en clés les valeurs non nulles d'un bloc du stockage source
+     *
+     * @param source Le stockage source
+     * @param from L'index de la première ligne du bloc
+     * @param length Le nombre de lignes du bloc
+     * @param nullRows Les lignes nulles du bloc, dont la clé est ignorée
+     * @param keys Le tableau de destination des clés
+     * @return Le paramètre de conversion du bloc, conservé dans {@link #scales}
+     */
+    abstract byte toKeys(ColumnStorage source, int from, int length, boolean[] nullRows, long[] keys);
+
+    /**
+     * Convertit une clé du bloc donné en valeur numérique
+     *
+     * @param block L'index du bloc
+     * @param key La clé
+     * @return La valeur
+     */
+    abstract double toDouble(int block, long key);
+
+    /**
+     * Convertit des clés du bloc donné en valeurs numériques
+     *
+     * @param block L'index du bloc
+     * @param keys Les clés
+     * @param dest Le tableau de destination
+     * @param offset La position de destination de la première valeur
+     * @param length Le nombre de clés à convertir
+     */
+    abstract void toDoubles(int block, long[] keys, double[] dest, int offset, int length);
+
+    /**
+     * Retourne la comparaison d'une clé du bloc donné avec une valeur du type de la colonne
+     * La fonction doit être croissante : une clé plus grande ne donne jamais une comparaison plus petite
+     *
+     * @param block L'index du bloc
+     * @param value La valeur de comparaison
+     * @return La fonction donnant le signe de (valeur de la clé - value)
+     */
+    abstract LongToIntFunction comparator(int block, Object value);
+
+    /**
+     * Compresse les valeurs du stockage source, bloc par bloc
+     */
+    private void encodeBlocks(ColumnStorage source) {
+        long[] keys = new long[BLOCK_SIZE];
+        boolean[] nullRows = new boolean[BLOCK_SIZE];
+        long[] bitmap = new long[(size + 63) >>> 6];
+        boolean hasNulls = false;
+        packed = new long[16];
+        int words = 0;
+        for (int block = 0; block < encodings.length; block++) {
+            int from = block << BLOCK_SHIFT;
+            int length = Math.min(BLOCK_SIZE, size - from);
+            Arrays.fill(nullRows, 0, length, false);
+            source.markNulls(from, nullRows, length);
+            scales[block] = toKeys(source, from, length, nullRows, keys);
+
+            // Une ligne nulle reprend la clé précédente, pour ne pas couper une plage ni une progression
+            long fill = 0;
+            for (int i = 0; i < length; i++) {
+                if (!nullRows[i]) {
+                    fill = keys[i];
+                    break;
+                }
+            }
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < length; i++) {
+                if (nullRows[i]) {
+                    keys[i] = fill;
+                    bitmap[(from + i) >>> 6] |= 1L << (from + i);
+                    hasNulls = true;
+                } else {
+                    fill = keys[i];
+                    min = Math.min(min, fill);
+                    max = Math.max(max, fill);
+                }
+            }
+            mins[block] = min;
+            maxs[block] = max;
+            offsets[block] = words;
+            packed = ensureWords(packed, words + length + 1);
+            words += encodeBlock(block, keys, length, min > max ? fill : min, min > max ? fill : max, words);
+        }
+        nulls = hasNulls ? bitmap : null;
+        packed = Arrays.copyOf(packed, words);
+    }
+
+    /**
+     * Choisit l'encodage du bloc qui demande le moins de bits, puis compacte ses clés
+     *
+     * @return Le nombre de mots de 64 bits utilisés
+     */
+    private int encodeBlock(int block, long[] keys, int length, long min, long max, int word) {
+        int valueWidth = width(max - min);
+        long forBits = (long) length * valueWidth;
+
+        long step = length > 1 ? (keys[length - 1] - keys[0]) / (length - 1) : 0;
+        long lowest = Long.MAX_VALUE;
+        long highest = Long.MIN_VALUE;
+        int runs = 1;
+        for (int i = 0; i < length; i++) {
+            long residual = keys[i] - keys[0] - i * step;
+            lowest = Math.min(lowest, residual);
+            highest = Math.max(highest, residual);
+            if (i > 0 && keys[i] != keys[i - 1]) {
+                runs++;
+            }
+        }
+        int deltaWidth = width(highest - lowest);
+        long deltaBits = (long) length * deltaWidth;
+        int endWidth = width(length - 1);
+        long rleBits = (long) runs * (valueWidth + endWidth);
+
+        long bit = (long) word << 6;
+        long bits;
+        if (forBits <= deltaBits && forBits <= rleBits) {
+            encodings[block] = FOR;
+            widths[block] = (byte) valueWidth;
+            bases[block] = min;
+            for (int i = 0; i < length; i++) {
+                pack(packed, bit + (long) i * valueWidth, keys[i] - min, valueWidth);
+            }
+            bits = forBits;
+        } else if (deltaBits <= rleBits) {
+            encodings[block] = DELTA;
+            widths[block] = (byte) deltaWidth;
+            bases[block] = keys[0] + lowest;
+            steps[block] = step;
+            for (int i = 0; i < length; i++) {
+                pack(packed, bit + (long) i * deltaWidth, keys[i] - keys[0] - i * step - lowest, deltaWidth);
+            }
+            bits = deltaBits;
+        } else {
+            encodings[block] = RLE;
+            widths[block] = (byte) valueWidth;
+            bases[block] = min;
+            steps[block] = runs;
+            long endsBit = bit + (long) runs * valueWidth;
+            int run = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == length - 1 || keys[i + 1] != keys[i]) {
+                    pack(packed, bit + (long) run * valueWidth, keys[i] - min, valueWidth);
+                    pack(packed, endsBit + (long) run * endWidth, i, endWidth);
+                    run++;
+                }
+            }
+            bits = rleBits;
+        }
+        return (int) ((bits + 63) >>> 6);
+    }
+
+    /**
+     * Retourne le nombre de bits nécessaires pour écrire un entier non signé
+     *
+     * @param range L'entier, lu comme non signé
+     * @return Le nombre de bits, de 0 à 64
+     */
+    static int width(long range) {
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+
+    private static long[] ensureWords(long[] words, int minLength) {
+        return minLength <= words.length ? words : Arrays.copyOf(words, Math.max(minLength, words.length * 2));
+    }
+
+    /**
+     * Écrit une valeur sur width bits à la position donnée (la valeur doit tenir sur width bits)
+     */
+    private static void pack(long[] words, long bit, long value, int width) {
+        if (width == 0) {
+            return;
+        }
+        int word = (int) (bit >>> 6);
+        int shift = (int) bit & 63;
+        words[word] |= value << shift;
+        if (shift + width > 64) {
+            words[word + 1] |= value >>> (64 - shift);
+        }
+    }
+
+    /**
+     * Lit une valeur de width bits à la position donnée
+     */
+    private static long unpack(long[] words, long bit, int width) {
+        if (width == 0) {
+            return 0;
+        }
+        int word = (int) (bit >>> 6);
+        int shift = (int) bit & 63;
+        long value = words[word] >>> shift;
+        if (shift + width > 64) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return width == 64 ? value : value & ((1L << width) - 1);
+    }
+
+    /**
+     * Retourne le nombre de lignes d'un bloc (le dernier peut être incomplet)
+     */
+    private int blockLength(int block) {
+        return Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));
+    }
+
+    /**
+     * Retourne la clé d'une ligne (la clé reprise d'une ligne voisine pour une ligne nulle)
+     *
+     * @param index L'index de la ligne
+     * @return La clé
+     */
+    final long key(int index) {
+        int block = index >>> BLOCK_SHIFT;
+        int row = index & (BLOCK_SIZE - 1);
+        int width = widths[block];
+        long bit = (long) offsets[block] << 6;
+        switch (encodings[block]) {
+            case FOR:
+                return bases[block] + unpack(packed, bit + (long) row * width, width);
+            case DELTA:
+                return bases[block] + row * steps[block] + unpack(packed, bit + (long) row * width, width);
+            default:
+                return bases[block] + unpack(packed, bit + (long) findRun(block, row) * width, width);
+        }
+    }
+
+    /**
+     * Cherche par dichotomie la plage RLE contenant une ligne du bloc
+     *
+     * @return L'index de la plage dans le bloc
+     */
+    private int findRun(int block, int row) {
+        int runs = (int) steps[block];
+        int endWidth = width(blockLength(block) - 1);
+        long endsBit = ((long) offsets[block] << 6) + (long) runs * widths[block];
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (unpack(packed, endsBit + (long) middle * endWidth, endWidth) < row) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Décode toutes les clés d'un bloc
+     *
+     * @param block L'index du bloc
+     * @param keys Le tableau de destination, rempli à partir de l'index 0
+     */
+    final void decodeBlock(int block, long[] keys) {
+        int length = blockLength(block);
+        int width = widths[block];
+        long bit = (long) offsets[block] << 6;
+        long base = bases[block];
+        switch (encodings[block]) {
+            case FOR:
+                if (width == 0) {
+                    Arrays.fill(keys, 0, length, base);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        keys[i] = base + unpack(packed, bit + (long) i * width, width);
+                    }
+                }
+                break;
+            case DELTA:
+                long step = steps[block];
+                for (int i = 0; i < length; i++) {
+                    keys[i] = base + i * step + unpack(packed, bit + (long) i * width, width);
+                }
+                break;
+            default:
+                int runs = (int) steps[block];
+                int endWidth = width(length - 1);
+                long endsBit = bit + (long) runs * width;
+                int start = 0;
+                for (int run = 0; run < runs; run++) {
+                    int end = (int) unpack(packed, endsBit + (long) run * endWidth, endWidth) + 1;
+                    Arrays.fill(keys, start, end, base + unpack(packed, bit + (long) run * width, width));
+                    start = end;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Indique si une plage de lignes contient une valeur nulle
+     */
+    private boolean hasNulls(int from, int to) {
+        if (nulls == null) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (isNull(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcule les statistiques d'une plage de lignes directement sur les blocs compressés :
+     * une plage RLE sans valeur nulle est ajoutée en une fois, les autres blocs sont décodés d'un seul tenant
+     *
+     * @param from L'index de la première ligne
+     * @param to L'index suivant la dernière ligne
+     * @return Les statistiques des valeurs de la plage
+     */
+    ColumnStats stats(int from, int to) {
+        ColumnStats stats = new ColumnStats();
+        long[] keys = new long[BLOCK_SIZE];
+        double[] values = new double[BLOCK_SIZE];
+        for (int block = from >>> BLOCK_SHIFT; block << BLOCK_SHIFT < to; block++) {
+            int blockStart = block << BLOCK_SHIFT;
+            int start = Math.max(from, blockStart);
+            int end = Math.min(to, blockStart + blockLength(block));
+            boolean blockNulls = hasNulls(start, end);
+            if (encodings[block] == RLE && !blockNulls) {
+                int runs = (int) steps[block];
+                int width = widths[block];
+                int endWidth = width(blockLength(block) - 1);
+                long bit = (long) offsets[block] << 6;
+                long endsBit = bit + (long) runs * width;
+                int runStart = blockStart;
+                for (int run = 0; run < runs && runStart < end; run++) {
+                    int runEnd = blockStart + (int) unpack(packed, endsBit + (long) run * endWidth, endWidth) + 1;
+                    int count = Math.min(runEnd, end) - Math.max(runStart, start);
+                    if (count > 0) {
+                        stats.acceptRun(toDouble(block, bases[block] + unpack(packed, bit + (long) run * width, width)), count);
+                    }
+                    runStart = runEnd;
+                }
+                continue;
+            }
+            decodeBlock(block, keys);
+            toDoubles(block, keys, values, 0, blockLength(block));
+            for (int i = start; i < end; i++) {
+                if (blockNulls && isNull(i)) {
+                    stats.acceptNull();
+                } else {
+                    stats.accept(values[i - blockStart]);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Crée le masque des lignes dont la valeur vérifie une comparaison, directement sur les blocs compressés :
+     * un bloc dont le minimum et le maximum donnent la même comparaison est accepté ou écarté en entier,
+     * une plage RLE est testée une seule fois, les autres blocs sont décodés d'un seul tenant
+     *
+     * @param condition Le test sur le signe de la comparaison (voir {@link RowFilter#comparison})
+     * @param value La valeur de comparaison, du type de la colonne
+     * @return Le masque des lignes vérifiant la condition (les valeurs nulles ne la vérifient jamais)
+     */
+    RowMask mask(IntPredicate condition, Object value) {
+        RowMask mask = new RowMask(size);
+        long[] keys = new long[BLOCK_SIZE];
+        for (int block = 0; block < encodings.length; block++) {
+            if (mins[block] > maxs[block]) {
+                continue;
+            }
+            int blockStart = block << BLOCK_SHIFT;
+            int length = blockLength(block);
+            LongToIntFunction compare = comparator(block, value);
+            int low = Integer.signum(compare.applyAsInt(mins[block]));
+            if (low == Integer.signum(compare.applyAsInt(maxs[block]))) {
+                if (condition.test(low)) {
+                    mask.setRange(blockStart, blockStart + length);
+                }
+            } else if (encodings[block] == RLE) {
+                int runs = (int) steps[block];
+                int width = widths[block];
+                int endWidth = width(length - 1);
+                long bit = (long) offsets[block] << 6;
+                long endsBit = bit + (long) runs * width;
+                int runStart = blockStart;
+                for (int run = 0; run < runs; run++) {
+                    int runEnd = blockStart + (int) unpack(packed, endsBit + (long) run * endWidth, endWidth) + 1;
+                    if (condition.test(compare.applyAsInt(bases[block] + unpack(packed, bit + (long) run * width, width)))) {
+                        mask.setRange(runStart, runEnd);
+                    }
+                    runStart = runEnd;
+                }
+            } else {
+                decodeBlock(block, keys);
+                for (int i = 0; i < length; i++) {
+                    if (condition.test(compare.applyAsInt(keys[i]))) {
+                        mask.set(blockStart + i);
+                    }
+                }
+            }
+        }
+        if (nulls != null) {
+            mask.clear(nulls);
+        }
+        return mask;
+    }
+
+    /**
+     * Retourne la mémoire occupée par les valeurs compressées, les valeurs nulles et la description des blocs
+     *
+     * @return La taille, en octets
+     */
+    long encodedBytes() {
+        long bytes = 8L * packed.length + (nulls == null ? 0 : 8L * nulls.length);
+        return bytes + (long) encodings.length * (3 + 4 * 8 + 4);
+    }
+
+    /**
+     * Retourne l'encodage d'un bloc
+     *
+     * @param block L'index du bloc
+     * @return FOR, DELTA ou RLE
+     */
+    byte encoding(int block) {
+        return encodings[block];
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return nulls != null && (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : box(index);
+    }
+
+    /**
+     * Retourne la valeur non nulle à l'index spécifié sous forme d'objet
+     *
+     * @param index L'index de la valeur
+     * @return La valeur encapsulée
+     */
+    abstract Object box(int index);
+
+    @Override
+    void add(Object value) {
+        throw new UnsupportedOperationException("Une colonne compressée n'est pas modifiable");
+    }
+
+    @Override
+    boolean isShared() {
+        return true;
+    }
+
+    @Override
+    double getDouble(int index) {
+        return isNull(index) ? 0 : toDouble(index >>> BLOCK_SHIFT, key(index));
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        long[] keys = new long[BLOCK_SIZE];
+        double[] values = new double[BLOCK_SIZE];
+        int to = from + length;
+        for (int block = from >>> BLOCK_SHIFT; block << BLOCK_SHIFT < to; block++) {
+            int blockStart = block << BLOCK_SHIFT;
+            int start = Math.max(from, blockStart);
+            int end = Math.min(to, blockStart + blockLength(block));
+            decodeBlock(block, keys);
+            toDoubles(block, keys, values, 0, blockLength(block));
+            System.arraycopy(values, start - blockStart, dest, start - from, end - start);
+        }
+        if (nulls != null) {
+            for (int i = 0; i < length; i++) {
+                if (isNull(from + i)) {
+                    dest[i] = 0;
+                }
+            }
+        }
+    }
+
+    @Override
+    void markNulls(int from, boolean[] dest, int length) {
+        if (nulls != null) {
+            super.markNulls(from, dest, length);
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles d'une plage copiée par copyRange
+     *
+     * @param target Le stockage cible
+     * @param from L'index de la première valeur copiée
+     * @param to L'index suivant la dernière valeur copiée
+     */
+    void copyNulls(PrimitiveColumnStorage target, int from, int to) {
+        if (nulls != null) {
+            for (int i = from; i < to; i++) {
+                if (isNull(i)) {
+                    target.markNull(i - from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles des lignes copiées par gather
+     *
+     * @param target Le stockage cible, déjà rempli des valeurs
+     * @param rows Les index des lignes copiées (négatif pour une valeur nulle)
+     * @param count Le nombre de lignes copiées
+     */
+    void gatherNulls(PrimitiveColumnStorage target, int[] rows, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < 0 || isNull(row)) {
+                target.markNull(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package projet_devops;
+
+import java.util.function.LongToIntFunction;
+
+/**
+ * Stockage compressé en lecture seule d'une colonne Double
+ * Dans un bloc dont toutes les valeurs ont au plus {@link #MAX_SCALE} décimales (prix, mesures arrondies),
+ * la clé d'une valeur est la valeur multipliée par 10^d, d étant le plus petit nombre de décimales qui restitue
+ * exactement chaque valeur ; sinon la clé est la représentation binaire de la valeur, transformée pour que
+ * l'ordre des clés soit celui de {@link Double#compare} (NaN est ramené à sa représentation canonique)
+ */
+final class EncodedDoubleColumnStorage extends EncodedColumnStorage {
+    /** Nombre maximal de décimales essayé pour un bloc */
+    static final int MAX_SCALE = 6;
+    /** Paramètre d'un bloc dont les clés sont les représentations binaires des valeurs */
+    private static final byte RAW = -1;
+    /** Puissances de 10, exactes en double */
+    private static final double[] POWERS = {1, 10, 100, 1e3, 1e4, 1e5, 1e6};
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param size Le nombre de valeurs
+     */
+    EncodedDoubleColumnStorage(int size) {
+        super(size);
+    }
+
+    @Override
+    byte toKeys(ColumnStorage source, int from, int length, boolean[] nullRows, long[] keys) {
+        double[] values = new double[length];
+        source.getDoubles(from, values, length);
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            if (decimalKeys(values, length, nullRows, POWERS[scale], keys)) {
+                return (byte) scale;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            keys[i] = nullRows[i] ? 0 : sortable(Double.doubleToLongBits(values[i]));
+        }
+        return RAW;
+    }
+
+    /**
+     * Calcule les clés décimales des valeurs d'un bloc
+     *
+     * @return false si une valeur n'est pas restituée exactement par sa clé divisée par power
+     */
+    private static boolean decimalKeys(double[] values, int length, boolean[] nullRows, double power, long[] keys) {
+        for (int i = 0; i < length; i++) {
+            if (!nullRows[i]) {
+                long key = Math.round(values[i] * power);
+                if (Double.doubleToRawLongBits(key / power) != Double.doubleToRawLongBits(values[i])) {
+                    return false;
+                }
+                keys[i] = key;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Transforme la représentation binaire d'un double pour que l'ordre des entiers signés suive
+     * celui de {@link Double#compare} ; la transformation est sa propre inverse
+     */
+    private static long sortable(long bits) {
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    @Override
+    double toDouble(int block, long key) {
+        byte scale = scales[block];
+        return scale == RAW ? Double.longBitsToDouble(sortable(key)) : key / POWERS[scale];
+    }
+
+    @Override
+    void toDoubles(int block, long[] keys, double[] dest, int offset, int length) {
+        byte scale = scales[block];
+        if (scale == RAW) {
+            for (int i = 0; i < length; i++) {
+                dest[offset + i] = Double.longBitsToDouble(sortable(keys[i]));
+            }
+        } else {
+            double power = POWERS[scale];
+            for (int i = 0; i < length; i++) {
+                dest[offset + i] = keys[i] / power;
+            }
+        }
+    }
+
+    @Override
+    LongToIntFunction comparator(int block, Object value) {
+        double bound = (Double) value;
+        return key -> Double.compare(toDouble(block, key), bound);
+    }
+
+    @Override
+    Object box(int index) {
+        return toDouble(index >>> BLOCK_SHIFT, key(index));
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = new double[to - from];
+        getDoubles(from, target.data, to - from);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = new double[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = getDouble(row);
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+}
@@ -0,0 +1,81 @@
+package projet_devops;
+
+import java.util.function.LongToIntFunction;
+
+/**
+ * Stockage compressé en lecture seule d'une colonne Long (la clé d'une valeur est la valeur elle-même)
+ */
+final class EncodedLongColumnStorage extends EncodedColumnStorage {
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param size Le nombre de valeurs
+     */
+    EncodedLongColumnStorage(int size) {
+        super(size);
+    }
+
+    @Override
+    byte toKeys(ColumnStorage source, int from, int length, boolean[] nullRows, long[] keys) {
+        for (int i = 0; i < length; i++) {
+            keys[i] = nullRows[i] ? 0 : source.getLong(from + i);
+        }
+        return 0;
+    }
+
+    @Override
+    double toDouble(int block, long key) {
+        return key;
+    }
+
+    @Override
+    void toDoubles(int block, long[] keys, double[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = keys[i];
+        }
+    }
+
+    @Override
+    LongToIntFunction comparator(int block, Object value) {
+        long bound = (Long) value;
+        return key -> Long.compare(key, bound);
+    }
+
+    @Override
+    Object box(int index) {
+        return key(index);
+    }
+
+    @Override
+    long getLong(int index) {
+        return isNull(index) ? 0 : key(index);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = new long[to - from];
+        for (int i = from; i < to; i++) {
+            target.data[i - from] = getLong(i);
+        }
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = getLong(row);
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+}
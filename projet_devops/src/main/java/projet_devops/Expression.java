@@ -0,0 +1,291 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Expression arithmétique compilée sous forme d'arbre, évaluée par blocs de lignes
+ * Chaque nœud calcule un bloc entier dans un tableau double[] : l'opérateur n'est choisi
+ * qu'une fois par bloc et aucune valeur n'est encapsulée dans un objet
+ * Une ligne est nulle si une des colonnes utilisées y est nulle ou si une division par zéro y a lieu
+ */
+abstract class Expression {
+    /**
+     * Nombre de lignes évaluées à la fois
+     */
+    static final int BATCH_SIZE = 4096;
+
+    /**
+     * Évalue l'expression sur un bloc de lignes
+     *
+     * @param from L'index de la première ligne du bloc
+     * @param length Le nombre de lignes du bloc (au plus BATCH_SIZE)
+     * @param out Le tableau recevant les résultats, à partir de l'index 0
+     * @param nulls Les positions nulles du bloc, complétées par l'évaluation
+     */
+    abstract void evaluate(int from, int length, double[] out, boolean[] nulls);
+
+    /**
+     * Indique si l'expression ne dépend d'aucune colonne
+     *
+     * @return true si l'expression est constante
+     */
+    boolean isConstant() {
+        return false;
+    }
+
+    /**
+     * Évalue l'expression sur toutes les lignes et range le résultat dans une nouvelle colonne Double
+     *
+     * @param name Le nom de la colonne résultat
+     * @param rowCount Le nombre de lignes à évaluer
+     * @return La colonne résultat
+     */
+    DataColumn<Double> evaluateColumn(String name, int rowCount) {
+        DoubleColumnStorage storage = new DoubleColumnStorage();
+        storage.ensureCapacity(rowCount);
+        double[] out = new double[BATCH_SIZE];
+        boolean[] nulls = new boolean[BATCH_SIZE];
+        for (int from = 0; from < rowCount; from += BATCH_SIZE) {
+            int length = Math.min(BATCH_SIZE, rowCount - from);
+            Arrays.fill(nulls, 0, length, false);
+            evaluate(from, length, out, nulls);
+            storage.addDoubles(out, nulls, length);
+        }
+        return new DataColumn<>(name, Double.class, storage);
+    }
+
+    /**
+     * Valeur constante
+     */
+    static final class Constant extends Expression {
+        /**
+         * La valeur
+         */
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        void evaluate(int from, int length, double[] out, boolean[] nulls) {
+            Arrays.fill(out, 0, length, value);
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    /**
+     * Lecture d'une colonne numérique
+     */
+    static final class Column extends Expression {
+        /**
+         * Le stockage de la colonne
+         */
+        private final ColumnStorage storage;
+
+        Column(ColumnStorage storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        void evaluate(int from, int length, double[] out, boolean[] nulls) {
+            storage.getDoubles(from, out, length);
+            storage.markNulls(from, nulls, length);
+        }
+    }
+
+    /**
+     * Opérateurs binaires, appliqués à un bloc entier
+     */
+    enum BinaryOperator {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE;
+
+        /**
+         * Applique l'opérateur à deux valeurs
+         *
+         * @param a La première opérande
+         * @param b La seconde opérande
+         * @return Le résultat
+         */
+        double apply(double a, double b) {
+            switch (this) {
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                default:
+                    return a / b;
+            }
+        }
+
+        /**
+         * Applique l'opérateur à un bloc : left[i] = left[i] op right[i]
+         * Une division par zéro marque la ligne comme nulle
+         */
+        void apply(double[] left, double[] right, int length, boolean[] nulls) {
+            switch (this) {
+                case ADD:
+                    for (int i = 0; i < length; i++) {
+                        left[i] += right[i];
+                    }
+                    break;
+                case SUBTRACT:
+                    for (int i = 0; i < length; i++) {
+                        left[i] -= right[i];
+                    }
+                    break;
+                case MULTIPLY:
+                    for (int i = 0; i < length; i++) {
+                        left[i] *= right[i];
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < length; i++) {
+                        left[i] /= right[i];
+                        nulls[i] |= right[i] == 0;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Opération binaire entre deux sous-expressions
+     */
+    static final class Binary extends Expression {
+        private final BinaryOperator operator;
+        private final Expression left;
+        private final Expression right;
+        /**
+         * Tableau de travail recevant l'opérande de droite
+         */
+        private final double[] scratch = new double[BATCH_SIZE];
+
+        Binary(BinaryOperator operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void evaluate(int from, int length, double[] out, boolean[] nulls) {
+            left.evaluate(from, length, out, nulls);
+            right.evaluate(from, length, scratch, nulls);
+            operator.apply(out, scratch, length, nulls);
+        }
+    }
+
+    /**
+     * Fonctions à un argument
+     */
+    enum UnaryFunction {
+        NEGATE, ABS, SQRT, LOG;
+
+        /**
+         * Applique la fonction à une valeur
+         *
+         * @param value L'argument
+         * @return Le résultat
+         */
+        double apply(double value) {
+            switch (this) {
+                case NEGATE:
+                    return -value;
+                case ABS:
+                    return Math.abs(value);
+                case SQRT:
+                    return Math.sqrt(value);
+                default:
+                    return Math.log(value);
+            }
+        }
+
+        /**
+         * Applique la fonction à un bloc, sur place
+         */
+        void apply(double[] values, int length) {
+            switch (this) {
+                case NEGATE:
+                    for (int i = 0; i < length; i++) {
+                        values[i] = -values[i];
+                    }
+                    break;
+                case ABS:
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Math.abs(values[i]);
+                    }
+                    break;
+                case SQRT:
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Math.sqrt(values[i]);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Math.log(values[i]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Application d'une fonction à un argument
+     */
+    static final class Unary extends Expression {
+        private final UnaryFunction function;
+        private final Expression argument;
+
+        Unary(UnaryFunction function, Expression argument) {
+            this.function = function;
+            this.argument = argument;
+        }
+
+        @Override
+        void evaluate(int from, int length, double[] out, boolean[] nulls) {
+            argument.evaluate(from, length, out, nulls);
+            function.apply(out, length);
+        }
+    }
+
+    /**
+     * Minimum ou maximum de plusieurs sous-expressions
+     */
+    static final class Extremum extends Expression {
+        private final boolean maximum;
+        private final List<Expression> arguments;
+        /**
+         * Tableau de travail recevant les arguments après le premier
+         */
+        private final double[] scratch = new double[BATCH_SIZE];
+
+        Extremum(boolean maximum, List<Expression> arguments) {
+            this.maximum = maximum;
+            this.arguments = arguments;
+        }
+
+        @Override
+        void evaluate(int from, int length, double[] out, boolean[] nulls) {
+            arguments.get(0).evaluate(from, length, out, nulls);
+            for (int a = 1; a < arguments.size(); a++) {
+                arguments.get(a).evaluate(from, length, scratch, nulls);
+                if (maximum) {
+                    for (int i = 0; i < length; i++) {
+                        out[i] = Math.max(out[i], scratch[i]);
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        out[i] = Math.min(out[i], scratch[i]);
+                    }
+                }
+            }
+        }
+    }
+}
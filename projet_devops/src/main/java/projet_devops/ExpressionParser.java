@@ -0,0 +1,278 @@
+package projet_devops;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Analyseur d'expressions arithmétiques sur les colonnes d'un DataFrame
+ *
+ * Grammaire (priorités usuelles, associativité à gauche) :
+ * <pre>
+ * expression := terme (('+' | '-') terme)*
+ * terme      := facteur (('*' | '/') facteur)*
+ * facteur    := ('-' | '+') facteur | nombre | colonne | fonction '(' expression (',' expression)* ')' | '(' expression ')'
+ * </pre>
+ * Les fonctions disponibles sont abs, sqrt, log (logarithme népérien), min et max
+ * Un nom de colonne contenant des espaces ou des symboles s'écrit entre accents graves : `Nom complet`
+ * Les sous-expressions constantes sont calculées une fois pour toutes à la compilation
+ */
+final class ExpressionParser {
+    /**
+     * Résolution d'un nom de colonne en expression
+     */
+    private final Function<String, Expression> columns;
+    /**
+     * Le texte de l'expression
+     */
+    private final String text;
+    /**
+     * Position courante dans le texte
+     */
+    private int position;
+
+    private ExpressionParser(Function<String, Expression> columns, String text) {
+        this.columns = columns;
+        this.text = text;
+    }
+
+    /**
+     * Compile une expression sur les colonnes d'un DataFrame
+     *
+     * @param df Le DataFrame source
+     * @param text L'expression (ex: "(age + 1) * 2 - sqrt(salary) / 3")
+     * @return L'expression compilée
+     * @throws IllegalArgumentException si l'expression est mal formée, utilise un opérateur ou une fonction inconnus,
+     *         ou une colonne inexistante ou non numérique
+     */
+    static Expression parse(DataFrame df, String text) {
+        return parse(text, name -> column(df, name));
+    }
+
+    /**
+     * Analyse une expression sans la compiler et retourne les noms des colonnes qu'elle utilise
+     *
+     * @param text L'expression
+     * @return Les noms des colonnes, dans l'ordre de leur première apparition
+     * @throws IllegalArgumentException si l'expression est mal formée
+     */
+    static Set<String> referencedColumns(String text) {
+        Set<String> names = new LinkedHashSet<>();
+        parse(text, name -> {
+            names.add(name);
+            return new Expression.Column(null);
+        });
+        return names;
+    }
+
+    private static Expression parse(String text, Function<String, Expression> columns) {
+        ExpressionParser parser = new ExpressionParser(columns, text);
+        Expression expression = parser.parseExpression();
+        parser.skipSpaces();
+        if (parser.position < text.length()) {
+            throw parser.error("Opérateur non supporté: " + text.charAt(parser.position));
+        }
+        return expression;
+    }
+
+    private Expression parseExpression() {
+        Expression result = parseTerm();
+        while (true) {
+            if (accept('+')) {
+                result = binary(Expression.BinaryOperator.ADD, result, parseTerm());
+            } else if (accept('-')) {
+                result = binary(Expression.BinaryOperator.SUBTRACT, result, parseTerm());
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private Expression parseTerm() {
+        Expression result = parseFactor();
+        while (true) {
+            if (accept('*')) {
+                result = binary(Expression.BinaryOperator.MULTIPLY, result, parseFactor());
+            } else if (accept('/')) {
+                result = binary(Expression.BinaryOperator.DIVIDE, result, parseFactor());
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private Expression parseFactor() {
+        if (accept('-')) {
+            return unary(Expression.UnaryFunction.NEGATE, parseFactor());
+        }
+        if (accept('+')) {
+            return parseFactor();
+        }
+        if (accept('(')) {
+            Expression inner = parseExpression();
+            expect(')');
+            return inner;
+        }
+
+        skipSpaces();
+        if (position >= text.length()) {
+            throw error("Expression incomplète");
+        }
+        char c = text.charAt(position);
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (c == '`') {
+            int end = text.indexOf('`', position + 1);
+            if (end < 0) {
+                throw error("Nom de colonne non terminé");
+            }
+            String name = text.substring(position + 1, end);
+            position = end + 1;
+            return columns.apply(name);
+        }
+        if (isIdentifierPart(c)) {
+            int start = position;
+            while (position < text.length() && isIdentifierPart(text.charAt(position))) {
+                position++;
+            }
+            String name = text.substring(start, position);
+            if (accept('(')) {
+                return function(name, parseArguments());
+            }
+            return columns.apply(name);
+        }
+        throw error("Opérateur non supporté: " + c);
+    }
+
+    private Expression parseNumber() {
+        int start = position;
+        while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            position++;
+        }
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            int exponent = position + 1;
+            if (exponent < text.length() && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            if (exponent < text.length() && Character.isDigit(text.charAt(exponent))) {
+                position = exponent;
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+        try {
+            return new Expression.Constant(Double.parseDouble(text.substring(start, position)));
+        } catch (NumberFormatException e) {
+            throw error("Nombre invalide: " + text.substring(start, position));
+        }
+    }
+
+    private List<Expression> parseArguments() {
+        List<Expression> arguments = new ArrayList<>();
+        arguments.add(parseExpression());
+        while (accept(',')) {
+            arguments.add(parseExpression());
+        }
+        expect(')');
+        return arguments;
+    }
+
+    private static Expression column(DataFrame df, String name) {
+        DataColumn<?> column = df.getColumn(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Colonne non trouvée: " + name);
+        }
+        if (!column.isNumeric()) {
+            throw new IllegalArgumentException("La colonne doit être numérique: " + name);
+        }
+        return new Expression.Column(column.getStorage());
+    }
+
+    private Expression function(String name, List<Expression> arguments) {
+        switch (name) {
+            case "abs":
+                return unary(Expression.UnaryFunction.ABS, single(name, arguments));
+            case "sqrt":
+                return unary(Expression.UnaryFunction.SQRT, single(name, arguments));
+            case "log":
+                return unary(Expression.UnaryFunction.LOG, single(name, arguments));
+            case "min":
+            case "max":
+                return extremum(name.equals("max"), arguments);
+            default:
+                throw new IllegalArgumentException("Fonction non supportée: " + name);
+        }
+    }
+
+    private static Expression single(String name, List<Expression> arguments) {
+        if (arguments.size() != 1) {
+            throw new IllegalArgumentException("La fonction " + name + " attend un seul argument");
+        }
+        return arguments.get(0);
+    }
+
+    private static Expression binary(Expression.BinaryOperator operator, Expression left, Expression right) {
+        if (left.isConstant() && right.isConstant()) {
+            double a = ((Expression.Constant) left).value;
+            double b = ((Expression.Constant) right).value;
+            // Une division constante par zéro reste à évaluer pour produire des valeurs nulles
+            if (operator != Expression.BinaryOperator.DIVIDE || b != 0) {
+                return new Expression.Constant(operator.apply(a, b));
+            }
+        }
+        return new Expression.Binary(operator, left, right);
+    }
+
+    private static Expression unary(Expression.UnaryFunction function, Expression argument) {
+        if (argument.isConstant()) {
+            return new Expression.Constant(function.apply(((Expression.Constant) argument).value));
+        }
+        return new Expression.Unary(function, argument);
+    }
+
+    private static Expression extremum(boolean maximum, List<Expression> arguments) {
+        if (arguments.size() < 2) {
+            throw new IllegalArgumentException("Les fonctions min et max attendent au moins deux arguments");
+        }
+        return new Expression.Extremum(maximum, arguments);
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private void skipSpaces() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Consomme le caractère attendu s'il est le prochain caractère non blanc
+     *
+     * @param c Le caractère attendu
+     * @return true si le caractère a été consommé
+     */
+    private boolean accept(char c) {
+        skipSpaces();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("'" + c + "' attendu");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (position " + position + " dans \"" + text + "\")");
+    }
+}
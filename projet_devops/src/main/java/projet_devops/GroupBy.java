@@ -0,0 +1,523 @@
+package projet_devops;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Regroupement des lignes d'un DataFrame selon la valeur d'une ou plusieurs colonnes clés, créé par {@link DataFrame#groupBy}
+ * L'agrégation se fait en une seule passe : chaque ligne est associée à son groupe par une table de hachage
+ * à adressage ouvert sur les colonnes clés, et les valeurs sont accumulées dans des tableaux primitifs indexés par groupe
+ * Au-delà de {@link #PARALLEL_THRESHOLD} lignes, les portions du DataFrame sont agrégées en parallèle puis fusionnées
+ *
+ * Les groupes apparaissent dans l'ordre de leur première ligne ; une clé nulle forme un groupe comme une autre
+ */
+public final class GroupBy {
+    /**
+     * Nombre de lignes à partir duquel l'agrégation est répartie entre plusieurs threads
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    /**
+     * DataFrame regroupé
+     */
+    private final DataFrame df;
+    /**
+     * Colonnes clés
+     */
+    private final List<DataColumn<?>> keyColumns;
+
+    /**
+     * Constructeur du regroupement
+     *
+     * @param df Le DataFrame à regrouper
+     * @param columnNames Les noms des colonnes clés
+     * @throws IllegalArgumentException si aucune colonne n'est donnée ou si une colonne n'existe pas
+     */
+    GroupBy(DataFrame df, String... columnNames) {
+        if (columnNames.length == 0) {
+            throw new IllegalArgumentException("Au moins une colonne de regroupement est nécessaire");
+        }
+        this.df = df;
+        this.keyColumns = new ArrayList<>();
+        for (String name : columnNames) {
+            keyColumns.add(column(name));
+        }
+    }
+
+    /**
+     * Agrège une colonne numérique par groupe
+     *
+     * @param column Le nom de la colonne à agréger
+     * @param aggregations Les fonctions d'agrégation
+     * @return Un DataFrame avec une ligne par groupe : les colonnes clés puis une colonne par fonction
+     * @throws IllegalArgumentException si la colonne n'existe pas ou n'est pas numérique
+     */
+    public DataFrame agg(String column, Aggregation... aggregations) {
+        return agg(Collections.singletonList(column), aggregations);
+    }
+
+    /**
+     * Agrège plusieurs colonnes numériques par groupe, en une seule passe sur les lignes
+     *
+     * @param columns Les noms des colonnes à agréger
+     * @param aggregations Les fonctions appliquées à chaque colonne
+     * @return Un DataFrame avec une ligne par groupe : les colonnes clés puis, pour chaque colonne agrégée,
+     *         une colonne par fonction
+     * @throws IllegalArgumentException si une colonne n'existe pas ou n'est pas numérique, ou si aucune fonction n'est donnée
+     */
+    public DataFrame agg(List<String> columns, Aggregation... aggregations) {
+        if (aggregations.length == 0) {
+            throw new IllegalArgumentException("Au moins une fonction d'agrégation est nécessaire");
+        }
+        ColumnStorage[] values = new ColumnStorage[columns.size()];
+        for (int v = 0; v < values.length; v++) {
+            DataColumn<?> column = column(columns.get(v));
+            if (!column.isNumeric()) {
+                throw new IllegalArgumentException("La colonne " + columns.get(v) + " n'est pas numérique");
+            }
+            values[v] = column.getStorage();
+        }
+
+        KeyColumn[] keys = new KeyColumn[keyColumns.size()];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = KeyColumn.of(keyColumns.get(k));
+        }
+        Partial result = aggregateAll(keys, values);
+
+        DataFrame grouped = new DataFrame();
+        int[] firstRows = result.table.firstRows;
+        for (DataColumn<?> key : keyColumns) {
+            grouped.addColumn(Selection.gather(key, firstRows, result.table.size));
+        }
+        for (int v = 0; v < values.length; v++) {
+            for (Aggregation aggregation : aggregations) {
+                grouped.addColumn(result.accumulators[v].column(columns.get(v) + "_" + aggregation.getName(),
+                        aggregation, result.table.size));
+            }
+        }
+        return grouped;
+    }
+
+    private DataColumn<?> column(String name) {
+        DataColumn<?> column = df.getColumn(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Colonne non trouvée: " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Agrège toutes les lignes, en parallèle au-delà de PARALLEL_THRESHOLD lignes
+     * Les portions sont fusionnées dans l'ordre des lignes pour conserver l'ordre d'apparition des groupes
+     */
+    private Partial aggregateAll(KeyColumn[] keys, ColumnStorage[] values) {
+        int rows = df.getRowCount();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (rows < PARALLEL_THRESHOLD || parallelism < 2) {
+            return aggregate(keys, values, 0, rows);
+        }
+        int chunkSize = Math.max(PARALLEL_THRESHOLD / 2, (rows + parallelism - 1) / parallelism);
+        int chunks = (rows + chunkSize - 1) / chunkSize;
+        Partial[] partials = new Partial[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                partials[c] = aggregate(keys, values, c * chunkSize, Math.min(rows, (c + 1) * chunkSize)));
+
+        Partial result = partials[0];
+        for (int c = 1; c < chunks; c++) {
+            Partial partial = partials[c];
+            int[] mapping = new int[partial.table.size];
+            for (int g = 0; g < mapping.length; g++) {
+                mapping[g] = result.table.groupOf(partial.table.firstRows[g], partial.table.hashes[g]);
+            }
+            for (int v = 0; v < values.length; v++) {
+                result.accumulators[v].merge(partial.accumulators[v], mapping, result.table.size);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Agrège une plage de lignes par lots de {@link Expression#BATCH_SIZE}
+     */
+    private static Partial aggregate(KeyColumn[] keys, ColumnStorage[] values, int from, int to) {
+        GroupTable table = new GroupTable(keys);
+        Accumulator[] accumulators = new Accumulator[values.length];
+        for (int v = 0; v < values.length; v++) {
+            accumulators[v] = new Accumulator();
+        }
+        int[] groups = new int[Expression.BATCH_SIZE];
+        double[] buffer = new double[Expression.BATCH_SIZE];
+        boolean[] nulls = new boolean[Expression.BATCH_SIZE];
+        for (int start = from; start < to; start += Expression.BATCH_SIZE) {
+            int length = Math.min(Expression.BATCH_SIZE, to - start);
+            for (int i = 0; i < length; i++) {
+                int row = start + i;
+                groups[i] = table.groupOf(row, table.hash(row));
+            }
+            for (int v = 0; v < values.length; v++) {
+                values[v].getDoubles(start, buffer, length);
+                Arrays.fill(nulls, 0, length, false);
+                values[v].markNulls(start, nulls, length);
+                accumulators[v].acceptAll(groups, buffer, nulls, length, table.size);
+            }
+        }
+        return new Partial(table, accumulators);
+    }
+
+    /**
+     * Résultat de l'agrégation d'une plage de lignes
+     */
+    private static final class Partial {
+        final GroupTable table;
+        final Accumulator[] accumulators;
+
+        Partial(GroupTable table, Accumulator[] accumulators) {
+            this.table = table;
+            this.accumulators = accumulators;
+        }
+    }
+
+    /**
+     * Lecture d'une colonne clé : hachage et comparaison de deux lignes, sans encapsuler les valeurs primitives
+     */
+    private abstract static class KeyColumn {
+        /**
+         * Hachage de la clé d'une ligne nulle
+         */
+        static final int NULL_HASH = 0x5bd1e995;
+
+        final ColumnStorage storage;
+
+        KeyColumn(ColumnStorage storage) {
+            this.storage = storage;
+        }
+
+        static KeyColumn of(DataColumn<?> column) {
+            ColumnStorage storage = column.getStorage();
+            if (storage instanceof DictionaryColumnStorage) {
+                return new DictionaryKey((DictionaryColumnStorage) storage);
+            } else if (column.getDataType() == Integer.class || column.getDataType() == Long.class) {
+                return new LongKey(storage);
+            } else if (column.getDataType() == Double.class) {
+                return new DoubleKey(storage);
+            }
+            return new ObjectKey(storage);
+        }
+
+        abstract int hash(int row);
+
+        abstract boolean equal(int a, int b);
+    }
+
+    private static final class LongKey extends KeyColumn {
+        LongKey(ColumnStorage storage) {
+            super(storage);
+        }
+
+        @Override
+        int hash(int row) {
+            return storage.isNull(row) ? NULL_HASH : Long.hashCode(storage.getLong(row));
+        }
+
+        @Override
+        boolean equal(int a, int b) {
+            boolean nullA = storage.isNull(a);
+            return nullA == storage.isNull(b) && (nullA || storage.getLong(a) == storage.getLong(b));
+        }
+    }
+
+    /**
+     * Clé Double, comparée comme Double.equals (NaN égal à lui-même, 0.0 différent de -0.0)
+     */
+    private static final class DoubleKey extends KeyColumn {
+        DoubleKey(ColumnStorage storage) {
+            super(storage);
+        }
+
+        @Override
+        int hash(int row) {
+            return storage.isNull(row) ? NULL_HASH : Double.hashCode(storage.getDouble(row));
+        }
+
+        @Override
+        boolean equal(int a, int b) {
+            boolean nullA = storage.isNull(a);
+            return nullA == storage.isNull(b) && (nullA
+                    || Double.doubleToLongBits(storage.getDouble(a)) == Double.doubleToLongBits(storage.getDouble(b)));
+        }
+    }
+
+    /**
+     * Clé String encodée par dictionnaire : les lignes sont hachées et comparées par leur code
+     */
+    private static final class DictionaryKey extends KeyColumn {
+        private final DictionaryColumnStorage dictionary;
+
+        DictionaryKey(DictionaryColumnStorage storage) {
+            super(storage);
+            this.dictionary = storage;
+        }
+
+        @Override
+        int hash(int row) {
+            return dictionary.getCode(row);
+        }
+
+        @Override
+        boolean equal(int a, int b) {
+            return dictionary.getCode(a) == dictionary.getCode(b);
+        }
+    }
+
+    private static final class ObjectKey extends KeyColumn {
+        ObjectKey(ColumnStorage storage) {
+            super(storage);
+        }
+
+        @Override
+        int hash(int row) {
+            Object value = storage.get(row);
+            return value == null ? NULL_HASH : value.hashCode();
+        }
+
+        @Override
+        boolean equal(int a, int b) {
+            Object value = storage.get(a);
+            return value == null ? storage.isNull(b) : value.equals(storage.get(b));
+        }
+    }
+
+    /**
+     * Table de hachage à adressage ouvert (sondage linéaire) associant chaque clé à un numéro de groupe
+     * Un groupe est représenté par sa première ligne, à laquelle les lignes suivantes sont comparées
+     */
+    private static final class GroupTable {
+        private final KeyColumn[] keys;
+        /**
+         * Numéro de groupe + 1 de chaque case (0 pour une case vide)
+         */
+        private int[] slots = new int[64];
+        /**
+         * Hachage de la clé de chaque groupe
+         */
+        int[] hashes = new int[16];
+        /**
+         * Première ligne de chaque groupe
+         */
+        int[] firstRows = new int[16];
+        /**
+         * Nombre de groupes
+         */
+        int size;
+
+        GroupTable(KeyColumn[] keys) {
+            this.keys = keys;
+        }
+
+        /**
+         * Calcule le hachage des colonnes clés d'une ligne
+         */
+        int hash(int row) {
+            int hash = 0;
+            for (KeyColumn key : keys) {
+                hash = 31 * hash + key.hash(row);
+            }
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Retourne le groupe de la clé d'une ligne, en le créant si la clé est nouvelle
+         *
+         * @param row La ligne
+         * @param hash Le hachage de ses colonnes clés
+         * @return Le numéro du groupe
+         */
+        int groupOf(int row, int hash) {
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                int group = slots[slot] - 1;
+                if (hashes[group] == hash && sameKey(firstRows[group], row)) {
+                    return group;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int group = size++;
+            if (group == hashes.length) {
+                hashes = Arrays.copyOf(hashes, group * 2);
+                firstRows = Arrays.copyOf(firstRows, group * 2);
+            }
+            hashes[group] = hash;
+            firstRows[group] = row;
+            slots[slot] = group + 1;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return group;
+        }
+
+        private boolean sameKey(int a, int b) {
+            for (KeyColumn key : keys) {
+                if (!key.equal(a, b)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int group = 0; group < size; group++) {
+                int slot = hashes[group] & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = group + 1;
+            }
+        }
+    }
+
+    /**
+     * Accumulateurs d'une colonne agrégée, un élément de chaque tableau par groupe
+     * (effectif, somme, minimum, maximum et moyenne / somme des carrés des écarts selon Welford, comme {@link ColumnStats})
+     */
+    private static final class Accumulator {
+        long[] count = new long[16];
+        double[] sum = new double[16];
+        double[] min = new double[16];
+        double[] max = new double[16];
+        double[] mean = new double[16];
+        double[] m2 = new double[16];
+
+        Accumulator() {
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Agrandit les tableaux pour contenir groups groupes
+         */
+        private void ensureGroups(int groups) {
+            if (groups <= count.length) {
+                return;
+            }
+            int capacity = PrimitiveColumnStorage.grownCapacity(count.length, groups);
+            int previous = count.length;
+            count = Arrays.copyOf(count, capacity);
+            sum = Arrays.copyOf(sum, capacity);
+            min = Arrays.copyOf(min, capacity);
+            max = Arrays.copyOf(max, capacity);
+            mean = Arrays.copyOf(mean, capacity);
+            m2 = Arrays.copyOf(m2, capacity);
+            Arrays.fill(min, previous, capacity, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, previous, capacity, Double.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Ajoute un lot de valeurs à leurs groupes
+         *
+         * @param groups Le groupe de chaque valeur
+         * @param values Les valeurs
+         * @param nulls Les positions des valeurs nulles (ignorées)
+         * @param length Le nombre de valeurs du lot
+         * @param groupCount Le nombre de groupes existants
+         */
+        void acceptAll(int[] groups, double[] values, boolean[] nulls, int length, int groupCount) {
+            ensureGroups(groupCount);
+            for (int i = 0; i < length; i++) {
+                if (nulls[i]) {
+                    continue;
+                }
+                int g = groups[i];
+                double value = values[i];
+                long n = ++count[g];
+                sum[g] += value;
+                if (value < min[g]) {
+                    min[g] = value;
+                }
+                if (value > max[g]) {
+                    max[g] = value;
+                }
+                double delta = value - mean[g];
+                mean[g] += delta / n;
+                m2[g] += delta * (value - mean[g]);
+            }
+        }
+
+        /**
+         * Fusionne les accumulateurs d'une autre portion de lignes (formule de Chan)
+         *
+         * @param other Les accumulateurs à intégrer
+         * @param mapping Le groupe de cet accumulateur correspondant à chaque groupe de l'autre
+         * @param groupCount Le nombre de groupes après fusion
+         */
+        void merge(Accumulator other, int[] mapping, int groupCount) {
+            ensureGroups(groupCount);
+            for (int o = 0; o < mapping.length; o++) {
+                long otherCount = other.count[o];
+                if (otherCount == 0) {
+                    continue;
+                }
+                int g = mapping[o];
+                long total = count[g] + otherCount;
+                double delta = other.mean[o] - mean[g];
+                m2[g] += other.m2[o] + delta * delta * ((double) count[g] * otherCount / total);
+                mean[g] += delta * otherCount / total;
+                count[g] = total;
+                sum[g] += other.sum[o];
+                min[g] = Math.min(min[g], other.min[o]);
+                max[g] = Math.max(max[g], other.max[o]);
+            }
+        }
+
+        /**
+         * Construit la colonne résultat d'une fonction d'agrégation
+         *
+         * @param name Le nom de la colonne
+         * @param aggregation La fonction
+         * @param groupCount Le nombre de groupes
+         * @return Une colonne Long pour COUNT, Double sinon (nulle pour un groupe sans valeur, sauf la somme)
+         */
+        DataColumn<?> column(String name, Aggregation aggregation, int groupCount) {
+            ensureGroups(groupCount);
+            if (aggregation == Aggregation.COUNT) {
+                LongColumnStorage storage = new LongColumnStorage();
+                for (int g = 0; g < groupCount; g++) {
+                    storage.addLong(count[g]);
+                }
+                return new DataColumn<>(name, Long.class, storage);
+            }
+            double[] results = new double[groupCount];
+            boolean[] empty = new boolean[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                empty[g] = count[g] == 0 && aggregation != Aggregation.SUM;
+                switch (aggregation) {
+                    case SUM:
+                        results[g] = sum[g];
+                        break;
+                    case MEAN:
+                        results[g] = sum[g] / count[g];
+                        break;
+                    case MIN:
+                        results[g] = min[g];
+                        break;
+                    case MAX:
+                        results[g] = max[g];
+                        break;
+                    default:
+                        results[g] = Math.sqrt(m2[g] / count[g]);
+                        break;
+                }
+            }
+            DoubleColumnStorage storage = new DoubleColumnStorage();
+            storage.addDoubles(results, empty, groupCount);
+            return new DataColumn<>(name, Double.class, storage);
+        }
+    }
+}
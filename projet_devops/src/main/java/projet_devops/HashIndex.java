@@ -0,0 +1,98 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index par hachage d'une colonne : pour chaque valeur distincte, la liste des lignes qui la contiennent
+ * Répond aux conditions "==" et "!=" sans parcourir la colonne
+ * Les lignes ajoutées à la colonne après la construction sont indexées à la requête suivante
+ */
+final class HashIndex {
+    /**
+     * Lignes de chaque valeur non nulle
+     */
+    private final Map<Object, Postings> postings = new HashMap<>();
+    /**
+     * Lignes des valeurs nulles
+     */
+    private final Postings nulls = new Postings();
+    /**
+     * Nombre de lignes déjà indexées
+     */
+    private int indexedRows;
+
+    /**
+     * Construit l'index d'un stockage
+     *
+     * @param storage Le stockage indexé
+     */
+    HashIndex(ColumnStorage storage) {
+        refresh(storage);
+    }
+
+    /**
+     * Indexe les lignes ajoutées depuis la dernière mise à jour
+     *
+     * @param storage Le stockage indexé
+     */
+    private void refresh(ColumnStorage storage) {
+        int size = storage.size();
+        for (int i = indexedRows; i < size; i++) {
+            if (storage.isNull(i)) {
+                nulls.add(i);
+            } else {
+                postings.computeIfAbsent(storage.get(i), key -> new Postings()).add(i);
+            }
+        }
+        indexedRows = size;
+    }
+
+    /**
+     * Construit le masque d'une condition d'égalité
+     *
+     * @param storage Le stockage indexé
+     * @param operator L'opérateur, "==" ou "!="
+     * @param value La valeur de comparaison, du type de la colonne
+     * @return Le masque des lignes vérifiant la condition, ou null si l'opérateur n'est pas une égalité
+     */
+    synchronized RowMask mask(ColumnStorage storage, String operator, Object value) {
+        boolean equal = operator.equals("==");
+        if (!equal && !operator.equals("!=")) {
+            return null;
+        }
+        refresh(storage);
+        RowMask mask = new RowMask(storage.size());
+        Postings rows = postings.get(value);
+        if (rows != null) {
+            rows.setAll(mask);
+        }
+        if (equal) {
+            return mask;
+        }
+        nulls.setAll(mask);
+        return mask.not();
+    }
+
+    /**
+     * Liste extensible de lignes
+     */
+    private static final class Postings {
+        private int[] rows = new int[2];
+        private int count;
+
+        void add(int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = row;
+        }
+
+        void setAll(RowMask mask) {
+            for (int i = 0; i < count; i++) {
+                mask.set(rows[i]);
+            }
+        }
+    }
+}
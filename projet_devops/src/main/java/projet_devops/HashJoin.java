@@ -0,0 +1,316 @@
+package projet_devops;
+
+import java.util.Arrays;
+
+/**
+ * Jointure par hachage de deux DataFrames sur une ou plusieurs colonnes clés de même nom
+ * Le plus petit DataFrame est chargé dans une table de hachage (chaînage dans des tableaux int[]),
+ * puis les lignes de l'autre y sont cherchées une à une ; la mémoire utilisée est proportionnelle au plus petit côté
+ * Le résultat est produit sous forme de deux tableaux d'index de lignes, puis chaque colonne est copiée une seule fois
+ *
+ * Les clés sont comparées selon leur type : entiers (Integer et Long) par valeur, Double par leur représentation binaire,
+ * autres types (String) par equals ; une clé nulle ne correspond jamais à aucune autre
+ */
+final class HashJoin {
+    /**
+     * Suffixe ajouté au nom d'une colonne de droite déjà présente à gauche
+     */
+    static final String RIGHT_SUFFIX = "_droite";
+
+    private final DataFrame left;
+    private final DataFrame right;
+    private final String[] keyNames;
+    private final JoinType type;
+    /**
+     * Index des lignes de gauche de chaque ligne du résultat (-1 pour une ligne de droite sans correspondance)
+     */
+    private int[] leftRows = new int[16];
+    /**
+     * Index des lignes de droite de chaque ligne du résultat (-1 pour une ligne de gauche sans correspondance)
+     */
+    private int[] rightRows = new int[16];
+    /**
+     * Nombre de lignes du résultat
+     */
+    private int count;
+
+    /**
+     * Prépare la jointure
+     *
+     * @param left Le DataFrame de gauche
+     * @param right Le DataFrame de droite
+     * @param type Le type de jointure
+     * @param keyNames Les noms des colonnes clés, présentes des deux côtés
+     * @throws IllegalArgumentException si aucune clé n'est donnée, si une clé manque d'un côté
+     *         ou si les types des deux colonnes d'une clé ne sont pas compatibles (seuls Integer et Long peuvent se mélanger)
+     */
+    HashJoin(DataFrame left, DataFrame right, JoinType type, String... keyNames) {
+        if (keyNames.length == 0) {
+            throw new IllegalArgumentException("Au moins une colonne de jointure est nécessaire");
+        }
+        for (String name : keyNames) {
+            DataColumn<?> leftKey = left.getColumn(name);
+            DataColumn<?> rightKey = right.getColumn(name);
+            if (leftKey == null || rightKey == null) {
+                throw new IllegalArgumentException("Colonne de jointure absente d'un des DataFrames: " + name);
+            }
+            KeyKind kind = KeyKind.of(leftKey);
+            if (kind != KeyKind.of(rightKey) || (kind != KeyKind.INTEGRAL && leftKey.getDataType() != rightKey.getDataType())) {
+                throw new IllegalArgumentException("Types incompatibles pour la colonne de jointure " + name + " : "
+                        + leftKey.getDataType().getSimpleName() + " et " + rightKey.getDataType().getSimpleName());
+            }
+        }
+        this.left = left;
+        this.right = right;
+        this.type = type;
+        this.keyNames = keyNames;
+    }
+
+    /**
+     * Exécute la jointure
+     *
+     * @return Le DataFrame joint : les colonnes clés, puis les autres colonnes de gauche, puis celles de droite
+     */
+    DataFrame execute() {
+        boolean buildLeft = left.getRowCount() < right.getRowCount();
+        DataFrame build = buildLeft ? left : right;
+        DataFrame probe = buildLeft ? right : left;
+        KeyColumn[] keys = new KeyColumn[keyNames.length];
+        for (int k = 0; k < keys.length; k++) {
+            DataColumn<?> buildKey = build.getColumn(keyNames[k]);
+            keys[k] = new KeyColumn(KeyKind.of(buildKey), buildKey.getStorage(), probe.getColumn(keyNames[k]).getStorage());
+        }
+        boolean keepBuild = buildLeft ? type.keepsLeft() : type.keepsRight();
+        boolean keepProbe = buildLeft ? type.keepsRight() : type.keepsLeft();
+
+        //========= Construction : chaînage des lignes du plus petit côté par hachage de leur clé =========
+        int buildRows = build.getRowCount();
+        // Au moins deux fois plus de seaux que de lignes, dans la limite de la plus grande puissance de 2 d'un int
+        long size = Long.highestOneBit(Math.max(1L, buildRows) * 2 - 1) << 1;
+        int buckets = (int) Math.min(size, 1 << 30);
+        int[] heads = new int[buckets];
+        int[] next = new int[buildRows];
+        for (int row = buildRows - 1; row >= 0; row--) {
+            if (hasNullKey(keys, row, true)) {
+                continue;
+            }
+            int bucket = hash(keys, row, true) & (buckets - 1);
+            next[row] = heads[bucket];
+            heads[bucket] = row + 1;
+        }
+
+        //========= Recherche : chaque ligne de l'autre côté parcourt la chaîne de son seau =========
+        boolean[] matched = keepBuild ? new boolean[buildRows] : null;
+        for (int row = 0; row < probe.getRowCount(); row++) {
+            boolean found = false;
+            if (!hasNullKey(keys, row, false)) {
+                int candidate = heads[hash(keys, row, false) & (buckets - 1)];
+                while (candidate != 0) {
+                    int buildRow = candidate - 1;
+                    if (sameKey(keys, buildRow, row)) {
+                        emit(buildLeft, buildRow, row);
+                        found = true;
+                        if (matched != null) {
+                            matched[buildRow] = true;
+                        }
+                    }
+                    candidate = next[buildRow];
+                }
+            }
+            if (!found && keepProbe) {
+                emit(buildLeft, -1, row);
+            }
+        }
+        if (matched != null) {
+            for (int row = 0; row < buildRows; row++) {
+                if (!matched[row]) {
+                    emit(buildLeft, row, -1);
+                }
+            }
+        }
+        return assemble();
+    }
+
+    /**
+     * Ajoute une ligne au résultat
+     *
+     * @param buildLeft true si le côté chargé en table est celui de gauche
+     * @param buildRow La ligne du côté chargé (-1 si absente)
+     * @param probeRow La ligne de l'autre côté (-1 si absente)
+     */
+    private void emit(boolean buildLeft, int buildRow, int probeRow) {
+        if (count == leftRows.length) {
+            int capacity = PrimitiveColumnStorage.grownCapacity(count, count + 1);
+            leftRows = Arrays.copyOf(leftRows, capacity);
+            rightRows = Arrays.copyOf(rightRows, capacity);
+        }
+        leftRows[count] = buildLeft ? buildRow : probeRow;
+        rightRows[count] = buildLeft ? probeRow : buildRow;
+        count++;
+    }
+
+    /**
+     * Copie les colonnes des deux DataFrames selon les index de lignes du résultat
+     */
+    private DataFrame assemble() {
+        DataFrame result = new DataFrame();
+        for (String name : keyNames) {
+            result.addColumn(joinedKey(left.getColumn(name), right.getColumn(name)));
+        }
+        for (String name : left.getColumnNames()) {
+            if (!isKey(name)) {
+                result.addColumn(Selection.gather(left.getColumn(name), leftRows, count));
+            }
+        }
+        for (String name : right.getColumnNames()) {
+            if (!isKey(name)) {
+                DataColumn<?> column = Selection.gather(right.getColumn(name), rightRows, count);
+                if (result.getColumn(name) != null) {
+                    column = renamed(column, freeName(result, name + RIGHT_SUFFIX));
+                }
+                result.addColumn(column);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retourne un nom de colonne absent du résultat : le nom donné, ou ce nom suivi d'un numéro (2, 3, ...)
+     */
+    private static String freeName(DataFrame result, String name) {
+        String candidate = name;
+        for (int number = 2; result.getColumn(candidate) != null; number++) {
+            candidate = name + number;
+        }
+        return candidate;
+    }
+
+    /**
+     * Construit la colonne d'une clé : valeur de gauche, ou de droite pour une ligne de droite sans correspondance
+     * Une clé Integer d'un côté et Long de l'autre donne une colonne Long si des lignes de droite sont gardées
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private DataColumn<?> joinedKey(DataColumn<?> leftKey, DataColumn<?> rightKey) {
+        if (!type.keepsRight()) {
+            return Selection.gather(leftKey, leftRows, count);
+        }
+        Class<?> keyType = leftKey.getDataType() == rightKey.getDataType() ? leftKey.getDataType() : Long.class;
+        if (type == JoinType.RIGHT && rightKey.getDataType() == keyType) {
+            return Selection.gather(rightKey, rightRows, count);
+        }
+        boolean unmatchedRight = false;
+        for (int i = 0; i < count && !unmatchedRight; i++) {
+            unmatchedRight = leftRows[i] < 0;
+        }
+        if (!unmatchedRight && leftKey.getDataType() == keyType) {
+            return Selection.gather(leftKey, leftRows, count);
+        }
+        // Valeurs copiées ligne à ligne depuis le bon côté, sans passer par des objets pour les types primitifs
+        ColumnStorage leftStorage = leftKey.getStorage();
+        ColumnStorage rightStorage = rightKey.getStorage();
+        ColumnStorage storage = ColumnStorage.create(keyType);
+        for (int i = 0; i < count; i++) {
+            ColumnStorage source = leftRows[i] >= 0 ? leftStorage : rightStorage;
+            int row = leftRows[i] >= 0 ? leftRows[i] : rightRows[i];
+            if (source.isNull(row)) {
+                storage.addNull();
+            } else {
+                storage.appendFrom(source, row);
+            }
+        }
+        return new DataColumn(leftKey.getColumnName(), keyType, storage);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static DataColumn<?> renamed(DataColumn<?> column, String name) {
+        return new DataColumn(name, column.getDataType(), column.getStorage());
+    }
+
+    private boolean isKey(String name) {
+        for (String key : keyNames) {
+            if (key.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNullKey(KeyColumn[] keys, int row, boolean buildSide) {
+        for (KeyColumn key : keys) {
+            if ((buildSide ? key.build : key.probe).isNull(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(KeyColumn[] keys, int row, boolean buildSide) {
+        int hash = 0;
+        for (KeyColumn key : keys) {
+            hash = 31 * hash + key.hash(buildSide ? key.build : key.probe, row);
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean sameKey(KeyColumn[] keys, int buildRow, int probeRow) {
+        for (KeyColumn key : keys) {
+            if (!key.equal(buildRow, probeRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Façon de hacher et de comparer une clé, selon le type de sa colonne
+     */
+    private enum KeyKind {
+        INTEGRAL, DOUBLE, OBJECT;
+
+        static KeyKind of(DataColumn<?> column) {
+            if (column.getDataType() == Integer.class || column.getDataType() == Long.class) {
+                return INTEGRAL;
+            }
+            return column.getDataType() == Double.class ? DOUBLE : OBJECT;
+        }
+    }
+
+    /**
+     * Colonne clé lue des deux côtés de la jointure (valeurs non nulles uniquement)
+     */
+    private static final class KeyColumn {
+        final KeyKind kind;
+        final ColumnStorage build;
+        final ColumnStorage probe;
+
+        KeyColumn(KeyKind kind, ColumnStorage build, ColumnStorage probe) {
+            this.kind = kind;
+            this.build = build;
+            this.probe = probe;
+        }
+
+        int hash(ColumnStorage storage, int row) {
+            switch (kind) {
+                case INTEGRAL:
+                    return Long.hashCode(storage.getLong(row));
+                case DOUBLE:
+                    return Double.hashCode(storage.getDouble(row));
+                default:
+                    return storage.get(row).hashCode();
+            }
+        }
+
+        boolean equal(int buildRow, int probeRow) {
+            switch (kind) {
+                case INTEGRAL:
+                    return build.getLong(buildRow) == probe.getLong(probeRow);
+                case DOUBLE:
+                    return Double.doubleToLongBits(build.getDouble(buildRow))
+                            == Double.doubleToLongBits(probe.getDouble(probeRow));
+                default:
+                    return build.get(buildRow).equals(probe.get(probeRow));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package projet_devops;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Récepteur qui cumule en mémoire les mesures de chaque opération (nombre d'appels, durées, lignes, octets)
+ * Exemple : {@code InMemoryMetrics metrics = new InMemoryMetrics(); Metrics.addListener(metrics);}
+ * puis {@code metrics.getSummary("DataFrame.fromCSV").getMaxNanos()} pour repérer une lecture lente
+ */
+public class InMemoryMetrics implements OperationListener {
+    /**
+     * Cumuls par nom d'opération
+     */
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public void onOperation(OperationMetrics metrics) {
+        summaries.computeIfAbsent(metrics.getOperation(), Summary::new).add(metrics);
+    }
+
+    /**
+     * Retourne les cumuls d'une opération
+     *
+     * @param operation Le nom de l'opération (ex: "Selection.filterByMask")
+     * @return Une copie des cumuls, ou null si l'opération n'a pas été exécutée
+     */
+    public Summary getSummary(String operation) {
+        Summary summary = summaries.get(operation);
+        return summary == null ? null : summary.copy();
+    }
+
+    /**
+     * Retourne les cumuls de toutes les opérations exécutées
+     *
+     * @return Une copie des cumuls, triés par nom d'opération
+     */
+    public Map<String, Summary> getSummaries() {
+        Map<String, Summary> result = new TreeMap<>();
+        for (Summary summary : summaries.values()) {
+            result.put(summary.getOperation(), summary.copy());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Efface tous les cumuls
+     */
+    public void reset() {
+        summaries.clear();
+    }
+
+    /**
+     * Cumuls des mesures d'une opération
+     */
+    public static final class Summary {
+        /** Nom de l'opération */
+        private final String operation;
+        /** Nombre d'exécutions */
+        private long count;
+        /** Durée totale, en nanosecondes */
+        private long totalNanos;
+        /** Durée la plus longue, en nanosecondes */
+        private long maxNanos;
+        /** Nombre total de lignes en entrée */
+        private long rowsIn;
+        /** Nombre total de lignes produites */
+        private long rowsOut;
+        /** Nombre total d'octets lus */
+        private long bytesRead;
+        /** Nombre total de champs analysés */
+        private long parsedCells;
+        /** Nombre total d'octets alloués (les exécutions non mesurées ne sont pas comptées) */
+        private long allocatedBytes;
+
+        private Summary(String operation) {
+            this.operation = operation;
+        }
+
+        private synchronized void add(OperationMetrics metrics) {
+            count++;
+            totalNanos += metrics.getWallNanos();
+            maxNanos = Math.max(maxNanos, metrics.getWallNanos());
+            rowsIn += metrics.getRowsIn();
+            rowsOut += metrics.getRowsOut();
+            bytesRead += metrics.getBytesRead();
+            parsedCells += metrics.getParsedCells();
+            allocatedBytes += Math.max(0, metrics.getAllocatedBytes());
+        }
+
+        private synchronized Summary copy() {
+            Summary copy = new Summary(operation);
+            copy.count = count;
+            copy.totalNanos = totalNanos;
+            copy.maxNanos = maxNanos;
+            copy.rowsIn = rowsIn;
+            copy.rowsOut = rowsOut;
+            copy.bytesRead = bytesRead;
+            copy.parsedCells = parsedCells;
+            copy.allocatedBytes = allocatedBytes;
+            return copy;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Retourne la durée moyenne d'une exécution
+         *
+         * @return La durée moyenne, en nanosecondes
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        public long getRowsIn() {
+            return rowsIn;
+        }
+
+        public long getRowsOut() {
+            return rowsOut;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getParsedCells() {
+            return parsedCells;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " : " + count + " appels, " + totalNanos / 1000 + " µs au total, "
+                    + maxNanos / 1000 + " µs au plus, " + rowsIn + " -> " + rowsOut + " lignes, "
+                    + bytesRead + " octets lus, " + parsedCells + " champs, " + allocatedBytes + " octets alloués";
+        }
+    }
+}
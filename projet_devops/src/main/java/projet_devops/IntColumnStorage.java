@@ -0,0 +1,113 @@
+package projet_devops;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Stockage d'une colonne Integer dans un tableau int[]
+ */
+class IntColumnStorage extends PrimitiveColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    int[] data = new int[0];
+
+    @Override
+    int capacity() {
+        return data.length;
+    }
+
+    @Override
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            resize(grownCapacity(data.length, minCapacity));
+        }
+    }
+
+    @Override
+    void resize(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    @Override
+    void copyValues(PrimitiveColumnStorage source, int offset) {
+        IntColumnStorage other = (IntColumnStorage) source;
+        System.arraycopy(other.data, 0, data, offset, other.size);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        IntColumnStorage target = new IntColumnStorage();
+        target.data = Arrays.copyOfRange(data, from, to);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        IntColumnStorage target = new IntColumnStorage();
+        target.data = new int[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = data[row];
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addInt(source.getInt(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return data[index];
+    }
+
+    @Override
+    void append(Object value) {
+        addInt((Integer) value);
+    }
+
+    /**
+     * Ajoute une valeur entière non nulle
+     * 
+     * @param value La valeur à ajouter
+     */
+    void addInt(int value) {
+        ensureCapacity(size + 1);
+        data[size++] = value;
+    }
+
+    @Override
+    int getInt(int index) {
+        return data[index];
+    }
+
+    @Override
+    long getLong(int index) {
+        return data[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        return data[index];
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[i] = data[from + i];
+        }
+    }
+
+    @Override
+    IntBuffer asIntBuffer() {
+        return IntBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+    }
+}
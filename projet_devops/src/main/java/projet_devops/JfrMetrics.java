@@ -0,0 +1,68 @@
+package projet_devops;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Récepteur qui émet chaque mesure sous forme d'événement Java Flight Recorder "projet_devops.Operation"
+ * Les événements ne sont écrits que pendant un enregistrement qui les active
+ * (ex: {@code -XX:StartFlightRecording} ou {@code jcmd <pid> JFR.start}), et sont visibles dans JDK Mission Control
+ */
+public class JfrMetrics implements OperationListener {
+
+    @Override
+    public void onOperation(OperationMetrics metrics) {
+        OperationEvent event = new OperationEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.operation = metrics.getOperation();
+        event.wallTime = metrics.getWallNanos();
+        event.rowsIn = metrics.getRowsIn();
+        event.rowsOut = metrics.getRowsOut();
+        event.bytesRead = metrics.getBytesRead();
+        event.parsedCells = metrics.getParsedCells();
+        event.allocatedBytes = metrics.getAllocatedBytes();
+        event.commit();
+    }
+
+    /**
+     * Événement JFR d'une opération terminée, émis à sa fin ; sa durée est dans le champ wallTime
+     */
+    @Name("projet_devops.Operation")
+    @Label("Opération DataFrame")
+    @Category("projet_devops")
+    @Description("Opération de lecture, de sélection ou de statistique sur un DataFrame")
+    @StackTrace(false)
+    static final class OperationEvent extends Event {
+        @Label("Opération")
+        String operation;
+
+        @Label("Durée")
+        @Timespan(Timespan.NANOSECONDS)
+        long wallTime;
+
+        @Label("Lignes en entrée")
+        long rowsIn;
+
+        @Label("Lignes produites")
+        long rowsOut;
+
+        @Label("Octets lus")
+        @DataAmount
+        long bytesRead;
+
+        @Label("Champs analysés")
+        long parsedCells;
+
+        @Label("Octets alloués")
+        @DataAmount
+        long allocatedBytes;
+    }
+}
@@ -0,0 +1,41 @@
+package projet_devops;
+
+/**
+ * Type de jointure entre deux DataFrames ({@link DataFrame#join})
+ */
+public enum JoinType {
+    /**
+     * Seules les lignes ayant une correspondance dans les deux DataFrames
+     */
+    INNER,
+    /**
+     * Toutes les lignes du DataFrame de gauche, complétées par des valeurs nulles sans correspondance
+     */
+    LEFT,
+    /**
+     * Toutes les lignes du DataFrame de droite, complétées par des valeurs nulles sans correspondance
+     */
+    RIGHT,
+    /**
+     * Toutes les lignes des deux DataFrames
+     */
+    OUTER;
+
+    /**
+     * Indique si les lignes de gauche sans correspondance sont conservées
+     *
+     * @return true pour LEFT et OUTER
+     */
+    boolean keepsLeft() {
+        return this == LEFT || this == OUTER;
+    }
+
+    /**
+     * Indique si les lignes de droite sans correspondance sont conservées
+     *
+     * @return true pour RIGHT et OUTER
+     */
+    boolean keepsRight() {
+        return this == RIGHT || this == OUTER;
+    }
+}
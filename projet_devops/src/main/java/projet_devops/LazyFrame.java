@@ -0,0 +1,669 @@
+package projet_devops;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Requête différée sur un fichier CSV ou un DataFrame
+ * Chaque opération (filter, select, withColumn, groupBy/agg, limit) ajoute une étape au plan sans rien calculer ;
+ * collect() optimise le plan puis l'exécute :
+ * - seules les colonnes utilisées par la suite du plan sont lues (projection poussée dans la lecture)
+ * - les filtres sur les colonnes d'origine sont appliqués pendant la lecture, avant toute copie (prédicats poussés),
+ *   et les filtres successifs sont fusionnés en un seul masque
+ * - les colonnes calculées qui ne servent pas au résultat ne sont pas évaluées
+ * - un regroupement ne fait lire que ses colonnes clés et ses colonnes agrégées
+ * - une limite qui suit les filtres est appliquée pendant la lecture : aucune ligne au-delà n'est copiée
+ *
+ * Pour un CSV filtré, le type des colonnes est déduit de toutes les lignes du fichier pendant l'unique lecture, qui ne garde
+ * que le texte des champs utiles des lignes pouvant vérifier les filtres ; ces lignes sont converties et filtrées à la fin,
+ * avec les types définitifs : le résultat est le même que celui des filtres appliqués au DataFrame chargé
+ * ({@link DataFrame#fromCSV(String)})
+ * Sans filtre, une limite arrête la lecture et le type des colonnes est déduit des seules lignes lues
+ * Un LazyFrame n'est pas modifiable : chaque opération renvoie un nouveau plan
+ */
+public final class LazyFrame {
+    /**
+     * Types possibles d'une colonne lue dans un fichier CSV, du plus étroit au plus large
+     */
+    private static final List<Class<?>> TYPES = Arrays.asList(Integer.class, Long.class, Double.class, String.class);
+
+    /**
+     * Fichier CSV source, ou null si la source est un DataFrame
+     */
+    private final String filename;
+    /**
+     * DataFrame source, ou null si la source est un fichier CSV
+     */
+    private final DataFrame source;
+    /**
+     * Étapes du plan, dans l'ordre où elles ont été demandées
+     */
+    private final List<Step> steps;
+
+    private LazyFrame(String filename, DataFrame source, List<Step> steps) {
+        this.filename = filename;
+        this.source = source;
+        this.steps = steps;
+    }
+
+    /**
+     * Crée un plan dont la source est un fichier CSV, lu seulement au moment de collect()
+     *
+     * @param filename Le nom du fichier CSV
+     * @return Le plan
+     */
+    public static LazyFrame scanCSV(String filename) {
+        return new LazyFrame(filename, null, Collections.emptyList());
+    }
+
+    /**
+     * Crée un plan dont la source est un DataFrame déjà chargé
+     *
+     * @param df Le DataFrame source
+     * @return Le plan
+     */
+    public static LazyFrame of(DataFrame df) {
+        return new LazyFrame(null, df, Collections.emptyList());
+    }
+
+    /**
+     * Ajoute un filtre : ne garde que les lignes où la colonne vérifie la condition
+     * Une valeur numérique est comparée aux nombres par leur valeur quel que soit leur type, et ne retient jamais de texte ;
+     * une chaîne est comparée au texte des valeurs. Les valeurs nulles ne sont jamais retenues
+     *
+     * @param column Le nom de la colonne
+     * @param operator L'opérateur de comparaison (">", "<", ">=", "<=", "==", "!=")
+     * @param value La valeur de comparaison, nombre ou chaîne
+     * @return Le nouveau plan
+     * @throws IllegalArgumentException si l'opérateur n'est pas supporté ou si la valeur n'est ni un nombre ni une chaîne
+     */
+    public LazyFrame filter(String column, String operator, Object value) {
+        return with(new FilterStep(new RowFilter(column, operator, value)));
+    }
+
+    /**
+     * Ajoute une projection : ne garde que les colonnes données, dans cet ordre
+     *
+     * @param columns Les noms des colonnes
+     * @return Le nouveau plan
+     * @throws IllegalArgumentException si la liste est vide
+     */
+    public LazyFrame select(String... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("La liste des colonnes ne peut pas être vide");
+        }
+        return with(new SelectStep(Arrays.asList(columns.clone())));
+    }
+
+    /**
+     * Ajoute une colonne calculée par une expression (voir {@link Selection#eval(DataFrame, String)})
+     * Une colonne du même nom est remplacée
+     *
+     * @param name Le nom de la nouvelle colonne
+     * @param expression L'expression à évaluer
+     * @return Le nouveau plan
+     * @throws IllegalArgumentException si l'expression est mal formée
+     */
+    public LazyFrame withColumn(String name, String expression) {
+        return with(new WithColumnStep(name, expression, ExpressionParser.referencedColumns(expression)));
+    }
+
+    /**
+     * Ajoute une limite : ne garde que les n premières lignes
+     *
+     * @param n Le nombre maximal de lignes
+     * @return Le nouveau plan
+     * @throws IllegalArgumentException si n est négatif
+     */
+    public LazyFrame limit(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        return with(new LimitStep(n));
+    }
+
+    /**
+     * Commence un regroupement des lignes selon une ou plusieurs colonnes (voir {@link DataFrame#groupBy}),
+     * terminé par {@link LazyGroupBy#agg}
+     *
+     * @param columns Les noms des colonnes clés
+     * @return Le regroupement différé
+     * @throws IllegalArgumentException si la liste est vide
+     */
+    public LazyGroupBy groupBy(String... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("Au moins une colonne de regroupement est nécessaire");
+        }
+        return new LazyGroupBy(this, Arrays.asList(columns.clone()));
+    }
+
+    private LazyFrame with(Step step) {
+        List<Step> newSteps = new ArrayList<>(steps);
+        newSteps.add(step);
+        return new LazyFrame(filename, source, Collections.unmodifiableList(newSteps));
+    }
+
+    /**
+     * Optimise puis exécute le plan
+     *
+     * @return Le DataFrame résultat
+     * @throws IOException Si la lecture du fichier CSV échoue ou si le fichier est vide
+     * @throws IllegalArgumentException si le plan utilise une colonne inexistante
+     */
+    public DataFrame collect() throws IOException {
+        DataFrame df;
+        Plan plan;
+        if (source != null) {
+            plan = optimize(source.getColumnNames());
+            df = scanDataFrame(plan);
+        } else {
+            try (CsvReader reader = new CsvReader(Paths.get(filename))) {
+                List<String> headers = readHeaders(reader);
+                plan = optimize(headers);
+                df = scanCSV(reader, headers, plan);
+            }
+        }
+        df = runPostSteps(df, plan);
+
+        DataFrame result = new DataFrame();
+        for (String column : plan.output) {
+            result.addColumn(df.getColumn(column));
+        }
+        return result;
+    }
+
+    /**
+     * Décrit le plan optimisé, une étape par ligne (la lecture de la source en premier)
+     *
+     * @return La description du plan
+     * @throws IOException Si la lecture de l'en-tête du fichier CSV échoue ou si le fichier est vide
+     */
+    public String explain() throws IOException {
+        Plan plan;
+        String description;
+        if (source != null) {
+            plan = optimize(source.getColumnNames());
+            description = "DataFrame";
+        } else {
+            try (CsvReader reader = new CsvReader(Paths.get(filename))) {
+                plan = optimize(readHeaders(reader));
+            }
+            description = "CSV " + filename;
+        }
+
+        StringBuilder text = new StringBuilder("scan ").append(description)
+                .append(" colonnes=").append(plan.scanColumns)
+                .append(" filtres=").append(plan.pushedFilters);
+        if (plan.scanLimit >= 0) {
+            text.append(" limite=").append(plan.scanLimit);
+        }
+        for (Step step : plan.postSteps) {
+            text.append('\n').append(step);
+        }
+        text.append("\nselect ").append(plan.output);
+        return text.toString();
+    }
+
+    /**
+     * Lit la ligne d'en-tête d'un fichier CSV
+     */
+    private List<String> readHeaders(CsvReader reader) throws IOException {
+        if (!reader.nextRecord()) {
+            throw new IOException("Le fichier CSV est vide : " + filename);
+        }
+        List<String> headers = new ArrayList<>();
+        for (int field = 0; field < reader.fieldCount(); field++) {
+            headers.add(reader.getString(field));
+        }
+        return headers;
+    }
+
+    /**
+     * Optimise le plan pour une source dont les colonnes sont connues
+     *
+     * @param sourceColumns Les colonnes de la source
+     * @return Le plan optimisé
+     * @throws IllegalArgumentException si une étape utilise une colonne inexistante
+     */
+    private Plan optimize(List<String> sourceColumns) {
+        Plan plan = new Plan();
+        List<String> current = new ArrayList<>(sourceColumns);
+        Set<String> derived = new HashSet<>();
+        boolean limited = false;
+        boolean filteredAfterScan = false;
+        boolean aggregated = false;
+
+        // Passe avant : vérification des colonnes et choix des étapes exécutées pendant la lecture
+        for (Step step : steps) {
+            if (step instanceof SelectStep) {
+                List<String> columns = ((SelectStep) step).columns;
+                checkColumns(current, columns);
+                current = new ArrayList<>(new LinkedHashSet<>(columns));
+            } else if (step instanceof WithColumnStep) {
+                WithColumnStep withColumn = (WithColumnStep) step;
+                checkColumns(current, withColumn.references);
+                if (!current.contains(withColumn.name)) {
+                    current.add(withColumn.name);
+                }
+                derived.add(withColumn.name);
+                plan.postSteps.add(step);
+            } else if (step instanceof AggregateStep) {
+                AggregateStep aggregate = (AggregateStep) step;
+                checkColumns(current, aggregate.keys);
+                checkColumns(current, aggregate.columns);
+                current = aggregate.outputColumns();
+                aggregated = true;
+                plan.postSteps.add(step);
+            } else if (step instanceof FilterStep) {
+                RowFilter filter = ((FilterStep) step).filter;
+                checkColumns(current, Collections.singleton(filter.getColumn()));
+                // Un filtre sur une colonne d'origine commute avec les calculs ligne à ligne, pas avec une limite
+                // ni avec un regroupement
+                if (!derived.contains(filter.getColumn()) && !limited && !aggregated) {
+                    plan.pushedFilters.add(filter);
+                } else {
+                    plan.postSteps.add(step);
+                    filteredAfterScan = true;
+                }
+            } else {
+                int n = ((LimitStep) step).n;
+                if (!limited && !filteredAfterScan && !aggregated) {
+                    plan.scanLimit = n;
+                } else {
+                    plan.postSteps.add(step);
+                }
+                limited = true;
+            }
+        }
+        plan.output = current;
+
+        // Passe arrière : suppression des colonnes calculées inutiles et colonnes à lire
+        Set<String> needed = new HashSet<>(current);
+        for (int i = plan.postSteps.size() - 1; i >= 0; i--) {
+            Step step = plan.postSteps.get(i);
+            if (step instanceof WithColumnStep) {
+                WithColumnStep withColumn = (WithColumnStep) step;
+                if (needed.remove(withColumn.name)) {
+                    needed.addAll(withColumn.references);
+                } else {
+                    plan.postSteps.remove(i);
+                }
+            } else if (step instanceof FilterStep) {
+                needed.add(((FilterStep) step).filter.getColumn());
+            } else if (step instanceof AggregateStep) {
+                // Le regroupement ne garde que ses clés et ses agrégats : seules ses colonnes sont utiles avant lui
+                AggregateStep aggregate = (AggregateStep) step;
+                needed.clear();
+                needed.addAll(aggregate.keys);
+                needed.addAll(aggregate.columns);
+            }
+        }
+        for (String column : sourceColumns) {
+            if (needed.contains(column) && !plan.scanColumns.contains(column)) {
+                plan.scanColumns.add(column);
+            }
+        }
+        // Une colonne au moins est lue pour connaître le nombre de lignes
+        if (plan.scanColumns.isEmpty() && !sourceColumns.isEmpty()) {
+            plan.scanColumns.add(sourceColumns.get(0));
+        }
+        return plan;
+    }
+
+    private static void checkColumns(List<String> available, Iterable<String> columns) {
+        for (String column : columns) {
+            if (!available.contains(column)) {
+                throw new IllegalArgumentException("Colonne non trouvée: " + column);
+            }
+        }
+    }
+
+    /**
+     * Lit les colonnes utiles d'un fichier CSV en n'ajoutant que les lignes vérifiant les filtres poussés
+     * Avec des filtres, le type des colonnes est déduit de toutes les lignes pendant la lecture : le schéma et le résultat
+     * des filtres sont ainsi ceux obtenus en filtrant le DataFrame chargé
+     */
+    private DataFrame scanCSV(CsvReader reader, List<String> headers, Plan plan) throws IOException {
+        int[] builderFields = new int[plan.scanColumns.size()];
+        for (int i = 0; i < builderFields.length; i++) {
+            builderFields[i] = headers.indexOf(plan.scanColumns.get(i));
+        }
+        RowFilter[] filters = plan.pushedFilters.toArray(new RowFilter[0]);
+        int[] filterFields = new int[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            filterFields[i] = headers.indexOf(filters[i].getColumn());
+        }
+        Class<?>[] types = new Class<?>[headers.size()];
+        Arrays.fill(types, Integer.class);
+        if (filters.length == 0) {
+            return readRows(reader, plan, builderFields, filters, filterFields, types);
+        }
+
+        // Champs utiles, numérotés dans l'ordre où ils sont gardés
+        Set<Integer> fields = new LinkedHashSet<>();
+        for (int field : builderFields) {
+            fields.add(field);
+        }
+        for (int field : filterFields) {
+            fields.add(field);
+        }
+        int[] used = fields.stream().mapToInt(Integer::intValue).toArray();
+        List<Integer> positions = new ArrayList<>(fields);
+
+        // Lecture unique : les types sont élargis sur toutes les lignes, le texte des champs utiles n'est gardé
+        // que pour les lignes qui vérifient les filtres pour au moins un des types encore possibles
+        ByteArrayOutputStream kept = new ByteArrayOutputStream();
+        while (reader.nextRecord() && !reader.isBlankRecord()) {
+            for (int field : used) {
+                types[field] = ColumnBuilder.widen(types[field], reader, field);
+            }
+            if (mayMatch(reader, filters, filterFields, types)) {
+                for (int field : used) {
+                    reader.writeQuotedField(field, kept);
+                    // Le séparateur final évite qu'une ligne aux champs vides soit prise pour une ligne vide
+                    kept.write(',');
+                }
+                kept.write('\n');
+            }
+        }
+
+        // Les lignes gardées sont relues en mémoire, converties et filtrées avec les types définitifs
+        int[] keptBuilderFields = new int[builderFields.length];
+        for (int i = 0; i < builderFields.length; i++) {
+            keptBuilderFields[i] = positions.indexOf(builderFields[i]);
+        }
+        int[] keptFilterFields = new int[filterFields.length];
+        for (int i = 0; i < filterFields.length; i++) {
+            keptFilterFields[i] = positions.indexOf(filterFields[i]);
+        }
+        Class<?>[] keptTypes = new Class<?>[used.length];
+        for (int i = 0; i < used.length; i++) {
+            keptTypes[i] = types[used[i]];
+        }
+        try (CsvReader rows = new CsvReader(kept.toByteArray(), kept.size())) {
+            return readRows(rows, plan, keptBuilderFields, filters, keptFilterFields, keptTypes);
+        }
+    }
+
+    /**
+     * Indique si la ligne courante peut vérifier tous les filtres, quel que soit le type définitif de leurs colonnes
+     * parmi ceux encore possibles (le type déduit jusqu'ici ou un type plus large)
+     */
+    private static boolean mayMatch(CsvReader reader, RowFilter[] filters, int[] filterFields, Class<?>[] types) {
+        for (int i = 0; i < filters.length; i++) {
+            boolean match = false;
+            for (int rank = ColumnBuilder.typeRank(types[filterFields[i]]); rank < TYPES.size() && !match; rank++) {
+                match = filters[i].test(reader, filterFields[i], TYPES.get(rank));
+            }
+            if (!match) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ajoute aux colonnes les lignes vérifiant les filtres, jusqu'à la limite de lecture
+     */
+    private DataFrame readRows(CsvReader reader, Plan plan, int[] builderFields, RowFilter[] filters, int[] filterFields,
+            Class<?>[] types) throws IOException {
+        long dataStart = reader.nextRecordOffset();
+        ColumnBuilder[] builders = new ColumnBuilder[builderFields.length];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = new ColumnBuilder(plan.scanColumns.get(i), types[builderFields[i]]);
+        }
+        int kept = 0;
+        while (kept != plan.scanLimit && reader.nextRecord() && !reader.isBlankRecord()) {
+            boolean keep = true;
+            for (int i = 0; i < filters.length && keep; i++) {
+                keep = filters[i].test(reader, filterFields[i], types[filterFields[i]]);
+            }
+            if (keep) {
+                for (int i = 0; i < builders.length; i++) {
+                    builders[i].append(reader, builderFields[i]);
+                }
+                kept++;
+            }
+        }
+
+        // Sans filtre, les types sont élargis pendant la lecture et les lignes lues sont les premières du fichier :
+        // une colonne dont le texte est perdu en passant en String peut être relue telle quelle
+        if (filters.length == 0) {
+            ColumnBuilder.rereadText(Paths.get(filename), dataStart, builders, builderFields);
+        }
+        DataFrame df = new DataFrame();
+        for (ColumnBuilder builder : builders) {
+            df.addColumn(builder.build());
+        }
+        return df;
+    }
+
+    /**
+     * Applique les filtres poussés à un DataFrame source et n'en copie que les colonnes utiles
+     * Sans filtre, les colonnes sont partagées avec la source
+     */
+    private DataFrame scanDataFrame(Plan plan) {
+        RowMask mask = null;
+        for (RowFilter filter : plan.pushedFilters) {
+            RowMask condition = filter.evaluate(source.getColumn(filter.getColumn()));
+            mask = mask == null ? condition : mask.and(condition);
+        }
+        int[] rows = mask == null ? null : mask.toIndexes();
+        int count = rows == null ? source.getRowCount() : rows.length;
+        if (plan.scanLimit >= 0) {
+            count = Math.min(count, plan.scanLimit);
+        }
+
+        DataFrame df = new DataFrame();
+        for (String column : plan.scanColumns) {
+            DataColumn<?> data = source.getColumn(column);
+            df.addColumn(rows == null ? data.slice(0, count) : Selection.gather(data, rows, count));
+        }
+        return df;
+    }
+
+    /**
+     * Exécute les étapes qui n'ont pas pu être poussées dans la lecture
+     * Les filtres consécutifs sont combinés en un seul masque avant de copier les lignes retenues
+     */
+    private DataFrame runPostSteps(DataFrame df, Plan plan) {
+        Selection selection = new Selection();
+        RowMask pending = null;
+        for (Step step : plan.postSteps) {
+            if (step instanceof FilterStep) {
+                RowFilter filter = ((FilterStep) step).filter;
+                RowMask condition = filter.evaluate(df.getColumn(filter.getColumn()));
+                pending = pending == null ? condition : pending.and(condition);
+                continue;
+            }
+            if (pending != null) {
+                df = selection.filterByMask(df, pending);
+                pending = null;
+            }
+            if (step instanceof WithColumnStep) {
+                WithColumnStep withColumn = (WithColumnStep) step;
+                df.addColumn(ExpressionParser.parse(df, withColumn.expression).evaluateColumn(withColumn.name, df.getRowCount()));
+            } else if (step instanceof AggregateStep) {
+                AggregateStep aggregate = (AggregateStep) step;
+                df = df.groupBy(aggregate.keys.toArray(new String[0])).agg(aggregate.columns, aggregate.aggregations);
+            } else {
+                df = df.slice(0, Math.min(((LimitStep) step).n, df.getRowCount()));
+            }
+        }
+        if (pending != null) {
+            df = selection.filterByMask(df, pending);
+        }
+        return df;
+    }
+
+    /**
+     * Plan optimisé : lecture de la source puis étapes restantes
+     */
+    private static final class Plan {
+        /**
+         * Colonnes de la source à lire, dans l'ordre de la source
+         */
+        final List<String> scanColumns = new ArrayList<>();
+        /**
+         * Filtres appliqués pendant la lecture
+         */
+        final List<RowFilter> pushedFilters = new ArrayList<>();
+        /**
+         * Nombre maximal de lignes à lire, ou -1 sans limite
+         */
+        int scanLimit = -1;
+        /**
+         * Étapes exécutées après la lecture, dans l'ordre du plan
+         */
+        final List<Step> postSteps = new ArrayList<>();
+        /**
+         * Colonnes du résultat, dans l'ordre
+         */
+        List<String> output;
+    }
+
+    /**
+     * Étape d'un plan
+     */
+    private interface Step {
+    }
+
+    private static final class FilterStep implements Step {
+        final RowFilter filter;
+
+        FilterStep(RowFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public String toString() {
+            return "filter " + filter;
+        }
+    }
+
+    private static final class SelectStep implements Step {
+        final List<String> columns;
+
+        SelectStep(List<String> columns) {
+            this.columns = columns;
+        }
+    }
+
+    private static final class WithColumnStep implements Step {
+        final String name;
+        final String expression;
+        final Set<String> references;
+
+        WithColumnStep(String name, String expression, Set<String> references) {
+            this.name = name;
+            this.expression = expression;
+            this.references = references;
+        }
+
+        @Override
+        public String toString() {
+            return "with_column " + name + " = " + expression;
+        }
+    }
+
+    private static final class AggregateStep implements Step {
+        final List<String> keys;
+        final List<String> columns;
+        final Aggregation[] aggregations;
+
+        AggregateStep(List<String> keys, List<String> columns, Aggregation[] aggregations) {
+            this.keys = keys;
+            this.columns = columns;
+            this.aggregations = aggregations;
+        }
+
+        /**
+         * Retourne les colonnes produites, dans l'ordre de {@link GroupBy#agg(List, Aggregation...)}
+         */
+        List<String> outputColumns() {
+            List<String> output = new ArrayList<>(new LinkedHashSet<>(keys));
+            for (String column : columns) {
+                for (Aggregation aggregation : aggregations) {
+                    output.add(column + "_" + aggregation.getName());
+                }
+            }
+            return output;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("group_by ").append(keys).append(" agg ").append(columns).append(" [");
+            for (int i = 0; i < aggregations.length; i++) {
+                text.append(i == 0 ? "" : ", ").append(aggregations[i].getName());
+            }
+            return text.append(']').toString();
+        }
+    }
+
+    private static final class LimitStep implements Step {
+        final int n;
+
+        LimitStep(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public String toString() {
+            return "limit " + n;
+        }
+    }
+
+    /**
+     * Regroupement différé des lignes d'un plan, créé par {@link LazyFrame#groupBy}
+     */
+    public static final class LazyGroupBy {
+        /**
+         * Plan regroupé
+         */
+        private final LazyFrame frame;
+        /**
+         * Colonnes clés
+         */
+        private final List<String> keys;
+
+        private LazyGroupBy(LazyFrame frame, List<String> keys) {
+            this.frame = frame;
+            this.keys = keys;
+        }
+
+        /**
+         * Ajoute l'agrégation d'une colonne numérique par groupe (voir {@link GroupBy#agg(String, Aggregation...)})
+         *
+         * @param column Le nom de la colonne à agréger
+         * @param aggregations Les fonctions d'agrégation
+         * @return Le nouveau plan, dont les colonnes sont les clés puis une colonne par fonction
+         * @throws IllegalArgumentException si aucune fonction n'est donnée
+         */
+        public LazyFrame agg(String column, Aggregation... aggregations) {
+            return agg(Collections.singletonList(column), aggregations);
+        }
+
+        /**
+         * Ajoute l'agrégation de plusieurs colonnes numériques par groupe (voir {@link GroupBy#agg(List, Aggregation...)})
+         *
+         * @param columns Les noms des colonnes à agréger
+         * @param aggregations Les fonctions appliquées à chaque colonne
+         * @return Le nouveau plan, dont les colonnes sont les clés puis, pour chaque colonne agrégée, une colonne par fonction
+         * @throws IllegalArgumentException si aucune colonne ou aucune fonction n'est donnée
+         */
+        public LazyFrame agg(List<String> columns, Aggregation... aggregations) {
+            if (columns.isEmpty() || aggregations.length == 0) {
+                throw new IllegalArgumentException("Au moins une colonne et une fonction d'agrégation sont nécessaires");
+            }
+            return frame.with(new AggregateStep(keys, new ArrayList<>(columns), aggregations.clone()));
+        }
+    }
+}
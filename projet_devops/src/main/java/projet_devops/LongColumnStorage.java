@@ -0,0 +1,108 @@
+package projet_devops;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Stockage d'une colonne Long dans un tableau long[]
+ */
+class LongColumnStorage extends PrimitiveColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    long[] data = new long[0];
+
+    @Override
+    int capacity() {
+        return data.length;
+    }
+
+    @Override
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            resize(grownCapacity(data.length, minCapacity));
+        }
+    }
+
+    @Override
+    void resize(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    @Override
+    void copyValues(PrimitiveColumnStorage source, int offset) {
+        LongColumnStorage other = (LongColumnStorage) source;
+        System.arraycopy(other.data, 0, data, offset, other.size);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = Arrays.copyOfRange(data, from, to);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = data[row];
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addLong(source.getLong(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return data[index];
+    }
+
+    @Override
+    void append(Object value) {
+        addLong((Long) value);
+    }
+
+    /**
+     * Ajoute une valeur entière longue non nulle
+     * 
+     * @param value La valeur à ajouter
+     */
+    void addLong(long value) {
+        ensureCapacity(size + 1);
+        data[size++] = value;
+    }
+
+    @Override
+    long getLong(int index) {
+        return data[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        return data[index];
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[i] = data[from + i];
+        }
+    }
+
+    @Override
+    LongBuffer asLongBuffer() {
+        return LongBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+    }
+}
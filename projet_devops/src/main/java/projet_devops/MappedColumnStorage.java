@@ -0,0 +1,90 @@
+package projet_devops;
+
+import java.nio.LongBuffer;
+
+/**
+ * Base des stockages en lecture seule lus directement dans un fichier binaire projeté en mémoire ({@link ColumnarFile})
+ * Les valeurs ne sont ni analysées ni copiées au chargement : chaque lecture va chercher les octets dans la projection
+ * Une colonne copie le stockage dans un stockage modifiable avant la première modification
+ */
+abstract class MappedColumnStorage extends ColumnStorage {
+    /**
+     * Nombre de valeurs stockées
+     */
+    final int size;
+    /**
+     * Bitmap des valeurs nulles (un bit par ligne), null si la colonne n'a aucune valeur nulle
+     */
+    private final LongBuffer nulls;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param size Le nombre de valeurs
+     * @param nulls Le bitmap des valeurs nulles, ou null s'il n'y en a aucune
+     */
+    MappedColumnStorage(int size, LongBuffer nulls) {
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return nulls != null && (nulls.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    void add(Object value) {
+        throw new UnsupportedOperationException("Une colonne chargée d'un fichier n'est pas modifiable");
+    }
+
+    @Override
+    boolean isShared() {
+        return true;
+    }
+
+    @Override
+    void markNulls(int from, boolean[] dest, int length) {
+        if (nulls != null) {
+            super.markNulls(from, dest, length);
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles d'une plage copiée par copyRange
+     *
+     * @param target Le stockage cible
+     * @param from L'index de la première valeur copiée
+     * @param to L'index suivant la dernière valeur copiée
+     */
+    void copyNulls(PrimitiveColumnStorage target, int from, int to) {
+        if (nulls != null) {
+            for (int i = from; i < to; i++) {
+                if (isNull(i)) {
+                    target.markNull(i - from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles des lignes copiées par gather
+     *
+     * @param target Le stockage cible, déjà rempli des valeurs
+     * @param rows Les index des lignes copiées (négatif pour une valeur nulle)
+     * @param count Le nombre de lignes copiées
+     */
+    void gatherNulls(PrimitiveColumnStorage target, int[] rows, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < 0 || isNull(row)) {
+                target.markNull(i);
+            }
+        }
+    }
+}
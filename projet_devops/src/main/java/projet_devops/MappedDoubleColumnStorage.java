@@ -0,0 +1,72 @@
+package projet_devops;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Stockage en lecture seule d'une colonne Double projetée en mémoire
+ */
+final class MappedDoubleColumnStorage extends MappedColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    private final DoubleBuffer values;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param values Les valeurs, une par ligne
+     * @param nulls Le bitmap des valeurs nulles, ou null s'il n'y en a aucune
+     */
+    MappedDoubleColumnStorage(DoubleBuffer values, LongBuffer nulls) {
+        super(values.remaining(), nulls);
+        this.values = values;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : values.get(index);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = new double[to - from];
+        getDoubles(from, target.data, to - from);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        DoubleColumnStorage target = new DoubleColumnStorage();
+        target.data = new double[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = values.get(row);
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        DoubleBuffer source = values.duplicate();
+        source.position(from);
+        source.get(dest, 0, length);
+    }
+
+    @Override
+    DoubleBuffer asDoubleBuffer() {
+        return values.duplicate();
+    }
+}
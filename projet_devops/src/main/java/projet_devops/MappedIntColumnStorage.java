@@ -0,0 +1,84 @@
+package projet_devops;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Stockage en lecture seule d'une colonne Integer projetée en mémoire
+ */
+final class MappedIntColumnStorage extends MappedColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    private final IntBuffer values;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param values Les valeurs, une par ligne
+     * @param nulls Le bitmap des valeurs nulles, ou null s'il n'y en a aucune
+     */
+    MappedIntColumnStorage(IntBuffer values, LongBuffer nulls) {
+        super(values.remaining(), nulls);
+        this.values = values;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : values.get(index);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        IntColumnStorage target = new IntColumnStorage();
+        target.data = new int[to - from];
+        IntBuffer source = values.duplicate();
+        source.position(from);
+        source.get(target.data);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        IntColumnStorage target = new IntColumnStorage();
+        target.data = new int[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = values.get(row);
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    int getInt(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    long getLong(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[i] = values.get(from + i);
+        }
+    }
+
+    @Override
+    IntBuffer asIntBuffer() {
+        return values.duplicate();
+    }
+}
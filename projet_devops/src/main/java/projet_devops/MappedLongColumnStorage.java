@@ -0,0 +1,78 @@
+package projet_devops;
+
+import java.nio.LongBuffer;
+
+/**
+ * Stockage en lecture seule d'une colonne Long projetée en mémoire
+ */
+final class MappedLongColumnStorage extends MappedColumnStorage {
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    private final LongBuffer values;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param values Les valeurs, une par ligne
+     * @param nulls Le bitmap des valeurs nulles, ou null s'il n'y en a aucune
+     */
+    MappedLongColumnStorage(LongBuffer values, LongBuffer nulls) {
+        super(values.remaining(), nulls);
+        this.values = values;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : values.get(index);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = new long[to - from];
+        LongBuffer source = values.duplicate();
+        source.position(from);
+        source.get(target.data);
+        target.size = to - from;
+        copyNulls(target, from, to);
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        LongColumnStorage target = new LongColumnStorage();
+        target.data = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                target.data[i] = values.get(row);
+            }
+        }
+        target.size = count;
+        gatherNulls(target, rows, count);
+        return target;
+    }
+
+    @Override
+    long getLong(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[i] = values.get(from + i);
+        }
+    }
+
+    @Override
+    LongBuffer asLongBuffer() {
+        return values.duplicate();
+    }
+}
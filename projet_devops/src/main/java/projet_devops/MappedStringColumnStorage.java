@@ -0,0 +1,67 @@
+package projet_devops;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stockage en lecture seule d'une colonne String projetée en mémoire
+ * Les chaînes sont stockées bout à bout en UTF-8 ; la chaîne de la ligne i occupe les octets offsets[i] à offsets[i + 1]
+ * et n'est décodée qu'à sa lecture
+ */
+final class MappedStringColumnStorage extends MappedColumnStorage {
+    /**
+     * Position du début de chaque chaîne dans bytes, plus la position de fin de la dernière
+     */
+    private final IntBuffer offsets;
+    /**
+     * Octets UTF-8 de toutes les chaînes
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param offsets Les positions des chaînes (une de plus que le nombre de lignes)
+     * @param bytes Les octets UTF-8 des chaînes
+     * @param nulls Le bitmap des valeurs nulles, ou null s'il n'y en a aucune
+     */
+    MappedStringColumnStorage(IntBuffer offsets, ByteBuffer bytes, LongBuffer nulls) {
+        super(offsets.remaining() - 1, nulls);
+        this.offsets = offsets;
+        this.bytes = bytes;
+    }
+
+    @Override
+    Object get(int index) {
+        if (isNull(index)) {
+            return null;
+        }
+        int start = offsets.get(index);
+        byte[] value = new byte[offsets.get(index + 1) - start];
+        ByteBuffer source = bytes.duplicate();
+        source.position(start);
+        source.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        ObjectColumnStorage target = new ObjectColumnStorage();
+        for (int i = from; i < to; i++) {
+            target.add(get(i));
+        }
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        ObjectColumnStorage target = new ObjectColumnStorage();
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            target.add(row < 0 ? null : get(row));
+        }
+        return target;
+    }
+}
@@ -0,0 +1,116 @@
+package projet_devops;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Registre des récepteurs de mesures des opérations ({@link OperationListener})
+ * Sans récepteur enregistré, une opération ne fait qu'une lecture de champ au début pour savoir qu'elle
+ * n'a rien à mesurer : ni horloge, ni allocation
+ * Implémentations fournies : {@link InMemoryMetrics} (agrégats consultables) et {@link JfrMetrics}
+ * (événements Java Flight Recorder)
+ */
+public final class Metrics {
+    /** Aucun récepteur */
+    private static final OperationListener[] NONE = new OperationListener[0];
+    /** Mesure des allocations par thread, null si la JVM ne la propose pas */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+
+    /**
+     * Récepteurs enregistrés, remplacés (jamais modifiés) à chaque ajout ou retrait
+     */
+    private static volatile OperationListener[] listeners = NONE;
+
+    private Metrics() {
+    }
+
+    /**
+     * Enregistre un récepteur, qui recevra les mesures de toutes les opérations suivantes
+     *
+     * @param listener Le récepteur
+     */
+    public static synchronized void addListener(OperationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Le récepteur ne peut pas être null");
+        }
+        OperationListener[] current = listeners;
+        OperationListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Retire un récepteur enregistré
+     *
+     * @param listener Le récepteur
+     * @return true si le récepteur était enregistré
+     */
+    public static synchronized boolean removeListener(OperationListener listener) {
+        OperationListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                OperationListener[] updated = new OperationListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                listeners = updated.length == 0 ? NONE : updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si au moins un récepteur est enregistré
+     *
+     * @return true si les opérations sont mesurées
+     */
+    public static boolean isEnabled() {
+        return listeners.length != 0;
+    }
+
+    /**
+     * Commence la mesure d'une opération
+     *
+     * @param operation Le nom de l'opération
+     * @return La mesure en cours, ou {@link OperationTimer#DISABLED} si aucun récepteur n'est enregistré
+     */
+    static OperationTimer start(String operation) {
+        return listeners.length == 0 ? OperationTimer.DISABLED : new OperationTimer(operation);
+    }
+
+    /**
+     * Transmet les mesures d'une opération aux récepteurs enregistrés
+     *
+     * @param metrics Les mesures
+     */
+    static void publish(OperationMetrics metrics) {
+        for (OperationListener listener : listeners) {
+            listener.onOperation(metrics);
+        }
+    }
+
+    /**
+     * Retourne le nombre d'octets alloués jusqu'ici par le thread courant
+     *
+     * @return Le nombre d'octets, ou -1 si la JVM ne le mesure pas
+     */
+    static long allocatedBytes() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+                if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+                    return allocations;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // JVM sans le module jdk.management : les allocations ne sont pas mesurées
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package projet_devops;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stockage générique d'une colonne (String ou autre type objet) dans une liste
+ */
+class ObjectColumnStorage extends ColumnStorage {
+    /**
+     * Liste des valeurs de la colonne
+     */
+    final List<Object> values = new ArrayList<>();
+
+    @Override
+    int size() {
+        return values.size();
+    }
+
+    @Override
+    Object get(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return values.get(index) == null;
+    }
+
+    @Override
+    void add(Object value) {
+        values.add(value);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        ObjectColumnStorage target = new ObjectColumnStorage();
+        target.values.addAll(values.subList(from, to));
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        ObjectColumnStorage target = new ObjectColumnStorage();
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            target.values.add(row < 0 ? null : values.get(row));
+        }
+        return target;
+    }
+}
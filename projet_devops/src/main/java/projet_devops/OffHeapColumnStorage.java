@@ -0,0 +1,208 @@
+package projet_devops;
+
+/**
+ * Base des stockages dont les valeurs sont hors du tas Java, dans des segments de taille fixe ({@link SegmentedBuffer})
+ * Le ramasse-miettes ne parcourt ni ne déplace les valeurs : la durée de ses pauses ne dépend plus de la taille des données
+ * Les copies (plages, lignes sélectionnées) restent hors tas ; la mémoire est rendue au ramasse-miettes par
+ * {@link #release()}, ou quand le stockage devient inaccessible
+ */
+abstract class OffHeapColumnStorage extends ColumnStorage {
+    /**
+     * Nombre de valeurs stockées
+     */
+    int size;
+    /**
+     * Valeurs de la colonne (0 pour les valeurs nulles)
+     */
+    final SegmentedBuffer values;
+    /**
+     * Bitmap des valeurs nulles (un bit par ligne), null tant qu'aucune valeur nulle n'a été ajoutée
+     */
+    private SegmentedBuffer nulls;
+    /**
+     * DataFrame propriétaire du stockage, seul à le libérer à sa fermeture (le premier auquel il est ajouté)
+     */
+    private DataFrame owner;
+
+    /**
+     * Constructeur du stockage
+     *
+     * @param elementShift Le logarithme en base 2 de la taille d'une valeur, en octets
+     */
+    OffHeapColumnStorage(int elementShift) {
+        this.values = new SegmentedBuffer(elementShift);
+    }
+
+    /**
+     * Crée un stockage hors tas vide pour le type de données donné
+     *
+     * @param dataType Le type de données de la colonne
+     * @return Le stockage
+     * @throws IllegalArgumentException Si le type n'est pas Integer, Long, Double ou String
+     */
+    static OffHeapColumnStorage create(Class<?> dataType) {
+        if (dataType == Integer.class) {
+            return new OffHeapIntColumnStorage();
+        } else if (dataType == Long.class) {
+            return new OffHeapLongColumnStorage();
+        } else if (dataType == Double.class) {
+            return new OffHeapDoubleColumnStorage();
+        } else if (dataType == String.class) {
+            return new OffHeapStringColumnStorage();
+        }
+        throw new IllegalArgumentException("Type non supporté hors tas : " + dataType.getSimpleName());
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return nulls != null && (index >>> 6) < nulls.capacity() && (nulls.getLong(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : box(index);
+    }
+
+    @Override
+    void add(Object value) {
+        if (value == null) {
+            addNull();
+        } else {
+            append(value);
+        }
+    }
+
+    @Override
+    void addNull() {
+        values.ensureCapacity(size + 1L);
+        markNull(size);
+        size++;
+    }
+
+    @Override
+    void appendAll(ColumnStorage other) {
+        values.ensureCapacity((long) size + other.size());
+        for (int i = 0; i < other.size(); i++) {
+            if (other.isNull(i)) {
+                addNull();
+            } else {
+                appendFrom(other, i);
+            }
+        }
+    }
+
+    @Override
+    void markNulls(int from, boolean[] dest, int length) {
+        if (nulls != null) {
+            super.markNulls(from, dest, length);
+        }
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        OffHeapColumnStorage target = emptyCopy();
+        target.values.ensureCapacity(to - from);
+        for (int i = from; i < to; i++) {
+            if (isNull(i)) {
+                target.addNull();
+            } else {
+                target.appendFrom(this, i);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        OffHeapColumnStorage target = emptyCopy();
+        target.values.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < 0 || isNull(row)) {
+                target.addNull();
+            } else {
+                target.appendFrom(this, row);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    void release() {
+        values.release();
+        if (nulls != null) {
+            nulls.release();
+        }
+    }
+
+    /**
+     * Enregistre le DataFrame propriétaire du stockage, s'il n'en a pas encore
+     *
+     * @param frame Le DataFrame auquel le stockage est ajouté
+     */
+    void claim(DataFrame frame) {
+        if (owner == null) {
+            owner = frame;
+        }
+    }
+
+    /**
+     * Indique si le stockage appartient à un DataFrame
+     *
+     * @param frame Le DataFrame
+     * @return true si frame est le propriétaire du stockage
+     */
+    boolean isOwnedBy(DataFrame frame) {
+        return owner == frame;
+    }
+
+    /**
+     * Retourne la quantité de mémoire hors tas allouée par le stockage
+     *
+     * @return La taille allouée, en octets
+     */
+    long allocatedBytes() {
+        return values.allocatedBytes() + (nulls == null ? 0 : nulls.allocatedBytes());
+    }
+
+    /**
+     * Marque la ligne spécifiée comme nulle dans le bitmap
+     *
+     * @param index L'index de la ligne
+     */
+    private void markNull(int index) {
+        if (nulls == null) {
+            nulls = new SegmentedBuffer(3);
+        }
+        int word = index >>> 6;
+        nulls.ensureCapacity(word + 1L);
+        nulls.putLong(word, nulls.getLong(word) | (1L << index));
+    }
+
+    /**
+     * Crée un stockage hors tas vide du même type
+     *
+     * @return Le nouveau stockage
+     */
+    abstract OffHeapColumnStorage emptyCopy();
+
+    /**
+     * Retourne la valeur non nulle à l'index spécifié sous forme d'objet
+     *
+     * @param index L'index de la valeur
+     * @return La valeur encapsulée
+     */
+    abstract Object box(int index);
+
+    /**
+     * Ajoute une valeur non nulle à la fin du stockage
+     *
+     * @param value La valeur à ajouter
+     */
+    abstract void append(Object value);
+}
@@ -0,0 +1,54 @@
+package projet_devops;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+/**
+ * Stockage hors tas d'une colonne Double (8 octets par valeur)
+ */
+final class OffHeapDoubleColumnStorage extends OffHeapColumnStorage {
+
+    OffHeapDoubleColumnStorage() {
+        super(3);
+    }
+
+    @Override
+    OffHeapColumnStorage emptyCopy() {
+        return new OffHeapDoubleColumnStorage();
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addDouble(source.getDouble(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return values.getDouble(index);
+    }
+
+    @Override
+    void append(Object value) {
+        addDouble((Double) value);
+    }
+
+    @Override
+    void addDouble(double value) {
+        values.ensureCapacity(size + 1L);
+        values.putDouble(size++, value);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.getDouble(index);
+    }
+
+    @Override
+    DoubleBuffer asDoubleBuffer() {
+        ByteBuffer bytes = values.contiguous(8L * size);
+        if (bytes == null) {
+            throw new UnsupportedOperationException("Les valeurs hors tas de la colonne ne sont pas contiguës");
+        }
+        return bytes.asDoubleBuffer().asReadOnlyBuffer();
+    }
+}
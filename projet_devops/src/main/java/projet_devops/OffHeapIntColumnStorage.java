@@ -0,0 +1,68 @@
+package projet_devops;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Stockage hors tas d'une colonne Integer (4 octets par valeur)
+ */
+final class OffHeapIntColumnStorage extends OffHeapColumnStorage {
+
+    OffHeapIntColumnStorage() {
+        super(2);
+    }
+
+    @Override
+    OffHeapColumnStorage emptyCopy() {
+        return new OffHeapIntColumnStorage();
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addInt(source.getInt(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return values.getInt(index);
+    }
+
+    @Override
+    void append(Object value) {
+        addInt((Integer) value);
+    }
+
+    /**
+     * Ajoute une valeur entière non nulle
+     *
+     * @param value La valeur à ajouter
+     */
+    void addInt(int value) {
+        values.ensureCapacity(size + 1L);
+        values.putInt(size++, value);
+    }
+
+    @Override
+    int getInt(int index) {
+        return values.getInt(index);
+    }
+
+    @Override
+    long getLong(int index) {
+        return values.getInt(index);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.getInt(index);
+    }
+
+    @Override
+    IntBuffer asIntBuffer() {
+        ByteBuffer bytes = values.contiguous(4L * size);
+        if (bytes == null) {
+            throw new UnsupportedOperationException("Les valeurs hors tas de la colonne ne sont pas contiguës");
+        }
+        return bytes.asIntBuffer().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,63 @@
+package projet_devops;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Stockage hors tas d'une colonne Long (8 octets par valeur)
+ */
+final class OffHeapLongColumnStorage extends OffHeapColumnStorage {
+
+    OffHeapLongColumnStorage() {
+        super(3);
+    }
+
+    @Override
+    OffHeapColumnStorage emptyCopy() {
+        return new OffHeapLongColumnStorage();
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        addLong(source.getLong(index));
+    }
+
+    @Override
+    Object box(int index) {
+        return values.getLong(index);
+    }
+
+    @Override
+    void append(Object value) {
+        addLong((Long) value);
+    }
+
+    /**
+     * Ajoute une valeur entière longue non nulle
+     *
+     * @param value La valeur à ajouter
+     */
+    void addLong(long value) {
+        values.ensureCapacity(size + 1L);
+        values.putLong(size++, value);
+    }
+
+    @Override
+    long getLong(int index) {
+        return values.getLong(index);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return values.getLong(index);
+    }
+
+    @Override
+    LongBuffer asLongBuffer() {
+        ByteBuffer bytes = values.contiguous(8L * size);
+        if (bytes == null) {
+            throw new UnsupportedOperationException("Les valeurs hors tas de la colonne ne sont pas contiguës");
+        }
+        return bytes.asLongBuffer().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,75 @@
+package projet_devops;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stockage hors tas d'une colonne String
+ * Les chaînes sont stockées bout à bout en UTF-8 dans une mémoire d'octets ; values contient, pour chaque ligne,
+ * la position de fin de sa chaîne (la chaîne commence à la fin de la précédente)
+ */
+final class OffHeapStringColumnStorage extends OffHeapColumnStorage {
+    /**
+     * Octets UTF-8 de toutes les chaînes
+     */
+    private final SegmentedBuffer bytes = new SegmentedBuffer(0);
+
+    OffHeapStringColumnStorage() {
+        super(3);
+    }
+
+    @Override
+    OffHeapColumnStorage emptyCopy() {
+        return new OffHeapStringColumnStorage();
+    }
+
+    @Override
+    void addNull() {
+        long start = start(size);
+        super.addNull();
+        values.putLong(size - 1, start);
+    }
+
+    @Override
+    void appendFrom(ColumnStorage source, int index) {
+        append(source.get(index));
+    }
+
+    @Override
+    Object box(int index) {
+        long start = start(index);
+        byte[] value = new byte[(int) (values.getLong(index) - start)];
+        bytes.getBytes(start, value, value.length);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    void append(Object value) {
+        byte[] encoded = ((String) value).getBytes(StandardCharsets.UTF_8);
+        long start = start(size);
+        bytes.ensureCapacity(start + encoded.length);
+        bytes.putBytes(start, encoded);
+        values.ensureCapacity(size + 1L);
+        values.putLong(size++, start + encoded.length);
+    }
+
+    /**
+     * Retourne la position du premier octet de la chaîne d'une ligne (la fin de la chaîne précédente)
+     *
+     * @param index L'index de la ligne
+     * @return La position dans la mémoire d'octets
+     */
+    private long start(int index) {
+        return index == 0 ? 0 : values.getLong(index - 1);
+    }
+
+    @Override
+    void release() {
+        super.release();
+        bytes.release();
+    }
+
+    @Override
+    long allocatedBytes() {
+        return super.allocatedBytes() + bytes.allocatedBytes();
+    }
+}
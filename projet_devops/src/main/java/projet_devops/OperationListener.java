@@ -0,0 +1,16 @@
+package projet_devops;
+
+/**
+ * Récepteur des mesures des opérations de la bibliothèque, enregistré par {@link Metrics#addListener}
+ * Il est appelé de façon synchrone, dans le thread qui a exécuté l'opération, une fois celle-ci terminée :
+ * il doit donc être rapide et pouvoir être appelé par plusieurs threads à la fois
+ */
+public interface OperationListener {
+
+    /**
+     * Reçoit les mesures d'une opération terminée sans erreur
+     *
+     * @param metrics Les mesures de l'opération
+     */
+    void onOperation(OperationMetrics metrics);
+}
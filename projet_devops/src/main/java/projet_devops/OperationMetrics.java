@@ -0,0 +1,119 @@
+package projet_devops;
+
+/**
+ * Mesures d'une opération de la bibliothèque (lecture CSV, sélection, statistique), transmises aux
+ * {@link OperationListener} enregistrés
+ * Les compteurs qui n'ont pas de sens pour une opération valent 0 (par exemple les octets lus par un filtre)
+ */
+public final class OperationMetrics {
+    /**
+     * Nom de l'opération, sous la forme Classe.méthode (ex: "Selection.filterByMask")
+     */
+    private final String operation;
+    /**
+     * Durée de l'opération, en nanosecondes
+     */
+    private final long wallNanos;
+    /**
+     * Nombre de lignes en entrée
+     */
+    private final long rowsIn;
+    /**
+     * Nombre de lignes produites
+     */
+    private final long rowsOut;
+    /**
+     * Nombre d'octets lus dans un fichier
+     */
+    private final long bytesRead;
+    /**
+     * Nombre de champs analysés
+     */
+    private final long parsedCells;
+    /**
+     * Nombre d'octets alloués dans le tas par le thread appelant, -1 si la JVM ne le mesure pas
+     */
+    private final long allocatedBytes;
+
+    OperationMetrics(String operation, long wallNanos, long rowsIn, long rowsOut, long bytesRead, long parsedCells,
+            long allocatedBytes) {
+        this.operation = operation;
+        this.wallNanos = wallNanos;
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+        this.bytesRead = bytesRead;
+        this.parsedCells = parsedCells;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Retourne le nom de l'opération
+     *
+     * @return Le nom, sous la forme Classe.méthode (ex: "DataFrame.fromCSV")
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Retourne la durée de l'opération
+     *
+     * @return La durée, en nanosecondes
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Retourne le nombre de lignes en entrée (lignes du fichier, du DataFrame ou de la colonne source)
+     *
+     * @return Le nombre de lignes
+     */
+    public long getRowsIn() {
+        return rowsIn;
+    }
+
+    /**
+     * Retourne le nombre de lignes produites (lignes du résultat, lignes retenues par un masque,
+     * ou nombre de valeurs calculées par une statistique)
+     *
+     * @return Le nombre de lignes
+     */
+    public long getRowsOut() {
+        return rowsOut;
+    }
+
+    /**
+     * Retourne le nombre d'octets lus dans un fichier
+     *
+     * @return Le nombre d'octets, 0 pour une opération en mémoire
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Retourne le nombre de champs analysés (lignes lues multipliées par le nombre de colonnes)
+     *
+     * @return Le nombre de champs, 0 pour une opération en mémoire
+     */
+    public long getParsedCells() {
+        return parsedCells;
+    }
+
+    /**
+     * Retourne le nombre d'octets alloués dans le tas par le thread qui a exécuté l'opération
+     * (les allocations des threads d'une lecture parallèle ou d'un calcul en ForkJoin ne sont pas comptées)
+     *
+     * @return Le nombre d'octets, ou -1 si la JVM ne mesure pas les allocations par thread
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " : " + wallNanos / 1000 + " µs, " + rowsIn + " -> " + rowsOut + " lignes, "
+                + bytesRead + " octets lus, " + parsedCells + " champs, " + allocatedBytes + " octets alloués";
+    }
+}
@@ -0,0 +1,75 @@
+package projet_devops;
+
+/**
+ * Mesure en cours d'une opération, obtenue par {@link Metrics#start(String)}
+ * L'horloge et le compteur d'allocations sont lus au début et à la fin ; les mesures ne sont transmises
+ * aux récepteurs que si l'opération se termine sans erreur
+ * Quand aucun récepteur n'est enregistré, l'instance partagée {@link #DISABLED} ne mesure rien
+ */
+class OperationTimer {
+    /**
+     * Mesure inactive, utilisée quand aucun récepteur n'est enregistré
+     */
+    static final OperationTimer DISABLED = new OperationTimer();
+
+    /**
+     * Nom de l'opération
+     */
+    private final String operation;
+    /**
+     * Valeur de System.nanoTime() au début de l'opération
+     */
+    private final long startNanos;
+    /**
+     * Octets alloués par le thread au début de l'opération (-1 si non mesuré)
+     */
+    private final long startAllocated;
+
+    private OperationTimer() {
+        this.operation = null;
+        this.startNanos = 0;
+        this.startAllocated = -1;
+    }
+
+    OperationTimer(String operation) {
+        this.operation = operation;
+        this.startAllocated = Metrics.allocatedBytes();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Indique si l'opération est mesurée, pour ne calculer un compteur coûteux que dans ce cas
+     *
+     * @return false pour {@link #DISABLED}
+     */
+    boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * Termine la mesure d'une opération en mémoire
+     *
+     * @param rowsIn Le nombre de lignes en entrée
+     * @param rowsOut Le nombre de lignes produites
+     */
+    void stop(long rowsIn, long rowsOut) {
+        stop(rowsIn, rowsOut, 0, 0);
+    }
+
+    /**
+     * Termine la mesure de l'opération et transmet ses mesures aux récepteurs
+     *
+     * @param rowsIn Le nombre de lignes en entrée
+     * @param rowsOut Le nombre de lignes produites
+     * @param bytesRead Le nombre d'octets lus dans un fichier
+     * @param parsedCells Le nombre de champs analysés
+     */
+    void stop(long rowsIn, long rowsOut, long bytesRead, long parsedCells) {
+        if (this == DISABLED) {
+            return;
+        }
+        long wallNanos = System.nanoTime() - startNanos;
+        long allocated = startAllocated < 0 ? -1 : Metrics.allocatedBytes() - startAllocated;
+        Metrics.publish(new OperationMetrics(operation, wallNanos, rowsIn, rowsOut, bytesRead, parsedCells, allocated));
+    }
+}
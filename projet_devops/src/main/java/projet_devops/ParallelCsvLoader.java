@@ -0,0 +1,460 @@
+package projet_devops;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Chargement d'un fichier CSV en parallèle
+ * Le fichier est découpé en portions alignées sur les débuts d'enregistrement, chaque portion est lue par un thread,
+ * puis les types déduits sont réconciliés et les portions recollées dans l'ordre du fichier.
+ * Le résultat est identique à celui de la lecture séquentielle, y compris pour les champs entre guillemets
+ * contenant des retours à la ligne.
+ */
+class ParallelCsvLoader {
+    /** Taille minimale d'une portion, en octets */
+    static final long DEFAULT_MIN_CHUNK_SIZE = 1 << 22;
+    /** Nombre de portions par thread, pour équilibrer la charge */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** Taille du tampon de recherche des limites de portions */
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+    /** État de la recherche des limites : début de champ (espaces éventuels compris) */
+    private static final int FIELD_START = 0;
+    /** État de la recherche des limites : champ sans guillemets, ou suite d'un champ après le guillemet fermant */
+    private static final int UNQUOTED = 1;
+    /** État de la recherche des limites : champ entre guillemets */
+    private static final int QUOTED = 2;
+    /** État de la recherche des limites : guillemet lu dans un champ entre guillemets (fermant ou doublé) */
+    private static final int QUOTE_IN_QUOTED = 3;
+    /** Nombre d'états de la recherche des limites */
+    private static final int STATES = 4;
+
+    /**
+     * Chemin du fichier à lire
+     */
+    private final Path path;
+    /**
+     * Nombre de threads de lecture
+     */
+    private final int parallelism;
+    /**
+     * Taille minimale d'une portion, en octets
+     */
+    private final long minChunkSize;
+
+    /**
+     * Constructeur de la classe ParallelCsvLoader
+     * 
+     * @param path Le chemin du fichier
+     * @param parallelism Le nombre de threads de lecture
+     * @param minChunkSize La taille minimale d'une portion, en octets
+     */
+    ParallelCsvLoader(Path path, int parallelism, long minChunkSize) {
+        this.path = path;
+        this.parallelism = parallelism;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Portion du fichier lue par un thread
+     */
+    static class Chunk {
+        /** Position du premier octet de la portion */
+        final long start;
+        /** Position suivant le dernier octet de la portion */
+        final long end;
+        /** Colonnes construites à partir des lignes de la portion */
+        ColumnBuilder[] builders;
+        /** Indique si une ligne vide (fin des données) a été rencontrée dans la portion */
+        boolean endedOnBlankLine;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Lit le fichier et crée le DataFrame correspondant
+     * 
+     * @return Le DataFrame contenant les données du fichier
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si le fichier est vide
+     */
+    DataFrame load() throws IOException {
+        String[] headers;
+        long dataStart;
+        try (CsvReader reader = new CsvReader(path)) {
+            if (!reader.nextRecord()) {
+                throw new IOException("Le fichier CSV est vide : " + path);
+            }
+            headers = new String[reader.fieldCount()];
+            for (int col = 0; col < headers.length; col++) {
+                headers[col] = reader.getString(col);
+            }
+            dataStart = reader.nextRecordOffset();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Chunk> chunks = split(pool, dataStart, Files.size(path));
+            // Première passe : chaque portion déduit ses propres types
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Chunk chunk : chunks) {
+                tasks.add(() -> {
+                    parse(chunk, headers, initialTypes(headers.length, Integer.class), false);
+                    return null;
+                });
+            }
+            runAll(pool, tasks);
+
+            // Les données s'arrêtent à la première ligne vide
+            int used = 0;
+            while (used < chunks.size()) {
+                if (chunks.get(used++).endedOnBlankLine) {
+                    break;
+                }
+            }
+            List<Chunk> usedChunks = chunks.subList(0, used);
+
+            // Seconde passe, seulement pour les portions des colonnes devenues String dont le texte n'est pas conservé
+            boolean[] stringColumns = new boolean[headers.length];
+            Map<Chunk, Class<?>[]> reparses = new LinkedHashMap<>();
+            for (int col = 0; col < headers.length; col++) {
+                stringColumns[col] = planStringColumn(usedChunks, col, reparses);
+            }
+            tasks.clear();
+            for (Map.Entry<Chunk, Class<?>[]> reparse : reparses.entrySet()) {
+                tasks.add(() -> {
+                    parse(reparse.getKey(), headers, reparse.getValue(), true);
+                    return null;
+                });
+            }
+            runAll(pool, tasks);
+
+            DataFrame df = new DataFrame();
+            for (int col = 0; col < headers.length; col++) {
+                df.addColumn(stitch(usedChunks, headers[col], col, stringColumns[col]));
+            }
+            return df;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Exécute des lectures sur le pool et attend leur fin
+     * 
+     * @param <T> Le type du résultat d'une lecture
+     * @param pool Le pool de threads
+     * @param tasks Les lectures à exécuter
+     * @return Les résultats des lectures, dans l'ordre des tâches
+     * @throws IOException Si une lecture échoue ou si l'attente est interrompue
+     */
+    private <T> List<T> runAll(ExecutorService pool, List<Callable<T>> tasks) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lecture interrompue : " + path, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Erreur lors de la lecture de " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Prépare le recollage d'une colonne finalement String pour qu'elle contienne le texte du fichier
+     * Une portion n'est gardée telle quelle que si ses valeurs redonnent déjà ce texte : portion lue en String
+     * sans perte, ou portion restée Integer/Long dont les nombres étaient écrits sous forme canonique ;
+     * les autres portions sont relues en String
+     * 
+     * @param chunks Les portions utilisées, dans l'ordre du fichier
+     * @param col L'index de la colonne
+     * @param reparses Les types de départ des colonnes à relire, par portion (complété par cette méthode)
+     * @return true si la colonne est String
+     */
+    private static boolean planStringColumn(List<Chunk> chunks, int col, Map<Chunk, Class<?>[]> reparses) {
+        boolean string = false;
+        for (Chunk chunk : chunks) {
+            string |= chunk.builders[col].getDataType() == String.class;
+        }
+        if (!string) {
+            return false;
+        }
+        for (Chunk chunk : chunks) {
+            ColumnBuilder builder = chunk.builders[col];
+            Class<?> type = builder.getDataType();
+            boolean exactText = type == String.class ? !builder.isTextLost()
+                : type != Double.class && builder.hasCanonicalText();
+            if (!exactText) {
+                reparseColumn(reparses, chunk, col, String.class);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ajoute une colonne à relire pour une portion
+     * 
+     * @param reparses Les types de départ des colonnes à relire, par portion
+     * @param chunk La portion à relire
+     * @param col L'index de la colonne
+     * @param type Le type de départ de la colonne
+     */
+    private static void reparseColumn(Map<Chunk, Class<?>[]> reparses, Chunk chunk, int col, Class<?> type) {
+        reparses.computeIfAbsent(chunk, c -> new Class<?>[c.builders.length])[col] = type;
+    }
+
+    /**
+     * Découpe la zone de données en portions commençant chacune au début d'un enregistrement
+     * La zone est partagée en plages d'octets parcourues en parallèle, sans convertir les champs. L'état de la lecture
+     * (dans un champ entre guillemets ou non) au début d'une plage n'étant pas connu, chaque plage est parcourue pour
+     * tous les états de départ possibles ; l'état réel au début de chaque plage se déduit ensuite de proche en proche
+     * à partir de celui de la plage précédente, ce qui donne la vraie première fin d'enregistrement de chaque plage.
+     * Une portion ne coupe donc jamais un champ entre guillemets contenant un retour à la ligne
+     * 
+     * @param pool Le pool de threads
+     * @param dataStart La position de la première ligne de données
+     * @param fileSize La taille du fichier
+     * @return Les portions, dans l'ordre du fichier
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    List<Chunk> split(ExecutorService pool, long dataStart, long fileSize) throws IOException {
+        long length = fileSize - dataStart;
+        int count = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD, length / Math.max(1, minChunkSize)));
+        List<Chunk> chunks = new ArrayList<>();
+        long start = dataStart;
+        if (count > 1) {
+            List<Callable<RangeScan>> scans = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                long rangeStart = dataStart + length * i / count;
+                long rangeEnd = dataStart + length * (i + 1) / count;
+                scans.add(() -> scanRange(rangeStart, rangeEnd, fileSize));
+            }
+            int state = FIELD_START;
+            List<RangeScan> ranges = runAll(pool, scans);
+            for (int i = 0; i < count; i++) {
+                RangeScan range = ranges.get(i);
+                // Une plage sans fin d'enregistrement est rattachée à la portion précédente
+                long end = range.firstRecordEnds[state];
+                if (i > 0 && end > start) {
+                    chunks.add(new Chunk(start, end));
+                    start = end;
+                }
+                state = range.endStates[state];
+            }
+        }
+        if (start < fileSize) {
+            chunks.add(new Chunk(start, fileSize));
+        }
+        return chunks;
+    }
+
+    /**
+     * Résultat du parcours d'une plage d'octets, pour chaque état de départ possible
+     */
+    private static class RangeScan {
+        /** État à la fin de la plage, par état de départ */
+        final int[] endStates = new int[STATES];
+        /** Position suivant la première fin d'enregistrement de la plage, par état de départ (-1 si aucune) */
+        final long[] firstRecordEnds = new long[STATES];
+    }
+
+    /**
+     * Parcourt une plage d'octets en suivant les mêmes règles que CsvReader (guillemets reconnus seulement en début
+     * de champ, guillemets doublés, fins de ligne \n, \r\n ou \r seul), pour chacun des états de départ possibles
+     * 
+     * @param start La position du premier octet de la plage
+     * @param end La position suivant le dernier octet de la plage
+     * @param fileSize La taille du fichier
+     * @return L'état final et la première fin d'enregistrement, pour chaque état de départ
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    private RangeScan scanRange(long start, long end, long fileSize) throws IOException {
+        RangeScan range = new RangeScan();
+        int[] states = range.endStates;
+        for (int s = 0; s < STATES; s++) {
+            states[s] = s;
+        }
+        Arrays.fill(range.firstRecordEnds, -1);
+        // Un octet de plus est lu pour savoir si un \r final est suivi d'un \n
+        long limit = Math.min(end + 1, fileSize);
+        byte[] bytes = new byte[SCAN_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(bytes.length, limit - position));
+                int read = 0;
+                while (buffer.hasRemaining()) {
+                    int n = channel.read(buffer, position + read);
+                    if (n < 0) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read == 0) {
+                    break;
+                }
+                boolean last = position + read >= limit || read < buffer.limit();
+                // Le dernier octet lu n'est traité qu'avec le tampon suivant, qui contient l'octet qui le suit
+                int count = last ? (int) Math.min(read, end - position) : read - 1;
+                for (int i = 0; i < count; i++) {
+                    byte b = bytes[i];
+                    // \r suivi de \n : la fin d'enregistrement est après le \n
+                    boolean recordEnd = b == '\n' || (b == '\r' && (i + 1 >= read || bytes[i + 1] != '\n'));
+                    for (int s = 0; s < STATES; s++) {
+                        int state = states[s];
+                        if (state == QUOTED) {
+                            if (b == '"') {
+                                states[s] = QUOTE_IN_QUOTED;
+                            }
+                        } else if (state == QUOTE_IN_QUOTED && b == '"') {
+                            states[s] = QUOTED;
+                        } else if (b == '\n' || b == '\r') {
+                            states[s] = FIELD_START;
+                            if (recordEnd && range.firstRecordEnds[s] < 0) {
+                                range.firstRecordEnds[s] = position + i + 1;
+                            }
+                        } else if (b == ',') {
+                            states[s] = FIELD_START;
+                        } else if (state != FIELD_START || (b != '"' && !isBlank(b))) {
+                            states[s] = UNQUOTED;
+                        } else if (b == '"') {
+                            states[s] = QUOTED;
+                        }
+                    }
+                }
+                position += count;
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Indique si un octet est un espace ignoré en début de champ (même règle que CsvReader)
+     * 
+     * @param b L'octet à tester
+     * @return true si l'octet est un espace
+     */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ' && b != '\n' && b != '\r';
+    }
+
+    /**
+     * Lit les lignes d'une portion jusqu'à sa fin ou jusqu'à la première ligne vide
+     * 
+     * @param chunk La portion à lire
+     * @param headers Les noms des colonnes
+     * @param types Le type de départ de chaque colonne
+     * @param partial true pour ne relire que les colonnes dont le type de départ est non null
+     * @throws IOException Si une erreur de lecture se produit
+     */
+    private void parse(Chunk chunk, String[] headers, Class<?>[] types, boolean partial) throws IOException {
+        ColumnBuilder[] builders = new ColumnBuilder[headers.length];
+        for (int col = 0; col < headers.length; col++) {
+            if (types[col] != null) {
+                builders[col] = new ColumnBuilder(headers[col], types[col]);
+            }
+        }
+        boolean blank = false;
+        try (CsvReader reader = new CsvReader(path, chunk.start, chunk.end)) {
+            while (reader.nextRecord()) {
+                if (reader.isBlankRecord()) {
+                    blank = true;
+                    break;
+                }
+                for (int col = 0; col < builders.length; col++) {
+                    if (builders[col] != null) {
+                        builders[col].append(reader, col);
+                    }
+                }
+            }
+        }
+        if (!partial) {
+            chunk.builders = builders;
+            chunk.endedOnBlankLine = blank;
+        } else {
+            for (int col = 0; col < builders.length; col++) {
+                if (builders[col] != null) {
+                    chunk.builders[col] = builders[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Recolle les morceaux d'une colonne lus par chaque portion, convertis vers le plus large de leurs types
+     * 
+     * @param chunks Les portions utilisées
+     * @param name Le nom de la colonne
+     * @param col L'index de la colonne
+     * @param string true si la colonne est String (voir {@link #planStringColumn})
+     * @return La colonne complète
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static DataColumn<?> stitch(List<Chunk> chunks, String name, int col, boolean string) {
+        Class<?> finalType = string ? String.class : Integer.class;
+        int rows = 0;
+        for (Chunk chunk : chunks) {
+            finalType = wider(finalType, chunk.builders[col].getDataType());
+            rows += chunk.builders[col].size();
+        }
+
+        ColumnStorage storage = ColumnBuilder.newStorage(finalType);
+        if (storage instanceof PrimitiveColumnStorage) {
+            ((PrimitiveColumnStorage) storage).ensureCapacity(rows);
+        }
+        for (Chunk chunk : chunks) {
+            ColumnBuilder builder = chunk.builders[col];
+            storage.appendAll(ColumnBuilder.convert(builder.getStorage(), builder.getDataType(), finalType));
+        }
+        storage = ColumnBuilder.checkCardinality(storage);
+        return new DataColumn(name, finalType, storage);
+    }
+
+    /**
+     * Retourne le plus large de deux types de colonne
+     * 
+     * @param a Le premier type
+     * @param b Le second type
+     * @return Le type le plus large
+     */
+    private static Class<?> wider(Class<?> a, Class<?> b) {
+        return ColumnBuilder.typeRank(a) >= ColumnBuilder.typeRank(b) ? a : b;
+    }
+
+    /**
+     * Crée un tableau de types de départ identiques
+     * 
+     * @param width Le nombre de colonnes
+     * @param type Le type de départ
+     * @return Le tableau des types
+     */
+    private static Class<?>[] initialTypes(int width, Class<?> type) {
+        Class<?>[] types = new Class<?>[width];
+        Arrays.fill(types, type);
+        return types;
+    }
+}
@@ -0,0 +1,201 @@
+package projet_devops;
+
+import java.util.Arrays;
+
+/**
+ * Base des stockages à tableau primitif
+ * Les valeurs nulles sont repérées par un bitmap séparé, alloué seulement à la première valeur nulle
+ */
+abstract class PrimitiveColumnStorage extends ColumnStorage {
+    /** Capacité initiale des tableaux */
+    static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Nombre de valeurs stockées
+     */
+    int size;
+    /**
+     * Bitmap des valeurs nulles (un bit par ligne), null tant qu'aucune valeur nulle n'a été ajoutée
+     */
+    long[] nulls;
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return nulls != null && (index >>> 6) < nulls.length && (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    Object get(int index) {
+        return isNull(index) ? null : box(index);
+    }
+
+    @Override
+    void add(Object value) {
+        if (value == null) {
+            addNull();
+        } else {
+            append(value);
+        }
+    }
+
+    @Override
+    void addNull() {
+        ensureCapacity(size + 1);
+        markNull(size);
+        size++;
+    }
+
+    @Override
+    void appendAll(ColumnStorage other) {
+        if (other.getClass() != getClass()) {
+            super.appendAll(other);
+            return;
+        }
+        PrimitiveColumnStorage source = (PrimitiveColumnStorage) other;
+        int offset = size;
+        ensureCapacity(size + source.size);
+        copyValues(source, offset);
+        if (source.nulls != null) {
+            for (int word = 0; word < source.nulls.length; word++) {
+                long bits = source.nulls[word];
+                while (bits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (index < source.size) {
+                        markNull(offset + index);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        size += source.size;
+    }
+
+    @Override
+    void markNulls(int from, boolean[] dest, int length) {
+        if (nulls != null) {
+            super.markNulls(from, dest, length);
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles des lignes copiées par gather
+     * 
+     * @param target Le stockage cible, déjà rempli des valeurs
+     * @param rows Les index des lignes copiées (négatif pour une valeur nulle)
+     * @param count Le nombre de lignes copiées
+     */
+    void gatherNulls(PrimitiveColumnStorage target, int[] rows, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < 0 || (nulls != null && isNull(row))) {
+                target.markNull(i);
+            }
+        }
+    }
+
+    /**
+     * Reporte sur le stockage cible les valeurs nulles d'une plage copiée par copyRange
+     * 
+     * @param target Le stockage cible
+     * @param from L'index de la première valeur copiée
+     * @param to L'index suivant la dernière valeur copiée
+     */
+    void copyNulls(PrimitiveColumnStorage target, int from, int to) {
+        if (nulls != null) {
+            for (int i = from; i < to; i++) {
+                if (isNull(i)) {
+                    target.markNull(i - from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marque la ligne spécifiée comme nulle dans le bitmap
+     * 
+     * @param index L'index de la ligne
+     */
+    void markNull(int index) {
+        int word = index >>> 6;
+        if (nulls == null) {
+            nulls = new long[Math.max(word + 1, (capacity() + 63) >>> 6)];
+        } else if (word >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+        }
+        nulls[word] |= 1L << index;
+    }
+
+    /**
+     * Calcule la nouvelle capacité d'un tableau devant contenir au moins minCapacity éléments
+     * 
+     * @param current La capacité actuelle
+     * @param minCapacity La capacité minimale requise
+     * @return La nouvelle capacité
+     */
+    static int grownCapacity(int current, int minCapacity) {
+        int newCapacity = Math.max(INITIAL_CAPACITY, current + (current >> 1));
+        return Math.max(newCapacity, minCapacity);
+    }
+
+    /**
+     * Retourne la capacité actuelle du tableau de valeurs
+     * 
+     * @return La capacité
+     */
+    abstract int capacity();
+
+    /**
+     * Agrandit le tableau de valeurs si nécessaire
+     * 
+     * @param minCapacity La capacité minimale requise
+     */
+    abstract void ensureCapacity(int minCapacity);
+
+    /**
+     * Ramène le tableau de valeurs (et le bitmap des nulls) à la taille exacte des données
+     */
+    void trimToSize() {
+        if (nulls != null && nulls.length > ((size + 63) >>> 6)) {
+            nulls = Arrays.copyOf(nulls, (size + 63) >>> 6);
+        }
+        if (capacity() > size) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Remplace le tableau de valeurs par une copie de la capacité donnée
+     * 
+     * @param newCapacity La nouvelle capacité (au moins égale à la taille)
+     */
+    abstract void resize(int newCapacity);
+
+    /**
+     * Copie les valeurs d'un stockage du même type à partir de la position donnée
+     * La capacité doit déjà être suffisante
+     * 
+     * @param source Le stockage à copier
+     * @param offset La position de destination de la première valeur
+     */
+    abstract void copyValues(PrimitiveColumnStorage source, int offset);
+
+    /**
+     * Retourne la valeur non nulle à l'index spécifié sous forme d'objet
+     * 
+     * @param index L'index de la valeur
+     * @return La valeur encapsulée
+     */
+    abstract Object box(int index);
+
+    /**
+     * Ajoute une valeur non nulle à la fin du stockage
+     * 
+     * @param value La valeur à ajouter
+     */
+    abstract void append(Object value);
+}
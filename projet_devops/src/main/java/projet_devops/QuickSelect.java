@@ -0,0 +1,149 @@
+package projet_devops;
+
+import java.util.Arrays;
+
+/**
+ * Sélection des k-ièmes plus petites valeurs d'un tableau de doubles sans le trier entièrement
+ * (introselect : quickselect avec partition à trois voies et repli sur un tri lorsque la récursion dégénère)
+ * Le tableau est réordonné sur place
+ */
+final class QuickSelect {
+    /**
+     * Taille en dessous de laquelle une partie est triée par insertion
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private QuickSelect() {
+    }
+
+    /**
+     * Copie les valeurs non nulles d'un stockage numérique dans un tableau de travail
+     * Les NaN sont placés à la fin pour respecter l'ordre de Double.compareTo
+     *
+     * @param storage Le stockage à copier
+     * @return Les valeurs à sélectionner, les NaN en dernier
+     */
+    static double[] copyNonNull(ColumnStorage storage) {
+        int size = storage.size();
+        double[] values = new double[size];
+        int count = 0;
+        int nanCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!storage.isNull(i)) {
+                double value = storage.getDouble(i);
+                if (Double.isNaN(value)) {
+                    nanCount++;
+                } else {
+                    values[count++] = value;
+                }
+            }
+        }
+        double[] result = Arrays.copyOf(values, count + nanCount);
+        Arrays.fill(result, count, result.length, Double.NaN);
+        return result;
+    }
+
+    /**
+     * Place à leur rang définitif les valeurs des rangs demandés
+     * Après l'appel, values[rank] vaut la valeur qu'il aurait dans le tableau trié pour chaque rang demandé
+     *
+     * @param values Le tableau de travail, NaN en dernier (voir copyNonNull)
+     * @param ranks Les rangs demandés, triés par ordre croissant
+     */
+    static void select(double[] values, int[] ranks) {
+        int length = values.length;
+        while (length > 0 && Double.isNaN(values[length - 1])) {
+            length--;
+        }
+        int first = 0;
+        int last = ranks.length;
+        while (last > first && ranks[last - 1] >= length) {
+            last--;
+        }
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+        select(values, 0, length, ranks, first, last, depthLimit);
+    }
+
+    /**
+     * Sélectionne les rangs ranks[firstRank..lastRank[ dans values[from..to[
+     * Chaque partition sert à tous les rangs demandés, ce qui permet de calculer plusieurs quantiles en un seul passage
+     */
+    private static void select(double[] values, int from, int to, int[] ranks, int firstRank, int lastRank, int depth) {
+        while (firstRank < lastRank) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(values, from, to);
+                return;
+            }
+            if (depth-- == 0) {
+                Arrays.sort(values, from, to);
+                return;
+            }
+
+            double pivot = medianOfThree(values, from, from + (to - from) / 2, to - 1);
+            // Partition à trois voies : [from, lt[ < pivot, [lt, gt[ == pivot, [gt, to[ > pivot
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i < gt) {
+                double value = values[i];
+                if (value < pivot) {
+                    values[i++] = values[lt];
+                    values[lt++] = value;
+                } else if (value > pivot) {
+                    values[i] = values[--gt];
+                    values[gt] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            int leftEnd = firstRank;
+            while (leftEnd < lastRank && ranks[leftEnd] < lt) {
+                leftEnd++;
+            }
+            int rightStart = leftEnd;
+            while (rightStart < lastRank && ranks[rightStart] < gt) {
+                rightStart++;
+            }
+
+            // Récursion sur la plus petite partie, boucle sur l'autre
+            if (lt - from < to - gt) {
+                select(values, from, lt, ranks, firstRank, leftEnd, depth);
+                from = gt;
+                firstRank = rightStart;
+            } else {
+                select(values, gt, to, ranks, rightStart, lastRank, depth);
+                to = lt;
+                lastRank = leftEnd;
+            }
+        }
+    }
+
+    /**
+     * Renvoie la médiane de trois éléments du tableau
+     */
+    private static double medianOfThree(double[] values, int a, int b, int c) {
+        double x = values[a];
+        double y = values[b];
+        double z = values[c];
+        if (x < y) {
+            return y < z ? y : (x < z ? z : x);
+        }
+        return x < z ? x : (y < z ? z : y);
+    }
+
+    /**
+     * Trie une petite partie du tableau par insertion
+     */
+    private static void insertionSort(double[] values, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double value = values[i];
+            int j = i - 1;
+            while (j >= from && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+}
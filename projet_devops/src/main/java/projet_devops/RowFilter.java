@@ -0,0 +1,164 @@
+package projet_devops;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Condition "colonne opérateur valeur" d'un plan de requête ({@link LazyFrame})
+ * Elle peut être testée sur une colonne déjà chargée ou directement sur les champs d'un fichier CSV pendant la lecture
+ *
+ * Les deux façons de tester donnent le même résultat pour une colonne de même type :
+ * une valeur numérique est comparée aux nombres par leur valeur, quel que soit leur type (Integer, Long ou Double),
+ * et ne vérifie jamais une condition sur une colonne String ;
+ * une valeur String est comparée au texte des valeurs (String.valueOf pour une colonne numérique)
+ * Les valeurs nulles (champs vides) ne vérifient jamais la condition
+ */
+final class RowFilter {
+    /**
+     * Nom de la colonne testée
+     */
+    private final String column;
+    /**
+     * Opérateur de comparaison
+     */
+    private final String operator;
+    /**
+     * Valeur de comparaison (Number ou String)
+     */
+    private final Object value;
+    /**
+     * Test sur le résultat de la comparaison
+     */
+    private final IntPredicate result;
+
+    /**
+     * Constructeur de la condition
+     *
+     * @param column Le nom de la colonne
+     * @param operator L'opérateur de comparaison (">", "<", ">=", "<=", "==", "!=")
+     * @param value La valeur de comparaison, nombre ou chaîne
+     * @throws IllegalArgumentException si l'opérateur n'est pas supporté ou si la valeur n'est ni un nombre ni une chaîne
+     */
+    RowFilter(String column, String operator, Object value) {
+        if (!(value instanceof Number) && !(value instanceof String)) {
+            throw new IllegalArgumentException("La valeur de comparaison doit être un nombre ou une chaîne : " + value);
+        }
+        this.column = column;
+        this.operator = operator;
+        this.value = value;
+        this.result = comparison(operator);
+    }
+
+    /**
+     * Traduit un opérateur de comparaison en test sur le résultat d'un compareTo
+     *
+     * @param operator L'opérateur de comparaison
+     * @return Le test correspondant
+     * @throws IllegalArgumentException si l'opérateur n'est pas supporté
+     */
+    static IntPredicate comparison(String operator) {
+        switch (operator) {
+            case ">":
+                return c -> c > 0;
+            case "<":
+                return c -> c < 0;
+            case ">=":
+                return c -> c >= 0;
+            case "<=":
+                return c -> c <= 0;
+            case "==":
+                return c -> c == 0;
+            case "!=":
+                return c -> c != 0;
+            default:
+                throw new IllegalArgumentException("Opérateur non supporté: " + operator);
+        }
+    }
+
+    /**
+     * Retourne le nom de la colonne testée
+     *
+     * @return Le nom de la colonne
+     */
+    String getColumn() {
+        return column;
+    }
+
+    /**
+     * Indique si la valeur de comparaison est entière (et doit être comparée comme un long)
+     */
+    private boolean isIntegral() {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * Teste la condition sur un champ de l'enregistrement courant d'un lecteur CSV
+     * Le champ est interprété selon le type de sa colonne, pour donner le même résultat que {@link #evaluate(DataColumn)}
+     *
+     * @param reader Le lecteur positionné sur l'enregistrement
+     * @param field L'index du champ
+     * @param type Le type de la colonne, déduit de toutes les lignes du fichier
+     * @return true si le champ vérifie la condition
+     */
+    boolean test(CsvReader reader, int field, Class<?> type) {
+        if (reader.isEmpty(field)) {
+            return false;
+        }
+        boolean numeric = type != String.class;
+        if (value instanceof String) {
+            String text;
+            if (!numeric) {
+                text = reader.getString(field);
+            } else if (type == Double.class) {
+                text = reader.parseDouble(field) ? Double.toString(reader.doubleValue()) : reader.getString(field);
+            } else {
+                text = reader.parseLong(field) ? Long.toString(reader.longValue()) : reader.getString(field);
+            }
+            return result.test(text.compareTo((String) value));
+        }
+        if (!numeric) {
+            return false;
+        }
+        Number bound = (Number) value;
+        if (isIntegral() && type != Double.class) {
+            return reader.parseLong(field) && result.test(Long.compare(reader.longValue(), bound.longValue()));
+        }
+        return reader.parseDouble(field) && result.test(Double.compare(reader.doubleValue(), bound.doubleValue()));
+    }
+
+    /**
+     * Teste la condition sur toutes les lignes d'une colonne
+     *
+     * @param data La colonne testée
+     * @return Le masque des lignes vérifiant la condition
+     */
+    RowMask evaluate(DataColumn<?> data) {
+        RowMask indexed = data.indexedMask(operator, value);
+        if (indexed != null) {
+            return indexed;
+        }
+        ColumnStorage storage = data.getStorage();
+        IntUnaryOperator comparison;
+        if (value instanceof String && storage instanceof DictionaryColumnStorage) {
+            String text = (String) value;
+            return ((DictionaryColumnStorage) storage).mask(s -> result.test(s.compareTo(text)));
+        } else if (value instanceof String) {
+            String text = (String) value;
+            comparison = i -> String.valueOf(storage.get(i)).compareTo(text);
+        } else if (!data.isNumeric()) {
+            return new RowMask(storage.size());
+        } else if (isIntegral() && data.getDataType() != Double.class) {
+            long bound = ((Number) value).longValue();
+            comparison = i -> Long.compare(storage.getLong(i), bound);
+        } else {
+            double bound = ((Number) value).doubleValue();
+            comparison = i -> Double.compare(storage.getDouble(i), bound);
+        }
+        return RowMask.build(storage.size(), i -> !storage.isNull(i) && result.test(comparison.applyAsInt(i)));
+    }
+
+    @Override
+    public String toString() {
+        return column + " " + operator + " " + (value instanceof String ? "\"" + value + "\"" : value);
+    }
+}
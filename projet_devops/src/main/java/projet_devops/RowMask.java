@@ -0,0 +1,292 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Masque de sélection de lignes, stocké sous forme de bitmap (un bit par ligne dans des mots de 64 bits)
+ * Les combinaisons (and, or, andNot, not) et le comptage travaillent mot par mot
+ * Un masque n'est pas modifiable : chaque combinaison renvoie un nouveau masque
+ */
+public final class RowMask {
+    /**
+     * Bits du masque, la ligne i correspond au bit (i % 64) du mot (i / 64)
+     * Les bits au-delà de size sont toujours à 0
+     */
+    private final long[] words;
+    /**
+     * Nombre de lignes couvertes par le masque
+     */
+    private final int size;
+
+    /**
+     * Crée un masque dont toutes les lignes sont à false
+     *
+     * @param size Le nombre de lignes
+     */
+    RowMask(int size) {
+        this(size, new long[(size + 63) >>> 6]);
+    }
+
+    private RowMask(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    /**
+     * Crée un masque à partir d'une liste de booléens (null vaut false)
+     *
+     * @param values Les valeurs du masque
+     * @return Le masque correspondant
+     */
+    public static RowMask of(List<Boolean> values) {
+        RowMask mask = new RowMask(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            if (Boolean.TRUE.equals(values.get(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Construit un masque en testant chaque ligne, 64 lignes (un mot) à la fois
+     *
+     * @param size Le nombre de lignes
+     * @param rowTest Le test d'une ligne à partir de son index
+     * @return Le masque des lignes vérifiant le test
+     */
+    static RowMask build(int size, IntPredicate rowTest) {
+        RowMask mask = new RowMask(size);
+        for (int base = 0; base < size; base += 64) {
+            int end = Math.min(base + 64, size);
+            long bits = 0;
+            for (int i = base; i < end; i++) {
+                if (rowTest.test(i)) {
+                    bits |= 1L << i;
+                }
+            }
+            mask.words[base >>> 6] = bits;
+        }
+        return mask;
+    }
+
+    /**
+     * Crée un masque dont toutes les lignes sont à true
+     *
+     * @param size Le nombre de lignes
+     * @return Le masque plein
+     */
+    public static RowMask all(int size) {
+        return new RowMask(size).not();
+    }
+
+    /**
+     * Passe la ligne spécifiée à true (utilisé à la construction du masque)
+     *
+     * @param index L'index de la ligne
+     */
+    void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Passe à true les lignes d'une plage (utilisé à la construction du masque)
+     *
+     * @param from L'index de la première ligne (inclus)
+     * @param to L'index suivant la dernière ligne
+     */
+    void setRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstBits = -1L << from;
+        long lastBits = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstBits & lastBits;
+            return;
+        }
+        words[first] |= firstBits;
+        for (int word = first + 1; word < last; word++) {
+            words[word] = -1L;
+        }
+        words[last] |= lastBits;
+    }
+
+    /**
+     * Passe à false les lignes dont le bit est à 1 dans un bitmap de même disposition (utilisé à la construction du masque)
+     *
+     * @param bits Le bitmap des lignes à retirer, d'au moins autant de mots que le masque
+     */
+    void clear(long[] bits) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~bits[i];
+        }
+    }
+
+    /**
+     * Indique si la ligne spécifiée est sélectionnée
+     *
+     * @param index L'index de la ligne
+     * @return true si la ligne est sélectionnée
+     * @throws IndexOutOfBoundsException Si l'index est en dehors du masque
+     */
+    public boolean get(int index) {
+        Objects.checkIndex(index, size);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Retourne le nombre de lignes couvertes par le masque
+     *
+     * @return Le nombre de lignes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compte les lignes sélectionnées
+     *
+     * @return Le nombre de bits à true
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Retourne l'index de la première ligne sélectionnée à partir de from
+     *
+     * @param from L'index de départ (inclus)
+     * @return L'index trouvé, ou -1 s'il n'y en a pas
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int wordIndex = from >>> 6;
+        long word = words[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Intersection de deux masques
+     *
+     * @param other L'autre masque
+     * @return Les lignes sélectionnées dans les deux masques
+     * @throws IllegalArgumentException Si les masques n'ont pas la même taille
+     */
+    public RowMask and(RowMask other) {
+        checkSameSize(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new RowMask(size, result);
+    }
+
+    /**
+     * Union de deux masques
+     *
+     * @param other L'autre masque
+     * @return Les lignes sélectionnées dans au moins un des masques
+     * @throws IllegalArgumentException Si les masques n'ont pas la même taille
+     */
+    public RowMask or(RowMask other) {
+        checkSameSize(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new RowMask(size, result);
+    }
+
+    /**
+     * Différence de deux masques
+     *
+     * @param other L'autre masque
+     * @return Les lignes sélectionnées dans ce masque mais pas dans l'autre
+     * @throws IllegalArgumentException Si les masques n'ont pas la même taille
+     */
+    public RowMask andNot(RowMask other) {
+        checkSameSize(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = words[i] & ~other.words[i];
+        }
+        return new RowMask(size, result);
+    }
+
+    /**
+     * Complément du masque
+     *
+     * @return Les lignes non sélectionnées par ce masque
+     */
+    public RowMask not() {
+        long[] result = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = ~words[i];
+        }
+        if ((size & 63) != 0) {
+            result[result.length - 1] &= (1L << size) - 1;
+        }
+        return new RowMask(size, result);
+    }
+
+    /**
+     * Retourne les index des lignes sélectionnées, dans l'ordre croissant
+     *
+     * @return Un tableau de cardinality() index
+     */
+    int[] toIndexes() {
+        int[] indexes = new int[cardinality()];
+        int count = 0;
+        for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+            long word = words[wordIndex];
+            while (word != 0) {
+                indexes[count++] = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indexes;
+    }
+
+    private void checkSameSize(RowMask other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Les masques doivent avoir la même taille (" + size + " et " + other.size + ")");
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RowMask)) {
+            return false;
+        }
+        RowMask other = (RowMask) obj;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,378 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Tri stable d'index de lignes (argsort) sans encapsuler les valeurs
+ * Les colonnes Integer, Long, Double et String encodées par dictionnaire sont triées par base (radix sort LSD
+ * sur des clés long ordonnées comme les valeurs), dont chaque passe est répartie entre plusieurs threads
+ * au-delà de {@link #PARALLEL_RADIX_THRESHOLD} lignes ; les autres colonnes par un tri fusion avec comparateur,
+ * réparti entre plusieurs threads au-delà de {@link #PARALLEL_THRESHOLD} lignes
+ * Un tri sur plusieurs colonnes trie successivement par chaque colonne, de la dernière à la première
+ */
+final class RowSort {
+    /**
+     * Taille en dessous de laquelle une partie est triée par insertion
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    /**
+     * Nombre de lignes à partir duquel le tri fusion est réparti entre plusieurs threads
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+    /**
+     * Nombre de lignes à partir duquel les passes du tri par base sont réparties entre plusieurs threads
+     */
+    static final int PARALLEL_RADIX_THRESHOLD = 1 << 16;
+
+    private RowSort() {
+    }
+
+    /**
+     * Calcule la permutation qui trie des lignes selon plusieurs colonnes
+     *
+     * @param storages Les stockages des colonnes de tri, de la plus prioritaire à la moins prioritaire
+     * @param types Les types de ces colonnes
+     * @param ascending Le sens du tri de chaque colonne (true pour croissant)
+     * @param nullsFirst true pour placer les valeurs nulles avant les autres, false pour les placer après
+     * @param size Le nombre de lignes
+     * @return Les index des lignes dans l'ordre trié (les lignes égales restent dans leur ordre d'origine)
+     */
+    static int[] argsort(ColumnStorage[] storages, Class<?>[] types, boolean[] ascending, boolean nullsFirst, int size) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        int[] nulls = new int[size];
+        for (int k = storages.length - 1; k >= 0; k--) {
+            ColumnStorage storage = storages[k];
+            // Partition stable : lignes non nulles en tête de rows, lignes nulles dans nulls
+            int count = 0;
+            int nullCount = 0;
+            for (int i = 0; i < size; i++) {
+                int row = rows[i];
+                if (storage.isNull(row)) {
+                    nulls[nullCount++] = row;
+                } else {
+                    rows[count++] = row;
+                }
+            }
+            sortByKey(rows, count, storage, types[k], ascending[k]);
+            if (nullsFirst) {
+                System.arraycopy(rows, 0, rows, nullCount, count);
+                System.arraycopy(nulls, 0, rows, 0, nullCount);
+            } else {
+                System.arraycopy(nulls, 0, rows, count, nullCount);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Trie de façon stable des lignes non nulles selon la valeur d'une colonne
+     *
+     * @param rows Les index des lignes, tous non nuls
+     * @param count Le nombre de lignes à trier (au début du tableau)
+     * @param storage Le stockage de la colonne
+     * @param type Le type de la colonne
+     * @param ascending true pour un tri croissant
+     */
+    @SuppressWarnings("unchecked")
+    static void sortByKey(int[] rows, int count, ColumnStorage storage, Class<?> type, boolean ascending) {
+        if (count < 2) {
+            return;
+        }
+        long[] keys = new long[count];
+        if (type == Integer.class) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = (storage.getInt(rows[i]) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+            }
+        } else if (type == Long.class) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = storage.getLong(rows[i]) ^ Long.MIN_VALUE;
+            }
+        } else if (type == Double.class) {
+            for (int i = 0; i < count; i++) {
+                long bits = Double.doubleToLongBits(storage.getDouble(rows[i]));
+                keys[i] = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+            }
+        } else if (storage instanceof DictionaryColumnStorage) {
+            int[] ranks = dictionaryRanks((DictionaryColumnStorage) storage);
+            DictionaryColumnStorage dictionary = (DictionaryColumnStorage) storage;
+            for (int i = 0; i < count; i++) {
+                keys[i] = ranks[dictionary.getCode(rows[i])];
+            }
+        } else {
+            IntBinaryOperator comparator = (a, b) -> ((Comparable<Object>) storage.get(a)).compareTo(storage.get(b));
+            sort(rows, 0, count, ascending ? comparator : (a, b) -> comparator.applyAsInt(b, a));
+            return;
+        }
+        if (!ascending) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+        radixSort(keys, rows, count);
+    }
+
+    /**
+     * Calcule le rang de chaque valeur d'un dictionnaire dans l'ordre de String.compareTo
+     *
+     * @param storage Le stockage encodé par dictionnaire
+     * @return Le rang de chaque code
+     */
+    private static int[] dictionaryRanks(DictionaryColumnStorage storage) {
+        int distinct = storage.dictionarySize();
+        Integer[] codes = new Integer[distinct];
+        for (int code = 0; code < distinct; code++) {
+            codes[code] = code;
+        }
+        Arrays.sort(codes, (a, b) -> storage.dictionaryValue(a).compareTo(storage.dictionaryValue(b)));
+        int[] ranks = new int[distinct];
+        for (int rank = 0; rank < distinct; rank++) {
+            ranks[codes[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Tri par base (LSD, un octet par passe) de clés non signées, les lignes suivant leurs clés
+     * Les passes dont l'octet est identique pour toutes les clés sont sautées
+     *
+     * @param keys Les clés, comparées comme des entiers non signés
+     * @param rows Les lignes associées
+     * @param count Le nombre de clés
+     */
+    private static void radixSort(long[] keys, int[] rows, int count) {
+        int blocks = count < PARALLEL_RADIX_THRESHOLD ? 1
+            : Math.min(ForkJoinPool.getCommonPoolParallelism(), count / (PARALLEL_RADIX_THRESHOLD >>> 2));
+        if (blocks > 1) {
+            radixSort(keys, rows, count, blocks);
+            return;
+        }
+        int[][] histograms = new int[8][256];
+        for (int i = 0; i < count; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < 8; pass++) {
+                histograms[pass][(int) (key >>> (pass << 3)) & 0xFF]++;
+            }
+        }
+        long[] keyBuffer = new long[count];
+        int[] rowBuffer = new int[count];
+        long[] sourceKeys = keys;
+        int[] sourceRows = rows;
+        for (int pass = 0; pass < 8; pass++) {
+            int[] histogram = histograms[pass];
+            int shift = pass << 3;
+            if (histogram[(int) (sourceKeys[0] >>> shift) & 0xFF] == count) {
+                continue;
+            }
+            int offset = 0;
+            for (int digit = 0; digit < 256; digit++) {
+                int digitCount = histogram[digit];
+                histogram[digit] = offset;
+                offset += digitCount;
+            }
+            for (int i = 0; i < count; i++) {
+                long key = sourceKeys[i];
+                int position = histogram[(int) (key >>> shift) & 0xFF]++;
+                keyBuffer[position] = key;
+                rowBuffer[position] = sourceRows[i];
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapRows = sourceRows;
+            sourceRows = rowBuffer;
+            rowBuffer = swapRows;
+        }
+        if (sourceRows != rows) {
+            System.arraycopy(sourceRows, 0, rows, 0, count);
+        }
+    }
+
+    /**
+     * Tri par base réparti entre plusieurs threads : chaque bloc de lignes compte ses octets puis place ses clés
+     * à partir de sa propre position de départ pour chaque octet (les blocs précédents d'abord), ce qui garde le tri stable
+     * Les passes dont l'octet est identique pour toutes les clés sont sautées
+     *
+     * @param keys Les clés, comparées comme des entiers non signés
+     * @param rows Les lignes associées
+     * @param count Le nombre de clés
+     * @param blocks Le nombre de blocs traités en parallèle
+     */
+    static void radixSort(long[] keys, int[] rows, int count, int blocks) {
+        int[] bounds = new int[blocks + 1];
+        for (int b = 0; b <= blocks; b++) {
+            bounds[b] = (int) ((long) count * b / blocks);
+        }
+        // Un octet varie entre les clés si au moins un de ses bits diffère entre le OU et le ET de toutes les clés
+        long[] ors = new long[blocks];
+        long[] ands = new long[blocks];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            long or = 0;
+            long and = -1;
+            for (int i = bounds[b]; i < bounds[b + 1]; i++) {
+                or |= keys[i];
+                and &= keys[i];
+            }
+            ors[b] = or;
+            ands[b] = and;
+        });
+        long or = 0;
+        long and = -1;
+        for (int b = 0; b < blocks; b++) {
+            or |= ors[b];
+            and &= ands[b];
+        }
+        long varying = or ^ and;
+
+        int[][] positions = new int[blocks][256];
+        long[] keyBuffer = new long[count];
+        int[] rowBuffer = new int[count];
+        long[] sourceKeys = keys;
+        int[] sourceRows = rows;
+        for (int pass = 0; pass < 8; pass++) {
+            int shift = pass << 3;
+            if (((varying >>> shift) & 0xFF) == 0) {
+                continue;
+            }
+            long[] fromKeys = sourceKeys;
+            int[] fromRows = sourceRows;
+            long[] toKeys = keyBuffer;
+            int[] toRows = rowBuffer;
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int[] histogram = positions[b];
+                Arrays.fill(histogram, 0);
+                for (int i = bounds[b]; i < bounds[b + 1]; i++) {
+                    histogram[(int) (fromKeys[i] >>> shift) & 0xFF]++;
+                }
+            });
+            int offset = 0;
+            for (int digit = 0; digit < 256; digit++) {
+                for (int b = 0; b < blocks; b++) {
+                    int digitCount = positions[b][digit];
+                    positions[b][digit] = offset;
+                    offset += digitCount;
+                }
+            }
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int[] position = positions[b];
+                for (int i = bounds[b]; i < bounds[b + 1]; i++) {
+                    long key = fromKeys[i];
+                    int target = position[(int) (key >>> shift) & 0xFF]++;
+                    toKeys[target] = key;
+                    toRows[target] = fromRows[i];
+                }
+            });
+            keyBuffer = fromKeys;
+            rowBuffer = fromRows;
+            sourceKeys = toKeys;
+            sourceRows = toRows;
+        }
+        if (sourceRows != rows) {
+            System.arraycopy(sourceRows, 0, rows, 0, count);
+        }
+    }
+
+    /**
+     * Trie une partie d'un tableau d'index de lignes, en conservant l'ordre des lignes égales
+     * Au-delà de PARALLEL_THRESHOLD lignes, les deux moitiés sont triées en parallèle avant d'être fusionnées
+     *
+     * @param rows Les index de lignes
+     * @param from L'index du premier élément à trier
+     * @param to L'index suivant le dernier élément à trier
+     * @param comparator Le comparateur de deux lignes
+     */
+    static void sort(int[] rows, int from, int to, IntBinaryOperator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[rows.length];
+        if (to - from < PARALLEL_THRESHOLD) {
+            mergeSort(rows, from, to, buffer, comparator);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ParallelMergeSort(rows, from, to, buffer, comparator));
+        }
+    }
+
+    private static void mergeSort(int[] rows, int from, int to, int[] buffer, IntBinaryOperator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(rows, from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, from, middle, buffer, comparator);
+        mergeSort(rows, middle, to, buffer, comparator);
+        merge(rows, from, middle, to, buffer, comparator);
+    }
+
+    /**
+     * Fusionne deux parties consécutives triées, en utilisant la même plage du tableau tampon
+     */
+    private static void merge(int[] rows, int from, int middle, int to, int[] buffer, IntBinaryOperator comparator) {
+        if (comparator.applyAsInt(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, middle - from);
+        int left = from;
+        int right = middle;
+        int out = from;
+        while (left < middle && right < to) {
+            if (comparator.applyAsInt(rows[right], buffer[left]) < 0) {
+                rows[out++] = rows[right++];
+            } else {
+                rows[out++] = buffer[left++];
+            }
+        }
+        System.arraycopy(buffer, left, rows, out, middle - left);
+    }
+
+    private static void insertionSort(int[] rows, int from, int to, IntBinaryOperator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && comparator.applyAsInt(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    /**
+     * Tri fusion dont les deux moitiés sont triées par des tâches parallèles
+     */
+    private static final class ParallelMergeSort extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] rows;
+        private final int from;
+        private final int to;
+        private final int[] buffer;
+        private final IntBinaryOperator comparator;
+
+        ParallelMergeSort(int[] rows, int from, int to, int[] buffer, IntBinaryOperator comparator) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.buffer = buffer;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                mergeSort(rows, from, to, buffer, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParallelMergeSort(rows, from, middle, buffer, comparator),
+                    new ParallelMergeSort(rows, middle, to, buffer, comparator));
+            merge(rows, from, middle, to, buffer, comparator);
+        }
+    }
+}
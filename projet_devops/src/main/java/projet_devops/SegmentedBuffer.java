@@ -0,0 +1,253 @@
+package projet_devops;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Mémoire hors tas découpée en segments de taille fixe ({@link #SEGMENT_BYTES}), adressée par index d'élément
+ * Les éléments ont tous la même taille (1, 4 ou 8 octets) et ne sont jamais à cheval sur deux segments
+ * Les segments sont alloués au fil des ajouts et ne sont jamais recopiés, sauf le premier tant qu'il est
+ * plus petit qu'un segment complet (pour ne pas réserver un segment entier à une petite colonne)
+ * Le tas ne contient que le tableau des références aux segments
+ */
+final class SegmentedBuffer {
+    /** Logarithme en base 2 de la taille d'un segment */
+    static final int SEGMENT_SHIFT = 20;
+    /** Taille d'un segment, en octets */
+    static final int SEGMENT_BYTES = 1 << SEGMENT_SHIFT;
+    /** Taille minimale du premier segment, en octets */
+    private static final int MIN_BYTES = 64;
+
+    /**
+     * Logarithme en base 2 de la taille d'un élément
+     */
+    private final int elementShift;
+    /**
+     * Logarithme en base 2 du nombre d'éléments d'un segment complet
+     */
+    private final int indexShift;
+    /**
+     * Masque donnant la position d'un élément dans son segment
+     */
+    private final int indexMask;
+    /**
+     * Segments alloués (les segmentCount premiers), null une fois la mémoire libérée
+     */
+    private ByteBuffer[] segments = new ByteBuffer[0];
+    /**
+     * Nombre de segments alloués
+     */
+    private int segmentCount;
+    /**
+     * Nombre d'éléments que peuvent contenir les segments alloués
+     */
+    private long capacity;
+
+    /**
+     * Crée une mémoire vide
+     *
+     * @param elementShift Le logarithme en base 2 de la taille d'un élément (0 pour des octets, 2 pour des int,
+     *        3 pour des long ou des double)
+     */
+    SegmentedBuffer(int elementShift) {
+        this.elementShift = elementShift;
+        this.indexShift = SEGMENT_SHIFT - elementShift;
+        this.indexMask = (1 << indexShift) - 1;
+    }
+
+    /**
+     * Retourne le nombre d'éléments que peut contenir la mémoire sans nouvelle allocation
+     *
+     * @return La capacité, en éléments
+     */
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Retourne la quantité de mémoire hors tas allouée
+     *
+     * @return La taille allouée, en octets
+     */
+    long allocatedBytes() {
+        return capacity << elementShift;
+    }
+
+    /**
+     * Alloue les segments nécessaires pour contenir au moins le nombre d'éléments donné
+     * La mémoire nouvellement allouée vaut 0
+     *
+     * @param elements Le nombre d'éléments requis
+     * @throws IllegalStateException Si la mémoire a été libérée
+     */
+    void ensureCapacity(long elements) {
+        if (elements <= capacity) {
+            return;
+        }
+        checkLive();
+        long bytes = elements << elementShift;
+        if (bytes < SEGMENT_BYTES) {
+            long grown = Math.max(bytes, Math.max(MIN_BYTES, allocatedBytes() * 2));
+            resizeFirst((int) Math.min(SEGMENT_BYTES, (grown + 7) & ~7L));
+            return;
+        }
+        if (segmentCount == 1 && segments[0].capacity() < SEGMENT_BYTES) {
+            resizeFirst(SEGMENT_BYTES);
+        }
+        int needed = Math.toIntExact((bytes + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT);
+        if (needed > segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(needed, segments.length + (segments.length >> 1)));
+        }
+        while (segmentCount < needed) {
+            segments[segmentCount++] = allocate(SEGMENT_BYTES);
+        }
+        capacity = (long) segmentCount << indexShift;
+    }
+
+    /**
+     * Remplace le premier (et seul) segment par un segment plus grand contenant les mêmes octets
+     */
+    private void resizeFirst(int newBytes) {
+        ByteBuffer segment = allocate(newBytes);
+        if (segmentCount == 1) {
+            ByteBuffer old = segments[0].duplicate();
+            old.clear();
+            segment.put(old);
+            segment.clear();
+        } else {
+            segments = new ByteBuffer[1];
+            segmentCount = 1;
+        }
+        segments[0] = segment;
+        capacity = newBytes >>> elementShift;
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Libère la mémoire : les segments ne sont plus référencés et sont rendus au système par le ramasse-miettes
+     * Toute lecture ou écriture ultérieure lève une IllegalStateException
+     */
+    void release() {
+        segments = null;
+        segmentCount = 0;
+        capacity = 0;
+    }
+
+    /**
+     * Indique si la mémoire a été libérée
+     *
+     * @return true après un appel à release
+     */
+    boolean isReleased() {
+        return segments == null;
+    }
+
+    private void checkLive() {
+        if (segments == null) {
+            throw new IllegalStateException("La mémoire hors tas de la colonne a été libérée");
+        }
+    }
+
+    private ByteBuffer segment(long index) {
+        ByteBuffer[] current = segments;
+        if (current == null) {
+            checkLive();
+        }
+        return current[(int) (index >>> indexShift)];
+    }
+
+    private int offset(long index) {
+        return ((int) index & indexMask) << elementShift;
+    }
+
+    byte getByte(long index) {
+        return segment(index).get(offset(index));
+    }
+
+    void putByte(long index, byte value) {
+        segment(index).put(offset(index), value);
+    }
+
+    int getInt(long index) {
+        return segment(index).getInt(offset(index));
+    }
+
+    void putInt(long index, int value) {
+        segment(index).putInt(offset(index), value);
+    }
+
+    long getLong(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    void putLong(long index, long value) {
+        segment(index).putLong(offset(index), value);
+    }
+
+    double getDouble(long index) {
+        return segment(index).getDouble(offset(index));
+    }
+
+    void putDouble(long index, double value) {
+        segment(index).putDouble(offset(index), value);
+    }
+
+    /**
+     * Copie des octets vers un tableau, en traversant les segments si nécessaire (mémoire d'octets uniquement)
+     *
+     * @param index La position du premier octet
+     * @param dest Le tableau de destination, rempli à partir de l'index 0
+     * @param length Le nombre d'octets à copier
+     */
+    void getBytes(long index, byte[] dest, int length) {
+        int copied = 0;
+        while (copied < length) {
+            ByteBuffer source = segment(index + copied).duplicate();
+            source.position(offset(index + copied));
+            int chunk = Math.min(length - copied, source.remaining());
+            source.get(dest, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Copie des octets depuis un tableau, en traversant les segments si nécessaire (mémoire d'octets uniquement)
+     * La capacité doit déjà être suffisante
+     *
+     * @param index La position du premier octet
+     * @param source Les octets à copier
+     */
+    void putBytes(long index, byte[] source) {
+        int copied = 0;
+        while (copied < source.length) {
+            ByteBuffer dest = segment(index + copied).duplicate();
+            dest.position(offset(index + copied));
+            int chunk = Math.min(source.length - copied, dest.remaining());
+            dest.put(source, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Retourne une vue sur les premiers octets de la mémoire, s'ils tiennent dans un seul segment
+     *
+     * @param bytes Le nombre d'octets
+     * @return Une vue indépendante, ou null si les octets occupent plusieurs segments
+     */
+    ByteBuffer contiguous(long bytes) {
+        checkLive();
+        if (segmentCount == 0) {
+            return allocate(0);
+        }
+        if (bytes > segments[0].capacity()) {
+            return null;
+        }
+        ByteBuffer view = segments[0].duplicate();
+        view.limit((int) bytes);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+}
@@ -1,12 +1,14 @@
 package projet_devops;
 
 import java.util.ArrayList;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 
 public class Selection {
     
-    @SuppressWarnings("unchecked")
     /**
      * Sélectionne un sous-ensemble de lignes d'un DataFrame à partir de leurs indices
+     * Les colonnes du résultat sont des vues sur celles de df : aucune valeur n'est copiée
      * 
      * @param df Le DataFrame source
      * @param start L'index de début de la sélection (inclus)
@@ -16,9 +18,7 @@ public class Selection {
      * @throws IndexOutOfBoundsException si les index sont hors limites
      */
 
-    public <T> DataFrame selectLines(DataFrame df, int start, int end) {
-        DataFrame newDf = new DataFrame();
-
+    public DataFrame selectLines(DataFrame df, int start, int end) {
         if(start> end){
             throw new IllegalArgumentException("L'index de début doit être inférieur à l'index de fin.");
         }
@@ -29,20 +29,10 @@ public class Selection {
             throw new IllegalArgumentException("Le DataFrame est vide");
         }
 
-        for (String columnName : df.getColumnNames()) {
-
-            DataColumn<T> originalColumn = (DataColumn<T>) df.getColumn(columnName);
-            DataColumn<T> indexColumn = new DataColumn<>(columnName, originalColumn.getDataType());
-            
-            for (int i = start; i <= end; i++) {
-                T value = originalColumn.get(i);
-                indexColumn.add(value);
-            }
-
-            newDf.addColumn(indexColumn);
-        }
-
-        return newDf;
+        OperationTimer timer = Metrics.start("Selection.selectLines");
+        DataFrame result = df.slice(start, end + 1);
+        timer.stop(df.getRowCount(), result.getRowCount());
+        return result;
     }  
 
 
@@ -56,6 +46,7 @@ public class Selection {
      * @throws IllegalArgumentException si la liste des colonnes est vide ou si une colonne n'existe pas
      */
     public <T> DataFrame selectColumns(DataFrame df, ArrayList<String> columns) {
+        OperationTimer timer = Metrics.start("Selection.selectColumns");
         DataFrame newDf = new DataFrame();
 
         if (columns == null || columns.isEmpty()) {
@@ -74,169 +65,169 @@ public class Selection {
                 newDf.addColumn(originalColumn);
         }
 
+        timer.stop(df.getRowCount(), newDf.getRowCount());
         return newDf;
     }
 
     /**
      * Évalue une expression mathématique sur les colonnes numériques
+     * L'expression est compilée une fois, puis évaluée par blocs de lignes sur des tableaux primitifs
+     * Elle accepte les opérateurs + - * / avec les priorités usuelles, les parenthèses,
+     * les constantes, plusieurs colonnes et les fonctions abs, sqrt, log, min et max
+     * Le résultat est null sur une ligne où une colonne utilisée est nulle ou en cas de division par zéro
+     * 
      * @param df Le DataFrame source
-     * @param expression L'expression à évaluer (ex: "age + salary", "age * 2")
-     * @return Une nouvelle colonne contenant le résultat
+     * @param expression L'expression à évaluer (ex: "age + salary", "age * 2", "max(age, 18) / sqrt(salary)")
+     * @return Une nouvelle colonne Double contenant le résultat
+     * @throws IllegalArgumentException si l'expression est invalide ou utilise une colonne inexistante ou non numérique
      */
     public DataColumn<?> eval(DataFrame df, String expression) {
-        // Diviser l'expression en tokens
-        String[] tokens = expression.split("\\s+");
-        if (tokens.length != 3) {
-            throw new IllegalArgumentException("L'expression doit être de la forme 'colonne opérateur valeur' ou 'colonne opérateur colonne'");
-        }
-
-        String col1Name = tokens[0];
-        String operator = tokens[1];
-        String col2OrValue = tokens[2];
-
-        DataColumn<?> col1 = df.getColumn(col1Name);
-        if (col1 == null) {
-            throw new IllegalArgumentException("Colonne non trouvée: " + col1Name);
-        }
-
-        // Vérifier que la première colonne est numérique
-        if (col1.getDataType() != Integer.class && col1.getDataType() != Double.class) {
-            throw new IllegalArgumentException("La colonne doit être numérique");
-        }
-
-        DataColumn<Double> result = new DataColumn<>("result", Double.class);
-
-        // Essayer de parser col2OrValue comme un nombre
-        try {
-            double value = Double.parseDouble(col2OrValue);
-            // Opération avec une valeur constante
-            for (Object val : col1.getValues()) {
-                if (val == null) {
-                    result.add(null);
-                    continue;
-                }
-                double num = val instanceof Integer ? ((Integer) val).doubleValue() : (Double) val;
-                result.add(performOperation(num, value, operator));
-            }
-        } catch (NumberFormatException e) {
-            // Opération entre deux colonnes
-            DataColumn<?> col2 = df.getColumn(col2OrValue);
-            if (col2 == null) {
-                throw new IllegalArgumentException("Colonne non trouvée: " + col2OrValue);
-            }
-            if (col2.getDataType() != Integer.class && col2.getDataType() != Double.class) {
-                throw new IllegalArgumentException("La deuxième colonne doit être numérique");
-            }
-
-            for (int i = 0; i < col1.size(); i++) {
-                Object val1 = col1.getValues().get(i);
-                Object val2 = col2.getValues().get(i);
-                if (val1 == null || val2 == null) {
-                    result.add(null);
-                    continue;
-                }
-                double num1 = val1 instanceof Integer ? ((Integer) val1).doubleValue() : (Double) val1;
-                double num2 = val2 instanceof Integer ? ((Integer) val2).doubleValue() : (Double) val2;
-                result.add(performOperation(num1, num2, operator));
-            }
-        }
-
+        OperationTimer timer = Metrics.start("Selection.eval");
+        DataColumn<?> result = ExpressionParser.parse(df, expression).evaluateColumn("result", df.getRowCount());
+        timer.stop(df.getRowCount(), result.size());
         return result;
     }
 
-    private Double performOperation(double a, double b, String operator) {
-        switch (operator) {
-            case "+":
-                return a + b;
-            case "-":
-                return a - b;
-            case "*":
-                return a * b;
-            case "/":
-                return b == 0 ? null : a / b;
-            default:
-                throw new IllegalArgumentException("Opérateur non supporté: " + operator);
-        }
-    }
-
     /**
-     * Crée un masque booléen basé sur une condition
+     * Crée un masque de lignes basé sur une condition
+     * Les comparaisons entre une colonne Integer, Long ou Double et une valeur du même type se font sans encapsulation
+     * Sur une colonne String encodée par dictionnaire, la condition n'est évaluée qu'une fois par valeur distincte
+     * Sur une colonne compressée ({@link DataColumn#compress()}), les blocs dont le minimum et le maximum vérifient
+     * tous deux la condition (ou aucun des deux) sont traités sans être décodés
+     * Si la colonne est indexée ({@link DataColumn#createHashIndex()}, {@link DataColumn#createSortedIndex()})
+     * et la valeur du type de la colonne, le masque est obtenu par l'index sans parcourir la colonne
+     * 
      * @param df Le DataFrame source
      * @param columnName Le nom de la colonne à vérifier
      * @param operator L'opérateur de comparaison (">", "<", ">=", "<=", "==", "!=")
      * @param value La valeur de comparaison
-     * @return Une liste de booléens représentant le masque
+     * @return Le masque des lignes vérifiant la condition (les valeurs nulles ne la vérifient jamais)
+     * @throws IllegalArgumentException si la colonne n'existe pas ou si l'opérateur n'est pas supporté
+     */
+    public RowMask createBooleanMask(DataFrame df, String columnName, String operator, Object value) {
+        OperationTimer timer = Metrics.start("Selection.createBooleanMask");
+        RowMask mask = booleanMask(df, columnName, operator, value);
+        stop(timer, mask);
+        return mask;
+    }
+
+    /**
+     * Crée le masque de {@link #createBooleanMask}, sans mesurer l'opération
      */
     @SuppressWarnings("unchecked")
-    public ArrayList<Boolean> createBooleanMask(DataFrame df, String columnName, String operator, Object value) {
+    private RowMask booleanMask(DataFrame df, String columnName, String operator, Object value) {
         DataColumn<?> column = df.getColumn(columnName);
         if (column == null) {
             throw new IllegalArgumentException("Colonne non trouvée: " + columnName);
         }
-
-        ArrayList<Boolean> mask = new ArrayList<>();
-        for (Object val : column.getValues()) {
-            if (val == null) {
-                mask.add(false);
-                continue;
-            }
-
-            Comparable<Object> comparableVal = (Comparable<Object>) val;
+        IntPredicate condition = RowFilter.comparison(operator);
+        RowMask indexed = column.indexedMask(operator, value);
+        if (indexed != null) {
+            return indexed;
+        }
+
+        ColumnStorage storage = column.getStorage();
+        if (storage instanceof EncodedColumnStorage && value != null && value.getClass() == column.getDataType()) {
+            return ((EncodedColumnStorage) storage).mask(condition, value);
+        }
+        IntUnaryOperator comparison;
+        if (column.getDataType() == Integer.class && value instanceof Integer) {
+            int bound = (Integer) value;
+            comparison = i -> Integer.compare(storage.getInt(i), bound);
+        } else if (column.getDataType() == Long.class && value instanceof Long) {
+            long bound = (Long) value;
+            comparison = i -> Long.compare(storage.getLong(i), bound);
+        } else if (column.getDataType() == Double.class && value instanceof Double) {
+            double bound = (Double) value;
+            comparison = i -> Double.compare(storage.getDouble(i), bound);
+        } else if (storage instanceof DictionaryColumnStorage && value instanceof String) {
+            String text = (String) value;
+            return ((DictionaryColumnStorage) storage).mask(s -> condition.test(s.compareTo(text)));
+        } else {
             Comparable<Object> comparableValue = (Comparable<Object>) value;
+            comparison = i -> ((Comparable<Object>) storage.get(i)).compareTo(comparableValue);
+        }
 
-            boolean result;
-            switch (operator) {
-                case ">":
-                    result = comparableVal.compareTo(comparableValue) > 0;
-                    break;
-                case "<":
-                    result = comparableVal.compareTo(comparableValue) < 0;
-                    break;
-                case ">=":
-                    result = comparableVal.compareTo(comparableValue) >= 0;
-                    break;
-                case "<=":
-                    result = comparableVal.compareTo(comparableValue) <= 0;
-                    break;
-                case "==":
-                    result = comparableVal.compareTo(comparableValue) == 0;
-                    break;
-                case "!=":
-                    result = comparableVal.compareTo(comparableValue) != 0;
-                    break;
-                default:
-                    throw new IllegalArgumentException("Opérateur non supporté: " + operator);
-            }
-            mask.add(result);
+        return RowMask.build(storage.size(), i -> !storage.isNull(i) && condition.test(comparison.applyAsInt(i)));
+    }
+
+    /**
+     * Crée un masque des lignes dont la valeur est comprise dans un intervalle
+     * Si la colonne possède un index trié, les deux bornes sont cherchées par dichotomie dans l'index
+     *
+     * @param df Le DataFrame source
+     * @param columnName Le nom de la colonne à vérifier
+     * @param min La borne inférieure (incluse)
+     * @param max La borne supérieure (incluse)
+     * @return Le masque des lignes vérifiant min <= valeur <= max (les valeurs nulles ne la vérifient jamais)
+     * @throws IllegalArgumentException si la colonne n'existe pas
+     */
+    public RowMask createRangeMask(DataFrame df, String columnName, Object min, Object max) {
+        DataColumn<?> column = df.getColumn(columnName);
+        if (column == null) {
+            throw new IllegalArgumentException("Colonne non trouvée: " + columnName);
+        }
+        OperationTimer timer = Metrics.start("Selection.createRangeMask");
+        RowMask mask = column.indexedRange(min, max);
+        if (mask == null) {
+            mask = booleanMask(df, columnName, ">=", min).and(booleanMask(df, columnName, "<=", max));
         }
+        stop(timer, mask);
         return mask;
     }
 
     /**
-     * Filtre le DataFrame en utilisant un masque booléen
+     * Termine la mesure de la création d'un masque ; ses lignes ne sont comptées que si l'opération est mesurée
+     */
+    private static void stop(OperationTimer timer, RowMask mask) {
+        if (timer.isEnabled()) {
+            timer.stop(mask.size(), mask.cardinality());
+        }
+    }
+
+    /**
+     * Filtre le DataFrame en utilisant un masque de lignes
+     * 
      * @param df Le DataFrame source
-     * @param mask Le masque booléen à appliquer
-     * @return Un nouveau DataFrame contenant uniquement les lignes où le masque est true
+     * @param mask Le masque à appliquer
+     * @return Un nouveau DataFrame contenant uniquement les lignes sélectionnées par le masque
+     * @throws IllegalArgumentException si la taille du masque ne correspond pas au nombre de lignes
      */
-    @SuppressWarnings("unchecked")
-    public <T> DataFrame filterByMask(DataFrame df, ArrayList<Boolean> mask) {
+    public DataFrame filterByMask(DataFrame df, RowMask mask) {
         if (mask.size() != df.getRowCount()) {
             throw new IllegalArgumentException("La taille du masque doit correspondre au nombre de lignes");
         }
 
+        OperationTimer timer = Metrics.start("Selection.filterByMask");
+        int[] rows = mask.toIndexes();
         DataFrame newDf = new DataFrame();
         for (String columnName : df.getColumnNames()) {
-            DataColumn<T> originalColumn = (DataColumn<T>) df.getColumn(columnName);
-            DataColumn<T> filteredColumn = new DataColumn<>(columnName, originalColumn.getDataType());
-            
-            for (int i = 0; i < mask.size(); i++) {
-                if (mask.get(i)) {
-                    filteredColumn.add(originalColumn.get(i));
-                }
-            }
-            
-            newDf.addColumn(filteredColumn);
+            newDf.addColumn(gather(df.getColumn(columnName), rows, rows.length));
         }
+        timer.stop(df.getRowCount(), rows.length);
         return newDf;
     }
+
+    /**
+     * Filtre le DataFrame en utilisant un masque booléen
+     * @param df Le DataFrame source
+     * @param mask Le masque booléen à appliquer
+     * @return Un nouveau DataFrame contenant uniquement les lignes où le masque est true
+     * @throws IllegalArgumentException si la taille du masque ne correspond pas au nombre de lignes
+     */
+    public DataFrame filterByMask(DataFrame df, ArrayList<Boolean> mask) {
+        return filterByMask(df, RowMask.of(mask));
+    }
+
+    /**
+     * Copie les lignes données d'une colonne dans une nouvelle colonne du même type
+     * 
+     * @param column La colonne source
+     * @param rows Les index des lignes à copier, dans l'ordre voulu (négatif pour une valeur nulle)
+     * @param count Le nombre d'index à utiliser
+     * @return La nouvelle colonne
+     */
+    static <T> DataColumn<T> gather(DataColumn<T> column, int[] rows, int count) {
+        return new DataColumn<>(column.getColumnName(), column.getDataType(), column.getStorage().gather(rows, count));
+    }
 }
@@ -0,0 +1,146 @@
+package projet_devops;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Vue en lecture seule sur une plage de lignes d'un autre stockage, sans copie des valeurs
+ * Les lectures sont décalées de offset ; une colonne copie la plage avant la première modification
+ * Le stockage parent ne pouvant que grandir, les lignes de la plage restent valides
+ */
+final class SliceColumnStorage extends ColumnStorage {
+    /**
+     * Stockage partagé
+     */
+    private final ColumnStorage parent;
+    /**
+     * Index dans le parent de la première ligne de la vue
+     */
+    private final int offset;
+    /**
+     * Nombre de lignes de la vue
+     */
+    private final int length;
+
+    /**
+     * Constructeur de la vue
+     *
+     * @param parent Le stockage partagé
+     * @param offset L'index dans le parent de la première ligne
+     * @param length Le nombre de lignes
+     */
+    SliceColumnStorage(ColumnStorage parent, int offset, int length) {
+        this.parent = parent;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Retourne le stockage partagé
+     *
+     * @return Le stockage dont la vue montre une plage
+     */
+    ColumnStorage parent() {
+        return parent;
+    }
+
+    /**
+     * Retourne l'index dans le parent de la première ligne de la vue
+     *
+     * @return Le décalage
+     */
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    int size() {
+        return length;
+    }
+
+    @Override
+    Object get(int index) {
+        return parent.get(offset + index);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return parent.isNull(offset + index);
+    }
+
+    @Override
+    void add(Object value) {
+        throw new UnsupportedOperationException("Une vue sur une plage de lignes n'est pas modifiable");
+    }
+
+    @Override
+    boolean isShared() {
+        return true;
+    }
+
+    @Override
+    ColumnStorage slice(int from, int to) {
+        return new SliceColumnStorage(parent, offset + from, to - from);
+    }
+
+    @Override
+    ColumnStorage copyRange(int from, int to) {
+        return parent.copyRange(offset + from, offset + to);
+    }
+
+    @Override
+    ColumnStorage gather(int[] rows, int count) {
+        int[] parentRows = new int[count];
+        for (int i = 0; i < count; i++) {
+            parentRows[i] = rows[i] < 0 ? -1 : offset + rows[i];
+        }
+        return parent.gather(parentRows, count);
+    }
+
+    @Override
+    int getInt(int index) {
+        return parent.getInt(offset + index);
+    }
+
+    @Override
+    long getLong(int index) {
+        return parent.getLong(offset + index);
+    }
+
+    @Override
+    double getDouble(int index) {
+        return parent.getDouble(offset + index);
+    }
+
+    @Override
+    void getDoubles(int from, double[] dest, int count) {
+        parent.getDoubles(offset + from, dest, count);
+    }
+
+    @Override
+    void markNulls(int from, boolean[] dest, int count) {
+        parent.markNulls(offset + from, dest, count);
+    }
+
+    @Override
+    IntBuffer asIntBuffer() {
+        IntBuffer buffer = parent.asIntBuffer();
+        buffer.position(offset).limit(offset + length);
+        return buffer.slice();
+    }
+
+    @Override
+    LongBuffer asLongBuffer() {
+        LongBuffer buffer = parent.asLongBuffer();
+        buffer.position(offset).limit(offset + length);
+        return buffer.slice();
+    }
+
+    @Override
+    DoubleBuffer asDoubleBuffer() {
+        DoubleBuffer buffer = parent.asDoubleBuffer();
+        buffer.position(offset).limit(offset + length);
+        return buffer.slice();
+    }
+}
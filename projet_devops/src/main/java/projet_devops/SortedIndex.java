@@ -0,0 +1,200 @@
+package projet_devops;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Index trié d'une colonne : permutation des lignes non nulles dans l'ordre croissant des valeurs
+ * Répond aux comparaisons et aux intervalles par recherche dichotomique, en O(log n) plus le nombre de lignes retenues
+ * Les lignes ajoutées après la construction sont testées une à une ; l'index est reconstruit
+ * lorsqu'elles deviennent trop nombreuses (voir {@link #MIN_REBUILD_ROWS})
+ */
+final class SortedIndex {
+    /**
+     * Nombre minimal de lignes non indexées déclenchant une reconstruction
+     * (au-delà, il faut aussi qu'elles représentent plus d'un huitième des lignes indexées)
+     */
+    static final int MIN_REBUILD_ROWS = 1024;
+
+    /**
+     * Type de la colonne indexée
+     */
+    private final Class<?> dataType;
+    /**
+     * Lignes non nulles triées par valeur croissante (ordre des lignes pour les valeurs égales)
+     */
+    private int[] order;
+    /**
+     * Nombre de lignes du stockage lors de la construction
+     */
+    private int indexedRows;
+
+    /**
+     * Construit l'index d'un stockage
+     *
+     * @param storage Le stockage indexé
+     * @param dataType Le type de la colonne
+     */
+    SortedIndex(ColumnStorage storage, Class<?> dataType) {
+        this.dataType = dataType;
+        build(storage);
+    }
+
+    private void build(ColumnStorage storage) {
+        int size = storage.size();
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!storage.isNull(i)) {
+                rows[count++] = i;
+            }
+        }
+        RowSort.sortByKey(rows, count, storage, dataType, true);
+        order = count == size ? rows : Arrays.copyOf(rows, count);
+        indexedRows = size;
+    }
+
+    /**
+     * Construit le masque d'une condition de comparaison
+     *
+     * @param storage Le stockage indexé
+     * @param operator L'opérateur de comparaison (">", "<", ">=", "<=", "==", "!=")
+     * @param value La valeur de comparaison, du type de la colonne
+     * @return Le masque des lignes vérifiant la condition (les valeurs nulles ne la vérifient jamais)
+     * @throws IllegalArgumentException si l'opérateur n'est pas supporté
+     */
+    synchronized RowMask mask(ColumnStorage storage, String operator, Object value) {
+        IntPredicate condition = RowFilter.comparison(operator);
+        refresh(storage);
+        IntUnaryOperator compare = valueComparator(storage, dataType, value);
+        int lower = lowerBound(compare);
+        int upper = upperBound(compare, lower);
+        RowMask mask = new RowMask(storage.size());
+        switch (operator) {
+            case ">":
+                setRange(mask, upper, order.length);
+                break;
+            case ">=":
+                setRange(mask, lower, order.length);
+                break;
+            case "<":
+                setRange(mask, 0, lower);
+                break;
+            case "<=":
+                setRange(mask, 0, upper);
+                break;
+            case "==":
+                setRange(mask, lower, upper);
+                break;
+            default:
+                setRange(mask, 0, lower);
+                setRange(mask, upper, order.length);
+                break;
+        }
+        for (int i = indexedRows; i < storage.size(); i++) {
+            if (!storage.isNull(i) && condition.test(compare.applyAsInt(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Construit le masque des lignes comprises dans un intervalle
+     *
+     * @param storage Le stockage indexé
+     * @param min La borne inférieure (incluse), du type de la colonne
+     * @param max La borne supérieure (incluse), du type de la colonne
+     * @return Le masque des lignes dont la valeur est comprise entre min et max
+     */
+    synchronized RowMask range(ColumnStorage storage, Object min, Object max) {
+        refresh(storage);
+        IntUnaryOperator compareMin = valueComparator(storage, dataType, min);
+        IntUnaryOperator compareMax = valueComparator(storage, dataType, max);
+        RowMask mask = new RowMask(storage.size());
+        int from = lowerBound(compareMin);
+        setRange(mask, from, upperBound(compareMax, from));
+        for (int i = indexedRows; i < storage.size(); i++) {
+            if (!storage.isNull(i) && compareMin.applyAsInt(i) >= 0 && compareMax.applyAsInt(i) <= 0) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Reconstruit l'index si trop de lignes ont été ajoutées depuis sa construction
+     *
+     * @param storage Le stockage indexé
+     */
+    private void refresh(ColumnStorage storage) {
+        int pending = storage.size() - indexedRows;
+        if (pending >= MIN_REBUILD_ROWS && pending > indexedRows >>> 3) {
+            build(storage);
+        }
+    }
+
+    /**
+     * Retourne la position de la première ligne dont la valeur est supérieure ou égale à la valeur cherchée
+     */
+    private int lowerBound(IntUnaryOperator compare) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare.applyAsInt(order[middle]) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Retourne la position de la première ligne dont la valeur est strictement supérieure à la valeur cherchée
+     */
+    private int upperBound(IntUnaryOperator compare, int from) {
+        int low = from;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare.applyAsInt(order[middle]) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void setRange(RowMask mask, int from, int to) {
+        for (int i = from; i < to; i++) {
+            mask.set(order[i]);
+        }
+    }
+
+    /**
+     * Comparateur de la valeur d'une ligne (non nulle) avec une valeur fixe
+     *
+     * @param storage Le stockage
+     * @param dataType Le type de la colonne
+     * @param value La valeur fixe, du type de la colonne
+     * @return La fonction donnant le signe de la comparaison pour une ligne
+     */
+    @SuppressWarnings("unchecked")
+    static IntUnaryOperator valueComparator(ColumnStorage storage, Class<?> dataType, Object value) {
+        if (dataType == Integer.class) {
+            int bound = (Integer) value;
+            return i -> Integer.compare(storage.getInt(i), bound);
+        } else if (dataType == Long.class) {
+            long bound = (Long) value;
+            return i -> Long.compare(storage.getLong(i), bound);
+        } else if (dataType == Double.class) {
+            double bound = (Double) value;
+            return i -> Double.compare(storage.getDouble(i), bound);
+        }
+        return i -> ((Comparable<Object>) storage.get(i)).compareTo(value);
+    }
+}
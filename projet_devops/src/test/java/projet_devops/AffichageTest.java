@@ -4,7 +4,9 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringWriter;
 
 public class AffichageTest {
     private DataFrame df;
@@ -128,4 +130,57 @@ public class AffichageTest {
         assertEquals(1, output.split("\n").length); // Seulement l'en-tête
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAfficherWriterColumnWidths() throws IOException {
+        DataFrame frame = new DataFrame();
+        DataColumn<String> villes = new DataColumn<>("ville", String.class);
+        villes.add("Saint-Rémy-de-Provence");
+        villes.add(null);
+        DataColumn<Double> taux = new DataColumn<>("taux", Double.class);
+        taux.add(0.5);
+        taux.add(12.25);
+        frame.addColumn(villes);
+        frame.addColumn(taux);
+
+        StringWriter writer = new StringWriter();
+        affichage.afficher(frame, writer);
+        String[] lines = writer.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertEquals("ville                  taux  ", lines[0]);
+        assertEquals("Saint-Rémy-de-Provence 0.5   ", lines[1]);
+        assertEquals("null                   12.25 ", lines[2]);
+        assertEquals("", outputStream.toString());
+    }
+
+    @Test
+    public void testAfficherLargeDfToOutputStream() throws IOException {
+        DataFrame frame = new DataFrame();
+        DataColumn<Integer> ids = new DataColumn<>("id", Integer.class);
+        for (int i = 0; i < 50000; i++) {
+            ids.add(i % 7 == 0 ? null : i);
+        }
+        frame.addColumn(ids);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        affichage.afficher(frame, bytes);
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(50001, lines.length);
+        assertEquals("49999 ", lines[50000]);
+        assertEquals("null  ", lines[1]);
+    }
+
+    @Test
+    public void testHeadAndTail() {
+        affichage.head(df, 2);
+        affichage.tail(df, 10);
+        String[] lines = outputStream.toString().split("\n");
+        assertEquals(3 + 7, lines.length);
+        assertTrue(lines[2].startsWith("30"));
+        assertTrue(lines[9].contains("Frank"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHeadNegative() {
+        affichage.head(df, -1);
+    }
+}
@@ -0,0 +1,148 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe de test pour le format binaire en colonnes (classe ColumnarFile)
+ */
+public class ColumnarFileTest {
+    /**
+     * Fichier temporaire pour les tests
+     */
+    private Path tempFile;
+
+    /**
+     * Méthode exécutée avant chaque test pour créer le fichier temporaire
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("dataframe", ".bin");
+    }
+
+    /**
+     * Méthode exécutée après chaque test pour supprimer le fichier temporaire
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Teste l'écriture puis la relecture de colonnes de chaque type, avec des valeurs nulles
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("entier", Integer.class, Arrays.asList(1, null, -3)));
+        df.addColumn(new DataColumn<>("long", Long.class, Arrays.asList(10_000_000_000L, 2L, null)));
+        df.addColumn(new DataColumn<>("réel", Double.class, Arrays.asList(1.5, Double.NaN, null)));
+        df.addColumn(new DataColumn<>("texte", String.class, Arrays.asList("été", null, "")));
+        df.save(tempFile.toString());
+
+        DataFrame loaded = DataFrame.load(tempFile.toString());
+        assertEquals(df.getColumnNames(), loaded.getColumnNames());
+        assertEquals(3, loaded.getRowCount());
+        for (String name : df.getColumnNames()) {
+            assertEquals(df.getColumn(name).getDataType(), loaded.getColumn(name).getDataType());
+            assertEquals(df.getColumn(name).getValues(), loaded.getColumn(name).getValues());
+        }
+        assertTrue(loaded.getColumn("entier").getStorage() instanceof MappedColumnStorage);
+        assertTrue(loaded.getColumn("texte").getStorage() instanceof MappedColumnStorage);
+    }
+
+    /**
+     * Teste qu'une colonne encodée par dictionnaire (lue d'un CSV) le reste après rechargement
+     */
+    @Test
+    public void testDictionaryColumn() throws IOException {
+        Path csv = Files.createTempFile("dataframe", ".csv");
+        try {
+            Files.write(csv, "ville,montant\nParis,1\nLyon,2\n,3\nParis,4\n".getBytes(StandardCharsets.UTF_8));
+            DataFrame df = DataFrame.fromCSV(csv.toString());
+            df.save(tempFile.toString());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+
+        DataFrame loaded = DataFrame.load(tempFile.toString());
+        assertTrue(loaded.getColumn("ville").getStorage() instanceof DictionaryColumnStorage);
+        assertEquals(Arrays.asList("Paris", "Lyon", null, "Paris"), loaded.getColumn("ville").getValues());
+        assertEquals(2, new Selection().createBooleanMask(loaded, "ville", "==", "Paris").cardinality());
+    }
+
+    /**
+     * Teste les opérations sur un DataFrame chargé : statistiques, tri, tranche, et copie avant modification
+     */
+    @Test
+    public void testLoadedColumnsAreCopiedOnWrite() throws IOException {
+        Random random = new Random(3);
+        DataColumn<Double> valeurs = new DataColumn<>("valeur", Double.class);
+        DataColumn<Integer> codes = new DataColumn<>("code", Integer.class);
+        for (int i = 0; i < 5000; i++) {
+            valeurs.add(i % 97 == 0 ? null : random.nextGaussian());
+            codes.add(random.nextInt(100));
+        }
+        DataFrame df = new DataFrame();
+        df.addColumn(valeurs);
+        df.addColumn(codes);
+        df.save(tempFile.toString());
+
+        DataFrame loaded = DataFrame.load(tempFile.toString());
+        DataFrameStatistics stats = new DataFrameStatistics();
+        assertEquals(stats.mean(valeurs), stats.mean(loaded.getColumn("valeur")), 1e-12);
+        assertEquals(stats.max(codes), stats.max(loaded.getColumn("code")), 0.0);
+        assertArrayEquals(df.argsort(Arrays.asList("code", "valeur"), new boolean[] {true, false}, false),
+                loaded.argsort(Arrays.asList("code", "valeur"), new boolean[] {true, false}, false));
+        assertEquals(df.slice(100, 200).getColumn("valeur").getValues(),
+                loaded.slice(100, 200).getColumn("valeur").getValues());
+
+        @SuppressWarnings("unchecked")
+        DataColumn<Integer> loadedCodes = (DataColumn<Integer>) loaded.getColumn("code");
+        loadedCodes.add(1000);
+        assertFalse(loadedCodes.getStorage() instanceof MappedColumnStorage);
+        assertEquals(5001, loadedCodes.size());
+        assertEquals(Integer.valueOf(1000), loadedCodes.get(5000));
+        assertEquals(codes.get(4999), loadedCodes.get(4999));
+    }
+
+    /**
+     * Teste l'exception à l'écriture d'une colonne d'un type non pris en charge
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() throws IOException {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("actif", Boolean.class, Arrays.asList(true, false)));
+        df.save(tempFile.toString());
+    }
+
+    /**
+     * Teste l'exception au chargement d'un fichier qui n'est pas un DataFrame binaire
+     */
+    @Test(expected = IOException.class)
+    public void testLoadInvalidFile() throws IOException {
+        Files.write(tempFile, "a,b\n1,2\n".getBytes(StandardCharsets.UTF_8));
+        DataFrame.load(tempFile.toString());
+    }
+
+    /**
+     * Teste l'exception au chargement d'un fichier tronqué
+     */
+    @Test(expected = IOException.class)
+    public void testLoadTruncatedFile() throws IOException {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("entier", Integer.class, Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8)));
+        df.save(tempFile.toString());
+        byte[] content = Files.readAllBytes(tempFile);
+        Files.write(tempFile, Arrays.copyOf(content, content.length - 8));
+        DataFrame.load(tempFile.toString());
+    }
+}
@@ -0,0 +1,179 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Classe de test pour la lecture d'un fichier CSV par lots (classe CsvBatchIterator)
+ */
+public class CsvBatchIteratorTest {
+    /**
+     * Fichier temporaire pour les tests
+     */
+    private Path tempFile;
+
+    /**
+     * Méthode exécutée avant chaque test pour créer le fichier temporaire
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("batches", ".csv");
+    }
+
+    /**
+     * Méthode exécutée après chaque test pour supprimer le fichier temporaire
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Écrit un fichier de 2500 lignes dont les colonnes changent de type après le premier lot
+     */
+    private void writeFile() throws IOException {
+        StringBuilder content = new StringBuilder("id,montant,ville,code\n");
+        for (int i = 0; i < 2500; i++) {
+            String montant = i == 2200 ? "12.5" : Integer.toString(i % 100);
+            String code = i == 1800 ? "A12" : Integer.toString(i);
+            content.append(i == 2400 ? "10000000000" : Integer.toString(i)).append(',')
+                    .append(i % 13 == 0 ? "" : montant).append(',')
+                    .append(i % 2 == 0 ? "Paris" : "Lyon").append(',')
+                    .append(code).append('\n');
+        }
+        Files.write(tempFile, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Teste que les lots ont tous le schéma déduit de tout le fichier et qu'ensemble ils redonnent le fichier
+     */
+    @Test
+    public void testBatchesShareInferredSchema() throws IOException {
+        writeFile();
+        DataFrame whole = DataFrame.fromCSV(tempFile.toString());
+        List<Integer> sizes = new ArrayList<>();
+        int offset = 0;
+        try (CsvBatchIterator batches = DataFrame.scanCSV(tempFile.toString(), 1000)) {
+            assertEquals(Long.class, batches.getSchema().get("id"));
+            assertEquals(Double.class, batches.getSchema().get("montant"));
+            assertEquals(String.class, batches.getSchema().get("code"));
+            while (batches.hasNext()) {
+                DataFrame batch = batches.next();
+                sizes.add(batch.getRowCount());
+                assertEquals(whole.getColumnNames(), batch.getColumnNames());
+                for (String name : whole.getColumnNames()) {
+                    assertEquals(whole.getColumn(name).getDataType(), batch.getColumn(name).getDataType());
+                    assertEquals(whole.getColumn(name).slice(offset, offset + batch.getRowCount()).getValues(),
+                            batch.getColumn(name).getValues());
+                }
+                offset += batch.getRowCount();
+            }
+        }
+        assertEquals(Arrays.asList(1000, 1000, 500), sizes);
+    }
+
+    /**
+     * Teste une agrégation lot par lot à travers le flux des lots
+     */
+    @Test
+    public void testStreamAggregation() throws IOException {
+        writeFile();
+        DataFrameStatistics stats = new DataFrameStatistics();
+        Selection selection = new Selection();
+        double total;
+        long rows;
+        try (CsvBatchIterator batches = DataFrame.scanCSV(tempFile.toString(), 300)) {
+            List<DataFrame> paris = new ArrayList<>();
+            batches.stream().forEach(batch -> paris.add(
+                    selection.filterByMask(batch, selection.createBooleanMask(batch, "ville", "==", "Paris"))));
+            total = 0;
+            rows = 0;
+            for (DataFrame batch : paris) {
+                DataColumn<?> montant = batch.getColumn("montant");
+                Double mean = stats.mean(montant);
+                long count = montant.stats().getCount();
+                total += mean == null ? 0 : mean * count;
+                rows += batch.getRowCount();
+            }
+        }
+        assertEquals(1250, rows);
+        DataFrame whole = DataFrame.fromCSV(tempFile.toString());
+        DataFrame paris = selection.filterByMask(whole, selection.createBooleanMask(whole, "ville", "==", "Paris"));
+        assertEquals(paris.getColumn("montant").stats().getSum(), total, 1e-6);
+    }
+
+    /**
+     * Teste un schéma entièrement déclaré, et le refus d'une valeur qui ne lui correspond pas
+     */
+    @Test
+    public void testDeclaredSchema() throws IOException {
+        writeFile();
+        Map<String, Class<?>> schema = new HashMap<>();
+        schema.put("id", Long.class);
+        schema.put("montant", Double.class);
+        schema.put("ville", String.class);
+        schema.put("code", Integer.class);
+        try (CsvBatchIterator batches = DataFrame.scanCSV(tempFile.toString(), 1000, schema)) {
+            DataFrame first = batches.next();
+            assertEquals(Integer.class, first.getColumn("code").getDataType());
+            assertEquals(Double.class, first.getColumn("montant").getDataType());
+            try {
+                batches.next();
+                fail("La valeur A12 ne correspond pas au type Integer déclaré");
+            } catch (IllegalArgumentException e) {
+                assertFalse(batches.hasNext());
+            }
+        }
+    }
+
+    /**
+     * Teste la fin de la lecture et les arguments invalides
+     */
+    @Test
+    public void testInvalidArguments() throws IOException {
+        Files.write(tempFile, "a,b\n1,2\n".getBytes(StandardCharsets.UTF_8));
+        try (CsvBatchIterator batches = DataFrame.scanCSV(tempFile.toString(), 10)) {
+            assertEquals(1, batches.next().getRowCount());
+            assertFalse(batches.hasNext());
+            try {
+                batches.next();
+                fail();
+            } catch (NoSuchElementException e) {
+                // attendu
+            }
+        }
+        try {
+            DataFrame.scanCSV(tempFile.toString(), 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // attendu
+        }
+        try {
+            DataFrame.scanCSV(tempFile.toString(), 10, Collections.singletonMap("c", Integer.class));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // attendu
+        }
+    }
+
+    /**
+     * Teste l'exception lors de la lecture d'un fichier vide
+     */
+    @Test(expected = IOException.class)
+    public void testEmptyFile() throws IOException {
+        DataFrame.scanCSV(tempFile.toString(), 10);
+    }
+}
@@ -0,0 +1,165 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Classe de test pour la classe CsvReader
+ */
+public class CsvReaderTest {
+    /**
+     * Fichier temporaire pour les tests
+     */
+    private Path tempFile;
+
+    /**
+     * Méthode exécutée avant chaque test pour créer le fichier temporaire
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("reader", ".csv");
+    }
+
+    /**
+     * Méthode exécutée après chaque test pour supprimer le fichier temporaire
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Ouvre un lecteur sur un contenu donné avec un tampon volontairement petit
+     *
+     * @param content Le contenu du fichier
+     * @param bufferSize La taille initiale du tampon
+     * @return Le lecteur
+     */
+    private CsvReader open(String content, int bufferSize) throws IOException {
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        return new CsvReader(FileChannel.open(tempFile, StandardOpenOption.READ), bufferSize);
+    }
+
+    /**
+     * Test du découpage des champs avec espaces et fins de ligne Windows
+     */
+    @Test
+    public void testSimpleRecords() throws IOException {
+        try (CsvReader reader = open("a, b ,c\r\n1,,3", 4)) {
+            assertTrue(reader.nextRecord());
+            assertEquals(3, reader.fieldCount());
+            assertEquals("b", reader.getString(1));
+            assertEquals("c", reader.getString(2));
+            assertTrue(reader.nextRecord());
+            assertTrue("Un champ vide devrait être détecté", reader.isEmpty(1));
+            assertTrue("Un champ absent devrait être vide", reader.isEmpty(5));
+            assertEquals("3", reader.getString(2));
+            assertFalse(reader.nextRecord());
+        }
+    }
+
+    /**
+     * Test des champs entre guillemets (virgules, retours à la ligne et guillemets doublés)
+     */
+    @Test
+    public void testQuotedFields() throws IOException {
+        try (CsvReader reader = open("nom,desc\n\"Dupont, Jean\",\"ligne 1\nligne 2\"\n\"dit \"\"Jo\"\"\",  \" x \"\n", 8)) {
+            assertTrue(reader.nextRecord());
+            assertTrue(reader.nextRecord());
+            assertEquals("Dupont, Jean", reader.getString(0));
+            assertEquals("ligne 1\nligne 2", reader.getString(1));
+            assertTrue(reader.nextRecord());
+            assertEquals("dit \"Jo\"", reader.getString(0));
+            assertEquals("Les espaces entre guillemets devraient être conservés", " x ", reader.getString(1));
+            assertFalse(reader.nextRecord());
+        }
+    }
+
+    /**
+     * Test de la détection d'une ligne vide
+     */
+    @Test
+    public void testBlankRecord() throws IOException {
+        try (CsvReader reader = open("a\n  \nb\n", 16)) {
+            assertTrue(reader.nextRecord());
+            assertFalse(reader.isBlankRecord());
+            assertTrue(reader.nextRecord());
+            assertTrue(reader.isBlankRecord());
+        }
+    }
+
+    /**
+     * Test de la conversion des entiers sans passer par une chaîne
+     */
+    @Test
+    public void testParseLong() throws IOException {
+        try (CsvReader reader = open("42,-7,+3,9223372036854775807,-9223372036854775808,9223372036854775808,1.5,abc,-", 16)) {
+            assertTrue(reader.nextRecord());
+            assertTrue(reader.parseLong(0));
+            assertEquals(42L, reader.longValue());
+            assertTrue(reader.parseLong(1));
+            assertEquals(-7L, reader.longValue());
+            assertTrue(reader.parseLong(2));
+            assertEquals(3L, reader.longValue());
+            assertTrue(reader.parseLong(3));
+            assertEquals(Long.MAX_VALUE, reader.longValue());
+            assertTrue(reader.parseLong(4));
+            assertEquals(Long.MIN_VALUE, reader.longValue());
+            assertFalse("Un dépassement de capacité ne devrait pas être un entier", reader.parseLong(5));
+            assertFalse(reader.parseLong(6));
+            assertFalse(reader.parseLong(7));
+            assertFalse(reader.parseLong(8));
+        }
+    }
+
+    /**
+     * Test de la conversion des doubles, comparée à Double.parseDouble
+     */
+    @Test
+    public void testParseDouble() throws IOException {
+        String[] values = {"0", "-0.0", "10.50", ".5", "1.", "1e3", "2.5E-3", "123456789.123456789",
+            "0.1", "1e400", "4.9e-324", "NaN", "-Infinity", "3.14159265358979323846"};
+        try (CsvReader reader = open(String.join(",", values) + ",1e,.,abc,1.5.2", 16)) {
+            assertTrue(reader.nextRecord());
+            for (int i = 0; i < values.length; i++) {
+                assertTrue("Le champ " + values[i] + " devrait être un nombre", reader.parseDouble(i));
+                assertEquals(values[i], Double.parseDouble(values[i]), reader.doubleValue(), 0.0);
+            }
+            for (int i = values.length; i < reader.fieldCount(); i++) {
+                assertFalse("Le champ " + reader.getString(i) + " ne devrait pas être un nombre", reader.parseDouble(i));
+            }
+        }
+    }
+
+    /**
+     * Test de l'exactitude de la conversion sur des valeurs aléatoires
+     */
+    @Test
+    public void testParseDoubleRandom() throws IOException {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        String[] values = new String[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? Double.toString(random.nextDouble() * 1000)
+                : String.format(Locale.US, "%.4f", random.nextGaussian());
+            content.append(values[i]).append('\n');
+        }
+        try (CsvReader reader = open(content.toString(), 64)) {
+            for (String value : values) {
+                assertTrue(reader.nextRecord());
+                assertTrue(reader.parseDouble(0));
+                assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(reader.doubleValue()));
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package projet_devops;
 import static org.junit.Assert.*;
 import org.junit.Test;
 import org.junit.Before;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -148,4 +150,187 @@ public class DataColumnTest {
         assertEquals("La deuxième valeur devrait être 'B'", "B", column.get(1));
         assertEquals("La troisième valeur devrait être 'C'", "C", column.get(2));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test des accesseurs primitifs sur une colonne Integer
+     */
+    @Test
+    public void testPrimitiveIntAccessors() {
+        intColumn.add(7);
+        intColumn.add(null);
+        intColumn.add(-3);
+
+        assertEquals("La première valeur devrait être 7", 7, intColumn.getInt(0));
+        assertEquals("La troisième valeur devrait être -3", -3L, intColumn.getLong(2));
+        assertEquals("La conversion en double devrait être exacte", 7.0, intColumn.getDouble(0), 0.0);
+        assertFalse("La première valeur ne devrait pas être nulle", intColumn.isNull(0));
+        assertTrue("La deuxième valeur devrait être nulle", intColumn.isNull(1));
+        assertEquals("Une valeur nulle devrait être lue comme 0", 0, intColumn.getInt(1));
+    }
+
+    /**
+     * Test du stockage des colonnes Long et Double
+     */
+    @Test
+    public void testLongAndDoubleColumns() {
+        DataColumn<Long> longColumn = new DataColumn<>("longs", Long.class);
+        longColumn.add(10_000_000_000L);
+        longColumn.add(null);
+        DataColumn<Double> doubleColumn = new DataColumn<>("doubles", Double.class, List.of(1.5, 2.5));
+
+        assertEquals(Long.valueOf(10_000_000_000L), longColumn.get(0));
+        assertNull("La deuxième valeur devrait être nulle", longColumn.get(1));
+        assertEquals(10_000_000_000L, longColumn.getLong(0));
+        assertEquals(Double.valueOf(2.5), doubleColumn.get(1));
+        assertEquals(1.5, doubleColumn.getDouble(0), 0.0);
+        assertTrue("Une colonne Long devrait être numérique", longColumn.isNumeric());
+        assertFalse("Une colonne String ne devrait pas être numérique", stringColumn.isNumeric());
+    }
+
+    /**
+     * Test d'un grand nombre de valeurs avec des nulls dispersés
+     */
+    @Test
+    public void testManyValuesWithNulls() {
+        for (int i = 0; i < 1000; i++) {
+            intColumn.add(i % 7 == 0 ? null : i);
+        }
+
+        assertEquals(1000, intColumn.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("Nullité incorrecte à l'index " + i, i % 7 == 0, intColumn.isNull(i));
+            if (i % 7 != 0) {
+                assertEquals(Integer.valueOf(i), intColumn.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test d'un accesseur primitif sur une colonne non numérique
+     *
+     * @throws UnsupportedOperationException si la colonne n'est pas numérique
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetDoubleOnStringColumn() {
+        stringColumn.add("A");
+        stringColumn.getDouble(0);
+    }
+
+    /**
+     * Test d'un accesseur primitif à un index trop grand
+     *
+     * @throws IndexOutOfBoundsException si l'index est en dehors des limites de la colonne
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetIntTooLargeIndex() {
+        intColumn.add(1);
+        intColumn.getInt(1);
+    }
+
+    /**
+     * Test de la vue en lecture seule sur les valeurs
+     */
+    @Test
+    public void testValuesView() {
+        stringColumn.add("A");
+        List<String> view = stringColumn.valuesView();
+        stringColumn.add("B");
+
+        assertEquals("La vue devrait suivre les ajouts dans la colonne", 2, view.size());
+        assertEquals("B", view.get(1));
+    }
+
+    /**
+     * Test de la modification de la vue en lecture seule
+     *
+     * @throws UnsupportedOperationException si on tente de modifier la vue
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testValuesViewIsReadOnly() {
+        stringColumn.add("A");
+        stringColumn.valuesView().add("B");
+    }
+
+    /**
+     * Test de l'exposition du tableau primitif en lecture seule
+     */
+    @Test
+    public void testAsIntBuffer() {
+        intColumn.add(1);
+        intColumn.add(null);
+        intColumn.add(3);
+        IntBuffer buffer = intColumn.asIntBuffer();
+
+        assertTrue("Le tampon devrait être en lecture seule", buffer.isReadOnly());
+        assertEquals(3, buffer.remaining());
+        assertEquals(1, buffer.get(0));
+        assertEquals(3, buffer.get(2));
+    }
+
+    /**
+     * Test de l'exposition d'un tableau primitif d'un autre type
+     *
+     * @throws UnsupportedOperationException si la colonne n'a pas le type demandé
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAsDoubleBufferOnIntColumn() {
+        intColumn.asDoubleBuffer();
+    }
+
+    /**
+     * Test d'une vue sur une plage de lignes : elle partage les valeurs sans les copier
+     */
+    @Test
+    public void testSlice() {
+        for (int i = 0; i < 100; i++) {
+            intColumn.add(i % 9 == 0 ? null : i);
+        }
+        DataColumn<Integer> slice = intColumn.slice(10, 20);
+
+        assertEquals(10, slice.size());
+        assertEquals("nombres", slice.getColumnName());
+        assertEquals(Integer.valueOf(10), slice.get(0));
+        assertTrue(slice.isNull(8)); // ligne 18
+        assertEquals(19, slice.getInt(9));
+        assertTrue("La vue ne doit pas copier les valeurs", slice.getStorage().isShared());
+        assertEquals(15, slice.slice(5, 10).getInt(0));
+        assertEquals(19, slice.asIntBuffer().get(9));
+
+        intColumn.add(1000);
+        assertEquals("Les ajouts au parent ne changent pas la vue", 10, slice.size());
+    }
+
+    /**
+     * Test de la copie sur écriture d'une vue
+     */
+    @Test
+    public void testSliceCopyOnWrite() {
+        stringColumn.add("A");
+        stringColumn.add("B");
+        stringColumn.add(null);
+        DataColumn<String> slice = stringColumn.slice(1, 3);
+
+        slice.add("C");
+        assertFalse(slice.getStorage().isShared());
+        assertEquals(Arrays.asList("B", null, "C"), slice.getValues());
+        assertEquals("Le parent ne doit pas être modifié", 3, stringColumn.size());
+
+        DataColumn<Double> doubles = new DataColumn<>("prix", Double.class, Arrays.asList(1.5, null, 2.5));
+        DataColumn<Double> doubleSlice = doubles.slice(1, 3);
+        doubleSlice.add(4.0);
+        assertTrue(doubleSlice.isNull(0));
+        assertEquals(4.0, doubleSlice.getDouble(2), 0.0);
+        assertEquals(3, doubles.size());
+    }
+
+    /**
+     * Test d'une plage invalide
+     *
+     * @throws IndexOutOfBoundsException si la plage dépasse la colonne
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSliceOutOfBounds() {
+        intColumn.add(1);
+        intColumn.slice(0, 2);
+    }
+}
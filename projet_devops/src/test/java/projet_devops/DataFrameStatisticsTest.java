@@ -6,6 +6,11 @@ import org.junit.After;
 import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 public class DataFrameStatisticsTest {
     private DataFrameStatistics stats;
@@ -142,4 +147,216 @@ public class DataFrameStatisticsTest {
         
         assertNull("Standard deviation should be null for non-numeric column", stats.standardDeviation(column));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDescribe() {
+        DataFrame df = new DataFrame();
+        DataColumn<Integer> ages = new DataColumn<>("age", Integer.class);
+        ages.add(10);
+        ages.add(null);
+        ages.add(30);
+        DataColumn<String> names = new DataColumn<>("nom", String.class);
+        names.add("A");
+        names.add("B");
+        names.add("C");
+        df.addColumn(ages);
+        df.addColumn(names);
+
+        DataFrame summary = stats.describe(df);
+        assertEquals("Seule la colonne numérique doit être décrite", 2, summary.getColumnCount());
+        assertEquals(7, summary.getRowCount());
+        assertEquals("count", summary.getColumn("statistique").get(0));
+        DataColumn<?> age = summary.getColumn("age");
+        assertEquals(2.0, age.getDouble(0), 0.0);
+        assertEquals(1.0, age.getDouble(1), 0.0);
+        assertEquals(20.0, age.getDouble(2), 1e-12);
+        assertEquals(100.0, age.getDouble(3), 1e-9);
+        assertEquals(10.0, age.getDouble(4), 1e-9);
+        assertEquals(10.0, age.getDouble(5), 0.0);
+        assertEquals(30.0, age.getDouble(6), 0.0);
+        assertTrue("describe ne doit rien afficher", outContent.toString().isEmpty());
+    }
+
+    @Test
+    public void testDescribeEmptyColumn() {
+        DataFrame df = new DataFrame();
+        DataColumn<Double> column = new DataColumn<>("vide", Double.class);
+        column.add(null);
+        df.addColumn(column);
+
+        DataColumn<?> summary = stats.describe(df).getColumn("vide");
+        assertEquals(0.0, summary.getDouble(0), 0.0);
+        assertEquals(1.0, summary.getDouble(1), 0.0);
+        assertNull("La moyenne d'une colonne sans valeur doit être null", summary.get(2));
+        assertNull(summary.get(6));
+    }
+
+    @Test
+    public void testDescribeWideFrameMatchesColumnStatistics() {
+        DataFrame df = new DataFrame();
+        Random random = new Random(3);
+        for (int c = 0; c < 20; c++) {
+            DataColumn<Double> column = new DataColumn<>("c" + c, Double.class);
+            for (int i = 0; i < 1000; i++) {
+                column.add(random.nextInt(10) == 0 ? null : random.nextGaussian() * (c + 1));
+            }
+            df.addColumn(column);
+        }
+
+        DataFrame summary = stats.describe(df);
+        assertEquals(21, summary.getColumnCount());
+        for (int c = 0; c < 20; c++) {
+            DataColumn<?> source = df.getColumn("c" + c);
+            DataColumn<?> described = summary.getColumn("c" + c);
+            assertEquals(stats.mean(source), described.getDouble(2), 1e-12);
+            assertEquals(stats.standardDeviation(source), described.getDouble(4), 1e-9);
+            assertEquals(stats.min(source), described.getDouble(5), 0.0);
+            assertEquals(stats.max(source), described.getDouble(6), 0.0);
+        }
+    }
+
+    @Test
+    public void testQuantile() {
+        DataColumn<Integer> column = new DataColumn<>("col", Integer.class);
+        for (int value : new int[] {7, 1, 3, 5, 9}) {
+            column.add(value);
+        }
+        column.add(null);
+
+        assertEquals(1.0, stats.quantile(column, 0.0), 0.0);
+        assertEquals(3.0, stats.quantile(column, 0.25), 0.0);
+        assertEquals(5.0, stats.quantile(column, 0.5), 0.0);
+        assertEquals(9.0, stats.quantile(column, 1.0), 0.0);
+        assertEquals("Interpolation linéaire entre 3 et 5", 4.0, stats.quantile(column, 0.375), 1e-12);
+    }
+
+    @Test
+    public void testQuantilesMatchSortedValues() {
+        Random random = new Random(8);
+        for (int size : new int[] {1, 2, 17, 1000, 20001}) {
+            DataColumn<Double> column = new DataColumn<>("col", Double.class);
+            List<Double> sorted = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                // Beaucoup de doublons pour exercer la partition à trois voies
+                double value = random.nextInt(50) - 25;
+                column.add(value);
+                sorted.add(value);
+            }
+            Collections.sort(sorted);
+
+            double[] qs = {0.9, 0.0, 0.5, 0.01, 1.0, 0.333};
+            double[] result = stats.quantiles(column, qs);
+            for (int i = 0; i < qs.length; i++) {
+                double position = qs[i] * (size - 1);
+                double lower = sorted.get((int) Math.floor(position));
+                double upper = sorted.get((int) Math.ceil(position));
+                double expected = lower + (upper - lower) * (position - Math.floor(position));
+                assertEquals("q=" + qs[i] + " n=" + size, expected, result[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testMedianEvenCountAndSortedInput() {
+        DataColumn<Long> column = new DataColumn<>("col", Long.class);
+        for (long i = 0; i < 100000; i++) {
+            column.add(i);
+        }
+        assertEquals(49999.5, stats.median(column), 0.0);
+    }
+
+    @Test
+    public void testQuantileWithNaN() {
+        DataColumn<Double> column = new DataColumn<>("col", Double.class);
+        column.add(Double.NaN);
+        column.add(2.0);
+        column.add(1.0);
+        assertEquals(2.0, stats.median(column), 0.0);
+        assertTrue("NaN est considéré comme la plus grande valeur", Double.isNaN(stats.quantile(column, 1.0)));
+    }
+
+    @Test
+    public void testQuantileNullCases() {
+        DataColumn<String> text = new DataColumn<>("col", String.class);
+        text.add("a");
+        assertNull(stats.quantile(text, 0.5));
+        DataColumn<Double> empty = new DataColumn<>("col", Double.class);
+        empty.add(null);
+        assertNull(stats.quantiles(empty, new double[] {0.5}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileOutOfRange() {
+        DataColumn<Double> column = new DataColumn<>("col", Double.class);
+        column.add(1.0);
+        stats.quantile(column, 1.5);
+    }
+
+    @Test
+    public void testStatisticsAreCachedUntilColumnChanges() {
+        DataColumn<Integer> column = new DataColumn<>("col", Integer.class, Arrays.asList(4, null, 8));
+        assertEquals(6.0, stats.mean(column), 0.0);
+        assertSame("Une colonne inchangée ne doit pas être reparcourue", column.stats(), column.stats());
+
+        column.add(12);
+        column.add(null);
+        assertEquals(8.0, stats.mean(column), 1e-12);
+        assertEquals(12.0, stats.max(column), 0.0);
+        assertEquals(4.0, stats.min(column), 0.0);
+        assertEquals(2, column.stats().getNullCount());
+
+        column.addAll(Arrays.asList(-2, null));
+        assertEquals(-2.0, stats.min(column), 0.0);
+        assertEquals(3, column.stats().getNullCount());
+        assertEquals(Math.sqrt(ColumnStats.of(column.getStorage(), 0, column.size()).getVariance()),
+                stats.standardDeviation(column), 1e-12);
+    }
+
+    @Test
+    public void testCachedStatisticsMatchFreshScan() {
+        Random random = new Random(9);
+        DataColumn<Double> column = new DataColumn<>("col", Double.class);
+        for (int i = 0; i < 5000; i++) {
+            column.add(random.nextDouble() * 100);
+            if (i % 1000 == 0) {
+                // Calcul intermédiaire : la suite est mise à jour de façon incrémentale
+                stats.mean(column);
+            }
+        }
+        ColumnStats fresh = ColumnStats.of(column.getStorage(), 0, column.size());
+        assertEquals(fresh.getMean(), stats.mean(column), 1e-9);
+        assertEquals(fresh.getStandardDeviation(), stats.standardDeviation(column), 1e-9);
+        assertEquals(fresh.getMin(), stats.min(column));
+        assertEquals(fresh.getMax(), stats.max(column));
+    }
+
+    @Test
+    public void testParallelStatisticsMatchSequentialScan() {
+        Random random = new Random(21);
+        int rows = ColumnStats.PARALLEL_THRESHOLD * 3 + 123;
+        DataColumn<Double> doubles = new DataColumn<>("reel", Double.class);
+        DataColumn<Long> longs = new DataColumn<>("long", Long.class);
+        for (int i = 0; i < rows; i++) {
+            doubles.add(i % 101 == 0 ? null : 1e6 + random.nextGaussian() * 50);
+            longs.add((long) random.nextInt(1_000_000));
+        }
+        for (DataColumn<?> column : Arrays.<DataColumn<?>>asList(doubles, longs)) {
+            ColumnStats sequential = ColumnStats.scan(column.getStorage(), 0, column.size());
+            ColumnStats parallel = ColumnStats.of(column.getStorage(), 0, column.size());
+            assertEquals(sequential.getCount(), parallel.getCount());
+            assertEquals(sequential.getNullCount(), parallel.getNullCount());
+            assertEquals(sequential.getMean(), parallel.getMean(), 1e-9 * Math.abs(sequential.getMean()));
+            assertEquals(sequential.getStandardDeviation(), parallel.getStandardDeviation(),
+                    1e-9 * sequential.getStandardDeviation());
+            assertEquals(sequential.getMin(), parallel.getMin());
+            assertEquals(sequential.getMax(), parallel.getMax());
+            assertEquals(parallel.getMean(), stats.mean(column), 0.0);
+        }
+        assertEquals(rows / 101 + 1, doubles.stats().getNullCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStatsOnTextColumn() {
+        new DataColumn<>("col", String.class).stats();
+    }
+}
@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.io.FileWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Classe de test pour la classe DataFrame
@@ -243,4 +245,205 @@ public class DataFrameTest {
         assertNull("La deuxième valeur devrait être null", dfFromCsv.getColumn("valeur").get(1));
         assertEquals("La troisième valeur devrait être 20.30", Double.valueOf(20.30), dfFromCsv.getColumn("valeur").get(2));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test de la détection d'une colonne d'entiers dépassant la capacité d'un Integer
+     */
+    @Test
+    public void testLongColumnType() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("id,valeur\n");
+            writer.write("1,10000000000\n");
+            writer.write("2,\n");
+            writer.write("3,42\n");
+        }
+
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        assertEquals("La colonne 'valeur' devrait être de type Long", Long.class, dfFromCsv.getColumn("valeur").getDataType());
+        assertEquals(Long.valueOf(10000000000L), dfFromCsv.getColumn("valeur").get(0));
+        assertNull("La deuxième valeur devrait être null", dfFromCsv.getColumn("valeur").get(1));
+        assertEquals(42L, dfFromCsv.getColumn("valeur").getLong(2));
+    }
+
+    /**
+     * Test de l'élargissement du type d'une colonne au fil de la lecture
+     */
+    @Test
+    public void testTypePromotionWhileReading() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("entiers,decimaux,textes\n");
+            writer.write("1,1,10\n");
+            writer.write("2,2.5,10.50\n");
+            writer.write("3,,dix\n");
+        }
+
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        assertEquals(Integer.class, dfFromCsv.getColumn("entiers").getDataType());
+        assertEquals(Double.class, dfFromCsv.getColumn("decimaux").getDataType());
+        assertEquals("Une valeur lue avant l'élargissement devrait être convertie", Double.valueOf(1.0), dfFromCsv.getColumn("decimaux").get(0));
+        assertNull(dfFromCsv.getColumn("decimaux").get(2));
+        assertEquals(String.class, dfFromCsv.getColumn("textes").getDataType());
+        assertEquals("Les nombres déjà lus devraient garder le texte du fichier", "10", dfFromCsv.getColumn("textes").get(0));
+        assertEquals("10.50", dfFromCsv.getColumn("textes").get(1));
+        assertEquals("dix", dfFromCsv.getColumn("textes").get(2));
+    }
+
+    /**
+     * Test des codes à zéros en tête dans une colonne texte, que la valeur texte arrive avant ou après les nombres
+     */
+    @Test
+    public void testLeadingZeroCodesKeepText() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("code,ref,id\n");
+            writer.write("007,01234,1\n");
+            writer.write("A1,X9,2\n");
+            writer.write("+5,-0,3\n");
+        }
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        assertEquals(String.class, dfFromCsv.getColumn("code").getDataType());
+        assertEquals(Arrays.asList("007", "A1", "+5"), dfFromCsv.getColumn("code").getValues());
+        assertEquals(Arrays.asList("01234", "X9", "-0"), dfFromCsv.getColumn("ref").getValues());
+        assertEquals(Arrays.asList(1, 2, 3), dfFromCsv.getColumn("id").getValues());
+        assertEquals(Arrays.asList("007", "A1", "+5"), LazyFrame.scanCSV(tempFile.toString()).collect().getColumn("code").getValues());
+
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("code\nA1\n007\n01234\n");
+        }
+        assertEquals(Arrays.asList("A1", "007", "01234"), DataFrame.fromCSV(tempFile.toString()).getColumn("code").getValues());
+    }
+
+    /**
+     * Test d'une colonne ne contenant que des valeurs vides
+     */
+    @Test
+    public void testAllEmptyColumn() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("nom,vide\n");
+            writer.write("NomA,\n");
+            writer.write("NomB\n");
+        }
+
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        assertEquals(2, dfFromCsv.getRowCount());
+        assertEquals(Integer.class, dfFromCsv.getColumn("vide").getDataType());
+        assertTrue(dfFromCsv.getColumn("vide").isNull(1));
+    }
+
+    /**
+     * Test de la lecture d'un fichier vide
+     */
+    @Test(expected = IOException.class)
+    public void testEmptyFile() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("");
+        }
+        DataFrame.fromCSV(tempFile.toString());
+    }
+
+    /**
+     * Test de la lecture de champs entre guillemets contenant des virgules
+     */
+    @Test
+    public void testQuotedFieldsInCSV() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("nom,montant\n");
+            writer.write("\"Dupont, Jean\",\"12.5\"\n");
+            writer.write("Martin,3\n");
+        }
+
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        assertEquals("Dupont, Jean", dfFromCsv.getColumn("nom").get(0));
+        assertEquals(Double.class, dfFromCsv.getColumn("montant").getDataType());
+        assertEquals(12.5, dfFromCsv.getColumn("montant").getDouble(0), 0.0);
+    }
+
+    /**
+     * Test du découpage en vues successives
+     */
+    @Test
+    public void testSliceAndSplit() {
+        DataColumn<Integer> ids = new DataColumn<>("id", Integer.class);
+        DataColumn<String> labels = new DataColumn<>("label", String.class);
+        for (int i = 0; i < 10; i++) {
+            ids.add(i);
+            labels.add("l" + i);
+        }
+        DataFrame frame = new DataFrame();
+        frame.addColumn(ids);
+        frame.addColumn(labels);
+
+        DataFrame slice = frame.slice(3, 7);
+        assertEquals(4, slice.getRowCount());
+        assertEquals(Arrays.asList("id", "label"), slice.getColumnNames());
+        assertEquals("l3", slice.getColumn("label").get(0));
+        assertEquals(0, frame.slice(5, 5).getRowCount());
+
+        List<DataFrame> chunks = frame.split(4);
+        assertEquals(3, chunks.size());
+        assertEquals(2, chunks.get(2).getRowCount());
+        assertEquals(8, chunks.get(2).getColumn("id").getInt(0));
+    }
+
+    /**
+     * Test de l'encodage par dictionnaire des colonnes texte de faible cardinalité
+     */
+    @Test
+    public void testDictionaryEncodedStringColumns() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("nom,ville\n");
+            for (int i = 0; i < 2000; i++) {
+                writer.write("Nom" + i + "," + (i % 7 == 6 ? "" : i % 3 == 0 ? "Paris" : "Lyon") + "\n");
+            }
+        }
+
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        DataColumn<?> ville = dfFromCsv.getColumn("ville");
+        assertEquals(String.class, ville.getDataType());
+        assertTrue(ville.getStorage() instanceof DictionaryColumnStorage);
+        assertEquals(2, ((DictionaryColumnStorage) ville.getStorage()).dictionarySize());
+        assertEquals("Paris", ville.get(0));
+        assertEquals("Lyon", ville.get(1));
+        assertNull(ville.get(6));
+        assertSame("Les valeurs égales devraient partager la même chaîne", ville.get(0), ville.get(3));
+        assertTrue("Une colonne dont presque toutes les valeurs sont distinctes ne devrait pas être encodée",
+                dfFromCsv.getColumn("nom").getStorage() instanceof ObjectColumnStorage);
+        assertEquals("Nom1999", dfFromCsv.getColumn("nom").get(1999));
+
+        DataFrame slice = dfFromCsv.slice(0, 4);
+        assertEquals(Arrays.asList("Paris", "Lyon", "Lyon", "Paris"), slice.getColumn("ville").getValues());
+    }
+
+    /**
+     * Test du tri des lignes sur une et deux colonnes
+     */
+    @Test
+    public void testSortBy() throws IOException {
+        DataFrame dfFromCsv = DataFrame.fromCSV(tempFile.toString());
+        DataFrame byAge = dfFromCsv.sortBy("age", false);
+        assertEquals(Arrays.asList(35, 30, 25), byAge.getColumn("age").getValues());
+        assertEquals(Arrays.asList("NomC", "NomB", "NomA"), byAge.getColumn("nom").getValues());
+
+        DataFrame frame = new DataFrame();
+        frame.addColumn(new DataColumn<>("ville", String.class, Arrays.asList("Lyon", "Paris", null, "Lyon", "Paris")));
+        frame.addColumn(new DataColumn<>("salaire", Double.class, Arrays.asList(2000.0, 1500.0, 1800.0, null, 3000.0)));
+        DataFrame sorted = frame.sortBy(Arrays.asList("ville", "salaire"), new boolean[] {true, false}, true);
+        assertEquals(Arrays.asList(null, "Lyon", "Lyon", "Paris", "Paris"), sorted.getColumn("ville").getValues());
+        assertEquals(Arrays.asList(1800.0, null, 2000.0, 3000.0, 1500.0), sorted.getColumn("salaire").getValues());
+    }
+
+    /**
+     * Test d'un tri dont les sens ne correspondent pas aux colonnes
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByInvalidArguments() {
+        df.sortBy(Arrays.asList("a", "b"), new boolean[] {true}, false);
+    }
+
+    /**
+     * Test d'un découpage invalide
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitInvalidSize() {
+        df.split(0);
+    }
+}
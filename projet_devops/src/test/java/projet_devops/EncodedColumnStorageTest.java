@@ -0,0 +1,214 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe de test pour les colonnes compressées (classe EncodedColumnStorage)
+ */
+public class EncodedColumnStorageTest {
+    /**
+     * Opérateurs de comparaison testés sur les masques
+     */
+    private static final String[] OPERATORS = {">", "<", ">=", "<=", "==", "!="};
+
+    /**
+     * Vérifie qu'une colonne compressée a les mêmes valeurs, statistiques et masques que la colonne d'origine
+     */
+    private static <T> void assertSameColumn(DataColumn<T> column, DataColumn<T> compressed, Object[] bounds) {
+        assertTrue(compressed.isCompressed());
+        assertEquals(column.getValues(), compressed.getValues());
+        ColumnStats expected = ColumnStats.scan(column.getStorage(), 0, column.size());
+        ColumnStats actual = compressed.stats();
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getNullCount(), actual.getNullCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        if (expected.getCount() > 0) {
+            assertEquals(expected.getMean(), actual.getMean(), 1e-9 * Math.max(1, Math.abs(expected.getMean())));
+            assertEquals(expected.getVariance(), actual.getVariance(), 1e-6 * Math.max(1, expected.getVariance()));
+        }
+
+        DataFrame df = new DataFrame();
+        df.addColumn(column);
+        DataFrame encodedDf = new DataFrame();
+        encodedDf.addColumn(compressed);
+        Selection selection = new Selection();
+        for (Object bound : bounds) {
+            for (String operator : OPERATORS) {
+                assertEquals(operator + " " + bound,
+                        selection.createBooleanMask(df, column.getColumnName(), operator, bound),
+                        selection.createBooleanMask(encodedDf, column.getColumnName(), operator, bound));
+            }
+        }
+    }
+
+    /**
+     * Teste les identifiants triés, encodés par écart à une progression linéaire
+     */
+    @Test
+    public void testSortedIds() {
+        DataColumn<Integer> ids = new DataColumn<>("id", Integer.class);
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(1_000_000 + 3 * i);
+        }
+        DataColumn<Integer> compressed = ids.compress();
+        EncodedColumnStorage storage = (EncodedColumnStorage) compressed.getStorage();
+        assertEquals(EncodedColumnStorage.DELTA, storage.encoding(0));
+        assertTrue("Au moins 8 fois moins de mémoire", storage.encodedBytes() * 8 <= 4L * ids.size());
+        assertEquals(Integer.valueOf(1_000_000 + 3 * 54_321), compressed.get(54_321));
+        assertSameColumn(ids, compressed, new Object[] {999_999, 1_000_000, 1_150_001, 1_150_002, 2_000_000});
+    }
+
+    /**
+     * Teste des horodatages croissants irréguliers et des compteurs de faible amplitude, avec des valeurs nulles
+     */
+    @Test
+    public void testLongColumns() {
+        Random random = new Random(11);
+        DataColumn<Long> timestamps = new DataColumn<>("horodatage", Long.class);
+        DataColumn<Long> counters = new DataColumn<>("compteur", Long.class);
+        long time = 1_700_000_000_000L;
+        for (int i = 0; i < 50_000; i++) {
+            time += 1000 + random.nextInt(20);
+            timestamps.add(i % 997 == 0 ? null : time);
+            counters.add(i % 101 == 0 ? null : (long) random.nextInt(200));
+        }
+        DataColumn<Long> compressedTimes = timestamps.compress();
+        DataColumn<Long> compressedCounters = counters.compress();
+        assertTrue(((EncodedColumnStorage) compressedTimes.getStorage()).encodedBytes() * 4 <= 8L * timestamps.size());
+        assertTrue(((EncodedColumnStorage) compressedCounters.getStorage()).encodedBytes() * 6 <= 8L * counters.size());
+        assertSameColumn(timestamps, compressedTimes, new Object[] {1_700_000_000_000L, time / 2 + 850_000_000_000L, time});
+        assertSameColumn(counters, compressedCounters, new Object[] {-1L, 0L, 100L, 199L, 500L});
+    }
+
+    /**
+     * Teste une colonne faite de longues plages de valeurs identiques, encodée par plages
+     */
+    @Test
+    public void testRuns() {
+        Random random = new Random(2);
+        DataColumn<Integer> status = new DataColumn<>("statut", Integer.class);
+        int value = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (random.nextInt(300) == 0) {
+                value = random.nextInt(1_000_000);
+            }
+            status.add(value);
+        }
+        DataColumn<Integer> compressed = status.compress();
+        assertEquals(EncodedColumnStorage.RLE, ((EncodedColumnStorage) compressed.getStorage()).encoding(3));
+        assertSameColumn(status, compressed, new Object[] {0, value, 500_000});
+    }
+
+    /**
+     * Teste des valeurs quelconques, sur toute l'étendue des entiers, avec un bloc entièrement nul et un dernier bloc incomplet
+     */
+    @Test
+    public void testArbitraryValues() {
+        Random random = new Random(7);
+        DataColumn<Long> values = new DataColumn<>("valeur", Long.class);
+        for (int i = 0; i < 5000; i++) {
+            boolean nullBlock = i >= EncodedColumnStorage.BLOCK_SIZE && i < 2 * EncodedColumnStorage.BLOCK_SIZE;
+            values.add(nullBlock ? null : i % 3 == 0 ? Long.MIN_VALUE : i % 3 == 1 ? Long.MAX_VALUE : random.nextLong());
+        }
+        assertSameColumn(values, values.compress(), new Object[] {Long.MIN_VALUE, 0L, Long.MAX_VALUE});
+
+        DataColumn<Integer> ints = new DataColumn<>("entier", Integer.class, Arrays.asList(null, Integer.MIN_VALUE, 5, Integer.MAX_VALUE));
+        assertSameColumn(ints, ints.compress(), new Object[] {Integer.MIN_VALUE, 5, Integer.MAX_VALUE});
+        DataColumn<Integer> empty = new DataColumn<>("vide", Integer.class);
+        assertEquals(0, empty.compress().size());
+    }
+
+    /**
+     * Teste des colonnes Double à décimales fixes (prix) et quelconques, y compris NaN, infinis et -0.0
+     */
+    @Test
+    public void testDoubleColumns() {
+        Random random = new Random(3);
+        DataColumn<Double> prices = new DataColumn<>("prix", Double.class);
+        DataColumn<Double> measures = new DataColumn<>("mesure", Double.class);
+        for (int i = 0; i < 10_000; i++) {
+            prices.add(i % 50 == 0 ? null : random.nextInt(100_000) / 100.0);
+            measures.add(i == 5000 ? Double.NaN : i == 5001 ? -0.0 : i == 5002 ? Double.NEGATIVE_INFINITY : random.nextGaussian());
+        }
+        DataColumn<Double> compressedPrices = prices.compress();
+        assertTrue(((EncodedColumnStorage) compressedPrices.getStorage()).encodedBytes() * 3 <= 8L * prices.size());
+        assertSameColumn(prices, compressedPrices, new Object[] {0.0, 499.99, 500.0, 1000.0});
+
+        DataColumn<Double> compressedMeasures = measures.compress();
+        assertEquals(measures.getValues(), compressedMeasures.getValues());
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(compressedMeasures.getDouble(5001)));
+        DataFrame df = new DataFrame();
+        df.addColumn(measures);
+        DataFrame encodedDf = new DataFrame();
+        encodedDf.addColumn(compressedMeasures);
+        for (String operator : OPERATORS) {
+            for (double bound : new double[] {-1.5, 0.0, Double.NaN}) {
+                assertEquals(new Selection().createBooleanMask(df, "mesure", operator, bound),
+                        new Selection().createBooleanMask(encodedDf, "mesure", operator, bound));
+            }
+        }
+    }
+
+    /**
+     * Teste les statistiques d'une plage qui ne commence ni ne finit sur un bloc
+     */
+    @Test
+    public void testStatsOnPartialBlocks() {
+        DataColumn<Integer> column = new DataColumn<>("valeur", Integer.class);
+        for (int i = 0; i < 10_000; i++) {
+            column.add(i % 13 == 0 ? null : (i / 700) * 10);
+        }
+        EncodedColumnStorage storage = (EncodedColumnStorage) column.compress().getStorage();
+        ColumnStats expected = ColumnStats.scan(column.getStorage(), 1500, 7777);
+        ColumnStats actual = storage.stats(1500, 7777);
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getNullCount(), actual.getNullCount());
+        assertEquals(expected.getSum(), actual.getSum(), 1e-9);
+        assertEquals(expected.getVariance(), actual.getVariance(), 1e-9);
+        assertEquals(expected.getSum(), column.compress().slice(1500, 7777).stats().getSum(), 1e-9);
+    }
+
+    /**
+     * Teste qu'une colonne compressée est décompressée avant d'être modifiée, et les opérations qui la copient
+     */
+    @Test
+    public void testCopyOnWrite() {
+        DataFrame df = new DataFrame();
+        DataColumn<Integer> ids = new DataColumn<>("id", Integer.class);
+        DataColumn<String> names = new DataColumn<>("nom", String.class);
+        for (int i = 0; i < 3000; i++) {
+            ids.add(i % 100 == 0 ? null : 3000 - i);
+            names.add("n" + i);
+        }
+        df.addColumn(ids);
+        df.addColumn(names);
+        DataFrame compressed = df.compress();
+        assertTrue(compressed.getColumn("id").isCompressed());
+        assertFalse(compressed.getColumn("nom").isCompressed());
+
+        DataFrame sorted = compressed.sortBy("id", true);
+        assertEquals(df.sortBy("id", true).getColumn("id").getValues(), sorted.getColumn("id").getValues());
+        assertEquals(Integer.valueOf(10), compressed.slice(2980, 3000).getColumn("id").get(10));
+
+        @SuppressWarnings("unchecked")
+        DataColumn<Integer> column = (DataColumn<Integer>) compressed.getColumn("id");
+        column.add(-1);
+        assertFalse(column.isCompressed());
+        assertEquals(3001, column.size());
+        assertNull(column.get(0));
+        assertEquals(Integer.valueOf(-1), column.get(3000));
+        assertTrue("La colonne d'origine n'est pas modifiée", ids.size() == 3000);
+    }
+
+    /**
+     * Teste l'exception lors de la compression d'une colonne non numérique
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        new DataColumn<>("nom", String.class, Arrays.asList("a", "b")).compress();
+    }
+}
@@ -0,0 +1,134 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Classe de test pour la classe GroupBy
+ */
+public class GroupByTest {
+    private DataFrame df;
+
+    /**
+     * Crée un DataFrame de ventes par ville et par produit
+     */
+    @Before
+    public void setUp() {
+        DictionaryColumnStorage villes = new DictionaryColumnStorage();
+        for (String ville : new String[] {"Paris", "Lyon", "Paris", null, "Lyon", "Paris", null}) {
+            villes.add(ville);
+        }
+        df = new DataFrame();
+        df.addColumn(new DataColumn<>("ville", String.class, villes));
+        df.addColumn(new DataColumn<>("produit", Integer.class, Arrays.asList(1, 2, 1, 1, 2, 2, 1)));
+        df.addColumn(new DataColumn<>("montant", Double.class, Arrays.asList(10.0, 5.0, 30.0, 7.0, null, 2.0, 1.0)));
+        df.addColumn(new DataColumn<>("quantite", Long.class, Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L)));
+    }
+
+    /**
+     * Teste toutes les fonctions d'agrégation sur une clé, avec des valeurs nulles
+     */
+    @Test
+    public void testAggregateOneKey() {
+        DataFrame result = df.groupBy("ville").agg("montant", Aggregation.values());
+
+        assertEquals(Arrays.asList("ville", "montant_count", "montant_sum", "montant_mean", "montant_min", "montant_max", "montant_std"),
+                result.getColumnNames());
+        assertEquals("Les groupes suivent l'ordre de leur première ligne", Arrays.asList("Paris", "Lyon", null),
+                result.getColumn("ville").getValues());
+        assertEquals(Arrays.asList(3L, 1L, 2L), result.getColumn("montant_count").getValues());
+        assertEquals(Arrays.asList(42.0, 5.0, 8.0), result.getColumn("montant_sum").getValues());
+        assertEquals(14.0, result.getColumn("montant_mean").getDouble(0), 1e-12);
+        assertEquals(2.0, result.getColumn("montant_min").getDouble(0), 0.0);
+        assertEquals(30.0, result.getColumn("montant_max").getDouble(0), 0.0);
+        assertEquals(Math.sqrt((16.0 + 256.0 + 144.0) / 3), result.getColumn("montant_std").getDouble(0), 1e-12);
+        assertEquals(0.0, result.getColumn("montant_std").getDouble(1), 0.0);
+    }
+
+    /**
+     * Teste un regroupement sur deux colonnes clés et l'agrégation de plusieurs colonnes
+     */
+    @Test
+    public void testAggregateSeveralKeysAndColumns() {
+        DataFrame result = df.groupBy("ville", "produit").agg(Arrays.asList("montant", "quantite"), Aggregation.SUM, Aggregation.MAX);
+
+        assertEquals(Arrays.asList("ville", "produit", "montant_sum", "montant_max", "quantite_sum", "quantite_max"),
+                result.getColumnNames());
+        assertEquals(4, result.getRowCount());
+        assertEquals(Arrays.asList("Paris", "Lyon", null, "Paris"), result.getColumn("ville").getValues());
+        assertEquals(Arrays.asList(1, 2, 1, 2), result.getColumn("produit").getValues());
+        assertEquals(Arrays.asList(40.0, 5.0, 8.0, 2.0), result.getColumn("montant_sum").getValues());
+        assertEquals(Arrays.asList(4.0, 7.0, 11.0, 6.0), result.getColumn("quantite_sum").getValues());
+        assertEquals(5.0, result.getColumn("montant_max").getDouble(1), 0.0);
+
+        DataFrame byQuantity = df.groupBy("quantite").agg("montant", Aggregation.SUM, Aggregation.MEAN);
+        assertEquals("Un groupe sans valeur a une somme nulle", 0.0, byQuantity.getColumn("montant_sum").getDouble(4), 0.0);
+        assertNull("et une moyenne nulle", byQuantity.getColumn("montant_mean").get(4));
+    }
+
+    /**
+     * Teste que l'agrégation parallèle d'un grand DataFrame donne le même résultat qu'un calcul direct
+     */
+    @Test
+    public void testParallelAggregationMatchesDirectComputation() {
+        int rows = GroupBy.PARALLEL_THRESHOLD * 3;
+        Random random = new Random(16);
+        DataColumn<String> keys = new DataColumn<>("cle", String.class);
+        DataColumn<Double> values = new DataColumn<>("valeur", Double.class);
+        Map<String, double[]> expected = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            String key = "k" + random.nextInt(1000);
+            double value = random.nextGaussian() * 100;
+            keys.add(key);
+            values.add(value);
+            double[] state = expected.computeIfAbsent(key, k -> new double[] {0, 0, Double.POSITIVE_INFINITY});
+            state[0]++;
+            state[1] += value;
+            state[2] = Math.min(state[2], value);
+        }
+        DataFrame large = new DataFrame();
+        large.addColumn(keys);
+        large.addColumn(values);
+
+        DataFrame result = large.groupBy("cle").agg("valeur", Aggregation.COUNT, Aggregation.SUM, Aggregation.MIN);
+        assertEquals(expected.size(), result.getRowCount());
+        assertEquals(keys.get(0), result.getColumn("cle").get(0));
+        List<?> names = result.getColumn("cle").getValues();
+        for (int g = 0; g < names.size(); g++) {
+            double[] state = expected.get(names.get(g));
+            assertEquals((long) state[0], result.getColumn("valeur_count").getLong(g));
+            assertEquals(state[1], result.getColumn("valeur_sum").getDouble(g), 1e-6);
+            assertEquals(state[2], result.getColumn("valeur_min").getDouble(g), 0.0);
+        }
+    }
+
+    /**
+     * Teste l'exception lors d'un regroupement sur une colonne inexistante
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKeyColumn() {
+        df.groupBy("pays");
+    }
+
+    /**
+     * Teste l'exception lors de l'agrégation d'une colonne non numérique
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonNumericColumn() {
+        df.groupBy("produit").agg("ville", Aggregation.COUNT);
+    }
+
+    /**
+     * Teste l'exception lors d'un regroupement sans colonne
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoKeyColumn() {
+        df.groupBy();
+    }
+}
@@ -0,0 +1,188 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe de test pour la jointure de DataFrames (classe HashJoin)
+ */
+public class HashJoinTest {
+    private DataFrame clients;
+    private DataFrame commandes;
+
+    /**
+     * Crée un DataFrame de clients et un DataFrame de commandes
+     */
+    @Before
+    public void setUp() {
+        clients = new DataFrame();
+        clients.addColumn(new DataColumn<>("id", Integer.class, Arrays.asList(1, 2, 3, null)));
+        clients.addColumn(new DataColumn<>("nom", String.class, Arrays.asList("Alice", "Bob", "Charlie", "Inconnu")));
+
+        commandes = new DataFrame();
+        commandes.addColumn(new DataColumn<>("id", Long.class, Arrays.asList(2L, 1L, 2L, 4L, null)));
+        commandes.addColumn(new DataColumn<>("montant", Double.class, Arrays.asList(20.0, 10.0, 25.0, 40.0, 50.0)));
+        commandes.addColumn(new DataColumn<>("nom", String.class, Arrays.asList("c1", "c2", "c3", "c4", "c5")));
+    }
+
+    /**
+     * Teste une jointure interne : plusieurs correspondances par clé, clés nulles ignorées, colonne homonyme suffixée
+     */
+    @Test
+    public void testInnerJoin() {
+        DataFrame result = clients.join(commandes, JoinType.INNER, "id");
+
+        assertEquals(Arrays.asList("id", "nom", "montant", "nom" + HashJoin.RIGHT_SUFFIX), result.getColumnNames());
+        assertEquals(3, result.getRowCount());
+        assertEquals("Les lignes suivent l'ordre du plus grand DataFrame", Arrays.asList(2, 1, 2), result.getColumn("id").getValues());
+        assertEquals(Arrays.asList("Bob", "Alice", "Bob"), result.getColumn("nom").getValues());
+        assertEquals(Arrays.asList(20.0, 10.0, 25.0), result.getColumn("montant").getValues());
+        assertEquals(Arrays.asList("c1", "c2", "c3"), result.getColumn("nom_droite").getValues());
+    }
+
+    /**
+     * Teste qu'une colonne de droite renommée ne remplace jamais une colonne déjà nommée avec le suffixe
+     */
+    @Test
+    public void testSuffixedNameAlreadyTaken() {
+        clients.addColumn(new DataColumn<>("nom_droite", String.class, Arrays.asList("a", "b", "c", "d")));
+        clients.addColumn(new DataColumn<>("nom_droite2", Integer.class, Arrays.asList(1, 2, 3, 4)));
+        DataFrame result = clients.join(commandes, JoinType.INNER, "id");
+
+        assertEquals(Arrays.asList("id", "nom", "nom_droite", "nom_droite2", "montant", "nom_droite3"), result.getColumnNames());
+        assertEquals(Arrays.asList("b", "a", "b"), result.getColumn("nom_droite").getValues());
+        assertEquals(Arrays.asList(2, 1, 2), result.getColumn("nom_droite2").getValues());
+        assertEquals(Arrays.asList("c1", "c2", "c3"), result.getColumn("nom_droite3").getValues());
+    }
+
+    /**
+     * Teste les jointures externes gauche, droite et complète
+     */
+    @Test
+    public void testOuterJoins() {
+        DataFrame leftJoin = clients.join(commandes, JoinType.LEFT, "id");
+        assertEquals(5, leftJoin.getRowCount());
+        assertEquals(Arrays.asList("Bob", "Alice", "Bob", "Charlie", "Inconnu"), leftJoin.getColumn("nom").getValues());
+        assertNull(leftJoin.getColumn("montant").get(3));
+        assertNull(leftJoin.getColumn("id").get(4));
+
+        DataFrame rightJoin = clients.join(commandes, JoinType.RIGHT, "id");
+        assertEquals(5, rightJoin.getRowCount());
+        assertEquals(Long.class, rightJoin.getColumn("id").getDataType());
+        assertEquals(Arrays.asList(2L, 1L, 2L, 4L, null), rightJoin.getColumn("id").getValues());
+        assertNull(rightJoin.getColumn("nom").get(3));
+
+        DataFrame outerJoin = clients.join(commandes, JoinType.OUTER, "id");
+        assertEquals(7, outerJoin.getRowCount());
+        assertEquals("Les clés Integer et Long sont réunies en Long", Long.class, outerJoin.getColumn("id").getDataType());
+        assertEquals(Arrays.asList(2L, 1L, 2L, 4L, null, 3L, null), outerJoin.getColumn("id").getValues());
+        assertEquals(Arrays.asList("Bob", "Alice", "Bob", null, null, "Charlie", "Inconnu"), outerJoin.getColumn("nom").getValues());
+    }
+
+    /**
+     * Teste une jointure sur deux clés, quel que soit le côté chargé en table de hachage,
+     * en la comparant à une jointure par boucles imbriquées
+     */
+    @Test
+    public void testMultiKeyJoinMatchesNestedLoops() {
+        Random random = new Random(17);
+        DataFrame small = randomFrame(random, 300, "gauche");
+        DataFrame large = randomFrame(random, 2000, "droite");
+
+        for (DataFrame[] sides : new DataFrame[][] {{small, large}, {large, small}}) {
+            DataFrame result = sides[0].join(sides[1], JoinType.INNER, "code", "taux");
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < sides[0].getRowCount(); i++) {
+                for (int j = 0; j < sides[1].getRowCount(); j++) {
+                    if (sides[0].getColumn("code").get(i).equals(sides[1].getColumn("code").get(j))
+                            && sides[0].getColumn("taux").get(i).equals(sides[1].getColumn("taux").get(j))) {
+                        expected.add(sides[0].getColumn("valeur").get(i) + "/" + sides[1].getColumn("valeur").get(j));
+                    }
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            for (int i = 0; i < result.getRowCount(); i++) {
+                actual.add(result.getColumn("valeur").get(i) + "/" + result.getColumn("valeur_droite").get(i));
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual);
+        }
+    }
+
+    private static DataFrame randomFrame(Random random, int rows, String prefix) {
+        DataColumn<String> codes = new DataColumn<>("code", String.class);
+        DataColumn<Double> taux = new DataColumn<>("taux", Double.class);
+        DataColumn<String> valeurs = new DataColumn<>("valeur", String.class);
+        for (int i = 0; i < rows; i++) {
+            codes.add("c" + random.nextInt(40));
+            taux.add(random.nextInt(5) * 0.5);
+            valeurs.add(prefix + i);
+        }
+        DataFrame frame = new DataFrame();
+        frame.addColumn(codes);
+        frame.addColumn(taux);
+        frame.addColumn(valeurs);
+        return frame;
+    }
+
+    /**
+     * Teste l'exception lors d'une jointure sur une colonne absente d'un côté
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingKeyColumn() {
+        clients.join(commandes, JoinType.INNER, "montant");
+    }
+
+    /**
+     * Teste l'exception lors d'une jointure sur des colonnes de types incompatibles
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleKeyTypes() {
+        DataFrame numeros = new DataFrame();
+        numeros.addColumn(new DataColumn<>("id", String.class, Arrays.asList("1", "2")));
+        clients.join(numeros, JoinType.INNER, "id");
+    }
+
+    /**
+     * Teste l'exception lors d'une jointure sur deux colonnes d'objets de types différents, même en jointure complète
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleObjectKeyTypes() {
+        DataFrame dates = new DataFrame();
+        dates.addColumn(new DataColumn<>("jour", java.time.LocalDate.class, Arrays.asList(java.time.LocalDate.of(2024, 1, 1))));
+        DataFrame textes = new DataFrame();
+        textes.addColumn(new DataColumn<>("jour", String.class, Arrays.asList("2024-01-01")));
+        dates.join(textes, JoinType.OUTER, "jour");
+    }
+
+    /**
+     * Teste la colonne clé d'une jointure complète sur des chaînes, y compris depuis des colonnes hors tas
+     */
+    @Test
+    public void testOuterJoinStringKeys() {
+        DataFrame left = new DataFrame();
+        left.addColumn(new DataColumn<>("code", String.class, Arrays.asList("a", "b", null)));
+        DataFrame right = new DataFrame();
+        right.addColumn(new DataColumn<>("code", String.class, Arrays.asList("b", "c", "d", "e")));
+        List<String> expected = Arrays.asList("a", "b", null, "c", "d", "e");
+
+        DataFrame result = left.join(right, JoinType.OUTER, "code");
+        List<Object> keys = new ArrayList<>(result.getColumn("code").getValues());
+        assertEquals(String.class, result.getColumn("code").getDataType());
+        assertEquals(expected.size(), keys.size());
+        assertTrue(keys.containsAll(expected));
+
+        try (DataFrame offHeapLeft = left.toOffHeap(); DataFrame offHeapRight = right.toOffHeap()) {
+            DataFrame offHeapResult = offHeapLeft.join(offHeapRight, JoinType.OUTER, "code");
+            assertEquals(keys, offHeapResult.getColumn("code").getValues());
+        }
+    }
+}
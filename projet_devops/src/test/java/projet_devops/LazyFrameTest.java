@@ -0,0 +1,266 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Classe de test pour la classe LazyFrame
+ */
+public class LazyFrameTest {
+    /**
+     * Fichier CSV temporaire pour les tests
+     */
+    private Path tempFile;
+
+    /**
+     * Crée un fichier CSV de 100 lignes avant chaque test
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("lazy", ".csv");
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("id,nom,age,ville,salaire,note\n");
+            for (int i = 0; i < 100; i++) {
+                String age = i % 10 == 9 ? "" : String.valueOf(20 + i % 40);
+                String ville = i % 3 == 0 ? "Paris" : i % 3 == 1 ? "Lyon" : "Nantes";
+                writer.write(i + ",Nom" + i + "," + age + "," + ville + "," + (1000 + i * 10.5) + "," + (i % 5 == 0 ? "abc" : i) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Supprime le fichier temporaire après chaque test
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Teste que la projection et les filtres sont poussés dans la lecture du CSV
+     */
+    @Test
+    public void testPushdownIntoCsvScan() throws IOException {
+        LazyFrame query = LazyFrame.scanCSV(tempFile.toString())
+                .filter("age", ">", 50)
+                .filter("ville", "==", "Paris")
+                .select("id", "salaire");
+
+        assertEquals("scan CSV " + tempFile + " colonnes=[id, salaire] filtres=[age > 50, ville == \"Paris\"]\n"
+                + "select [id, salaire]", query.explain());
+
+        DataFrame result = query.collect();
+        assertEquals(Arrays.asList("id", "salaire"), result.getColumnNames());
+        // age = 20 + i % 40 > 50 et i % 3 == 0 : i = 33, 36, 72, 75, 78 (i = 39 et 79 ont un âge vide)
+        assertEquals(5, result.getRowCount());
+        assertEquals(33, result.getColumn("id").getInt(0));
+        assertEquals(78, result.getColumn("id").getInt(4));
+        assertEquals(1000 + 72 * 10.5, result.getColumn("salaire").getDouble(2), 0.0);
+    }
+
+    /**
+     * Teste que le résultat est identique au calcul immédiat avec Selection
+     */
+    @Test
+    public void testSameResultAsEagerSelection() throws IOException {
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        Selection selection = new Selection();
+        RowMask mask = selection.createBooleanMask(df, "age", ">=", 30)
+                .and(selection.createBooleanMask(df, "salaire", "<", 1800.0));
+        DataFrame eager = selection.filterByMask(df, mask);
+        DataColumn<?> eagerTotal = selection.eval(eager, "age * 2 + salaire");
+
+        for (LazyFrame source : new LazyFrame[] {LazyFrame.scanCSV(tempFile.toString()), LazyFrame.of(df)}) {
+            DataFrame lazy = source
+                    .filter("age", ">=", 30)
+                    .withColumn("total", "age * 2 + salaire")
+                    .filter("salaire", "<", 1800.0)
+                    .select("nom", "total")
+                    .collect();
+            assertEquals(eager.getRowCount(), lazy.getRowCount());
+            assertEquals(eager.getColumn("nom").getValues(), lazy.getColumn("nom").getValues());
+            assertEquals(eagerTotal.getValues(), lazy.getColumn("total").getValues());
+        }
+    }
+
+    /**
+     * Teste qu'un filtre sur une colonne calculée reste après le calcul et qu'une colonne calculée inutile est supprimée
+     */
+    @Test
+    public void testDerivedColumnsPlan() throws IOException {
+        LazyFrame query = LazyFrame.scanCSV(tempFile.toString())
+                .withColumn("double_age", "age * 2")
+                .withColumn("inutile", "salaire / 0")
+                .filter("double_age", ">", 110)
+                .filter("id", "<", 50)
+                .select("id", "double_age");
+
+        assertEquals("scan CSV " + tempFile + " colonnes=[id, age] filtres=[id < 50]\n"
+                + "with_column double_age = age * 2\n"
+                + "filter double_age > 110\n"
+                + "select [id, double_age]", query.explain());
+
+        DataFrame result = query.collect();
+        // 20 + i % 40 > 55 et i < 50 : i = 36, 37, 38 (39 est vide)
+        assertEquals(3, result.getRowCount());
+        assertEquals(112.0, result.getColumn("double_age").getDouble(0), 0.0);
+    }
+
+    /**
+     * Teste qu'un regroupement ne fait lire que ses colonnes, que les filtres qui le précèdent sont poussés dans la lecture
+     * et que ceux qui le suivent portent sur les agrégats
+     */
+    @Test
+    public void testGroupByAgg() throws IOException {
+        LazyFrame query = LazyFrame.scanCSV(tempFile.toString())
+                .withColumn("inutile", "age * 2")
+                .filter("id", "<", 60)
+                .groupBy("ville").agg("salaire", Aggregation.COUNT, Aggregation.SUM)
+                .filter("salaire_count", ">", 19)
+                .select("ville", "salaire_sum");
+
+        assertEquals("scan CSV " + tempFile + " colonnes=[ville, salaire] filtres=[id < 60]\n"
+                + "group_by [ville] agg [salaire] [count, sum]\n"
+                + "filter salaire_count > 19\n"
+                + "select [ville, salaire_sum]", query.explain());
+
+        DataFrame result = query.collect();
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        DataFrame expected = new Selection().filterByMask(df, new Selection().createBooleanMask(df, "id", "<", 60))
+                .groupBy("ville").agg("salaire", Aggregation.COUNT, Aggregation.SUM);
+        // 60 lignes réparties sur 3 villes : 20 lignes chacune
+        assertEquals(Arrays.asList("ville", "salaire_sum"), result.getColumnNames());
+        assertEquals(expected.getColumn("ville").getValues(), result.getColumn("ville").getValues());
+        assertEquals(expected.getColumn("salaire_sum").getValues(), result.getColumn("salaire_sum").getValues());
+
+        DataFrame fromFrame = LazyFrame.of(df).groupBy("ville", "age").agg(Arrays.asList("salaire", "id"), Aggregation.MAX).collect();
+        assertEquals(Arrays.asList("ville", "age", "salaire_max", "id_max"), fromFrame.getColumnNames());
+        assertEquals(df.groupBy("ville", "age").agg(Arrays.asList("salaire", "id"), Aggregation.MAX).getRowCount(),
+                fromFrame.getRowCount());
+    }
+
+    /**
+     * Teste qu'une limite arrête la lecture mais n'est pas traversée par un filtre qui la suit
+     */
+    @Test
+    public void testLimit() throws IOException {
+        LazyFrame query = LazyFrame.scanCSV(tempFile.toString())
+                .filter("ville", "==", "Lyon")
+                .limit(5)
+                .filter("id", ">", 10)
+                .select("id");
+
+        assertEquals("scan CSV " + tempFile + " colonnes=[id] filtres=[ville == \"Lyon\"] limite=5\n"
+                + "filter id > 10\n"
+                + "select [id]", query.explain());
+        DataFrame result = query.collect();
+        assertEquals(Arrays.asList(13), result.getColumn("id").getValues());
+
+        assertEquals(0, LazyFrame.scanCSV(tempFile.toString()).limit(0).collect().getRowCount());
+    }
+
+    /**
+     * Teste que les filtres poussés dans la lecture du CSV donnent le même résultat et le même schéma
+     * que sur le DataFrame chargé, y compris sur la colonne note qui mêle nombres et texte
+     */
+    @Test
+    public void testFilterOnMixedColumn() throws IOException {
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        Object[][] filters = {{"note", ">=", 95}, {"note", "==", "abc"}, {"note", "<", "5"}, {"salaire", ">", "1500"},
+            {"salaire", ">", 1500}, {"id", "==", 7L}, {"age", "<=", 25.5}};
+        for (Object[] filter : filters) {
+            DataFrame pushed = LazyFrame.scanCSV(tempFile.toString())
+                    .filter((String) filter[0], (String) filter[1], filter[2]).collect();
+            DataFrame loaded = LazyFrame.of(df)
+                    .filter((String) filter[0], (String) filter[1], filter[2]).collect();
+            assertEquals(loaded.getColumnNames(), pushed.getColumnNames());
+            for (String name : loaded.getColumnNames()) {
+                assertEquals(Arrays.toString(filter), loaded.getColumn(name).getDataType(), pushed.getColumn(name).getDataType());
+                assertEquals(Arrays.toString(filter), loaded.getColumn(name).getValues(), pushed.getColumn(name).getValues());
+            }
+        }
+
+        // Un filtre numérique ne retient jamais de texte : note est une colonne String
+        assertEquals(0, LazyFrame.scanCSV(tempFile.toString()).filter("note", ">=", 95).collect().getRowCount());
+        assertEquals(20, LazyFrame.scanCSV(tempFile.toString()).filter("note", "==", "abc").collect().getRowCount());
+        // Le type est déduit de tout le fichier, même si les lignes retenues ne contiennent que des nombres
+        DataFrame seven = LazyFrame.scanCSV(tempFile.toString()).filter("id", "==", 7).select("note").collect();
+        assertEquals(String.class, seven.getColumn("note").getDataType());
+        assertEquals(Arrays.asList("7"), seven.getColumn("note").getValues());
+    }
+
+    /**
+     * Teste qu'une lecture filtrée garde le texte exact des champs (zéros en tête, guillemets, virgules, champs vides)
+     * quand le type d'une colonne n'est connu qu'à la dernière ligne, avec et sans limite
+     */
+    @Test
+    public void testFilteredScanKeepsFieldText() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("code,texte,valeur\n");
+            for (int i = 0; i < 60; i++) {
+                String code = i % 4 == 0 ? "007" : i % 4 == 1 ? "7" : i % 4 == 2 ? "" : "+7";
+                String texte = i % 3 == 0 ? "\"a, \"\"b\"\"\"" : i % 3 == 1 ? "x\"y" : "";
+                writer.write(code + "," + texte + "," + (i % 5 == 0 ? "" : String.valueOf(i)) + "\n");
+            }
+            writer.write("fin,z,1.5\n");
+        }
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        assertEquals(String.class, df.getColumn("code").getDataType());
+        Object[][] filters = {{"code", "==", "007"}, {"code", "!=", "7"}, {"valeur", ">", 10}, {"valeur", "<", "3"},
+            {"texte", "==", ""}};
+        for (Object[] filter : filters) {
+            for (int limit : new int[] {-1, 5}) {
+                LazyFrame pushed = LazyFrame.scanCSV(tempFile.toString()).filter((String) filter[0], (String) filter[1], filter[2]);
+                LazyFrame loaded = LazyFrame.of(df).filter((String) filter[0], (String) filter[1], filter[2]);
+                if (limit >= 0) {
+                    pushed = pushed.limit(limit);
+                    loaded = loaded.limit(limit);
+                }
+                DataFrame expected = loaded.collect();
+                DataFrame actual = pushed.collect();
+                for (String name : expected.getColumnNames()) {
+                    assertEquals(Arrays.toString(filter), expected.getColumn(name).getDataType(), actual.getColumn(name).getDataType());
+                    assertEquals(Arrays.toString(filter), expected.getColumn(name).getValues(), actual.getColumn(name).getValues());
+                }
+            }
+        }
+        DataFrame quoted = LazyFrame.scanCSV(tempFile.toString()).filter("code", "==", "007").select("texte").collect();
+        assertEquals("a, \"b\"", quoted.getColumn("texte").get(0));
+        assertEquals("x\"y", LazyFrame.scanCSV(tempFile.toString()).filter("code", "==", "7").collect().getColumn("texte").get(0));
+    }
+
+    /**
+     * Teste une requête sans étape sur un DataFrame : les colonnes sont partagées sans copie
+     */
+    @Test
+    public void testDataFrameSourceWithoutFilter() throws IOException {
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        DataFrame result = LazyFrame.of(df).limit(3).collect();
+        assertEquals(3, result.getRowCount());
+        assertEquals(df.getColumnNames(), result.getColumnNames());
+        assertTrue(result.getColumn("nom").getStorage().isShared());
+    }
+
+    /**
+     * Teste l'exception lors de l'utilisation d'une colonne supprimée par une projection
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() throws IOException {
+        LazyFrame.scanCSV(tempFile.toString()).select("id").filter("age", ">", 3).collect();
+    }
+
+    /**
+     * Teste l'exception lors d'un filtre avec une valeur qui n'est ni un nombre ni une chaîne
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFilterValue() {
+        LazyFrame.scanCSV(tempFile.toString()).filter("age", ">", true);
+    }
+}
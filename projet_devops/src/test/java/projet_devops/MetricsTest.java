@@ -0,0 +1,156 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Classe de test pour la mesure des opérations (classes Metrics, InMemoryMetrics et JfrMetrics)
+ */
+public class MetricsTest {
+    /**
+     * Fichier CSV temporaire pour les tests
+     */
+    private Path tempFile;
+    /**
+     * Récepteur enregistré pendant chaque test
+     */
+    private InMemoryMetrics metrics;
+
+    /**
+     * Méthode exécutée avant chaque test pour créer le fichier et enregistrer le récepteur
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("metrics", ".csv");
+        Files.write(tempFile, "nom,age\nAlice,25\nBob,30\nCharlie,35\nDavid,40\n".getBytes(StandardCharsets.UTF_8));
+        metrics = new InMemoryMetrics();
+        Metrics.addListener(metrics);
+    }
+
+    /**
+     * Méthode exécutée après chaque test pour retirer le récepteur et supprimer le fichier
+     */
+    @After
+    public void tearDown() throws IOException {
+        Metrics.removeListener(metrics);
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Teste les mesures de la lecture d'un CSV, d'un filtre et d'une statistique
+     */
+    @Test
+    public void testInMemoryMetrics() throws IOException {
+        DataFrame df = DataFrame.fromCSV(tempFile.toString());
+        Selection selection = new Selection();
+        RowMask mask = selection.createBooleanMask(df, "age", ">", 28);
+        DataFrame filtered = selection.filterByMask(df, mask);
+        new DataFrameStatistics().mean(filtered.getColumn("age"));
+        new DataFrameStatistics().mean(filtered.getColumn("age"));
+
+        InMemoryMetrics.Summary read = metrics.getSummary("DataFrame.fromCSV");
+        assertEquals(1, read.getCount());
+        assertEquals(4, read.getRowsOut());
+        assertEquals(Files.size(tempFile), read.getBytesRead());
+        assertEquals(8, read.getParsedCells());
+        assertTrue(read.getTotalNanos() > 0);
+
+        InMemoryMetrics.Summary maskSummary = metrics.getSummary("Selection.createBooleanMask");
+        assertEquals(4, maskSummary.getRowsIn());
+        assertEquals(3, maskSummary.getRowsOut());
+        InMemoryMetrics.Summary filter = metrics.getSummary("Selection.filterByMask");
+        assertEquals(4, filter.getRowsIn());
+        assertEquals(3, filter.getRowsOut());
+        assertEquals(0, filter.getBytesRead());
+        assertEquals(2, metrics.getSummary("DataFrameStatistics.mean").getCount());
+
+        metrics.reset();
+        assertTrue(metrics.getSummaries().isEmpty());
+        assertNull(metrics.getSummary("DataFrame.fromCSV"));
+    }
+
+    /**
+     * Teste qu'aucune mesure n'est transmise après le retrait du récepteur
+     */
+    @Test
+    public void testRemoveListener() throws IOException {
+        assertTrue(Metrics.isEnabled());
+        assertTrue(Metrics.removeListener(metrics));
+        assertFalse(Metrics.removeListener(metrics));
+        assertSame(OperationTimer.DISABLED, Metrics.start("DataFrame.fromCSV"));
+        DataFrame.fromCSV(tempFile.toString());
+        assertTrue(metrics.getSummaries().isEmpty());
+    }
+
+    /**
+     * Teste que les mesures d'une lecture par lots et d'une lecture parallèle couvrent tout le fichier
+     */
+    @Test
+    public void testBatchAndParallelReads() throws IOException {
+        List<OperationMetrics> received = new ArrayList<>();
+        OperationListener listener = received::add;
+        Metrics.addListener(listener);
+        try (CsvBatchIterator batches = DataFrame.scanCSV(tempFile.toString(), 3)) {
+            batches.forEachRemaining(batch -> { });
+        } finally {
+            Metrics.removeListener(listener);
+        }
+        assertEquals(2, received.size());
+        assertEquals(3, received.get(0).getRowsOut());
+        assertEquals(1, received.get(1).getRowsOut());
+        assertEquals("CsvBatchIterator.next", received.get(0).getOperation());
+
+        DataFrame.fromCSV(tempFile.toString(), 2);
+        InMemoryMetrics.Summary parallel = metrics.getSummary("DataFrame.fromCSVParallel");
+        assertEquals(4, parallel.getRowsOut());
+        assertEquals(Files.size(tempFile), parallel.getBytesRead());
+    }
+
+    /**
+     * Teste l'émission d'événements Java Flight Recorder
+     */
+    @Test
+    public void testJfrEvents() throws IOException {
+        JfrMetrics jfr = new JfrMetrics();
+        Path recordingFile = Files.createTempFile("metrics", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("projet_devops.Operation");
+            recording.start();
+            Metrics.addListener(jfr);
+            try {
+                new DataFrameStatistics().describe(DataFrame.fromCSV(tempFile.toString()));
+            } finally {
+                Metrics.removeListener(jfr);
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+        assertEquals(2, events.size());
+        assertEquals("DataFrame.fromCSV", events.get(0).getString("operation"));
+        assertEquals(4, events.get(0).getLong("rowsIn"));
+        assertEquals("DataFrameStatistics.describe", events.get(1).getString("operation"));
+    }
+
+    /**
+     * Teste l'exception lors de l'enregistrement d'un récepteur null
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullListener() {
+        Metrics.addListener(null);
+    }
+}
@@ -0,0 +1,157 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe de test pour les colonnes stockées hors du tas Java (classe OffHeapColumnStorage)
+ */
+public class OffHeapColumnStorageTest {
+
+    /**
+     * Teste la copie hors tas d'un DataFrame de chaque type, avec des valeurs nulles
+     */
+    @Test
+    public void testToOffHeap() {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("entier", Integer.class, Arrays.asList(1, null, -3)));
+        df.addColumn(new DataColumn<>("long", Long.class, Arrays.asList(10_000_000_000L, 2L, null)));
+        df.addColumn(new DataColumn<>("réel", Double.class, Arrays.asList(null, 2.5, -0.5)));
+        df.addColumn(new DataColumn<>("texte", String.class, Arrays.asList("été", null, "")));
+        df.addColumn(new DataColumn<>("actif", Boolean.class, Arrays.asList(true, false, null)));
+
+        try (DataFrame offHeap = df.toOffHeap()) {
+            assertEquals(df.getColumnNames(), offHeap.getColumnNames());
+            for (String name : df.getColumnNames()) {
+                assertEquals(df.getColumn(name).getValues(), offHeap.getColumn(name).getValues());
+            }
+            assertTrue(offHeap.getColumn("texte").isOffHeap());
+            assertFalse("Les types non pris en charge restent dans le tas", offHeap.getColumn("actif").isOffHeap());
+            assertEquals(2.5, offHeap.getColumn("réel").getDouble(1), 0.0);
+            assertEquals(3, offHeap.getColumn("entier").asIntBuffer().remaining());
+        }
+    }
+
+    /**
+     * Teste l'ajout de valeurs au-delà de plusieurs segments et les opérations sur une colonne hors tas
+     */
+    @Test
+    public void testValuesAcrossSegments() {
+        Random random = new Random(5);
+        int rows = 3 * SegmentedBuffer.SEGMENT_BYTES / 8 + 17;
+        DataColumn<Long> heap = new DataColumn<>("valeur", Long.class);
+        DataColumn<Long> offHeap = DataColumn.offHeap("valeur", Long.class);
+        DataColumn<String> heapLabels = new DataColumn<>("label", String.class);
+        DataColumn<String> labels = DataColumn.offHeap("label", String.class);
+        for (int i = 0; i < rows; i++) {
+            Long value = i % 1000 == 0 ? null : random.nextLong();
+            heap.add(value);
+            offHeap.add(value);
+            String label = i % 7 == 0 ? null : "label" + (i % 50) + "-ééé";
+            heapLabels.add(label);
+            labels.add(label);
+        }
+        assertEquals(heap.getValues(), offHeap.getValues());
+        assertEquals(heapLabels.getValues(), labels.getValues());
+
+        DataFrameStatistics stats = new DataFrameStatistics();
+        assertEquals(stats.mean(heap), stats.mean(offHeap), 1e-6 * Math.abs(stats.mean(heap)));
+        try {
+            offHeap.asLongBuffer();
+            fail("Les valeurs occupent plusieurs segments");
+        } catch (UnsupportedOperationException e) {
+            // attendu
+        }
+
+        DataFrame df = new DataFrame();
+        df.addColumn(offHeap);
+        df.addColumn(labels);
+        RowMask mask = new Selection().createBooleanMask(df, "label", "==", "label3-ééé");
+        DataFrame filtered = new Selection().filterByMask(df, mask);
+        assertTrue("Le résultat d'un filtre reste hors tas", filtered.getColumn("valeur").isOffHeap());
+        assertEquals(mask.cardinality(), filtered.getRowCount());
+        for (int i = 0; i < filtered.getRowCount(); i++) {
+            assertEquals("label3-ééé", filtered.getColumn("label").get(i));
+        }
+        DataFrame sorted = df.sortBy("valeur", true);
+        assertTrue(sorted.getColumn("valeur").isOffHeap());
+        assertNull(sorted.getColumn("valeur").get(rows - 1));
+    }
+
+    /**
+     * Teste qu'une tranche d'une colonne hors tas est copiée hors tas avant d'être modifiée
+     */
+    @Test
+    public void testSliceCopyOnWrite() {
+        DataColumn<Integer> column = DataColumn.offHeap("entier", Integer.class);
+        for (int i = 0; i < 100; i++) {
+            column.add(i);
+        }
+        DataColumn<Integer> slice = column.slice(10, 20);
+        slice.add(null);
+        assertTrue(slice.isOffHeap());
+        assertEquals(11, slice.size());
+        assertEquals(Integer.valueOf(10), slice.get(0));
+        assertNull(slice.get(10));
+        assertEquals(100, column.size());
+    }
+
+    /**
+     * Teste qu'une colonne n'est plus lisible après la fermeture de son DataFrame
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testAccessAfterClose() {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("entier", Integer.class, Arrays.asList(1, 2, 3)));
+        DataFrame offHeap = df.toOffHeap();
+        offHeap.close();
+        assertEquals(Integer.valueOf(1), df.getColumn("entier").get(0));
+        offHeap.getColumn("entier").get(0);
+    }
+
+    /**
+     * Teste que fermer une projection ou un résultat filtré laisse intactes les colonnes de la source,
+     * et que seule la fermeture de la source libère les colonnes qu'elle partage avec sa projection
+     */
+    @Test
+    public void testCloseProjectionKeepsSourceColumns() throws IOException {
+        DataFrame df = new DataFrame();
+        df.addColumn(new DataColumn<>("entier", Integer.class, Arrays.asList(1, 2, 3)));
+        df.addColumn(new DataColumn<>("texte", String.class, Arrays.asList("a", "b", "c")));
+        DataFrame offHeap = df.toOffHeap();
+        Selection selection = new Selection();
+
+        DataFrame filtered = selection.filterByMask(offHeap, selection.createBooleanMask(offHeap, "entier", ">", 1));
+        filtered.close();
+        assertEquals(Integer.valueOf(1), offHeap.getColumn("entier").get(0));
+
+        DataFrame projection = selection.selectColumns(offHeap, new ArrayList<>(Arrays.asList("entier")));
+        projection.close();
+        assertEquals(Integer.valueOf(1), offHeap.getColumn("entier").get(0));
+        assertEquals(Integer.valueOf(2), projection.getColumn("entier").get(1));
+
+        DataFrame lazy = LazyFrame.of(offHeap).select("texte").collect();
+        lazy.close();
+        assertEquals("b", offHeap.getColumn("texte").get(1));
+
+        offHeap.close();
+        try {
+            projection.getColumn("entier").get(0);
+            fail("La colonne partagée avec la source fermée est libérée");
+        } catch (IllegalStateException e) {
+            // attendu
+        }
+    }
+
+    /**
+     * Teste l'exception lors de la création d'une colonne hors tas d'un type non pris en charge
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        DataColumn.offHeap("actif", Boolean.class);
+    }
+}
@@ -0,0 +1,235 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe de test pour la classe ParallelCsvLoader
+ */
+public class ParallelCsvLoaderTest {
+    /**
+     * Fichier temporaire pour les tests
+     */
+    private Path tempFile;
+
+    /**
+     * Méthode exécutée avant chaque test pour créer le fichier temporaire
+     */
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("parallel", ".csv");
+    }
+
+    /**
+     * Méthode exécutée après chaque test pour supprimer le fichier temporaire
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Vérifie que deux DataFrames ont les mêmes colonnes, types et valeurs
+     *
+     * @param expected Le DataFrame attendu
+     * @param actual Le DataFrame obtenu
+     */
+    private void assertSameFrame(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.getColumnNames(), actual.getColumnNames());
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        for (String name : expected.getColumnNames()) {
+            DataColumn<?> expectedColumn = expected.getColumn(name);
+            DataColumn<?> actualColumn = actual.getColumn(name);
+            assertEquals("Type différent pour " + name, expectedColumn.getDataType(), actualColumn.getDataType());
+            assertEquals("Valeurs différentes pour " + name, expectedColumn.getValues(), actualColumn.getValues());
+        }
+    }
+
+    /**
+     * Charge le fichier temporaire en parallèle avec de très petites portions
+     *
+     * @return Le DataFrame chargé
+     */
+    private DataFrame loadInSmallChunks() throws IOException {
+        return new ParallelCsvLoader(tempFile, 4, 64).load();
+    }
+
+    /**
+     * Test de l'égalité entre lecture parallèle et lecture séquentielle sur des types mélangés
+     */
+    @Test
+    public void testSameResultAsSequential() throws IOException {
+        Random random = new Random(7);
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("id,entier,decimal,texte,mixte,vide\n");
+            for (int i = 0; i < 2000; i++) {
+                writer.write(i + "," + (random.nextInt(100) == 0 ? "" : random.nextInt(1000)) + ","
+                    + random.nextDouble() + ",mot" + random.nextInt(10) + ","
+                    + (i == 1500 ? "texte" : i % 3 == 0 ? "2.5" : "12345678901234567") + ",\n");
+            }
+        }
+
+        DataFrame sequential = DataFrame.fromCSV(tempFile.toString());
+        assertEquals(String.class, sequential.getColumn("mixte").getDataType());
+        assertSameFrame(sequential, loadInSmallChunks());
+        assertSameFrame(sequential, DataFrame.fromCSV(tempFile.toString(), 3));
+    }
+
+    /**
+     * Test d'une colonne passant en String : le texte des nombres lus ensuite doit être conservé tel quel
+     */
+    @Test
+    public void testTextKeptAfterStringPromotion() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("code\n");
+            writer.write("1.5\n");
+            writer.write("2A004\n");
+            for (int i = 0; i < 300; i++) {
+                writer.write(i % 2 == 0 ? "007\n" : "+12\n");
+            }
+        }
+
+        DataFrame parallel = loadInSmallChunks();
+        assertEquals("1.5", parallel.getColumn("code").get(0));
+        assertEquals("007", parallel.getColumn("code").get(300));
+        assertEquals("+12", parallel.getColumn("code").get(301));
+        assertSameFrame(DataFrame.fromCSV(tempFile.toString()), parallel);
+    }
+
+    /**
+     * Test de champs entre guillemets contenant des retours à la ligne, qui ne doivent jamais être coupés entre deux portions
+     */
+    @Test
+    public void testQuotedMultiLineFields() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("id,commentaire,montant\n");
+            for (int i = 0; i < 500; i++) {
+                String comment = i % 7 == 0 ? "\"ligne " + i + "\n1,suite \"\"cite\"\",\n2\"" : "simple" + i;
+                writer.write(i + "," + comment + "," + (i * 1.5) + "\n");
+            }
+        }
+
+        DataFrame parallel = loadInSmallChunks();
+        assertEquals(500, parallel.getRowCount());
+        assertEquals(Double.class, parallel.getColumn("montant").getDataType());
+        assertEquals("ligne 7\n1,suite \"cite\",\n2", parallel.getColumn("commentaire").get(7));
+        assertEquals(Double.valueOf(499 * 1.5), parallel.getColumn("montant").get(499));
+        assertSameFrame(DataFrame.fromCSV(tempFile.toString()), parallel);
+        assertSameFrame(DataFrame.fromCSV(tempFile.toString()), DataFrame.fromCSV(tempFile.toString(), 4));
+    }
+
+    /**
+     * Test de la recherche des limites de portions : elle est répartie entre les threads du pool et chaque portion
+     * commence au début d'un enregistrement, malgré les guillemets, les retours à la ligne \r\n ou \r seuls
+     * et les guillemets isolés au milieu d'un champ
+     */
+    @Test
+    public void testBoundariesFoundInParallel() throws Exception {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("id,texte\n");
+            for (int i = 0; i < 300; i++) {
+                String text = i % 5 == 0 ? "  \"a\n\"\"b\"\",\r\nc\" fin" : i % 5 == 1 ? "x\"y" : "mot" + i;
+                writer.write(i + "," + text + (i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\r" : "\n"));
+            }
+        }
+        long dataStart;
+        Set<Long> recordStarts = new HashSet<>();
+        try (CsvReader reader = new CsvReader(tempFile)) {
+            reader.nextRecord();
+            dataStart = reader.nextRecordOffset();
+            recordStarts.add(dataStart);
+            while (reader.nextRecord()) {
+                recordStarts.add(reader.nextRecordOffset());
+            }
+        }
+
+        Thread caller = Thread.currentThread();
+        AtomicInteger tasks = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task) {
+                tasks.incrementAndGet();
+                synchronized (threads) {
+                    threads.add(thread);
+                }
+            }
+        };
+        try {
+            long fileSize = Files.size(tempFile);
+            List<ParallelCsvLoader.Chunk> chunks = new ParallelCsvLoader(tempFile, 4, 64).split(pool, dataStart, fileSize);
+            assertEquals(16, tasks.get());
+            assertFalse(threads.contains(caller));
+            assertTrue(chunks.size() > 1);
+            long expectedStart = dataStart;
+            for (ParallelCsvLoader.Chunk chunk : chunks) {
+                assertEquals(expectedStart, chunk.start);
+                assertTrue("Limite hors début d'enregistrement : " + chunk.start, recordStarts.contains(chunk.start));
+                expectedStart = chunk.end;
+            }
+            assertEquals(fileSize, expectedStart);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertSameFrame(DataFrame.fromCSV(tempFile.toString()), loadInSmallChunks());
+    }
+
+    /**
+     * Test de l'arrêt de la lecture à la première ligne vide
+     */
+    @Test
+    public void testStopsAtBlankLine() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("a,b\n");
+            for (int i = 0; i < 100; i++) {
+                writer.write(i + ",x" + i + "\n");
+            }
+            writer.write("\n");
+            for (int i = 0; i < 100; i++) {
+                writer.write("ignoré,1.5\n");
+            }
+        }
+
+        DataFrame parallel = loadInSmallChunks();
+        assertEquals(100, parallel.getRowCount());
+        assertEquals(Integer.class, parallel.getColumn("a").getDataType());
+        assertSameFrame(DataFrame.fromCSV(tempFile.toString()), parallel);
+    }
+
+    /**
+     * Test d'un fichier ne contenant que l'en-tête
+     */
+    @Test
+    public void testHeaderOnly() throws IOException {
+        try (FileWriter writer = new FileWriter(tempFile.toFile())) {
+            writer.write("a,b\n");
+        }
+
+        DataFrame parallel = loadInSmallChunks();
+        assertEquals(2, parallel.getColumnCount());
+        assertEquals(0, parallel.getRowCount());
+    }
+
+    /**
+     * Test d'un nombre de threads invalide
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() throws IOException {
+        DataFrame.fromCSV(tempFile.toString(), 0);
+    }
+}
@@ -0,0 +1,110 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe de test pour la classe RowMask
+ */
+public class RowMaskTest {
+
+    /**
+     * Construit un masque aléatoire et la liste de booléens équivalente
+     */
+    private static RowMask randomMask(Random random, int size, List<Boolean> expected) {
+        for (int i = 0; i < size; i++) {
+            expected.add(random.nextInt(3) == 0);
+        }
+        return RowMask.of(expected);
+    }
+
+    /**
+     * Teste la création depuis une liste de booléens
+     */
+    @Test
+    public void testOf() {
+        RowMask mask = RowMask.of(Arrays.asList(true, false, null, true));
+        assertEquals(4, mask.size());
+        assertTrue(mask.get(0));
+        assertFalse(mask.get(1));
+        assertFalse("null vaut false", mask.get(2));
+        assertTrue(mask.get(3));
+        assertEquals(2, mask.cardinality());
+    }
+
+    /**
+     * Teste les combinaisons mot par mot sur plusieurs mots, comparées à un calcul ligne par ligne
+     */
+    @Test
+    public void testCombinators() {
+        Random random = new Random(11);
+        int size = 64 * 5 + 13;
+        List<Boolean> a = new ArrayList<>();
+        List<Boolean> b = new ArrayList<>();
+        RowMask maskA = randomMask(random, size, a);
+        RowMask maskB = randomMask(random, size, b);
+
+        RowMask and = maskA.and(maskB);
+        RowMask or = maskA.or(maskB);
+        RowMask andNot = maskA.andNot(maskB);
+        RowMask not = maskA.not();
+        int expectedAnd = 0;
+        for (int i = 0; i < size; i++) {
+            assertEquals(a.get(i) && b.get(i), and.get(i));
+            assertEquals(a.get(i) || b.get(i), or.get(i));
+            assertEquals(a.get(i) && !b.get(i), andNot.get(i));
+            assertEquals(!a.get(i), not.get(i));
+            if (a.get(i) && b.get(i)) {
+                expectedAnd++;
+            }
+        }
+        assertEquals(expectedAnd, and.cardinality());
+        assertEquals("Le complément ne doit pas compter les bits au-delà de la taille",
+                size - maskA.cardinality(), not.cardinality());
+        assertEquals(maskA, not.not());
+    }
+
+    /**
+     * Teste le masque plein et le parcours des lignes sélectionnées
+     */
+    @Test
+    public void testAllAndNextSetBit() {
+        RowMask all = RowMask.all(130);
+        assertEquals(130, all.cardinality());
+
+        RowMask mask = RowMask.of(Arrays.asList(false, true, false, false));
+        assertEquals(1, mask.nextSetBit(0));
+        assertEquals(1, mask.nextSetBit(1));
+        assertEquals(-1, mask.nextSetBit(2));
+        assertEquals(-1, RowMask.all(0).nextSetBit(0));
+
+        List<Boolean> values = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            values.add(i % 70 == 0);
+        }
+        RowMask sparse = RowMask.of(values);
+        assertEquals(70, sparse.nextSetBit(1));
+        assertEquals(140, sparse.nextSetBit(71));
+        assertArrayEquals(new int[] {0, 70, 140}, sparse.toIndexes());
+    }
+
+    /**
+     * Teste l'exception lors de la combinaison de masques de tailles différentes
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentSizes() {
+        RowMask.all(3).and(RowMask.all(4));
+    }
+
+    /**
+     * Teste l'exception lors de l'accès hors du masque
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        RowMask.all(3).get(3);
+    }
+}
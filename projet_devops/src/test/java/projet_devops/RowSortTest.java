@@ -0,0 +1,99 @@
+package projet_devops;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Classe de test pour la classe RowSort (tri des lignes d'un DataFrame)
+ */
+public class RowSortTest {
+    /**
+     * Teste que le tri sur plusieurs colonnes de tous types donne la même permutation
+     * qu'un tri stable par comparateur sur les valeurs encapsulées
+     */
+    @Test
+    public void testArgsortMatchesComparatorSort() {
+        Random random = new Random(18);
+        int rows = RowSort.PARALLEL_THRESHOLD * 3;
+        DataColumn<Integer> entiers = new DataColumn<>("entiers", Integer.class);
+        DataColumn<Long> longs = new DataColumn<>("longs", Long.class);
+        DataColumn<Double> decimaux = new DataColumn<>("decimaux", Double.class);
+        DataColumn<String> textes = new DataColumn<>("textes", String.class);
+        DictionaryColumnStorage codes = new DictionaryColumnStorage();
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, -1.5};
+        for (int i = 0; i < rows; i++) {
+            entiers.add(random.nextInt(30) == 0 ? null : random.nextInt(21) - 10);
+            longs.add(random.nextInt(30) == 0 ? null : (random.nextBoolean() ? Long.MIN_VALUE : 1L << 40) + random.nextInt(3));
+            decimaux.add(random.nextInt(30) == 0 ? null : random.nextInt(4) == 0 ? specials[random.nextInt(specials.length)] : random.nextInt(7) / 2.0);
+            textes.add(random.nextInt(30) == 0 ? null : "t" + random.nextInt(12));
+            codes.add(random.nextInt(30) == 0 ? null : "c" + random.nextInt(15));
+        }
+        DataFrame df = new DataFrame();
+        df.addColumn(entiers);
+        df.addColumn(longs);
+        df.addColumn(decimaux);
+        df.addColumn(textes);
+        df.addColumn(new DataColumn<>("codes", String.class, codes));
+
+        List<List<String>> keySets = Arrays.asList(
+                Arrays.asList("entiers", "decimaux"),
+                Arrays.asList("codes", "longs"),
+                Arrays.asList("textes", "entiers", "codes"));
+        for (List<String> keys : keySets) {
+            for (boolean nullsFirst : new boolean[] {true, false}) {
+                boolean[] ascending = new boolean[keys.size()];
+                for (int k = 0; k < ascending.length; k++) {
+                    ascending[k] = random.nextBoolean();
+                }
+                int[] actual = df.argsort(keys, ascending, nullsFirst);
+                Integer[] expected = IntStream.range(0, rows).boxed().toArray(Integer[]::new);
+                Arrays.sort(expected, comparator(df, keys, ascending, nullsFirst));
+                assertArrayEquals(keys + " " + Arrays.toString(ascending) + " nullsFirst=" + nullsFirst,
+                        Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), actual);
+            }
+        }
+    }
+
+    /**
+     * Teste le tri par base réparti en blocs : même permutation stable qu'un tri par comparateur sur les clés,
+     * y compris avec des clés à octets constants (passes sautées) et plus de blocs que de valeurs distinctes
+     */
+    @Test
+    public void testParallelRadixSortIsStable() {
+        Random random = new Random(21);
+        int count = RowSort.PARALLEL_RADIX_THRESHOLD + 12_345;
+        long[][] keySets = new long[3][count];
+        for (int i = 0; i < count; i++) {
+            keySets[0][i] = random.nextLong();
+            keySets[1][i] = (1L << 40) + random.nextInt(1000) * 65536L;
+            keySets[2][i] = random.nextInt(3);
+        }
+        for (long[] keys : keySets) {
+            for (int blocks : new int[] {2, 7}) {
+                long[] sorted = keys.clone();
+                int[] rows = IntStream.range(0, count).toArray();
+                RowSort.radixSort(sorted, rows, count, blocks);
+                Integer[] expected = IntStream.range(0, count).boxed().toArray(Integer[]::new);
+                Arrays.sort(expected, (a, b) -> Long.compareUnsigned(keys[a], keys[b]));
+                assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), rows);
+            }
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparator<Integer> comparator(DataFrame df, List<String> keys, boolean[] ascending, boolean nullsFirst) {
+        Comparator<Integer> result = (a, b) -> 0;
+        for (int k = 0; k < keys.size(); k++) {
+            DataColumn<?> column = df.getColumn(keys.get(k));
+            Comparator<Comparable> values = ascending[k] ? Comparator.naturalOrder() : Comparator.reverseOrder();
+            Comparator<Comparable> withNulls = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            result = result.thenComparing(row -> (Comparable) column.get(row), withNulls);
+        }
+        return result;
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * Classe de test pour la classe Selection
@@ -291,7 +292,7 @@ public class SelectionTest {
      */
     @Test
     public void testCreateBooleanMask() {
-        ArrayList<Boolean> mask = selection.createBooleanMask(df, "Age", ">", 30);
+        RowMask mask = selection.createBooleanMask(df, "Age", ">", 30);
         assertEquals(4, mask.size());
         assertEquals(false, mask.get(0)); // 25 > 30
         assertEquals(false, mask.get(1)); // 30 > 30
@@ -305,7 +306,7 @@ public class SelectionTest {
     @SuppressWarnings("unchecked")
     @Test
     public void testFilterByMask() {
-        ArrayList<Boolean> mask = selection.createBooleanMask(df, "Age", ">", 30);
+        RowMask mask = selection.createBooleanMask(df, "Age", ">", 30);
         DataFrame filtered = selection.filterByMask(df, mask);
         
         assertEquals(2, filtered.getRowCount());
@@ -354,7 +355,7 @@ public class SelectionTest {
         testColumn.add(40);
         df.addColumn(testColumn);
 
-        ArrayList<Boolean> mask = selection.createBooleanMask(df, "Test", ">", 20);
+        RowMask mask = selection.createBooleanMask(df, "Test", ">", 20);
         assertEquals(4, mask.size());
         assertEquals(false, mask.get(0)); // 10 > 20
         assertEquals(false, mask.get(1)); // null > 20
@@ -400,4 +401,271 @@ public class SelectionTest {
     public void testEvalWithInvalidOperator() {
         selection.eval(df, "Age % 2"); // Opérateur non supporté
     }
-}
\ No newline at end of file
+
+    /**
+     * Teste les priorités des opérateurs, les parenthèses et l'absence d'espaces
+     */
+    @Test
+    public void testEvalPrecedenceAndParentheses() {
+        DataColumn<?> result = selection.eval(df, "Age+2*3");
+        assertEquals(31.0, result.getDouble(0), 0.0);
+        result = selection.eval(df, "(Age + 2) * 3");
+        assertEquals(81.0, result.getDouble(0), 0.0);
+        result = selection.eval(df, "100 - Age - 5");
+        assertEquals("La soustraction est associative à gauche", 70.0, result.getDouble(0), 0.0);
+        result = selection.eval(df, "-Age / -5");
+        assertEquals(5.0, result.getDouble(0), 0.0);
+        result = selection.eval(df, "2 * Age - 1e1");
+        assertEquals(40.0, result.getDouble(0), 0.0);
+    }
+
+    /**
+     * Teste les fonctions et une expression sur plusieurs colonnes
+     */
+    @Test
+    public void testEvalFunctionsAndSeveralColumns() {
+        DataColumn<Double> score = new DataColumn<>("Score", Double.class);
+        score.add(-4.0);
+        score.add(9.0);
+        score.add(null);
+        score.add(16.0);
+        df.addColumn(score);
+
+        DataColumn<?> result = selection.eval(df, "sqrt(abs(Score)) + max(Age, 32, Score) - min(Age, 0) * log(1)");
+        assertEquals(2.0 + 32.0, result.getDouble(0), 1e-12);
+        assertEquals(3.0 + 32.0, result.getDouble(1), 1e-12);
+        assertNull("Une colonne nulle rend le résultat nul", result.get(2));
+        assertEquals(4.0 + 40.0, result.getDouble(3), 1e-12);
+        assertEquals(Double.class, result.getDataType());
+    }
+
+    /**
+     * Teste une expression longue sur plus d'un bloc de lignes, comparée à un calcul ligne par ligne
+     */
+    @Test
+    public void testEvalAcrossBatches() {
+        DataFrame large = new DataFrame();
+        int rows = Expression.BATCH_SIZE * 2 + 17;
+        DataColumn<Long> a = new DataColumn<>("a", Long.class);
+        DataColumn<Double> b = new DataColumn<>("b", Double.class);
+        for (int i = 0; i < rows; i++) {
+            a.add(i % 11 == 0 ? null : (long) i);
+            b.add((double) (i % 7));
+        }
+        large.addColumn(a);
+        large.addColumn(b);
+
+        DataColumn<?> result = selection.eval(large, "a * 2 + b / (b - 3) - abs(a - 500) + a * b");
+        assertEquals(rows, result.size());
+        for (int i = 0; i < rows; i++) {
+            double bi = i % 7;
+            if (i % 11 == 0 || bi == 3) {
+                assertNull("Ligne " + i, result.get(i));
+            } else {
+                assertEquals("Ligne " + i, i * 2 + bi / (bi - 3) - Math.abs(i - 500) + i * bi, result.getDouble(i), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Teste une expression constante et une division constante par zéro
+     */
+    @Test
+    public void testEvalConstantExpression() {
+        DataColumn<?> result = selection.eval(df, "(1 + 2) * 4");
+        assertEquals(4, result.size());
+        assertEquals(12.0, result.getDouble(3), 0.0);
+        assertNull(selection.eval(df, "1 / 0").get(0));
+    }
+
+    /**
+     * Teste les erreurs de syntaxe de l'expression
+     */
+    @Test
+    public void testEvalSyntaxErrors() {
+        for (String expression : new String[] {"Age +", "(Age + 2", "Age 2", "pow(Age, 2)", "sqrt(Age, 2)", "max(Age)", "`Age", ""}) {
+            try {
+                selection.eval(df, expression);
+                fail("Une exception était attendue pour : " + expression);
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Teste une colonne dont le nom contient un espace
+     */
+    @Test
+    public void testEvalQuotedColumnName() {
+        DataColumn<Integer> column = new DataColumn<>("Nombre enfants", Integer.class);
+        column.add(1);
+        column.add(2);
+        column.add(3);
+        column.add(4);
+        df.addColumn(column);
+        assertEquals(27.0, selection.eval(df, "Age + `Nombre enfants` * 2").getDouble(0), 0.0);
+    }
+
+    /**
+     * Teste un filtre à plusieurs conditions combinées
+     */
+    @Test
+    public void testFilterByCombinedMasks() {
+        RowMask older = selection.createBooleanMask(df, "Age", ">", 25);
+        RowMask younger = selection.createBooleanMask(df, "Age", "<", 40);
+        RowMask bob = selection.createBooleanMask(df, "Nom", "==", "Bob");
+
+        DataFrame filtered = selection.filterByMask(df, older.and(younger).andNot(bob));
+        assertEquals(1, filtered.getRowCount());
+        assertEquals("Charlie", filtered.getColumn("Nom").get(0));
+        assertEquals(35, filtered.getColumn("Age").getInt(0));
+        assertEquals(3, older.or(bob).cardinality());
+    }
+
+    /**
+     * Teste le filtre sur des colonnes Long et Double contenant des valeurs nulles
+     */
+    @Test
+    public void testFilterPrimitiveColumnsWithNull() {
+        DataFrame numbers = new DataFrame();
+        DataColumn<Long> ids = new DataColumn<>("id", Long.class);
+        DataColumn<Double> amounts = new DataColumn<>("montant", Double.class);
+        for (int i = 0; i < 150; i++) {
+            ids.add(i % 10 == 0 ? null : (long) i);
+            amounts.add(i % 3 == 0 ? null : i / 2.0);
+        }
+        numbers.addColumn(ids);
+        numbers.addColumn(amounts);
+
+        RowMask mask = selection.createBooleanMask(numbers, "id", ">=", 100L)
+                .andNot(selection.createBooleanMask(numbers, "montant", "!=", 56.5))
+                .andNot(selection.createBooleanMask(numbers, "montant", "==", 0.0).or(
+                        selection.createBooleanMask(numbers, "montant", "!=", 0.0)).not());
+        DataFrame filtered = selection.filterByMask(numbers, mask);
+        assertEquals(1, filtered.getRowCount());
+        assertEquals(113L, filtered.getColumn("id").getLong(0));
+
+        DataFrame withNulls = selection.filterByMask(numbers, selection.createBooleanMask(numbers, "id", ">", 140L));
+        assertEquals(9, withNulls.getRowCount());
+        assertTrue("Les valeurs nulles des autres colonnes sont conservées", withNulls.getColumn("montant").isNull(3));
+    }
+
+    /**
+     * Teste le masque et le filtre sur une colonne texte encodée par dictionnaire
+     */
+    @Test
+    public void testFilterDictionaryColumn() {
+        DictionaryColumnStorage storage = new DictionaryColumnStorage();
+        String[] statuts = {"actif", "inactif", null, "actif", "suspendu", "actif"};
+        for (String statut : statuts) {
+            storage.add(statut);
+        }
+        DataColumn<String> statut = new DataColumn<>("statut", String.class, storage);
+        DataColumn<Integer> ids = new DataColumn<>("id", Integer.class);
+        for (int i = 0; i < statuts.length; i++) {
+            ids.add(i);
+        }
+        DataFrame comptes = new DataFrame();
+        comptes.addColumn(ids);
+        comptes.addColumn(statut);
+
+        RowMask actifs = selection.createBooleanMask(comptes, "statut", "==", "actif");
+        assertEquals(3, actifs.cardinality());
+        assertEquals(2, selection.createBooleanMask(comptes, "statut", "!=", "actif").cardinality());
+        assertEquals(0, selection.createBooleanMask(comptes, "statut", "==", "inconnu").cardinality());
+        assertEquals(2, selection.createBooleanMask(comptes, "statut", ">", "b").cardinality());
+
+        DataFrame filtered = selection.filterByMask(comptes, actifs.not());
+        assertEquals(3, filtered.getRowCount());
+        assertEquals("inactif", filtered.getColumn("statut").get(0));
+        assertNull(filtered.getColumn("statut").get(1));
+        assertEquals(4, filtered.getColumn("id").getInt(2));
+    }
+
+    /**
+     * Teste qu'un filtre partage le dictionnaire de la colonne source, et que l'ajout d'une nouvelle valeur
+     * d'un côté ne modifie pas l'autre
+     */
+    @Test
+    public void testFilterSharesDictionary() {
+        DictionaryColumnStorage storage = new DictionaryColumnStorage();
+        for (int i = 0; i < 5000; i++) {
+            storage.add("code" + i % 1000);
+        }
+        DataColumn<String> codes = new DataColumn<>("code", String.class, storage);
+        DataFrame df = new DataFrame();
+        df.addColumn(codes);
+
+        DataFrame filtered = selection.filterByMask(df, selection.createBooleanMask(df, "code", "==", "code7"));
+        DictionaryColumnStorage filteredStorage = (DictionaryColumnStorage) filtered.getColumn("code").getStorage();
+        assertEquals(5, filtered.getRowCount());
+        assertEquals(1000, filteredStorage.dictionarySize());
+
+        filteredStorage.add("code3");
+        filteredStorage.add("nouveau");
+        assertEquals(1001, filteredStorage.dictionarySize());
+        assertEquals(1000, storage.dictionarySize());
+        assertEquals(-1, storage.codeOf("nouveau"));
+        storage.add("autre");
+        assertEquals(-1, filteredStorage.codeOf("autre"));
+        assertEquals("nouveau", filteredStorage.get(6));
+        assertEquals("code3", filteredStorage.get(5));
+        assertEquals("autre", storage.get(5000));
+        assertEquals("code7", storage.get(7));
+    }
+
+    /**
+     * Teste que les masques obtenus par les index sont identiques à ceux du parcours complet,
+     * y compris après des ajouts (testés un à un puis reconstruction de l'index trié)
+     */
+    @Test
+    public void testIndexedMasksMatchScan() {
+        Random random = new Random(15);
+        DataColumn<Integer> codes = new DataColumn<>("code", Integer.class);
+        DataColumn<Double> prix = new DataColumn<>("prix", Double.class);
+        DataColumn<String> categories = new DataColumn<>("categorie", String.class);
+        DataFrame indexedDf = new DataFrame();
+        indexedDf.addColumn(codes);
+        indexedDf.addColumn(prix);
+        indexedDf.addColumn(categories);
+        String[] operators = {">", "<", ">=", "<=", "==", "!="};
+
+        for (int round = 0; round < 3; round++) {
+            int rows = round == 1 ? 10 : 3000;
+            for (int i = 0; i < rows; i++) {
+                codes.add(random.nextInt(20) == 0 ? null : random.nextInt(50));
+                prix.add(random.nextInt(20) == 0 ? null : random.nextInt(400) / 4.0);
+                categories.add(random.nextInt(20) == 0 ? null : "cat" + random.nextInt(30));
+            }
+            DataFrame scanned = new DataFrame();
+            scanned.addColumn(codes.slice(0, codes.size()));
+            scanned.addColumn(prix.slice(0, prix.size()));
+            scanned.addColumn(categories.slice(0, categories.size()));
+            if (round == 0) {
+                codes.createHashIndex();
+                codes.createSortedIndex();
+                prix.createSortedIndex();
+                categories.createHashIndex();
+                categories.createSortedIndex();
+            }
+
+            for (String operator : operators) {
+                for (Object[] test : new Object[][] {{"code", 17}, {"code", 75}, {"prix", 50.25}, {"categorie", "cat12"}, {"categorie", "zzz"}}) {
+                    String column = (String) test[0];
+                    assertEquals(column + " " + operator + " " + test[1],
+                            selection.createBooleanMask(scanned, column, operator, test[1]),
+                            selection.createBooleanMask(indexedDf, column, operator, test[1]));
+                }
+            }
+            assertEquals(selection.createRangeMask(scanned, "prix", 10.0, 20.5),
+                    selection.createRangeMask(indexedDf, "prix", 10.0, 20.5));
+            assertEquals(0, selection.createRangeMask(indexedDf, "code", 30, 10).cardinality());
+        }
+        assertTrue(codes.hasHashIndex());
+        assertFalse("Une vue ne reprend pas les index de sa colonne", codes.slice(0, 10).hasSortedIndex());
+        codes.dropIndexes();
+        assertFalse(codes.hasHashIndex());
+        assertFalse(codes.hasSortedIndex());
+    }
+}